@@ -0,0 +1,18 @@
+#!/usr/bin/env bash
+# Prints per-operation latency percentiles, the slowest product operations and error responses from a
+# recording downloaded from /actuator/jfr/{id}, using the classes in the packaged jar.
+#
+#   (the endpoint needs --management.server.port=8081 --management.endpoints.web.exposure.include=health,metrics,jfr)
+#   curl -X POST -H 'Content-Type: application/json' -d '{"duration":"60s"}' localhost:8081/actuator/jfr
+#   curl -o products.jfr localhost:8081/actuator/jfr/<id>
+#   scripts/jfr-summary.sh products.jfr [top]
+set -euo pipefail
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAR=$(ls "$ROOT"/target/dorotech-*.jar | grep -v plain | head -1)
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+[[ $# -ge 1 ]] || { echo "usage: $0 <file.jfr> [top]" >&2; exit 2; }
+
+"$JAVA" -cp "$JAR" -Dloader.main=dorotech.profiling.JfrSummary \
+  org.springframework.boot.loader.launch.PropertiesLauncher "$@"
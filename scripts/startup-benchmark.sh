@@ -0,0 +1,37 @@
+#!/usr/bin/env bash
+# Measures time from JVM launch to a refreshed application context for the jar produced by
+# `mvn -Pstartup package`, with and without AOT, CDS and lazy documentation beans.
+# The context is refreshed with the training profile, so no database is needed.
+#
+#   scripts/startup-benchmark.sh [runs]
+set -euo pipefail
+
+RUNS=${1:-5}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAR=$(ls "$ROOT"/target/extracted/*.jar)
+JSA="$ROOT/target/extracted/application.jsa"
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+COMMON=(-Dspring.context.exit=onRefresh -Dspring.profiles.active=training -Dlogging.level.root=WARN)
+
+[[ -f "$JSA" ]] || { echo "Run 'mvn -Pstartup package' first" >&2; exit 1; }
+
+measure() {
+  local label=$1; shift
+  local times=()
+  for ((i = 0; i < RUNS; i++)); do
+    local start end
+    start=$(date +%s%N)
+    "$JAVA" "$@" "${COMMON[@]}" -jar "$JAR" > /dev/null 2>&1
+    end=$(date +%s%N)
+    times+=($(((end - start) / 1000000)))
+  done
+  local median
+  median=$(printf '%s\n' "${times[@]}" | sort -n | sed -n "$(((RUNS + 1) / 2))p")
+  printf '%-28s median %5d ms   runs: %s\n' "$label" "$median" "${times[*]}"
+}
+
+measure "baseline (eager docs)" -Dproducts.startup.lazy-beans=
+measure "lazy docs"
+measure "lazy docs + CDS" -XX:SharedArchiveFile="$JSA"
+measure "lazy docs + AOT" -Dspring.aot.enabled=true
+measure "lazy docs + AOT + CDS" -XX:SharedArchiveFile="$JSA" -Dspring.aot.enabled=true
@@ -0,0 +1,130 @@
+package dorotech.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dorotech.dto.ProductResponse;
+import dorotech.filter.ResponseCompressionFilter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the CPU cost of {@link ResponseCompressionFilter} against the bytes it saves for
+ * {@code GET /products} sized payloads. {@code identity} is the uncompressed baseline; the
+ * {@code bytesPerOp} secondary result reports the encoded body size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CompressionBenchmark {
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Bytes {
+        public long written;
+        public long operations;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            written = 0;
+            operations = 0;
+        }
+
+        public double bytesPerOp() {
+            return operations == 0 ? 0 : (double) written / operations;
+        }
+    }
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Param({"identity", "gzip", "deflate"})
+    public String encoding;
+
+    @Param({"1", "6", "9"})
+    public int level;
+
+    private ResponseCompressionFilter filter;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        filter = new ResponseCompressionFilter(DataSize.ofKilobytes(2), List.of("gzip", "deflate"), level, level,
+                List.of("application/json"), DataSize.ofKilobytes(8), 8);
+        List<ProductResponse> products = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            products.add(new ProductResponse(i, "Product " + i, "Description of product " + i, 1_000 + i * 37, i));
+        }
+        json = new ObjectMapper().writerFor(new TypeReference<List<ProductResponse>>() { }).writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public long compress(Bytes bytes) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products");
+        request.addHeader("Accept-Encoding", encoding);
+        CountingResponse response = new CountingResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType("application/json");
+                resp.getOutputStream().write(json);
+            }
+        }));
+        bytes.written += response.out.count;
+        bytes.operations++;
+        return response.out.count;
+    }
+
+    /**
+     * Counts body bytes instead of copying them; {@code MockHttpServletResponse} writes its body
+     * byte by byte, which would dominate the measurement.
+     */
+    private static class CountingResponse extends HttpServletResponseWrapper {
+        private final CountingOutputStream out = new CountingOutputStream();
+
+        CountingResponse() {
+            super(new MockHttpServletResponse());
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return out;
+        }
+    }
+
+    private static class CountingOutputStream extends ServletOutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package dorotech.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Connector/J defaults with the driver settings from {@code application.yaml}
+ * (server-side prepared statement cache, {@code rewriteBatchedStatements}) on a batched upsert and on
+ * repeated point lookups. Needs a scratch MySQL database, e.g.
+ * {@code -Djmh.args="JdbcDriverSettingsBenchmark -p url=jdbc:mysql://localhost:3307/doro_bench -p user=admin -p password=123"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JdbcDriverSettingsBenchmark {
+    private static final String UPSERT_SQL = """
+            INSERT INTO bench_products (name, description, price, amount) VALUES (?, ?, ?, ?) AS incoming
+            ON DUPLICATE KEY UPDATE description = incoming.description, price = incoming.price, amount = incoming.amount
+            """;
+
+    @Param("jdbc:mysql://localhost:3307/doro_tech")
+    public String url;
+
+    @Param("admin")
+    public String user;
+
+    @Param("123")
+    public String password;
+
+    @Param({"defaults", "tuned"})
+    public String settings;
+
+    @Param({"1000"})
+    public int batchSize;
+
+    private HikariDataSource dataSource;
+    private long sequence;
+
+    @Setup
+    public void setUp() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername(user);
+        config.setPassword(password);
+        config.setMaximumPoolSize(4);
+        if ("tuned".equals(settings)) {
+            config.addDataSourceProperty("useServerPrepStmts", "true");
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", "250");
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+            config.addDataSourceProperty("rewriteBatchedStatements", "true");
+            config.addDataSourceProperty("cacheResultSetMetadata", "true");
+            config.addDataSourceProperty("cacheServerConfiguration", "true");
+            config.addDataSourceProperty("elideSetAutoCommits", "true");
+            config.addDataSourceProperty("maintainTimeStats", "false");
+        }
+        dataSource = new HikariDataSource(config);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_products");
+            statement.execute("""
+                    CREATE TABLE bench_products (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(100) NOT NULL UNIQUE,
+                    description VARCHAR(255), price DECIMAL(8,2) NOT NULL, amount BIGINT NOT NULL)
+                    """);
+        }
+        upsertBatch();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_products");
+        }
+        dataSource.close();
+    }
+
+    @Benchmark
+    public void upsertBatch() throws Exception {
+        long round = sequence++;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement(UPSERT_SQL)) {
+                for (int i = 0; i < batchSize; i++) {
+                    ps.setString(1, "Product " + i);
+                    ps.setString(2, "Description " + round);
+                    ps.setBigDecimal(3, BigDecimal.valueOf(1_000 + i, 2));
+                    ps.setLong(4, round);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            connection.commit();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public long pointLookups() throws Exception {
+        long sum = 0;
+        for (int i = 0; i < 100; i++) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement ps = connection.prepareStatement("SELECT amount FROM bench_products WHERE id = ?")) {
+                ps.setLong(1, 1 + (i * 7L) % batchSize);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) sum += rs.getLong(1);
+                }
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,35 @@
+package dorotech.benchmark;
+
+import dorotech.profiling.ProductOperationEvent;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@link ProductOperationEvent} instrumentation around a trivial operation while no recording is
+ * running. Add {@code -prof gc} to check that the disabled event is not allocated.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductEventOverheadBenchmark {
+    private long value;
+
+    @Benchmark
+    public long baseline() {
+        Blackhole.consumeCPU(10);
+        return value++;
+    }
+
+    @Benchmark
+    public long instrumented() {
+        ProductOperationEvent operation = ProductOperationEvent.start("findById");
+        long result = operation.db(() -> {
+            Blackhole.consumeCPU(10);
+            return value++;
+        });
+        operation.finish(result, 1);
+        return result;
+    }
+}
@@ -0,0 +1,59 @@
+package dorotech.benchmark;
+
+import dorotech.dto.ProductFacetResponse;
+import dorotech.service.ProductFacetIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Facet counts plus one page of ids from a {@link ProductFacetIndex} over {@code products} generated rows, with
+ * no filter, a single stock value, and stock AND two price buckets; each one is a full table scan per count
+ * when done in SQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductFacetBenchmark {
+
+    @Param({"1000000"})
+    public int products;
+
+    @Param({"none", "stock", "stock-and-price"})
+    public String filter;
+
+    @Param({"0", "100"})
+    public int limit;
+
+    private ProductFacetIndex index;
+    private List<String> stock;
+    private List<String> price;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        index = new ProductFacetIndex((afterId, handler) -> {
+            try {
+                for (int i = 1; i <= products; i++) {
+                    handler.accept(i, "Product " + i, "", 100 + random.nextLong(100_000), random.nextInt(10) == 0 ? 0 : 5);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return products;
+        }, List.of(new BigDecimal("10"), new BigDecimal("50"), new BigDecimal("100"), new BigDecimal("500")));
+        index.reload();
+        stock = filter.equals("none") ? List.of() : List.of("out");
+        price = filter.equals("stock-and-price") ? List.of("10-50", "100-500") : List.of();
+    }
+
+    @Benchmark
+    public ProductFacetResponse facets() {
+        return index.query(stock, price, null, limit);
+    }
+}
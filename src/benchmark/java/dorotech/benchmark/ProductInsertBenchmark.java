@@ -0,0 +1,121 @@
+package dorotech.benchmark;
+
+import dorotech.repository.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts {@code rows} products the way Hibernate does with IDENTITY keys (one statement and one
+ * generated-key read per row) and with application-generated snowflake ids (JDBC batches of
+ * {@code batchSize}). Defaults to an in-memory H2 database, which has no network round trip and so
+ * understates the gap; point {@code url}/{@code user}/{@code password} at a scratch MySQL database for
+ * realistic numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProductInsertBenchmark {
+    private static final String IDENTITY_SQL = "INSERT INTO bench_products (name, description, price, amount) VALUES (?, ?, ?, ?)";
+    private static final String SNOWFLAKE_SQL = "INSERT INTO bench_products (id, name, description, price, amount) VALUES (?, ?, ?, ?, ?)";
+
+    @Param("jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1")
+    public String url;
+
+    @Param("sa")
+    public String user;
+
+    @Param("")
+    public String password;
+
+    @Param({"1000"})
+    public int rows;
+
+    @Param({"50"})
+    public int batchSize;
+
+    private Connection connection;
+    private SnowflakeIdGenerator idGenerator;
+    private long round;
+
+    @Setup
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection(url, user, password);
+        idGenerator = new SnowflakeIdGenerator(1);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_products");
+            statement.execute("""
+                    CREATE TABLE bench_products (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(100) NOT NULL UNIQUE,
+                    description TEXT NOT NULL, price DECIMAL(8,2) NOT NULL, amount BIGINT NOT NULL)
+                    """);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_products");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public long identityPerRow() throws Exception {
+        long round = this.round++;
+        long lastId = 0;
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(IDENTITY_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < rows; i++) {
+                bind(ps, 1, round, i);
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        return lastId;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public long snowflakeBatched() throws Exception {
+        long round = this.round++;
+        long lastId = 0;
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(SNOWFLAKE_SQL)) {
+            for (int i = 0; i < rows; i++) {
+                lastId = idGenerator.nextId();
+                ps.setLong(1, lastId);
+                bind(ps, 2, round, i);
+                ps.addBatch();
+                if ((i + 1) % batchSize == 0) ps.executeBatch();
+            }
+            ps.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        return lastId;
+    }
+
+    @Benchmark
+    public long generateId() {
+        return idGenerator.nextId();
+    }
+
+    private static void bind(PreparedStatement ps, int first, long round, int i) throws Exception {
+        ps.setString(first, "Product " + round + "-" + i);
+        ps.setString(first + 1, "Description " + i);
+        ps.setBigDecimal(first + 2, BigDecimal.valueOf(1_000 + i, 2));
+        ps.setLong(first + 3, i);
+    }
+}
@@ -0,0 +1,103 @@
+package dorotech.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import dorotech.dto.ProductResponse;
+import dorotech.dto.json.MoneySerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hand-written {@code ProductResponse} serializer with Jackson's reflective bean
+ * serializer (double and cents variants) and with the Smile binary encoding.
+ * Add {@code -prof gc} to the JMH arguments for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProductSerializationBenchmark {
+
+    public record DoubleProductResponse(Long id, String name, String description, Double price, Long amount) {
+    }
+
+    public record ReflectiveProductResponse(Long id, String name, String description,
+                                            @JsonProperty("price") @JsonSerialize(using = MoneySerializer.class) Long priceCents,
+                                            Long amount) {
+    }
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ObjectWriter handTunedWriter;
+    private ObjectWriter reflectiveWriter;
+    private ObjectWriter doubleWriter;
+    private ObjectWriter smileWriter;
+    private ObjectReader centsReader;
+    private ObjectReader doubleReader;
+    private List<ProductResponse> products;
+    private List<ReflectiveProductResponse> reflectiveProducts;
+    private List<DoubleProductResponse> doubleProducts;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        handTunedWriter = mapper.writerFor(new TypeReference<List<ProductResponse>>() { });
+        reflectiveWriter = mapper.writerFor(new TypeReference<List<ReflectiveProductResponse>>() { });
+        doubleWriter = mapper.writerFor(new TypeReference<List<DoubleProductResponse>>() { });
+        smileWriter = new SmileMapper().writerFor(new TypeReference<List<ProductResponse>>() { });
+        centsReader = mapper.readerFor(new TypeReference<List<ProductResponse>>() { });
+        doubleReader = mapper.readerFor(new TypeReference<List<DoubleProductResponse>>() { });
+        products = new ArrayList<>(size);
+        reflectiveProducts = new ArrayList<>(size);
+        doubleProducts = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            long cents = 1_000 + i * 37;
+            String name = "Product " + i;
+            String description = "Description of product " + i;
+            products.add(new ProductResponse(i, name, description, cents, i));
+            reflectiveProducts.add(new ReflectiveProductResponse(i, name, description, cents, i));
+            doubleProducts.add(new DoubleProductResponse(i, name, description, cents / 100d, i));
+        }
+        json = handTunedWriter.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public void writeHandTuned() throws Exception {
+        handTunedWriter.writeValue(OutputStream.nullOutputStream(), products);
+    }
+
+    @Benchmark
+    public void writeReflectiveCents() throws Exception {
+        reflectiveWriter.writeValue(OutputStream.nullOutputStream(), reflectiveProducts);
+    }
+
+    @Benchmark
+    public void writeReflectiveDouble() throws Exception {
+        doubleWriter.writeValue(OutputStream.nullOutputStream(), doubleProducts);
+    }
+
+    @Benchmark
+    public void writeSmile() throws Exception {
+        smileWriter.writeValue(OutputStream.nullOutputStream(), products);
+    }
+
+    @Benchmark
+    public Object readCents() throws Exception {
+        return centsReader.readValue(json);
+    }
+
+    @Benchmark
+    public Object readDouble() throws Exception {
+        return doubleReader.readValue(json);
+    }
+}
@@ -0,0 +1,61 @@
+package dorotech.benchmark;
+
+import dorotech.dto.ProductSuggestion;
+import dorotech.service.ProductNameSuggester;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prefix lookups against a {@link ProductNameSuggester} loaded with {@code names} generated product names,
+ * for one- to four-character prefixes typed into a search box. Add {@code -prof gc} for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductSuggestBenchmark {
+    private static final String[] WORDS = {"iphone", "ipad", "notebook", "monitor", "mouse", "keyboard", "cable",
+            "charger", "headset", "speaker", "camera", "tablet", "router", "printer", "watch", "console"};
+
+    @Param({"1000000"})
+    public int names;
+
+    @Param({"1", "2", "4"})
+    public int prefixLength;
+
+    private ProductNameSuggester suggester;
+    private String[] prefixes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] generated = new String[names];
+        for (int i = 0; i < names; i++) {
+            generated[i] = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+        }
+        suggester = new ProductNameSuggester((afterId, handler) -> {
+            try {
+                for (int i = 0; i < names; i++) handler.accept(i + 1, generated[i], "", 100, random.nextLong(1_000));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return names;
+        }, 10);
+        suggester.reload();
+        prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            String name = generated[random.nextInt(names)];
+            prefixes[i] = name.substring(0, Math.min(prefixLength, name.length()));
+        }
+    }
+
+    @Benchmark
+    public List<ProductSuggestion> suggest() {
+        return suggester.suggest(prefixes[next++ & (prefixes.length - 1)], 10);
+    }
+}
@@ -0,0 +1,92 @@
+package dorotech.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import dorotech.dto.ProductFields;
+import dorotech.dto.ProductResponse;
+import dorotech.dto.ProductView;
+import dorotech.repository.JdbcProductProjectionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lists {@code rows} products through {@link JdbcProductProjectionRepository} and serializes them, once with
+ * every field and once with {@code ?fields=id,price,amount}, over products carrying a
+ * {@code descriptionLength}-character description. Defaults to an in-memory H2 database; point
+ * {@code url}/{@code user}/{@code password} at a scratch MySQL database to include the network bytes saved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SparseFieldsBenchmark {
+
+    @Param("jdbc:h2:mem:sparse;MODE=MySQL;DB_CLOSE_DELAY=-1")
+    public String url;
+
+    @Param("sa")
+    public String user;
+
+    @Param("")
+    public String password;
+
+    @Param({"1000"})
+    public int rows;
+
+    @Param({"2000"})
+    public int descriptionLength;
+
+    @Param({"id,name,description,price,amount", "id,price,amount"})
+    public String fields;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcProductProjectionRepository repository;
+    private ProductFields productFields;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource(url, user, password, true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS products");
+        jdbcTemplate.execute("""
+                CREATE TABLE products (id BIGINT PRIMARY KEY, name VARCHAR(100) NOT NULL UNIQUE,
+                description TEXT NOT NULL, price DECIMAL(8,2) NOT NULL, amount BIGINT NOT NULL)
+                """);
+        String description = "x".repeat(descriptionLength);
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, description, price, amount) VALUES (?, ?, ?, ?, ?)",
+                LongStream.rangeClosed(1, rows)
+                        .mapToObj(id -> new Object[]{id, "Product " + id, description, BigDecimal.valueOf(1_000 + id, 2), id})
+                        .toList());
+        repository = new JdbcProductProjectionRepository(new NamedParameterJdbcTemplate(dataSource));
+        productFields = ProductFields.valueOf(fields);
+        writer = new ObjectMapper().writerFor(new TypeReference<List<ProductView>>() { });
+    }
+
+    @TearDown
+    public void tearDown() {
+        new JdbcTemplate(dataSource).execute("DROP TABLE IF EXISTS products");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<ProductResponse> query() {
+        return repository.findAll(productFields);
+    }
+
+    @Benchmark
+    public void queryAndSerialize() throws Exception {
+        List<ProductView> views = repository.findAll(productFields).stream()
+                .map(product -> new ProductView(product, productFields))
+                .toList();
+        writer.writeValue(OutputStream.nullOutputStream(), views);
+    }
+}
@@ -0,0 +1,118 @@
+package dorotech.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Point reads against a pool of {@code poolSize} connections while {@code bulkThreads} background threads
+ * run slow bulk scans that hold their connection for {@code bulkHoldMillis}. {@code none} runs without
+ * bulk traffic, {@code shared} lets both compete for the plain pool and {@code isolated} puts the pool
+ * behind a {@link ConnectionBudget} with reserved point-read connections and capped bulk connections.
+ * Sample-time mode reports the point-read p99 for each scenario.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class BulkheadLoadBenchmark {
+
+    @Param({"none", "shared", "isolated"})
+    public String scenario;
+
+    @Param({"8"})
+    public int poolSize;
+
+    @Param({"16"})
+    public int bulkThreads;
+
+    @Param({"5"})
+    public long bulkHoldMillis;
+
+    @Param({"10000"})
+    public int rows;
+
+    private HikariDataSource pool;
+    private DataSource dataSource;
+    private final List<Thread> bulk = new ArrayList<>();
+    private volatile boolean running;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:bulkhead;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(poolSize);
+        pool.setMinimumIdle(poolSize);
+        pool.setConnectionTimeout(30_000);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(pool);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS products");
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, name VARCHAR(100) NOT NULL, amount BIGINT NOT NULL)");
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, amount) VALUES (?, ?, ?)",
+                LongStream.rangeClosed(1, rows).mapToObj(id -> new Object[]{id, "Product " + id, id}).toList());
+        int unlimited = Integer.MAX_VALUE;
+        dataSource = scenario.equals("isolated")
+                ? new BudgetedDataSource(pool, new ConnectionBudget(new int[]{2, 0, 1, 0},
+                        new int[]{unlimited, unlimited, unlimited, poolSize / 2}, new int[]{3, 1, 2, 0}, pool::getMaximumPoolSize),
+                        TimeUnit.SECONDS.toNanos(30))
+                : pool;
+        running = true;
+        if (!scenario.equals("none")) {
+            for (int i = 0; i < bulkThreads; i++) {
+                Thread thread = new Thread(WorkloadClass.BULK.wrap(this::bulkLoop), "bulk-" + i);
+                thread.setDaemon(true);
+                thread.start();
+                bulk.add(thread);
+            }
+            Thread.sleep(200);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        running = false;
+        for (Thread thread : bulk) thread.join();
+        bulk.clear();
+        pool.close();
+    }
+
+    @Benchmark
+    public long pointRead() throws SQLException {
+        WorkloadClass previous = WorkloadClass.POINT_READ.bind();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT amount FROM products WHERE id = ?")) {
+            statement.setLong(1, ThreadLocalRandom.current().nextLong(1, rows + 1));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : -1;
+            }
+        } finally {
+            WorkloadClass.restore(previous);
+        }
+    }
+
+    private void bulkLoop() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT SUM(amount) FROM products");
+                 ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                Thread.sleep(bulkHoldMillis);
+            } catch (SQLException ex) {
+                if (running) throw new IllegalStateException(ex);
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+}
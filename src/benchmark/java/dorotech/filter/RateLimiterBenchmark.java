@@ -0,0 +1,50 @@
+package dorotech.filter;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot-path cost of the limiter decisions made by {@link RateLimitFilter}: a token bucket acquire for one
+ * contended client and for many distinct clients, and an acquire/release pair on the adaptive
+ * concurrency limit. Run with {@code -t 8} to see contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimiterBenchmark {
+    private static final int CLIENTS = 10_000;
+
+    private TokenBucketLimiter tokenBuckets;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private String[] clients;
+
+    @Setup
+    public void setUp() {
+        tokenBuckets = new TokenBucketLimiter(1_000_000_000, 1_000_000, CLIENTS * 2);
+        concurrencyLimiter = new AdaptiveConcurrencyLimiter(1_000, 8, 10_000, 1.5, 0.2, 100_000_000L, 20, System.nanoTime());
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long tokenBucketSingleClient() {
+        return tokenBuckets.tryAcquire(clients[0], 1, System.nanoTime());
+    }
+
+    @Benchmark
+    public long tokenBucketManyClients() {
+        return tokenBuckets.tryAcquire(clients[ThreadLocalRandom.current().nextInt(CLIENTS)], 1, System.nanoTime());
+    }
+
+    @Benchmark
+    public boolean concurrencyAcquireRelease() {
+        long start = System.nanoTime();
+        boolean admitted = concurrencyLimiter.tryAcquire();
+        if (admitted) concurrencyLimiter.release(System.nanoTime() - start, System.nanoTime());
+        return admitted;
+    }
+}
@@ -0,0 +1,89 @@
+package dorotech.warmstart;
+
+import dorotech.dto.ProductResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost of a warm-start snapshot of {@code products} rows. {@code open} maps the file and checks the
+ * header; {@code openAndServe} then answers {@code lookups} random ids straight from the mapping, as the
+ * first requests after a deploy would; {@code openAndCheck} runs the full version check against an
+ * in-process stand-in for the database, so it measures the file side of the check only. {@code write} is
+ * the periodic snapshot. The file sits in the page cache after the first iteration; drop caches between
+ * runs to see a cold disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WarmStartLoadBenchmark {
+
+    @Param({"1000000"})
+    public int products;
+
+    @Param({"10000"})
+    public int lookups;
+
+    private Path directory;
+    private Path snapshot;
+    private long[] ids;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("warm-start-benchmark");
+        snapshot = directory.resolve("products.snapshot");
+        writeSnapshot(snapshot);
+        SplittableRandom random = new SplittableRandom(42);
+        ids = new long[lookups];
+        for (int i = 0; i < lookups; i++) ids[i] = 1 + random.nextInt(products);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+        Files.deleteIfExists(directory.resolve("written.snapshot"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public int open() throws IOException {
+        return WarmStartFile.open(snapshot).size();
+    }
+
+    @Benchmark
+    public void openAndServe(Blackhole blackhole) throws IOException {
+        WarmStartFile file = WarmStartFile.open(snapshot);
+        for (long id : ids) {
+            ProductResponse product = file.read(file.indexOf(id));
+            blackhole.consume(product);
+        }
+    }
+
+    @Benchmark
+    public ProductResponse openAndCheck() {
+        ProductWarmStartCache cache = new ProductWarmStartCache((chunk, handler) -> chunk.forEach(id -> handler.accept(id, id)),
+                snapshot.toString(), Duration.ofMinutes(5), Duration.ofSeconds(30), products);
+        cache.validate();
+        return cache.find(ids[0]);
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        writeSnapshot(directory.resolve("written.snapshot"));
+    }
+
+    private void writeSnapshot(Path target) throws IOException {
+        try (WarmStartFile.Writer writer = WarmStartFile.create(target, products)) {
+            for (long id = 1; id <= products; id++) {
+                writer.append(id, id, "Product " + id, "Description of product " + id, 1_000 + id * 37, id % 500);
+            }
+            writer.commit();
+        }
+    }
+}
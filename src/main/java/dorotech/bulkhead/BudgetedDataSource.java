@@ -0,0 +1,110 @@
+package dorotech.bulkhead;
+
+import dorotech.deadline.Deadline;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Charges every connection taken by a classified thread to that class's {@link ConnectionBudget} before
+ * asking the pool for it, and returns the budget when the connection is closed. Threads without a
+ * {@link WorkloadClass} go straight to the pool.
+ */
+class BudgetedDataSource extends DelegatingDataSource {
+    private final ConnectionBudget budget;
+    private final long maxWaitNanos;
+
+    BudgetedDataSource(DataSource target, ConnectionBudget budget, long maxWaitNanos) {
+        super(target);
+        this.budget = budget;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        WorkloadClass workload = WorkloadClass.current();
+        if (workload == null) return obtainTargetDataSource().getConnection();
+        acquire(workload);
+        try {
+            return budgeted(obtainTargetDataSource().getConnection(), workload);
+        } catch (SQLException | RuntimeException ex) {
+            budget.release(workload);
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        WorkloadClass workload = WorkloadClass.current();
+        if (workload == null) return obtainTargetDataSource().getConnection(username, password);
+        acquire(workload);
+        try {
+            return budgeted(obtainTargetDataSource().getConnection(username, password), workload);
+        } catch (SQLException | RuntimeException ex) {
+            budget.release(workload);
+            throw ex;
+        }
+    }
+
+    private void acquire(WorkloadClass workload) throws SQLException {
+        boolean acquired;
+        try {
+            acquired = budget.acquire(workload, Deadline.remainingNanos(maxWaitNanos));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a " + workload.key() + " connection", ex);
+        }
+        if (!acquired) {
+            Deadline deadline = Deadline.current();
+            if (deadline != null && deadline.isExpired()) {
+                throw new SQLTimeoutException("Request deadline exceeded while waiting for a " + workload.key() + " connection");
+            }
+            throw new SQLTransientConnectionException("No " + workload.key() + " connection available within "
+                    + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + "ms");
+        }
+    }
+
+    private Connection budgeted(Connection connection, WorkloadClass workload) {
+        boolean[] closed = {false};
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            if (closed[0]) return null;
+                            closed[0] = true;
+                            try {
+                                connection.close();
+                            } finally {
+                                budget.release(workload);
+                            }
+                            return null;
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "unwrap" -> {
+                            if (((Class<?>) args[0]).isInstance(proxy)) return proxy;
+                        }
+                        case "isWrapperFor" -> {
+                            if (((Class<?>) args[0]).isInstance(proxy)) return true;
+                        }
+                        default -> { }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,64 @@
+package dorotech.bulkhead;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded slots for one workload class. A caller takes a free slot, or waits in a FIFO queue of at most
+ * {@code queueSize} callers for up to the queue timeout (shortened by its deadline); everything beyond that
+ * is rejected.
+ */
+final class Bulkhead {
+    private final int maxConcurrent;
+    private final int queueSize;
+    private final Semaphore slots;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    Bulkhead(int maxConcurrent, int queueSize) {
+        if (maxConcurrent <= 0) throw new IllegalArgumentException("max-concurrent must be positive");
+        if (queueSize < 0) throw new IllegalArgumentException("queue-size must not be negative");
+        this.maxConcurrent = maxConcurrent;
+        this.queueSize = queueSize;
+        this.slots = new Semaphore(maxConcurrent, true);
+    }
+
+    boolean tryEnter(long maxWaitNanos) throws InterruptedException {
+        // the timed form honours fairness, so new arrivals do not overtake queued callers
+        if (slots.tryAcquire(0, TimeUnit.NANOSECONDS)) return true;
+        if (queued.incrementAndGet() > queueSize) {
+            queued.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        try {
+            if (slots.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) return true;
+            rejected.increment();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    void exit() {
+        slots.release();
+    }
+
+    int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    int active() {
+        return maxConcurrent - slots.availablePermits();
+    }
+
+    int queued() {
+        return queued.get();
+    }
+
+    long rejected() {
+        return rejected.sum();
+    }
+}
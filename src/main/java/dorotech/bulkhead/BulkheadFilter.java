@@ -0,0 +1,129 @@
+package dorotech.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dorotech.deadline.Deadline;
+import dorotech.exceptions.response.ErrorResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * Splits {@code /products} traffic into {@link WorkloadClass workload classes}, each with its own bounded
+ * slots and wait queue, so a burst of exports or list scans cannot occupy the request threads that point
+ * reads need. Requests that find their class saturated are shed with 503, and requests whose deadline
+ * passes while queued with 504. The class stays bound to the request thread so that database connections
+ * are charged to its budget.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@RegisterReflectionForBinding(ErrorResponse.class)
+@ConditionalOnProperty(name = "products.bulkhead.enabled", havingValue = "true")
+public class BulkheadFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private final ObjectMapper objectMapper;
+    private final long queueTimeoutNanos;
+    private final Bulkhead[] bulkheads;
+
+    public BulkheadFilter(ObjectMapper objectMapper,
+                          @Value("${products.bulkhead.queue-timeout:200ms}") Duration queueTimeout,
+                          @Value("${products.bulkhead.point-read.max-concurrent:64}") int pointReadConcurrent,
+                          @Value("${products.bulkhead.point-read.queue-size:128}") int pointReadQueue,
+                          @Value("${products.bulkhead.list.max-concurrent:16}") int listConcurrent,
+                          @Value("${products.bulkhead.list.queue-size:32}") int listQueue,
+                          @Value("${products.bulkhead.write.max-concurrent:32}") int writeConcurrent,
+                          @Value("${products.bulkhead.write.queue-size:64}") int writeQueue,
+                          @Value("${products.bulkhead.bulk.max-concurrent:2}") int bulkConcurrent,
+                          @Value("${products.bulkhead.bulk.queue-size:4}") int bulkQueue) {
+        this.objectMapper = objectMapper;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.bulkheads = new Bulkhead[]{
+                new Bulkhead(pointReadConcurrent, pointReadQueue),
+                new Bulkhead(listConcurrent, listQueue),
+                new Bulkhead(writeConcurrent, writeQueue),
+                new Bulkhead(bulkConcurrent, bulkQueue)};
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !(path.equals("/products") || path.startsWith("/products/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        WorkloadClass workload = WorkloadClass.of(request);
+        Bulkhead bulkhead = bulkheads[workload.ordinal()];
+        boolean admitted;
+        try {
+            admitted = bulkhead.tryEnter(Deadline.remainingNanos(queueTimeoutNanos));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            if (admitted) bulkhead.exit();
+            reject(request, response, HttpStatus.GATEWAY_TIMEOUT, "Request deadline exceeded while queued");
+            return;
+        }
+        if (!admitted) {
+            reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, "Too many " + workload.key() + " requests in progress");
+            return;
+        }
+        WorkloadClass previous = workload.bind();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            WorkloadClass.restore(previous);
+            bulkhead.exit();
+        }
+    }
+
+    Bulkhead bulkhead(WorkloadClass workload) {
+        return bulkheads[workload.ordinal()];
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            Bulkhead bulkhead = bulkheads[workload.ordinal()];
+            Gauge.builder("products.bulkhead.active", bulkhead, Bulkhead::active)
+                    .tag("class", workload.key()).description("Requests running in the workload class").register(registry);
+            Gauge.builder("products.bulkhead.limit", bulkhead, Bulkhead::maxConcurrent)
+                    .tag("class", workload.key()).description("Concurrent requests allowed for the workload class").register(registry);
+            Gauge.builder("products.bulkhead.queued", bulkhead, Bulkhead::queued)
+                    .tag("class", workload.key()).description("Requests waiting for a slot").register(registry);
+            FunctionCounter.builder("products.bulkhead.rejected", bulkhead, Bulkhead::rejected)
+                    .tag("class", workload.key()).description("Requests shed because the workload class was saturated").register(registry);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        if (status == HttpStatus.SERVICE_UNAVAILABLE) response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(OffsetDateTime.now(), status.value(),
+                status.getReasonPhrase(), message, request.getRequestURI()));
+    }
+}
@@ -0,0 +1,145 @@
+package dorotech.bulkhead;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/**
+ * Divides a connection pool between workload classes. Each class owns {@code reserved} connections that no
+ * other class can take; the rest of the pool is shared, and a class may hold at most {@code max}
+ * connections in total. When several classes wait for a shared connection the one with the highest
+ * priority is served first. Connections are fungible, so a class holds shared connections exactly while it
+ * holds more than its reservation. The pool size is read on every acquisition so the shared part follows
+ * the adaptive pool sizer.
+ */
+final class ConnectionBudget {
+    private final int[] reserved;
+    private final int[] max;
+    private final int[] priority;
+    private final int reservedTotal;
+    private final IntSupplier poolSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition[] released;
+    private final int[] inUse;
+    private final int[] waiting;
+    private final long[] timeouts;
+    private int sharedInUse;
+
+    ConnectionBudget(int[] reserved, int[] max, int[] priority, IntSupplier poolSize) {
+        int classes = WorkloadClass.values().length;
+        if (reserved.length != classes || max.length != classes || priority.length != classes) {
+            throw new IllegalArgumentException("a budget needs one entry per workload class");
+        }
+        int total = 0;
+        for (int i = 0; i < classes; i++) {
+            if (reserved[i] < 0) throw new IllegalArgumentException("reserved-connections must not be negative");
+            if (max[i] <= 0 || max[i] < reserved[i]) {
+                throw new IllegalArgumentException("max-connections must be positive and at least reserved-connections");
+            }
+            total += reserved[i];
+        }
+        if (total > poolSize.getAsInt()) {
+            throw new IllegalArgumentException("products.bulkhead reserved-connections add up to " + total
+                    + " but the pool only has " + poolSize.getAsInt());
+        }
+        this.reserved = reserved.clone();
+        this.max = max.clone();
+        this.priority = priority.clone();
+        this.reservedTotal = total;
+        this.poolSize = poolSize;
+        this.released = new Condition[classes];
+        for (int i = 0; i < classes; i++) released[i] = lock.newCondition();
+        this.inUse = new int[classes];
+        this.waiting = new int[classes];
+        this.timeouts = new long[classes];
+    }
+
+    /** Takes one connection for {@code workload}, waiting up to {@code timeoutNanos}; false on timeout. */
+    boolean acquire(WorkloadClass workload, long timeoutNanos) throws InterruptedException {
+        int c = workload.ordinal();
+        lock.lock();
+        try {
+            if (tryTake(c)) return true;
+            waiting[c]++;
+            try {
+                long remaining = timeoutNanos;
+                while (!tryTake(c)) {
+                    if (remaining <= 0) {
+                        timeouts[c]++;
+                        return false;
+                    }
+                    remaining = released[c].awaitNanos(remaining);
+                }
+                return true;
+            } finally {
+                waiting[c]--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(WorkloadClass workload) {
+        int c = workload.ordinal();
+        lock.lock();
+        try {
+            if (inUse[c]-- > reserved[c]) {
+                sharedInUse--;
+                for (int i = 0; i < waiting.length; i++) {
+                    if (waiting[i] > 0) released[i].signal();
+                }
+            } else if (waiting[c] > 0) {
+                released[c].signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean tryTake(int c) {
+        if (inUse[c] < reserved[c]) {
+            inUse[c]++;
+            return true;
+        }
+        if (inUse[c] >= max[c] || sharedInUse >= poolSize.getAsInt() - reservedTotal) return false;
+        for (int i = 0; i < waiting.length; i++) {
+            if (waiting[i] > 0 && priority[i] > priority[c] && inUse[i] < max[i]) {
+                return false;
+            }
+        }
+        inUse[c]++;
+        sharedInUse++;
+        return true;
+    }
+
+    int inUse(WorkloadClass workload) {
+        return read(inUse, workload);
+    }
+
+    int waiting(WorkloadClass workload) {
+        return read(waiting, workload);
+    }
+
+    long timeouts(WorkloadClass workload) {
+        lock.lock();
+        try {
+            return timeouts[workload.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int reserved(WorkloadClass workload) {
+        return reserved[workload.ordinal()];
+    }
+
+    private int read(int[] values, WorkloadClass workload) {
+        lock.lock();
+        try {
+            return values[workload.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+}
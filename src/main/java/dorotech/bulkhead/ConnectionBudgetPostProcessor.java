@@ -0,0 +1,94 @@
+package dorotech.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Wraps the application's Hikari pool in a {@link BudgetedDataSource} so each workload class gets its
+ * reserved share of connections. Budgets are configured per class under {@code products.bulkhead.<class>}
+ * as {@code reserved-connections}, {@code max-connections} (0 for the whole pool) and {@code priority}
+ * (higher is served first from the shared part).
+ */
+@Component
+@ConditionalOnProperty(name = "products.bulkhead.enabled", havingValue = "true")
+public class ConnectionBudgetPostProcessor implements BeanPostProcessor, MeterBinder {
+    private final int[] reserved;
+    private final int[] max;
+    private final int[] priority;
+    private final Duration connectionTimeout;
+    private volatile ConnectionBudget budget;
+
+    public ConnectionBudgetPostProcessor(@Value("${products.bulkhead.connection-timeout:2s}") Duration connectionTimeout,
+                                         @Value("${products.bulkhead.point-read.reserved-connections:1}") int pointReadReserved,
+                                         @Value("${products.bulkhead.point-read.max-connections:0}") int pointReadMax,
+                                         @Value("${products.bulkhead.point-read.priority:3}") int pointReadPriority,
+                                         @Value("${products.bulkhead.list.reserved-connections:0}") int listReserved,
+                                         @Value("${products.bulkhead.list.max-connections:0}") int listMax,
+                                         @Value("${products.bulkhead.list.priority:1}") int listPriority,
+                                         @Value("${products.bulkhead.write.reserved-connections:1}") int writeReserved,
+                                         @Value("${products.bulkhead.write.max-connections:0}") int writeMax,
+                                         @Value("${products.bulkhead.write.priority:2}") int writePriority,
+                                         @Value("${products.bulkhead.bulk.reserved-connections:0}") int bulkReserved,
+                                         @Value("${products.bulkhead.bulk.max-connections:4}") int bulkMax,
+                                         @Value("${products.bulkhead.bulk.priority:0}") int bulkPriority) {
+        this.connectionTimeout = connectionTimeout;
+        this.reserved = new int[]{pointReadReserved, listReserved, writeReserved, bulkReserved};
+        this.max = new int[]{pointReadMax, listMax, writeMax, bulkMax};
+        this.priority = new int[]{pointReadPriority, listPriority, writePriority, bulkPriority};
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        HikariDataSource pool = bean instanceof DataSource dataSource && budget == null ? unwrap(dataSource) : null;
+        if (pool != null) {
+            int[] limits = new int[max.length];
+            for (int i = 0; i < limits.length; i++) {
+                limits[i] = max[i] > 0 ? max[i] : Integer.MAX_VALUE;
+            }
+            budget = new ConnectionBudget(reserved, limits, priority, pool::getMaximumPoolSize);
+            return new BudgetedDataSource((DataSource) bean, budget, connectionTimeout.toNanos());
+        }
+        return bean;
+    }
+
+    private static HikariDataSource unwrap(DataSource dataSource) {
+        try {
+            // other post-processors may already have wrapped the pool
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // the registry may be bound before the pool is created, so meters look the budget up on each read
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            Gauge.builder("products.bulkhead.connections.active", this, p -> p.read(b -> b.inUse(workload)))
+                    .tag("class", workload.key()).description("Connections held by the workload class").register(registry);
+            Gauge.builder("products.bulkhead.connections.reserved", this, p -> p.read(b -> b.reserved(workload)))
+                    .tag("class", workload.key()).description("Connections reserved for the workload class").register(registry);
+            Gauge.builder("products.bulkhead.connections.waiting", this, p -> p.read(b -> b.waiting(workload)))
+                    .tag("class", workload.key()).description("Threads waiting for a connection budget").register(registry);
+            FunctionCounter.builder("products.bulkhead.connections.timeouts", this, p -> p.read(b -> b.timeouts(workload)))
+                    .tag("class", workload.key()).description("Connection requests that exceeded the budget wait").register(registry);
+        }
+    }
+
+    private double read(ToDoubleFunction<ConnectionBudget> metric) {
+        ConnectionBudget budget = this.budget;
+        return budget == null ? 0 : metric.applyAsDouble(budget);
+    }
+}
@@ -0,0 +1,80 @@
+package dorotech.bulkhead;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The workload a thread is currently serving. {@link BulkheadFilter} binds it for {@code /products}
+ * requests and background pools bind it for their threads, so that {@link BudgetedDataSource} can charge
+ * each connection to the right budget. Threads without a class (startup, migrations) are not budgeted.
+ */
+public enum WorkloadClass {
+    POINT_READ("point-read"),
+    LIST("list"),
+    WRITE("write"),
+    BULK("bulk");
+
+    private static final ThreadLocal<WorkloadClass> CURRENT = new ThreadLocal<>();
+
+    private final String key;
+
+    WorkloadClass(String key) {
+        this.key = key;
+    }
+
+    /** Name used in {@code products.bulkhead.*} properties and as the metrics tag. */
+    public String key() {
+        return key;
+    }
+
+    /** Classifies a {@code /products} request by method and path. */
+    public static WorkloadClass of(HttpServletRequest request) {
+        return of(request.getMethod(), request.getRequestURI(), request.getParameterMap().containsKey("ids"));
+    }
+
+    public static WorkloadClass of(String method, String path, boolean hasIds) {
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+        String rest = path.length() > "/products".length() ? path.substring("/products/".length()) : "";
+        if (read) {
+            if (rest.isEmpty()) return LIST;
+            if (rest.startsWith("export")) return BULK;
+            if (rest.startsWith("stats") || rest.startsWith("suggest") || rest.startsWith("digest")
+                    || rest.startsWith("facets") || rest.startsWith("low-stock-alerts")) return LIST;
+            // job listings and status reads of imports and repricing runs
+            if (rest.startsWith("import") || rest.startsWith("repricing")) return LIST;
+            return POINT_READ;
+        }
+        if (rest.equals("import") || rest.equals("by-name") || rest.equals("repricing")) return BULK;
+        return WRITE;
+    }
+
+    public static WorkloadClass current() {
+        return CURRENT.get();
+    }
+
+    /** Binds this class to the calling thread and returns the previous binding for {@link #restore}. */
+    public WorkloadClass bind() {
+        WorkloadClass previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+
+    public static void restore(WorkloadClass previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /** Wraps a task so it runs bound to this class, e.g. as the body of a pool thread. */
+    public Runnable wrap(Runnable task) {
+        return () -> {
+            WorkloadClass previous = bind();
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+}
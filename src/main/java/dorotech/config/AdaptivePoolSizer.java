@@ -0,0 +1,123 @@
+package dorotech.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically resizes the Hikari pool within {@code [minimumIdle, max-size]} from the mean connection
+ * acquire time observed since the previous tick: it grows by {@code step} while acquisitions are slow and
+ * threads are waiting, and shrinks by {@code step} while acquisitions are fast and connections sit idle.
+ */
+@Component
+@ConditionalOnProperty(name = "products.datasource.pool.adaptive.enabled", havingValue = "true")
+public class AdaptivePoolSizer implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    private final HikariDataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final Duration interval;
+    private final long growAboveNanos;
+    private final long shrinkBelowNanos;
+    private final int step;
+    private final int floor;
+    private final int ceiling;
+    private final ScheduledExecutorService scheduler;
+
+    private long lastCount;
+    private double lastTotalNanos;
+
+    public AdaptivePoolSizer(DataSource dataSource, MeterRegistry meterRegistry,
+                             @Value("${products.datasource.pool.adaptive.max-size:0}") int maxSize,
+                             @Value("${products.datasource.pool.adaptive.interval:10s}") Duration interval,
+                             @Value("${products.datasource.pool.adaptive.grow-above:5ms}") Duration growAbove,
+                             @Value("${products.datasource.pool.adaptive.shrink-below:500us}") Duration shrinkBelow,
+                             @Value("${products.datasource.pool.adaptive.step:2}") int step) {
+        if (step <= 0) throw new IllegalArgumentException("products.datasource.pool.adaptive.step must be positive");
+        if (shrinkBelow.compareTo(growAbove) >= 0) {
+            throw new IllegalArgumentException("products.datasource.pool.adaptive.shrink-below must be less than grow-above");
+        }
+        this.dataSource = unwrap(dataSource);
+        this.meterRegistry = meterRegistry;
+        this.interval = interval;
+        this.growAboveNanos = growAbove.toNanos();
+        this.shrinkBelowNanos = shrinkBelow.toNanos();
+        this.step = step;
+        this.floor = this.dataSource.getMinimumIdle();
+        this.ceiling = maxSize > 0 ? maxSize : this.dataSource.getMaximumPoolSize() * 2;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "adaptive-pool-sizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static HikariDataSource unwrap(DataSource dataSource) {
+        try {
+            // the pool may sit behind the bulkhead connection budget
+            return dataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Adaptive pool sizing needs a Hikari pool", ex);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::tick, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    void tick() {
+        try {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", dataSource.getPoolName()).timer();
+            if (pool == null || acquire == null) return;
+            long count = acquire.count();
+            double totalNanos = acquire.totalTime(TimeUnit.NANOSECONDS);
+            long acquisitions = count - lastCount;
+            double meanNanos = acquisitions > 0 ? (totalNanos - lastTotalNanos) / acquisitions : 0;
+            lastCount = count;
+            lastTotalNanos = totalNanos;
+            int current = dataSource.getHikariConfigMXBean().getMaximumPoolSize();
+            int next = nextSize(current, meanNanos, pool.getThreadsAwaitingConnection(), pool.getIdleConnections());
+            if (next != current) {
+                log.info("Resizing pool {} from {} to {} (mean acquire {} us)",
+                        dataSource.getPoolName(), current, next, Math.round(meanNanos / 1000));
+                dataSource.getHikariConfigMXBean().setMaximumPoolSize(next);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Adaptive pool sizing tick failed", ex);
+        }
+    }
+
+    int nextSize(int current, double meanAcquireNanos, int awaiting, int idle) {
+        if (meanAcquireNanos > growAboveNanos && awaiting > 0) {
+            return Math.min(ceiling, current + step);
+        }
+        if (meanAcquireNanos < shrinkBelowNanos && awaiting == 0 && idle >= step) {
+            return Math.max(floor, current - step);
+        }
+        return current;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,28 @@
+package dorotech.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FlywayConfig {
+
+    public enum OnStartup { MIGRATE, VALIDATE, SKIP }
+
+    /**
+     * Lets each instance choose what Flyway does at startup: migrate (the default), only validate the
+     * applied history against the bundled scripts, or skip the schema check entirely so autoscaled
+     * replicas become ready without scanning migrations.
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${products.flyway.on-startup:migrate}") OnStartup onStartup) {
+        return flyway -> {
+            switch (onStartup) {
+                case MIGRATE -> flyway.migrate();
+                case VALIDATE -> flyway.validate();
+                case SKIP -> { }
+            }
+        };
+    }
+}
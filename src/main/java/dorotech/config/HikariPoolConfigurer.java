@@ -0,0 +1,84 @@
+package dorotech.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Sizes and validates the Hikari pool before it starts. Unless {@code maximum-size} is set, the size is
+ * derived as {@code cores * 2 + spindles}, capped by the expected number of concurrent database users.
+ * With the adaptive sizer enabled the pool keeps only {@code adaptive.min-size} idle connections and
+ * starts at the derived size.
+ */
+@Component
+public class HikariPoolConfigurer implements BeanPostProcessor {
+    private final int poolSize;
+    private final int minimumIdle;
+    private final Duration connectionTimeout;
+    private final Duration leakDetectionThreshold;
+    private final Duration maxLifetime;
+
+    public HikariPoolConfigurer(@Value("${products.datasource.pool.maximum-size:0}") int maximumSize,
+                                @Value("${products.datasource.pool.expected-concurrency:32}") int expectedConcurrency,
+                                @Value("${products.datasource.pool.spindles:1}") int spindles,
+                                @Value("${products.datasource.pool.connection-timeout:5s}") Duration connectionTimeout,
+                                @Value("${products.datasource.pool.leak-detection-threshold:20s}") Duration leakDetectionThreshold,
+                                @Value("${products.datasource.pool.max-lifetime:30m}") Duration maxLifetime,
+                                @Value("${products.datasource.pool.adaptive.enabled:false}") boolean adaptive,
+                                @Value("${products.datasource.pool.adaptive.min-size:0}") int adaptiveMinSize,
+                                @Value("${products.datasource.pool.adaptive.max-size:0}") int adaptiveMaxSize) {
+        require(maximumSize >= 0, "products.datasource.pool.maximum-size must not be negative");
+        require(expectedConcurrency > 0, "products.datasource.pool.expected-concurrency must be positive");
+        require(spindles >= 0, "products.datasource.pool.spindles must not be negative");
+        require(connectionTimeout.toMillis() >= 250, "products.datasource.pool.connection-timeout must be at least 250ms");
+        require(leakDetectionThreshold.isZero() || leakDetectionThreshold.toMillis() >= 2000,
+                "products.datasource.pool.leak-detection-threshold must be 0 or at least 2s");
+        require(leakDetectionThreshold.compareTo(maxLifetime) < 0,
+                "products.datasource.pool.leak-detection-threshold must be shorter than max-lifetime");
+        this.poolSize = maximumSize > 0 ? maximumSize
+                : derivePoolSize(Runtime.getRuntime().availableProcessors(), spindles, expectedConcurrency);
+        if (adaptive) {
+            int floor = adaptiveMinSize > 0 ? adaptiveMinSize : Math.max(1, poolSize / 2);
+            int ceiling = adaptiveMaxSize > 0 ? adaptiveMaxSize : poolSize * 2;
+            require(floor <= poolSize && poolSize <= ceiling,
+                    "products.datasource.pool.adaptive bounds must satisfy min-size <= " + poolSize + " <= max-size");
+            this.minimumIdle = floor;
+        } else {
+            this.minimumIdle = poolSize;
+        }
+        this.connectionTimeout = connectionTimeout;
+        this.leakDetectionThreshold = leakDetectionThreshold;
+        this.maxLifetime = maxLifetime;
+    }
+
+    static int derivePoolSize(int cores, int spindles, int expectedConcurrency) {
+        return Math.max(2, Math.min(cores * 2 + spindles, expectedConcurrency));
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setMinimumIdle(minimumIdle);
+            dataSource.setConnectionTimeout(connectionTimeout.toMillis());
+            dataSource.setLeakDetectionThreshold(leakDetectionThreshold.toMillis());
+            dataSource.setMaxLifetime(maxLifetime.toMillis());
+        }
+        return bean;
+    }
+
+    int getPoolSize() {
+        return poolSize;
+    }
+
+    int getMinimumIdle() {
+        return minimumIdle;
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) throw new IllegalArgumentException(message);
+    }
+}
@@ -0,0 +1,31 @@
+package dorotech.config;
+
+import dorotech.repository.SnowflakeIdGenerator;
+import dorotech.repository.SnowflakeIdentifierGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    /**
+     * Every instance writing to the same database needs its own {@code products.ids.worker-id}, so there is
+     * no default; only the single-node profiles (memory, test, training) pin it to 0.
+     * The generator is also handed to Hibernate for {@code @SnowflakeId} fields.
+     */
+    @Bean
+    public SnowflakeIdGenerator productIdGenerator(@Value("${products.ids.worker-id:#{null}}") Long workerId,
+                                                   @Value("${products.ids.worker-bits:10}") int workerBits,
+                                                   @Value("${products.ids.clock-skew-tolerance:10s}") Duration clockSkewTolerance) {
+        if (workerId == null) {
+            throw new IllegalArgumentException("products.ids.worker-id must be set to a value unique among the instances "
+                    + "sharing the database (e.g. PRODUCTS_IDS_WORKERID=3)");
+        }
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(workerId, workerBits, clockSkewTolerance.toMillis());
+        SnowflakeIdentifierGenerator.install(generator);
+        return generator;
+    }
+}
@@ -0,0 +1,53 @@
+package dorotech.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Marks beans that are not needed to serve product traffic as lazy so they are created on first use
+ * instead of during startup. A bean matches when its class, or the class of the configuration that
+ * declares it, starts with one of {@code products.startup.lazy-beans}.
+ */
+@Component
+public class LazyBeansPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+    private List<String> prefixes = List.of();
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        String[] configured = environment.getProperty("products.startup.lazy-beans", String[].class, new String[0]);
+        prefixes = Arrays.stream(configured).map(String::trim).filter(prefix -> !prefix.isEmpty()).toList();
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (prefixes.isEmpty()) return;
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (definition.isSingleton() && matches(beanFactory, definition)) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+
+    private boolean matches(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        if (matches(definition.getBeanClassName())) return true;
+        String factoryBean = definition.getFactoryBeanName();
+        return factoryBean != null && beanFactory.containsBeanDefinition(factoryBean)
+                && matches(beanFactory.getBeanDefinition(factoryBean).getBeanClassName());
+    }
+
+    private boolean matches(String className) {
+        if (className == null) return false;
+        for (String prefix : prefixes) {
+            if (className.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+}
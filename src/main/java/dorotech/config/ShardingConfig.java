@@ -0,0 +1,73 @@
+package dorotech.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import dorotech.repository.ShardedProductRepository;
+import dorotech.repository.SnowflakeIdGenerator;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the JPA-backed {@code ProductRepository} and the JDBC product repositories with
+ * {@link ShardedProductRepository} over the databases listed in {@code products.sharding.urls}. Each shard
+ * gets its own pool, closed with the repository, and is migrated with the same Flyway scripts as the primary
+ * database; the first shard also gets the name directory from {@code db/sharding}, tracked in its own history
+ * table.
+ * <p>
+ * Low-stock alerts and repricing jobs work on the primary database's products table and are switched off
+ * while sharding is enabled. Sharding needs the {@code jdbc} storage engine.
+ */
+@Configuration
+@ConditionalOnProperty(name = "products.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    public ShardedProductRepository shardedProductRepository(SnowflakeIdGenerator productIdGenerator,
+                                                             @Value("${products.sharding.urls}") List<String> urls,
+                                                             @Value("${products.sharding.username:${spring.datasource.username:}}") String username,
+                                                             @Value("${products.sharding.password:${spring.datasource.password:}}") String password,
+                                                             @Value("${products.sharding.pool-size:8}") int poolSize,
+                                                             @Value("${products.sharding.stale-claim-age:1m}") Duration staleClaimAge,
+                                                             @Value("${products.storage.engine:jdbc}") String engine,
+                                                             @Value("${products.flyway.on-startup:migrate}") FlywayConfig.OnStartup onStartup) {
+        if (!engine.equals("jdbc")) {
+            throw new IllegalArgumentException("products.sharding.enabled requires products.storage.engine=jdbc");
+        }
+        if (staleClaimAge.isNegative() || staleClaimAge.isZero()) {
+            throw new IllegalArgumentException("products.sharding.stale-claim-age must be positive");
+        }
+        List<DataSource> shards = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("product-shard-" + i);
+            dataSource.setJdbcUrl(urls.get(i).trim());
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+            dataSource.setMaximumPoolSize(poolSize);
+            migrate(Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").load(), onStartup);
+            if (i == 0) {
+                migrate(Flyway.configure().dataSource(dataSource).locations("classpath:db/sharding")
+                        .table("flyway_sharding_history").baselineOnMigrate(true).baselineVersion("0").load(), onStartup);
+            }
+            shards.add(dataSource);
+        }
+        return new ShardedProductRepository(shards, productIdGenerator, staleClaimAge);
+    }
+
+    private static void migrate(Flyway flyway, FlywayConfig.OnStartup onStartup) {
+        switch (onStartup) {
+            case MIGRATE -> flyway.migrate();
+            case VALIDATE -> flyway.validate();
+            case SKIP -> { }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package dorotech.controller;
+
+import dorotech.dto.LowStockAlertResponse;
+import dorotech.dto.LowStockThresholdRequest;
+import dorotech.dto.LowStockThresholdResponse;
+import dorotech.service.LowStockMonitor;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/products")
+@ConditionalOnProperty(name = "products.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@ConditionalOnBooleanProperty(name = "products.sharding.enabled", havingValue = false, matchIfMissing = true)
+public class LowStockController {
+
+    private final LowStockMonitor lowStockMonitor;
+
+    public LowStockController(LowStockMonitor lowStockMonitor) {
+        this.lowStockMonitor = lowStockMonitor;
+    }
+
+    @PutMapping(value = "/{id}/low-stock-threshold")
+    public ResponseEntity<LowStockThresholdResponse> updateLowStockThreshold(@PathVariable("id") Long id,
+                                                                             @RequestBody @Valid LowStockThresholdRequest request) {
+        return ResponseEntity.ok(lowStockMonitor.updateThreshold(id, request.threshold()));
+    }
+
+    @DeleteMapping(value = "/{id}/low-stock-threshold")
+    public ResponseEntity<LowStockThresholdResponse> deleteLowStockThreshold(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(lowStockMonitor.updateThreshold(id, null));
+    }
+
+    /**
+     * Alerts in the order they were raised; fetch the next page with {@code after} set to the last id.
+     */
+    @GetMapping(value = "/low-stock-alerts")
+    public ResponseEntity<List<LowStockAlertResponse>> listLowStockAlerts(
+            @RequestParam(value = "status", defaultValue = "open") String status,
+            @RequestParam(value = "productId", required = false) Long productId,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "limit", defaultValue = "100") @Min(1) @Max(1000) int limit) {
+        return ResponseEntity.ok(lowStockMonitor.findAlerts(status, productId, after, limit));
+    }
+}
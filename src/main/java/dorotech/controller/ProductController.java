@@ -1,10 +1,19 @@
 package dorotech.controller;
 
+import dorotech.dto.ProductBatchResponse;
+import dorotech.dto.ProductBatchView;
+import dorotech.dto.ProductFields;
 import dorotech.dto.ProductRequest;
 import dorotech.dto.ProductResponse;
 import dorotech.dto.ProductUpdateDTO;
+import dorotech.dto.ProductUpsertDTO;
+import dorotech.dto.ProductUpsertResponse;
+import dorotech.dto.ProductView;
 import dorotech.service.ProductService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -36,17 +45,52 @@ public class ProductController {
         return ResponseEntity.ok(productService.findAll());
     }
 
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<ProductView>> listAllProducts(@RequestParam("fields") ProductFields fields) {
+        return ResponseEntity.ok(productService.findAll(fields));
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductBatchResponse> findProductsByIds(@RequestParam("ids") List<Long> ids) {
+        return ResponseEntity.ok(productService.findAllByIds(ids));
+    }
+
+    @GetMapping(params = {"ids", "fields"})
+    public ResponseEntity<ProductBatchView> findProductsByIds(@RequestParam("ids") List<Long> ids,
+                                                              @RequestParam("fields") ProductFields fields) {
+        return ResponseEntity.ok(productService.findAllByIds(ids, fields));
+    }
+
     @GetMapping(value = "/{id}")
     public ResponseEntity<ProductResponse> findProductById(@PathVariable("id")Long id) {
         return ResponseEntity.ok(productService.findById(id));
     }
 
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<ProductView> findProductById(@PathVariable("id")Long id,
+                                                       @RequestParam("fields") ProductFields fields) {
+        return ResponseEntity.ok(productService.findById(id, fields));
+    }
+
     @PutMapping(value = "/{id}")
     public ResponseEntity<ProductResponse> updateProductById(@PathVariable("id")Long id,
                                                              @RequestBody @Valid ProductUpdateDTO dto) {
         return ResponseEntity.ok(productService.updateProduct(dto, id));
     }
 
+    @PutMapping(value = "/by-name/{name}")
+    public ResponseEntity<ProductUpsertResponse> upsertProductByName(@PathVariable("name") @NotBlank @Size(max = 100) String name,
+                                                                     @RequestBody @Valid ProductUpsertDTO dto) {
+        ProductUpsertResponse result = productService.upsertByName(List.of(dto.toRequest(name))).get(0);
+        HttpStatus status = result.result() == ProductUpsertResponse.Result.INSERTED ? HttpStatus.CREATED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(result);
+    }
+
+    @PutMapping(value = "/by-name")
+    public ResponseEntity<List<ProductUpsertResponse>> upsertProductsByName(@RequestBody List<@Valid ProductRequest> dtos) {
+        return ResponseEntity.ok(productService.upsertByName(dtos));
+    }
+
     @DeleteMapping(value = "/{id}")
     public ResponseEntity<ProductResponse> deleteProductById(@PathVariable("id")Long id) {
         productService.deleteProduct(id);
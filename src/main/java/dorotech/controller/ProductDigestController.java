@@ -0,0 +1,25 @@
+package dorotech.controller;
+
+import dorotech.dto.ProductDigestResponse;
+import dorotech.service.ProductCatalogDigest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping(value = "/products/digest")
+@ConditionalOnProperty(name = "products.digest.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductDigestController {
+
+    private final ProductCatalogDigest productCatalogDigest;
+
+    public ProductDigestController(ProductCatalogDigest productCatalogDigest) {
+        this.productCatalogDigest = productCatalogDigest;
+    }
+
+    @GetMapping
+    public ResponseEntity<ProductDigestResponse> productDigest(@RequestParam(value = "node", defaultValue = "1") int node,
+                                                               @RequestParam(value = "levels", defaultValue = "1") int levels) {
+        return ResponseEntity.ok(productCatalogDigest.digest(node, levels));
+    }
+}
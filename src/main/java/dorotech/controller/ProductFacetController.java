@@ -0,0 +1,36 @@
+package dorotech.controller;
+
+import dorotech.dto.ProductFacetResponse;
+import dorotech.service.ProductFacetIndex;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/products/facets")
+@ConditionalOnProperty(name = "products.facets.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductFacetController {
+
+    private final ProductFacetIndex productFacetIndex;
+
+    public ProductFacetController(ProductFacetIndex productFacetIndex) {
+        this.productFacetIndex = productFacetIndex;
+    }
+
+    /**
+     * Facet counts and one page of matching ids; fetch the products with {@code GET /products?ids=...} and the
+     * next page with {@code after=nextAfter}.
+     */
+    @GetMapping
+    public ResponseEntity<ProductFacetResponse> productFacets(
+            @RequestParam(value = "stock", required = false) List<String> stock,
+            @RequestParam(value = "price", required = false) List<String> price,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "limit", defaultValue = "100") @Min(0) @Max(1000) int limit) {
+        return ResponseEntity.ok(productFacetIndex.query(stock, price, after, limit));
+    }
+}
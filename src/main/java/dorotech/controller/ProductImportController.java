@@ -0,0 +1,50 @@
+package dorotech.controller;
+
+import dorotech.dto.ImportJobResponse;
+import dorotech.service.ProductImportService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping(value = "/products/import")
+public class ProductImportController {
+
+    private final ProductImportService productImportService;
+
+    public ProductImportController(ProductImportService productImportService) {
+        this.productImportService = productImportService;
+    }
+
+    @PostMapping(consumes = "text/csv")
+    public ResponseEntity<ImportJobResponse> importCsv(InputStream body) {
+        return created(productImportService.importProducts(body, ProductImportService.Format.CSV));
+    }
+
+    @PostMapping(consumes = "application/x-ndjson")
+    public ResponseEntity<ImportJobResponse> importNdjson(InputStream body) {
+        return created(productImportService.importProducts(body, ProductImportService.Format.NDJSON));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ImportJobResponse>> listImportJobs() {
+        return ResponseEntity.ok(productImportService.findAllJobs());
+    }
+
+    @GetMapping(value = "/{id}")
+    public ResponseEntity<ImportJobResponse> findImportJobById(@PathVariable("id") UUID id) {
+        return ResponseEntity.ok(productImportService.findJob(id));
+    }
+
+    private ResponseEntity<ImportJobResponse> created(ImportJobResponse job) {
+        URI uri = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/{id}")
+                .buildAndExpand(job.id()).toUri();
+        return ResponseEntity.created(uri).body(job);
+    }
+}
@@ -0,0 +1,52 @@
+package dorotech.controller;
+
+import dorotech.dto.RepricingJobRequest;
+import dorotech.dto.RepricingJobResponse;
+import dorotech.service.ProductRepricingService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping(value = "/products/repricing")
+@ConditionalOnProperty(name = "products.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@ConditionalOnBooleanProperty(name = "products.sharding.enabled", havingValue = false, matchIfMissing = true)
+public class ProductRepricingController {
+
+    private final ProductRepricingService productRepricingService;
+
+    public ProductRepricingController(ProductRepricingService productRepricingService) {
+        this.productRepricingService = productRepricingService;
+    }
+
+    @PostMapping
+    public ResponseEntity<RepricingJobResponse> startRepricingJob(@RequestBody @Valid RepricingJobRequest request) {
+        RepricingJobResponse job = productRepricingService.startJob(request);
+        URI uri = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/{id}")
+                .buildAndExpand(job.id()).toUri();
+        return ResponseEntity.created(uri).body(job);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<RepricingJobResponse>> listRepricingJobs() {
+        return ResponseEntity.ok(productRepricingService.findAllJobs());
+    }
+
+    @GetMapping(value = "/{id}")
+    public ResponseEntity<RepricingJobResponse> findRepricingJobById(@PathVariable("id") UUID id) {
+        return ResponseEntity.ok(productRepricingService.findJob(id));
+    }
+
+    @PostMapping(value = "/{id}/cancel")
+    public ResponseEntity<RepricingJobResponse> cancelRepricingJob(@PathVariable("id") UUID id) {
+        return ResponseEntity.ok(productRepricingService.cancelJob(id));
+    }
+}
@@ -0,0 +1,28 @@
+package dorotech.controller;
+
+import dorotech.dto.ProductStatsResponse;
+import dorotech.service.ProductColumnarSnapshot;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/products/stats")
+@ConditionalOnProperty(name = "products.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductStatsController {
+
+    private final ProductColumnarSnapshot productColumnarSnapshot;
+
+    public ProductStatsController(ProductColumnarSnapshot productColumnarSnapshot) {
+        this.productColumnarSnapshot = productColumnarSnapshot;
+    }
+
+    @GetMapping
+    public ResponseEntity<ProductStatsResponse> productStats(
+            @RequestParam(value = "stockBuckets", defaultValue = "0,1,10,100,1000") List<Long> stockBuckets) {
+        long[] bounds = stockBuckets.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        return ResponseEntity.ok(productColumnarSnapshot.stats(bounds));
+    }
+}
@@ -0,0 +1,28 @@
+package dorotech.controller;
+
+import dorotech.dto.ProductSuggestion;
+import dorotech.service.ProductNameSuggester;
+import jakarta.validation.constraints.Size;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/products/suggest")
+@ConditionalOnProperty(name = "products.suggest.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductSuggestController {
+
+    private final ProductNameSuggester productNameSuggester;
+
+    public ProductSuggestController(ProductNameSuggester productNameSuggester) {
+        this.productNameSuggester = productNameSuggester;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(@RequestParam("prefix") @Size(max = 100) String prefix,
+                                                                   @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productNameSuggester.suggest(prefix, limit));
+    }
+}
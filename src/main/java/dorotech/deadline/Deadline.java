@@ -0,0 +1,84 @@
+package dorotech.deadline;
+
+import dorotech.exceptions.exception.DeadlineExceededException;
+
+import java.time.Duration;
+
+/**
+ * The point in time by which the current request must be answered. {@link DeadlineFilter} binds one to
+ * each {@code /products} request thread; waits for slots, connections and batched lookups are bounded by
+ * it, and {@link DeadlineDataSource} refuses or cancels statements once it has passed.
+ */
+public final class Deadline {
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    public long remainingNanos() {
+        return expiresAtNanos - System.nanoTime();
+    }
+
+    /** Whichever of this deadline and {@code other} expires later; {@code other} may be {@code null}. */
+    public Deadline later(Deadline other) {
+        return other == null || expiresAtNanos - other.expiresAtNanos >= 0 ? this : other;
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /** Binds this deadline to the calling thread and returns the previous binding for {@link #restore}. */
+    public Deadline bind() {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+
+    public static void restore(Deadline previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /** {@code limitNanos}, shortened to whatever is left of the current deadline. */
+    public static long remainingNanos(long limitNanos) {
+        Deadline deadline = CURRENT.get();
+        return deadline == null ? limitNanos : Math.min(limitNanos, deadline.remainingNanos());
+    }
+
+    /** Throws {@link DeadlineExceededException} if the current deadline has already passed. */
+    public static void check() {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException("Request deadline exceeded");
+        }
+    }
+
+    /** Wraps a task so it runs under the caller's deadline, e.g. when handed to a worker pool. */
+    public static Runnable propagate(Runnable task) {
+        Deadline deadline = CURRENT.get();
+        if (deadline == null) return task;
+        return () -> {
+            Deadline previous = deadline.bind();
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+}
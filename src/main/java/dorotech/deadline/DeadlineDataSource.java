@@ -0,0 +1,116 @@
+package dorotech.deadline;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces the calling thread's {@link Deadline} on JDBC statements. A statement executed after the
+ * deadline is refused without reaching the database; otherwise {@link Statement#cancel()} is scheduled for
+ * the moment the deadline passes and disarmed when the statement closes, which also bounds streamed result
+ * sets. Failures caused by that cancellation surface as {@link SQLTimeoutException}, which Spring and
+ * Hibernate translate to a query timeout. Threads without a deadline use the pool untouched.
+ */
+class DeadlineDataSource extends DelegatingDataSource {
+    private final ScheduledExecutorService canceller;
+
+    DeadlineDataSource(DataSource target, ScheduledExecutorService canceller) {
+        super(target);
+        this.canceller = canceller;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = obtainTargetDataSource().getConnection();
+        return Deadline.current() == null ? connection : withDeadlines(connection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection connection = obtainTargetDataSource().getConnection(username, password);
+        return Deadline.current() == null ? connection : withDeadlines(connection);
+    }
+
+    private Connection withDeadlines(Connection connection) {
+        return (Connection) proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            return result instanceof Statement statement ? withDeadline(statement, method.getReturnType()) : result;
+        });
+    }
+
+    private Object withDeadline(Statement statement, Class<?> type) {
+        ScheduledFuture<?>[] armed = {null};
+        boolean[] cancelled = {false};
+        return proxy(type, statement, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                Deadline deadline = Deadline.current();
+                if (deadline == null) return invoke(statement, method, args);
+                long remaining = deadline.remainingNanos();
+                if (remaining <= 0) throw new SQLTimeoutException("Request deadline exceeded before the statement started");
+                disarm(armed);
+                armed[0] = canceller.schedule(() -> cancel(statement, cancelled), remaining, TimeUnit.NANOSECONDS);
+                try {
+                    return invoke(statement, method, args);
+                } catch (SQLException ex) {
+                    synchronized (cancelled) {
+                        if (cancelled[0]) throw new SQLTimeoutException("Statement cancelled at the request deadline", ex);
+                    }
+                    throw ex;
+                }
+            }
+            if (name.equals("close")) {
+                disarm(armed);
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static void cancel(Statement statement, boolean[] cancelled) {
+        synchronized (cancelled) {
+            cancelled[0] = true;
+        }
+        try {
+            statement.cancel();
+        } catch (SQLException ex) {
+            // the statement already finished or the driver cannot cancel; nothing else to do
+        }
+    }
+
+    private static void disarm(ScheduledFuture<?>[] armed) {
+        if (armed[0] != null) {
+            armed[0].cancel(false);
+            armed[0] = null;
+        }
+    }
+
+    private static Object proxy(Class<?> type, Object target, InvocationHandler handler) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "unwrap" -> ((Class<?>) args[0]).isInstance(proxy) ? proxy : invoke(target, method, args);
+                    case "isWrapperFor" -> ((Class<?>) args[0]).isInstance(proxy) || (boolean) invoke(target, method, args);
+                    default -> handler.invoke(proxy, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package dorotech.deadline;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Wraps the application's Hikari pool in a {@link DeadlineDataSource}. A single daemon thread cancels
+ * statements that outlive their request's deadline.
+ */
+@Component
+@ConditionalOnProperty(name = "products.deadline.enabled", havingValue = "true")
+public class DeadlineDataSourcePostProcessor implements BeanPostProcessor, DisposableBean {
+    private final ScheduledThreadPoolExecutor canceller;
+
+    public DeadlineDataSourcePostProcessor() {
+        this.canceller = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "jdbc-deadline-canceller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // most statements finish long before their deadline, so cancelled timers must not pile up
+        canceller.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && isHikari(dataSource)) {
+            return new DeadlineDataSource(dataSource, canceller);
+        }
+        return bean;
+    }
+
+    private static boolean isHikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        canceller.shutdownNow();
+    }
+}
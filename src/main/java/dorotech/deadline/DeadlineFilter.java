@@ -0,0 +1,98 @@
+package dorotech.deadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dorotech.bulkhead.WorkloadClass;
+import dorotech.exceptions.response.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Binds a {@link Deadline} to each {@code /products} request. Clients state how long they will wait in
+ * the {@code products.deadline.header} header, as milliseconds or a duration such as {@code 1500ms}; the
+ * value may shorten but never extend the default for the endpoint's {@link WorkloadClass}. A request that
+ * arrives with no time left is refused with 504.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RegisterReflectionForBinding(ErrorResponse.class)
+@ConditionalOnProperty(name = "products.deadline.enabled", havingValue = "true")
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+    private final String header;
+    private final Duration[] defaults;
+
+    public DeadlineFilter(ObjectMapper objectMapper,
+                          @Value("${products.deadline.header:X-Request-Timeout}") String header,
+                          @Value("${products.deadline.point-read:2s}") Duration pointRead,
+                          @Value("${products.deadline.list:10s}") Duration list,
+                          @Value("${products.deadline.write:5s}") Duration write,
+                          @Value("${products.deadline.bulk:10m}") Duration bulk) {
+        this.objectMapper = objectMapper;
+        this.header = header;
+        this.defaults = new Duration[]{pointRead, list, write, bulk};
+        for (Duration timeout : defaults) {
+            if (timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("products.deadline defaults must be positive");
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !(path.equals("/products") || path.startsWith("/products/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Duration timeout = defaults[WorkloadClass.of(request).ordinal()];
+        String requested = request.getHeader(header);
+        if (requested != null && !requested.isBlank()) {
+            Duration clientTimeout;
+            try {
+                clientTimeout = DurationStyle.detectAndParse(requested.trim(), ChronoUnit.MILLIS);
+            } catch (IllegalArgumentException ex) {
+                reject(request, response, HttpStatus.BAD_REQUEST, "Invalid " + header + " header: " + requested);
+                return;
+            }
+            if (clientTimeout.isNegative() || clientTimeout.isZero()) {
+                reject(request, response, HttpStatus.GATEWAY_TIMEOUT, "Request deadline exceeded");
+                return;
+            }
+            if (clientTimeout.compareTo(timeout) < 0) timeout = clientTimeout;
+        }
+        Deadline previous = Deadline.after(timeout).bind();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Deadline.restore(previous);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                OffsetDateTime.now(), status.value(), status.getReasonPhrase(), message, request.getRequestURI()));
+    }
+}
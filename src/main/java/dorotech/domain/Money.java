@@ -0,0 +1,89 @@
+package dorotech.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Money is carried as a {@code long} count of minor units (cents) so the hot paths never go
+ * through floating point or allocate {@link BigDecimal}s. The database column stays DECIMAL(8,2).
+ */
+public final class Money {
+    public static final int SCALE = 2;
+    public static final long MAX_CENTS = 99_999_999L;
+
+    private Money() {
+    }
+
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static long fromDecimal(BigDecimal value) {
+        return value.movePointRight(SCALE).longValueExact();
+    }
+
+    public static long parseCents(String text) {
+        return parseCents(text.toCharArray(), 0, text.length());
+    }
+
+    /**
+     * Parses a plain decimal such as {@code 15000}, {@code 15000.5} or {@code -0.25} without allocating.
+     * Anything else (exponents, more than two non-zero fraction digits) falls back to an exact
+     * {@link BigDecimal} conversion, which throws {@link ArithmeticException} or
+     * {@link NumberFormatException} when the value is not a whole number of cents.
+     */
+    public static long parseCents(char[] buffer, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        long units = 0;
+        int integerDigits = 0;
+        while (i < end && buffer[i] >= '0' && buffer[i] <= '9') {
+            if (++integerDigits > 16) return fromDecimal(new BigDecimal(buffer, offset, length));
+            units = units * 10 + (buffer[i++] - '0');
+        }
+        int fractionDigits = 0;
+        if (i < end && buffer[i] == '.') {
+            i++;
+            while (i < end && buffer[i] >= '0' && buffer[i] <= '9' && fractionDigits < SCALE) {
+                units = units * 10 + (buffer[i++] - '0');
+                fractionDigits++;
+            }
+        }
+        if (i != end || (integerDigits == 0 && fractionDigits == 0)) {
+            return fromDecimal(new BigDecimal(buffer, offset, length));
+        }
+        for (; fractionDigits < SCALE; fractionDigits++) units *= 10;
+        return negative ? -units : units;
+    }
+
+    /**
+     * Writes {@code cents} as a plain decimal with two fraction digits into {@code buffer} from the end
+     * and returns the start offset. The buffer needs at least 22 chars.
+     */
+    public static int format(long cents, char[] buffer) {
+        boolean negative = cents < 0;
+        long value = negative ? -cents : cents;
+        int pos = buffer.length;
+        for (int i = 0; i < SCALE; i++) {
+            buffer[--pos] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        buffer[--pos] = '.';
+        do {
+            buffer[--pos] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        if (negative) buffer[--pos] = '-';
+        return pos;
+    }
+
+    public static String format(long cents) {
+        char[] buffer = new char[22];
+        int start = format(cents, buffer);
+        return new String(buffer, start, buffer.length - start);
+    }
+}
@@ -2,6 +2,7 @@ package dorotech.domain;
 
 import dorotech.dto.ProductRequest;
 import dorotech.dto.ProductUpdateDTO;
+import dorotech.repository.SnowflakeId;
 import jakarta.persistence.*;
 
 @Entity
@@ -9,25 +10,33 @@ import jakarta.persistence.*;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
+    @Column(length = 100, nullable = false, unique = true)
     private String name;
+    @Column(nullable = false, columnDefinition = "TEXT")
     private String description;
-    private Double price;
+    @Column(name = "price", precision = 8, scale = Money.SCALE, nullable = false)
+    @Convert(converter = MoneyConverter.class)
+    private Long priceCents;
+    @Column(nullable = false)
     private Long amount;
+    @Version
+    @Column(nullable = false)
+    private Long version;
 
-    public Product(String name, String description, Double price, Long amount) {
+    public Product(String name, String description, Long priceCents, Long amount) {
         this.name = name;
         this.description = description;
-        this.price = price;
+        this.priceCents = priceCents;
         this.amount = amount;
     }
 
-    public Product(Long id, String name, String description, Double price, Long amount) {
+    public Product(Long id, String name, String description, Long priceCents, Long amount) {
         this.id = id;
         this.name = name;
         this.description = description;
-        this.price = price;
+        this.priceCents = priceCents;
         this.amount = amount;
     }
     public Product() {
@@ -45,20 +54,36 @@ public class Product {
         return description;
     }
 
-    public Double getPrice() {
-        return price;
+    public Long getPriceCents() {
+        return priceCents;
     }
 
     public Long getAmount() {
         return amount;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void assignId(Long id) {
+        if (this.id != null) throw new IllegalStateException("Product already has an id");
+        this.id = id;
+    }
+
+    /**
+     * Records the row version read or written by a repository that does not go through JPA.
+     */
+    public void assignVersion(Long version) {
+        this.version = version;
+    }
+
     public void update(ProductUpdateDTO dto) {
         if (dto.description() != null && !dto.description().isBlank()) {
             this.description = dto.description();
         }
-        if (dto.price() != null && dto.price() > 0) {
-            this.price = dto.price();
+        if (dto.priceCents() != null && dto.priceCents() > 0) {
+            this.priceCents = dto.priceCents();
         }
         if (dto.name() != null && !dto.name().isBlank()) {
             this.name = dto.name();
@@ -0,0 +1,27 @@
+package dorotech.domain;
+
+import dorotech.dto.ProductResponse;
+
+public record ProductChangedEvent(
+        Type type,
+        Long id,
+        ProductResponse product
+) {
+    public enum Type { CREATED, UPDATED, DELETED, BULK }
+
+    public static ProductChangedEvent created(ProductResponse product) {
+        return new ProductChangedEvent(Type.CREATED, product.id(), product);
+    }
+
+    public static ProductChangedEvent updated(ProductResponse product) {
+        return new ProductChangedEvent(Type.UPDATED, product.id(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long id) {
+        return new ProductChangedEvent(Type.DELETED, id, null);
+    }
+
+    public static ProductChangedEvent bulk() {
+        return new ProductChangedEvent(Type.BULK, null, null);
+    }
+}
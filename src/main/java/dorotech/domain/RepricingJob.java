@@ -0,0 +1,41 @@
+package dorotech.domain;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A mass price change over every product with {@code minPriceCents <= price <= maxPriceCents} and
+ * {@code id <= maxId}, the highest id when the job was created. The job walks the id range in chunks and
+ * {@code lastId} is the id up to which it has been applied.
+ */
+public record RepricingJob(
+        UUID id,
+        Status status,
+        long minPriceCents,
+        long maxPriceCents,
+        Operation operation,
+        BigDecimal operand,
+        long maxId,
+        long lastId,
+        long totalRows,
+        long scannedRows,
+        long updatedRows,
+        String error,
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedAt,
+        OffsetDateTime finishedAt
+) {
+    public enum Status { RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    /**
+     * How the new price is derived from the old one: {@code PERCENT} multiplies by {@code 1 + operand/100}
+     * rounded half up to cents, {@code ADD} adds the operand and {@code SET} replaces the price with it.
+     */
+    public enum Operation { PERCENT, ADD, SET }
+
+    public RepricingJob advancedTo(long lastId, long scannedRows, long updatedRows) {
+        return new RepricingJob(id, status, minPriceCents, maxPriceCents, operation, operand, maxId, lastId, totalRows,
+                this.scannedRows + scannedRows, this.updatedRows + updatedRows, error, createdAt, updatedAt, finishedAt);
+    }
+}
@@ -0,0 +1,18 @@
+package dorotech.dto;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public record ImportJobResponse(
+        UUID id,
+        String status,
+        long linesRead,
+        long imported,
+        long failed,
+        double rowsPerSecond,
+        OffsetDateTime startedAt,
+        OffsetDateTime finishedAt,
+        List<ImportLineError> errors
+) {
+}
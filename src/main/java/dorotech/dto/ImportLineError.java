@@ -0,0 +1,4 @@
+package dorotech.dto;
+
+public record ImportLineError(long line, String message) {
+}
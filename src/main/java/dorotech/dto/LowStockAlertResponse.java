@@ -0,0 +1,14 @@
+package dorotech.dto;
+
+import java.time.OffsetDateTime;
+
+public record LowStockAlertResponse(
+        long id,
+        long productId,
+        long amount,
+        long threshold,
+        OffsetDateTime raisedAt,
+        Long resolvedAmount,
+        OffsetDateTime resolvedAt
+) {
+}
@@ -0,0 +1,10 @@
+package dorotech.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record LowStockThresholdRequest(
+        @NotNull @Positive
+        Long threshold
+) {
+}
@@ -0,0 +1,9 @@
+package dorotech.dto;
+
+public record LowStockThresholdResponse(
+        long productId,
+        long amount,
+        Long threshold,
+        boolean low
+) {
+}
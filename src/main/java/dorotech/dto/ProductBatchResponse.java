@@ -0,0 +1,9 @@
+package dorotech.dto;
+
+import java.util.List;
+
+public record ProductBatchResponse(
+        List<ProductResponse> products,
+        List<Long> missingIds
+) {
+}
@@ -0,0 +1,9 @@
+package dorotech.dto;
+
+import java.util.List;
+
+public record ProductBatchView(
+        List<ProductView> products,
+        List<Long> missingIds
+) {
+}
@@ -0,0 +1,17 @@
+package dorotech.dto;
+
+import java.util.List;
+
+public record ProductDigestResponse(
+        long layoutVersion,
+        int leafCount,
+        List<Node> nodes
+) {
+    /**
+     * One node of the digest tree: the products with {@code fromId <= id <= toId}, their number and the
+     * wrapping 64-bit sum of their row hashes as 16 hex digits. Node {@code i} has children {@code 2i}
+     * and {@code 2i + 1}; the root is node 1.
+     */
+    public record Node(int index, int level, long fromId, long toId, long count, String hash) {
+    }
+}
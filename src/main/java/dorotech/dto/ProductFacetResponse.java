@@ -0,0 +1,30 @@
+package dorotech.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import dorotech.dto.json.MoneySerializer;
+
+import java.util.List;
+
+/**
+ * Products matching a facet filter: their number, a page of their ids in id order and, per facet value,
+ * how many products would match with that value selected instead of the current ones for its facet.
+ * {@code nextAfter} is the cursor for the next page, or {@code null} on the last one.
+ */
+public record ProductFacetResponse(
+        long total,
+        List<FacetCount> stock,
+        List<PriceBucketCount> price,
+        List<Long> ids,
+        Long nextAfter
+) {
+    public record FacetCount(String value, long count) {
+    }
+
+    public record PriceBucketCount(
+            String value,
+            @JsonSerialize(using = MoneySerializer.class) Long from,
+            @JsonSerialize(using = MoneySerializer.class) Long to,
+            long count
+    ) {
+    }
+}
@@ -0,0 +1,85 @@
+package dorotech.dto;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * The subset of product fields a client asked for with {@code ?fields=id,price,amount}. Unselected
+ * columns are not read from the database and not written to the response. Spring binds request
+ * parameters through {@link #valueOf(String)}, so an unknown field name is answered with 400.
+ */
+public final class ProductFields {
+    public enum Field {
+        ID("id"),
+        NAME("name"),
+        DESCRIPTION("description"),
+        PRICE("price"),
+        AMOUNT("amount");
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        public String jsonName() {
+            return jsonName;
+        }
+    }
+
+    public static final ProductFields ALL = new ProductFields((1 << Field.values().length) - 1);
+
+    private final int mask;
+
+    private ProductFields(int mask) {
+        this.mask = mask;
+    }
+
+    public static ProductFields of(Field... fields) {
+        int mask = 0;
+        for (Field field : fields) mask |= 1 << field.ordinal();
+        return new ProductFields(mask);
+    }
+
+    public static ProductFields valueOf(String fields) {
+        int mask = 0;
+        for (String token : fields.split(",")) {
+            String name = token.trim().toLowerCase(Locale.ROOT);
+            if (name.isEmpty()) continue;
+            Field match = null;
+            for (Field field : Field.values()) {
+                if (field.jsonName.equals(name)) match = field;
+            }
+            if (match == null) throw new IllegalArgumentException("Unknown product field: " + token.trim());
+            mask |= 1 << match.ordinal();
+        }
+        return mask == 0 ? ALL : new ProductFields(mask);
+    }
+
+    public boolean contains(Field field) {
+        return (mask & (1 << field.ordinal())) != 0;
+    }
+
+    public boolean isAll() {
+        return mask == ALL.mask;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ProductFields fields && fields.mask == mask;
+    }
+
+    @Override
+    public int hashCode() {
+        return mask;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(",");
+        for (Field field : Field.values()) {
+            if (contains(field)) joiner.add(field.jsonName);
+        }
+        return joiner.toString();
+    }
+}
@@ -1,6 +1,12 @@
 package dorotech.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import dorotech.domain.Money;
 import dorotech.domain.Product;
+import dorotech.dto.json.MoneyDeserializer;
+import dorotech.dto.json.MoneySerializer;
 import jakarta.validation.constraints.*;
 
 public record ProductRequest(
@@ -8,12 +14,13 @@ public record ProductRequest(
         String name,
         @NotBlank
         String description,
-        @NotNull @Positive()
-        Double price,
+        @NotNull @Positive() @Max(Money.MAX_CENTS)
+        @JsonProperty("price") @JsonSerialize(using = MoneySerializer.class) @JsonDeserialize(using = MoneyDeserializer.class)
+        Long priceCents,
         @NotNull @Positive
         Long amount
 ) {
     public Product toEntity() {
-        return new Product(name, description, price, amount);
+        return new Product(name, description, priceCents, amount);
     }
 }
@@ -1,12 +1,19 @@
 package dorotech.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import dorotech.domain.Product;
+import dorotech.dto.json.MoneyDeserializer;
+import dorotech.dto.json.ProductResponseSerializer;
 
+@JsonSerialize(using = ProductResponseSerializer.class)
 public record ProductResponse(
         Long id,
         String name,
         String description,
-        Double price,
+        @JsonProperty("price") @JsonDeserialize(using = MoneyDeserializer.class)
+        Long priceCents,
         Long amount
 ) {
     public ProductResponse(Product product) {
@@ -14,7 +21,7 @@ public record ProductResponse(
                 product.getId(),
                 product.getName(),
                 product.getDescription(),
-                product.getPrice(),
+                product.getPriceCents(),
                 product.getAmount()
         );
     }
@@ -0,0 +1,22 @@
+package dorotech.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import dorotech.dto.json.MoneySerializer;
+
+import java.util.List;
+import java.util.Map;
+
+public record ProductStatsResponse(
+        long count,
+        long totalStock,
+        long outOfStock,
+        @JsonProperty("inventoryValue") @JsonSerialize(using = MoneySerializer.class)
+        long inventoryValueCents,
+        @JsonSerialize(contentUsing = MoneySerializer.class)
+        Map<String, Long> pricePercentiles,
+        List<StockBucket> stockHistogram
+) {
+    public record StockBucket(long from, Long to, long count) {
+    }
+}
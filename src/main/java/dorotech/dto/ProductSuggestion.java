@@ -0,0 +1,8 @@
+package dorotech.dto;
+
+public record ProductSuggestion(
+        Long id,
+        String name,
+        Long amount
+) {
+}
@@ -1,16 +1,20 @@
 package dorotech.dto;
 
-import dorotech.domain.Product;
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import dorotech.domain.Money;
+import dorotech.dto.json.MoneyDeserializer;
+import dorotech.dto.json.MoneySerializer;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Positive;
-import jakarta.validation.constraints.Size;
 
 public record ProductUpdateDTO(
         String name,
         String description,
-        @Positive
-        Double price,
+        @Positive @Max(Money.MAX_CENTS)
+        @JsonProperty("price") @JsonSerialize(using = MoneySerializer.class) @JsonDeserialize(using = MoneyDeserializer.class)
+        Long priceCents,
         @Positive
         Long amount
 ) {
@@ -0,0 +1,26 @@
+package dorotech.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import dorotech.domain.Money;
+import dorotech.dto.json.MoneyDeserializer;
+import dorotech.dto.json.MoneySerializer;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record ProductUpsertDTO(
+        @NotBlank
+        String description,
+        @NotNull @Positive @Max(Money.MAX_CENTS)
+        @JsonProperty("price") @JsonSerialize(using = MoneySerializer.class) @JsonDeserialize(using = MoneyDeserializer.class)
+        Long priceCents,
+        @NotNull @Positive
+        Long amount
+) {
+    public ProductRequest toRequest(String name) {
+        return new ProductRequest(name, description, priceCents, amount);
+    }
+}
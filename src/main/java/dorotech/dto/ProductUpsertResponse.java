@@ -0,0 +1,9 @@
+package dorotech.dto;
+
+public record ProductUpsertResponse(
+        Long id,
+        String name,
+        Result result
+) {
+    public enum Result { INSERTED, UPDATED }
+}
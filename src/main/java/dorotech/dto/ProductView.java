@@ -0,0 +1,14 @@
+package dorotech.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import dorotech.dto.json.ProductViewSerializer;
+
+/**
+ * A {@link ProductResponse} restricted to the requested {@link ProductFields}; only those are serialized.
+ */
+@JsonSerialize(using = ProductViewSerializer.class)
+public record ProductView(
+        ProductResponse product,
+        ProductFields fields
+) {
+}
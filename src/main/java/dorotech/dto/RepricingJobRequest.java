@@ -0,0 +1,51 @@
+package dorotech.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import dorotech.domain.Money;
+import dorotech.domain.RepricingJob;
+import dorotech.dto.json.MoneyDeserializer;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.math.BigDecimal;
+
+/**
+ * Reprices every product whose price is within {@code [minPrice, maxPrice]}, both optional, by
+ * {@code operation} with {@code value}: a percentage above -100 for {@code PERCENT}, or an amount in
+ * whole cents for {@code ADD} and {@code SET}. New prices are clamped to the valid price range.
+ */
+public record RepricingJobRequest(
+        @PositiveOrZero @Max(Money.MAX_CENTS)
+        @JsonProperty("minPrice") @JsonDeserialize(using = MoneyDeserializer.class)
+        Long minPriceCents,
+        @PositiveOrZero @Max(Money.MAX_CENTS)
+        @JsonProperty("maxPrice") @JsonDeserialize(using = MoneyDeserializer.class)
+        Long maxPriceCents,
+        @NotNull
+        RepricingJob.Operation operation,
+        @NotNull
+        BigDecimal value
+) {
+    private static final BigDecimal MAX_PERCENT = BigDecimal.valueOf(1000);
+
+    @AssertTrue(message = "minPrice must not be above maxPrice")
+    public boolean isPriceRange() {
+        return minPriceCents == null || maxPriceCents == null || minPriceCents <= maxPriceCents;
+    }
+
+    @AssertTrue(message = "value must be a percentage above -100 and at most 1000 for PERCENT, or whole cents within the price range for ADD and SET")
+    public boolean isValueInRange() {
+        if (operation == null || value == null) return true;
+        return switch (operation) {
+            case PERCENT -> value.compareTo(BigDecimal.valueOf(-100)) > 0 && value.compareTo(MAX_PERCENT) <= 0
+                    && value.stripTrailingZeros().scale() <= 4;
+            case ADD -> value.stripTrailingZeros().scale() <= Money.SCALE
+                    && value.abs().compareTo(Money.toDecimal(Money.MAX_CENTS)) <= 0;
+            case SET -> value.stripTrailingZeros().scale() <= Money.SCALE && value.signum() > 0
+                    && value.compareTo(Money.toDecimal(Money.MAX_CENTS)) <= 0;
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package dorotech.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import dorotech.domain.RepricingJob;
+import dorotech.dto.json.MoneySerializer;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record RepricingJobResponse(
+        UUID id,
+        String status,
+        @JsonProperty("minPrice") @JsonSerialize(using = MoneySerializer.class)
+        long minPriceCents,
+        @JsonProperty("maxPrice") @JsonSerialize(using = MoneySerializer.class)
+        long maxPriceCents,
+        String operation,
+        BigDecimal value,
+        long totalRows,
+        long scannedRows,
+        long updatedRows,
+        double progress,
+        long lastId,
+        String error,
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedAt,
+        OffsetDateTime finishedAt
+) {
+    public static RepricingJobResponse of(RepricingJob job) {
+        double progress = job.status() == RepricingJob.Status.COMPLETED ? 1
+                : job.totalRows() == 0 ? 0 : Math.min(1, (double) job.scannedRows() / job.totalRows());
+        return new RepricingJobResponse(job.id(), job.status().name(), job.minPriceCents(), job.maxPriceCents(),
+                job.operation().name(), job.operand(), job.totalRows(), job.scannedRows(), job.updatedRows(), progress,
+                job.lastId(), job.error(), job.createdAt(), job.updatedAt(), job.finishedAt());
+    }
+}
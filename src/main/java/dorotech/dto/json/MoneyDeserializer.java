@@ -0,0 +1,30 @@
+package dorotech.dto.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import dorotech.domain.Money;
+
+import java.io.IOException;
+
+public class MoneyDeserializer extends StdDeserializer<Long> {
+
+    public MoneyDeserializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_STRING) {
+            return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+        }
+        try {
+            return Money.parseCents(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+        } catch (ArithmeticException | NumberFormatException ex) {
+            return (Long) ctxt.handleWeirdStringValue(Long.class, p.getText(),
+                    "not a monetary amount with at most %d decimal places", Money.SCALE);
+        }
+    }
+}
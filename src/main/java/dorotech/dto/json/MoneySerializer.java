@@ -0,0 +1,31 @@
+package dorotech.dto.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import dorotech.domain.Money;
+
+import java.io.IOException;
+
+public class MoneySerializer extends StdSerializer<Long> {
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[22]);
+
+    public MoneySerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long cents, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        writeCents(cents, gen);
+    }
+
+    public static void writeCents(long cents, JsonGenerator gen) throws IOException {
+        if (!gen.canWriteFormattedNumbers()) {
+            gen.writeNumber(Money.toDecimal(cents));
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        int start = Money.format(cents, buffer);
+        gen.writeNumber(buffer, start, buffer.length - start);
+    }
+}
@@ -0,0 +1,57 @@
+package dorotech.dto.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import dorotech.dto.ProductResponse;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link ProductResponse} field by field with pre-encoded names instead of going through
+ * Jackson's reflective bean serializer. Also used by the streaming export.
+ */
+public class ProductResponseSerializer extends StdSerializer<ProductResponse> {
+    static final SerializedString ID = new SerializedString("id");
+    static final SerializedString NAME = new SerializedString("name");
+    static final SerializedString DESCRIPTION = new SerializedString("description");
+    static final SerializedString PRICE = new SerializedString("price");
+    static final SerializedString AMOUNT = new SerializedString("amount");
+
+    public ProductResponseSerializer() {
+        super(ProductResponse.class);
+    }
+
+    @Override
+    public void serialize(ProductResponse product, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(product);
+        gen.writeFieldName(ID);
+        if (product.id() != null) gen.writeNumber(product.id()); else gen.writeNull();
+        gen.writeFieldName(NAME);
+        gen.writeString(product.name());
+        gen.writeFieldName(DESCRIPTION);
+        gen.writeString(product.description());
+        gen.writeFieldName(PRICE);
+        if (product.priceCents() != null) MoneySerializer.writeCents(product.priceCents(), gen); else gen.writeNull();
+        gen.writeFieldName(AMOUNT);
+        if (product.amount() != null) gen.writeNumber(product.amount()); else gen.writeNull();
+        gen.writeEndObject();
+    }
+
+    public static void writeProduct(JsonGenerator gen, long id, String name, String description,
+                                    long priceCents, long amount) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        gen.writeNumber(id);
+        gen.writeFieldName(NAME);
+        gen.writeString(name);
+        gen.writeFieldName(DESCRIPTION);
+        gen.writeString(description);
+        gen.writeFieldName(PRICE);
+        MoneySerializer.writeCents(priceCents, gen);
+        gen.writeFieldName(AMOUNT);
+        gen.writeNumber(amount);
+        gen.writeEndObject();
+    }
+}
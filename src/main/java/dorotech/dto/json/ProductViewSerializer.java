@@ -0,0 +1,49 @@
+package dorotech.dto.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import dorotech.dto.ProductFields;
+import dorotech.dto.ProductResponse;
+import dorotech.dto.ProductView;
+
+import java.io.IOException;
+
+/**
+ * Writes only the selected fields of a {@link ProductView}, in the same order and encoding as
+ * {@link ProductResponseSerializer}.
+ */
+public class ProductViewSerializer extends StdSerializer<ProductView> {
+
+    public ProductViewSerializer() {
+        super(ProductView.class);
+    }
+
+    @Override
+    public void serialize(ProductView view, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        ProductResponse product = view.product();
+        ProductFields fields = view.fields();
+        gen.writeStartObject(product);
+        if (fields.contains(ProductFields.Field.ID)) {
+            gen.writeFieldName(ProductResponseSerializer.ID);
+            if (product.id() != null) gen.writeNumber(product.id()); else gen.writeNull();
+        }
+        if (fields.contains(ProductFields.Field.NAME)) {
+            gen.writeFieldName(ProductResponseSerializer.NAME);
+            gen.writeString(product.name());
+        }
+        if (fields.contains(ProductFields.Field.DESCRIPTION)) {
+            gen.writeFieldName(ProductResponseSerializer.DESCRIPTION);
+            gen.writeString(product.description());
+        }
+        if (fields.contains(ProductFields.Field.PRICE)) {
+            gen.writeFieldName(ProductResponseSerializer.PRICE);
+            if (product.priceCents() != null) MoneySerializer.writeCents(product.priceCents(), gen); else gen.writeNull();
+        }
+        if (fields.contains(ProductFields.Field.AMOUNT)) {
+            gen.writeFieldName(ProductResponseSerializer.AMOUNT);
+            if (product.amount() != null) gen.writeNumber(product.amount()); else gen.writeNull();
+        }
+        gen.writeEndObject();
+    }
+}
@@ -1,17 +1,26 @@
 package dorotech.exceptions.handler;
 
+import dorotech.deadline.Deadline;
+import dorotech.exceptions.exception.DeadlineExceededException;
 import dorotech.exceptions.exception.EntityExistsException;
 import dorotech.exceptions.exception.EntityNotFoundException;
+import dorotech.exceptions.exception.InvalidFilterException;
 import dorotech.exceptions.response.ErrorResponse;
 import dorotech.exceptions.response.ValidationErrorDTO;
+import dorotech.profiling.ProductErrorEvent;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.OffsetDateTime;
@@ -39,6 +48,29 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.CONFLICT, ex, request);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex, HttpServletRequest request) {
+        return buildErrorResponse(HttpStatus.CONFLICT, ex, request);
+    }
+
+    @ExceptionHandler({DeadlineExceededException.class, QueryTimeoutException.class})
+    public ResponseEntity<ErrorResponse> handleDeadlineExceededException(Exception ex, HttpServletRequest request) {
+        Deadline deadline = Deadline.current();
+        Exception reported = ex instanceof DeadlineExceededException || deadline == null || !deadline.isExpired()
+                ? ex : new DeadlineExceededException("Request deadline exceeded");
+        return buildErrorResponse(HttpStatus.GATEWAY_TIMEOUT, reported, request);
+    }
+
+    @ExceptionHandler(InvalidFilterException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidFilterException(InvalidFilterException ex, HttpServletRequest request) {
+        return buildErrorResponse(HttpStatus.BAD_REQUEST, ex, request);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException ex, HttpServletRequest request) {
+        return buildErrorResponse(HttpStatus.BAD_REQUEST, ex, request);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<List<ValidationErrorDTO>> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex, HttpServletRequest request) {
         List<ValidationErrorDTO> errorList = ex.getBindingResult()
@@ -46,10 +78,25 @@ public class GlobalExceptionHandler {
                 .stream()
                 .map(e -> new ValidationErrorDTO(e.getField(), e.getDefaultMessage()))
                 .toList();
+        ProductErrorEvent.record(ex, HttpStatus.BAD_REQUEST.value(), request.getRequestURI());
+        return ResponseEntity.badRequest().body(errorList);
+    }
+
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<List<ValidationErrorDTO>> handleHandlerMethodValidationException(HandlerMethodValidationException ex, HttpServletRequest request) {
+        List<ValidationErrorDTO> errorList = ex.getParameterValidationResults()
+                .stream()
+                .flatMap(result -> result.getResolvableErrors().stream()
+                        .map(e -> new ValidationErrorDTO(
+                                e instanceof FieldError fieldError ? fieldError.getField() : result.getMethodParameter().getParameterName(),
+                                e.getDefaultMessage())))
+                .toList();
+        ProductErrorEvent.record(ex, HttpStatus.BAD_REQUEST.value(), request.getRequestURI());
         return ResponseEntity.badRequest().body(errorList);
     }
 
     public ResponseEntity<ErrorResponse> buildErrorResponse(HttpStatus httpStatus, Exception ex, HttpServletRequest request) {
+        ProductErrorEvent.record(ex, httpStatus.value(), request.getRequestURI());
         ErrorResponse errorResponse = new ErrorResponse(
                 OffsetDateTime.now(),
                 httpStatus.value(),
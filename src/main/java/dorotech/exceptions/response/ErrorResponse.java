@@ -1,7 +1,10 @@
 package dorotech.exceptions.response;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import java.time.OffsetDateTime;
 
+@JsonSerialize(using = ErrorResponseSerializer.class)
 public class ErrorResponse{
         private OffsetDateTime timestamp;
         private int status;
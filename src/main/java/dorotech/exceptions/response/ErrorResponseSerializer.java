@@ -0,0 +1,41 @@
+package dorotech.exceptions.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+
+public class ErrorResponseSerializer extends StdSerializer<ErrorResponse> {
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString ERROR = new SerializedString("error");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString PATH = new SerializedString("path");
+
+    public ErrorResponseSerializer() {
+        super(ErrorResponse.class);
+    }
+
+    @Override
+    public void serialize(ErrorResponse error, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(error);
+        gen.writeFieldName(TIMESTAMP);
+        if (error.getTimestamp() != null) {
+            gen.writeString(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(error.getTimestamp()));
+        } else {
+            gen.writeNull();
+        }
+        gen.writeFieldName(STATUS);
+        gen.writeNumber(error.getStatus());
+        gen.writeFieldName(ERROR);
+        gen.writeString(error.getError());
+        gen.writeFieldName(MESSAGE);
+        gen.writeString(error.getMessage());
+        gen.writeFieldName(PATH);
+        gen.writeString(error.getPath());
+        gen.writeEndObject();
+    }
+}
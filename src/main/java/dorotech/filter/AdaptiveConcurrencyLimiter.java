@@ -0,0 +1,103 @@
+package dorotech.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gradient-style adaptive concurrency limit. Request latencies are summed per window; at the end of each
+ * window the limit is scaled by {@code tolerance * longRtt / shortRtt} (clamped to [0.5, 1]) plus a
+ * {@code sqrt(limit)} queue allowance, then smoothed. Rising latency therefore shrinks the limit and
+ * steady latency lets it grow. Admission is a single CAS on the in-flight counter.
+ */
+class AdaptiveConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final long windowNanos;
+    private final int minWindowSamples;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicLong nextUpdate;
+    private volatile int limit;
+    private volatile double estimatedLimit;
+    private volatile double longRtt;
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                               long windowNanos, int minWindowSamples, long nowNanos) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("concurrency limits must satisfy 0 < min-limit <= initial-limit <= max-limit");
+        }
+        if (tolerance < 1) throw new IllegalArgumentException("tolerance must be at least 1");
+        if (smoothing <= 0 || smoothing > 1) throw new IllegalArgumentException("smoothing must be in (0, 1]");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.windowNanos = windowNanos;
+        this.minWindowSamples = minWindowSamples;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        this.nextUpdate = new AtomicLong(nowNanos + windowNanos);
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) return false;
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    void release(long rttNanos, long nowNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        windowRttSum.add(rttNanos);
+        windowSamples.increment();
+        long deadline = nextUpdate.get();
+        if (nowNanos - deadline >= 0 && nextUpdate.compareAndSet(deadline, nowNanos + windowNanos)) {
+            update(inFlightAtCompletion);
+        }
+    }
+
+    /** Frees the slot without contributing the request's latency, for requests that are slow by design. */
+    void releaseUnsampled() {
+        inFlight.decrementAndGet();
+    }
+
+    private void update(int inFlightAtCompletion) {
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttSum.sumThenReset();
+        if (samples < minWindowSamples) {
+            windowSamples.add(samples);
+            windowRttSum.add(rttSum);
+            return;
+        }
+        double shortRtt = (double) rttSum / samples;
+        double longRtt = this.longRtt == 0 ? shortRtt : this.longRtt * 0.95 + shortRtt * 0.05;
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        this.longRtt = longRtt;
+        double estimate = estimatedLimit;
+        if (inFlightAtCompletion < estimate / 2 && shortRtt <= longRtt * tolerance) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double next = estimate * gradient + Math.sqrt(estimate);
+        next = estimate * (1 - smoothing) + next * smoothing;
+        next = Math.max(minLimit, Math.min(maxLimit, next));
+        estimatedLimit = next;
+        limit = (int) next;
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
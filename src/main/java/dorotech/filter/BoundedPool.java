@@ -0,0 +1,29 @@
+package dorotech.filter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+class BoundedPool<T> {
+    private final ArrayBlockingQueue<T> idle;
+    private final Supplier<T> factory;
+    private final Consumer<T> reset;
+    private final Consumer<T> discard;
+
+    BoundedPool(int capacity, Supplier<T> factory, Consumer<T> reset, Consumer<T> discard) {
+        this.idle = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+        this.factory = factory;
+        this.reset = reset;
+        this.discard = discard;
+    }
+
+    T borrow() {
+        T item = idle.poll();
+        return item != null ? item : factory.get();
+    }
+
+    void release(T item) {
+        reset.accept(item);
+        if (!idle.offer(item)) discard.accept(item);
+    }
+}
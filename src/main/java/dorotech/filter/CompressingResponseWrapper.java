@@ -0,0 +1,251 @@
+package dorotech.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+class CompressingResponseWrapper extends HttpServletResponseWrapper {
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private enum State { BUFFERING, COMPRESSING, PASSTHROUGH }
+
+    private final ResponseCompressionFilter.Encoding encoding;
+    private final int threshold;
+    private final List<String> mimeTypes;
+    private final BoundedPool<byte[]> bufferPool;
+    private final BoundedPool<Deflater> deflaterPool;
+
+    private State state = State.BUFFERING;
+    private byte[] staging;
+    private int staged;
+    private byte[] output;
+    private Deflater deflater;
+    private CRC32 crc;
+    private long contentLength = -1;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CompressingResponseWrapper(HttpServletResponse response, ResponseCompressionFilter.Encoding encoding, int threshold,
+                               List<String> mimeTypes, BoundedPool<byte[]> bufferPool, BoundedPool<Deflater> deflaterPool) {
+        super(response);
+        this.encoding = encoding;
+        this.threshold = threshold;
+        this.mimeTypes = mimeTypes;
+        this.bufferPool = bufferPool;
+        this.deflaterPool = deflaterPool;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) throw new IllegalStateException("getWriter() has already been called");
+        if (outputStream == null) outputStream = new CompressingOutputStream();
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            if (outputStream != null) throw new IllegalStateException("getOutputStream() has already been called");
+            outputStream = new CompressingOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (state == State.PASSTHROUGH) super.setContentLengthLong(len);
+        else contentLength = len;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) writer.flush();
+        if (state != State.BUFFERING) {
+            flushCompressed();
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (state == State.BUFFERING) staged = 0;
+        super.resetBuffer();
+    }
+
+    void finish() throws IOException {
+        if (writer != null) writer.flush();
+        switch (state) {
+            case BUFFERING -> passthrough(true);
+            case COMPRESSING -> {
+                deflater.finish();
+                drain(Deflater.NO_FLUSH);
+                if (encoding == ResponseCompressionFilter.Encoding.GZIP) writeGzipTrailer();
+            }
+            case PASSTHROUGH -> { }
+        }
+    }
+
+    void release() {
+        if (staging != null) {
+            bufferPool.release(staging);
+            staging = null;
+        }
+        if (output != null) {
+            bufferPool.release(output);
+            output = null;
+        }
+        if (deflater != null) {
+            deflaterPool.release(deflater);
+            deflater = null;
+        }
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        switch (state) {
+            case BUFFERING -> {
+                if (staging == null) staging = bufferPool.borrow();
+                if (staged + len <= threshold) {
+                    System.arraycopy(b, off, staging, staged, len);
+                    staged += len;
+                    return;
+                }
+                if (compressible()) {
+                    startCompression();
+                    compress(b, off, len);
+                } else {
+                    passthrough(false);
+                    getResponse().getOutputStream().write(b, off, len);
+                }
+            }
+            case COMPRESSING -> compress(b, off, len);
+            case PASSTHROUGH -> getResponse().getOutputStream().write(b, off, len);
+        }
+    }
+
+    private boolean compressible() {
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        if (response.containsHeader(HttpHeaders.CONTENT_ENCODING)) return false;
+        String contentType = response.getContentType();
+        if (contentType == null) return false;
+        String mimeType = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        return mimeTypes.contains(mimeType);
+    }
+
+    private void startCompression() throws IOException {
+        state = State.COMPRESSING;
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding.getToken());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        deflater = deflaterPool.borrow();
+        output = bufferPool.borrow();
+        if (encoding == ResponseCompressionFilter.Encoding.GZIP) {
+            crc = new CRC32();
+            response.getOutputStream().write(GZIP_HEADER);
+        }
+        if (staged > 0) compress(staging, 0, staged);
+        staged = 0;
+    }
+
+    private void passthrough(boolean complete) throws IOException {
+        state = State.PASSTHROUGH;
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        if (complete) {
+            response.setContentLengthLong(staged);
+        } else if (contentLength >= 0) {
+            response.setContentLengthLong(contentLength);
+        }
+        if (staged > 0) response.getOutputStream().write(staging, 0, staged);
+        staged = 0;
+    }
+
+    private void compress(byte[] b, int off, int len) throws IOException {
+        if (crc != null) crc.update(b, off, len);
+        deflater.setInput(b, off, len);
+        while (!deflater.needsInput()) {
+            int n = deflater.deflate(output, 0, output.length, Deflater.NO_FLUSH);
+            if (n > 0) getResponse().getOutputStream().write(output, 0, n);
+        }
+    }
+
+    private void flushCompressed() throws IOException {
+        if (state == State.COMPRESSING) drain(Deflater.SYNC_FLUSH);
+    }
+
+    private void drain(int flushMode) throws IOException {
+        ServletOutputStream out = getResponse().getOutputStream();
+        int n;
+        do {
+            n = deflater.deflate(output, 0, output.length, flushMode);
+            if (n > 0) out.write(output, 0, n);
+        } while (n == output.length || (flushMode == Deflater.NO_FLUSH && !deflater.finished()));
+    }
+
+    private void writeGzipTrailer() throws IOException {
+        long crcValue = crc.getValue();
+        long size = deflater.getBytesRead();
+        byte[] trailer = {
+                (byte) crcValue, (byte) (crcValue >> 8), (byte) (crcValue >> 16), (byte) (crcValue >> 24),
+                (byte) size, (byte) (size >> 8), (byte) (size >> 16), (byte) (size >> 24)
+        };
+        getResponse().getOutputStream().write(trailer);
+    }
+
+    private class CompressingOutputStream extends ServletOutputStream {
+        private final byte[] single = new byte[1];
+
+        @Override
+        public void write(int b) throws IOException {
+            single[0] = (byte) b;
+            CompressingResponseWrapper.this.write(single, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            CompressingResponseWrapper.this.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (state != State.BUFFERING) {
+                flushCompressed();
+                getResponse().getOutputStream().flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            throw new UnsupportedOperationException("Async writes are not supported by the compression filter");
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package dorotech.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dorotech.bulkhead.WorkloadClass;
+import dorotech.exceptions.response.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * Admits {@code /products} requests through a per-client token bucket, charging each endpoint class its
+ * configured cost (429 when the bucket is empty), and then through an adaptive concurrency limit that
+ * sheds load with 503 when latency rises. {@code BULK} requests hold a slot but leave the latency
+ * samples alone: an export or import running for minutes would otherwise read as rising latency and
+ * shrink the limit for the cheap requests next to it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RegisterReflectionForBinding(ErrorResponse.class)
+@ConditionalOnProperty(name = "products.rate-limit.enabled", havingValue = "true")
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    enum Cost { LIST, GET, WRITE, BATCH }
+
+    private final ObjectMapper objectMapper;
+    private final TokenBucketLimiter tokenBuckets;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final String clientHeader;
+    private final int[] costs;
+
+    public RateLimitFilter(ObjectMapper objectMapper,
+                           @Value("${products.rate-limit.tokens-per-second:50}") double tokensPerSecond,
+                           @Value("${products.rate-limit.burst:100}") int burst,
+                           @Value("${products.rate-limit.max-clients:100000}") int maxClients,
+                           @Value("${products.rate-limit.client-header:}") String clientHeader,
+                           @Value("${products.rate-limit.cost.list:5}") int listCost,
+                           @Value("${products.rate-limit.cost.get:1}") int getCost,
+                           @Value("${products.rate-limit.cost.write:2}") int writeCost,
+                           @Value("${products.rate-limit.cost.batch:20}") int batchCost,
+                           @Value("${products.rate-limit.concurrency.enabled:true}") boolean concurrencyEnabled,
+                           @Value("${products.rate-limit.concurrency.initial-limit:50}") int initialLimit,
+                           @Value("${products.rate-limit.concurrency.min-limit:8}") int minLimit,
+                           @Value("${products.rate-limit.concurrency.max-limit:400}") int maxLimit,
+                           @Value("${products.rate-limit.concurrency.tolerance:1.5}") double tolerance,
+                           @Value("${products.rate-limit.concurrency.smoothing:0.2}") double smoothing,
+                           @Value("${products.rate-limit.concurrency.window:1s}") Duration window,
+                           @Value("${products.rate-limit.concurrency.min-window-samples:20}") int minWindowSamples) {
+        this.objectMapper = objectMapper;
+        this.tokenBuckets = new TokenBucketLimiter(tokensPerSecond, burst, maxClients);
+        this.concurrencyLimiter = concurrencyEnabled
+                ? new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance, smoothing,
+                        window.toNanos(), minWindowSamples, System.nanoTime())
+                : null;
+        this.clientHeader = clientHeader.isBlank() ? null : clientHeader;
+        this.costs = new int[]{listCost, getCost, writeCost, batchCost};
+        for (int cost : costs) {
+            if (cost <= 0 || cost > burst) {
+                throw new IllegalArgumentException("products.rate-limit.cost values must be between 1 and the burst size");
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !(path.equals("/products") || path.startsWith("/products/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        WorkloadClass workload = WorkloadClass.of(request);
+        Cost cost = cost(workload, request.getRequestURI(), request.getParameterMap().containsKey("ids"));
+        long waitNanos = tokenBuckets.tryAcquire(clientOf(request), costs[cost.ordinal()], start);
+        if (waitNanos > 0) {
+            reject(request, response, HttpStatus.TOO_MANY_REQUESTS, waitNanos, "Rate limit exceeded");
+            return;
+        }
+        if (concurrencyLimiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, 1_000_000_000L, "Server is shedding load");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (workload == WorkloadClass.BULK) {
+                concurrencyLimiter.releaseUnsampled();
+            } else {
+                long end = System.nanoTime();
+                concurrencyLimiter.release(end - start, end);
+            }
+        }
+    }
+
+    /**
+     * Charges by the request's {@link WorkloadClass}, except that a batch read by {@code ids} costs a batch
+     * even though it runs in the list bulkhead.
+     */
+    static Cost classify(String method, String path, boolean hasIds) {
+        return cost(WorkloadClass.of(method, path, hasIds), path, hasIds);
+    }
+
+    private static Cost cost(WorkloadClass workload, String path, boolean hasIds) {
+        return switch (workload) {
+            case POINT_READ -> Cost.GET;
+            case LIST -> hasIds && path.equals("/products") ? Cost.BATCH : Cost.LIST;
+            case WRITE -> Cost.WRITE;
+            case BULK -> Cost.BATCH;
+        };
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        if (clientHeader != null) {
+            String client = request.getHeader(clientHeader);
+            if (client != null && !client.isBlank()) return client;
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, long retryAfterNanos,
+                        String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                OffsetDateTime.now(), status.value(), status.getReasonPhrase(), message, request.getRequestURI()));
+    }
+}
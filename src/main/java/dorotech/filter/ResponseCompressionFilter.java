@@ -0,0 +1,134 @@
+package dorotech.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses product payloads with gzip or deflate when the client accepts it and the body is larger
+ * than the configured threshold. Deflaters and the staging/output buffers are pooled and reused.
+ */
+@Component
+@ConditionalOnProperty(name = "products.compression.enabled", havingValue = "true")
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    public enum Encoding {
+        GZIP("gzip", true),
+        DEFLATE("deflate", false);
+
+        private final String token;
+        private final boolean nowrap;
+
+        Encoding(String token, boolean nowrap) {
+            this.token = token;
+            this.nowrap = nowrap;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        static Encoding fromToken(String token) {
+            for (Encoding encoding : values()) {
+                if (encoding.token.equalsIgnoreCase(token)) return encoding;
+            }
+            return null;
+        }
+    }
+
+    private final int minResponseSize;
+    private final List<Encoding> preferred;
+    private final List<String> mimeTypes;
+    private final BoundedPool<byte[]> bufferPool;
+    private final BoundedPool<Deflater> gzipDeflaters;
+    private final BoundedPool<Deflater> deflateDeflaters;
+
+    public ResponseCompressionFilter(@Value("${products.compression.min-response-size:2KB}") DataSize minResponseSize,
+                                     @Value("${products.compression.encodings:gzip,deflate}") List<String> encodings,
+                                     @Value("${products.compression.gzip-level:6}") int gzipLevel,
+                                     @Value("${products.compression.deflate-level:6}") int deflateLevel,
+                                     @Value("${products.compression.mime-types:application/json,application/x-ndjson,text/csv}") List<String> mimeTypes,
+                                     @Value("${products.compression.buffer-size:8KB}") DataSize bufferSize,
+                                     @Value("${products.compression.pool-size:64}") int poolSize) {
+        this.minResponseSize = (int) minResponseSize.toBytes();
+        this.preferred = encodings.stream().map(Encoding::fromToken).filter(e -> e != null).toList();
+        this.mimeTypes = mimeTypes.stream().map(m -> m.trim().toLowerCase(Locale.ROOT)).toList();
+        int size = (int) Math.max(bufferSize.toBytes(), this.minResponseSize);
+        this.bufferPool = new BoundedPool<>(poolSize * 2, () -> new byte[size], buffer -> { }, buffer -> { });
+        this.gzipDeflaters = deflaterPool(poolSize, gzipLevel, Encoding.GZIP.nowrap);
+        this.deflateDeflaters = deflaterPool(poolSize, deflateLevel, Encoding.DEFLATE.nowrap);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Encoding encoding = "HEAD".equals(request.getMethod()) ? null : negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (encoding == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        BoundedPool<Deflater> deflaters = encoding == Encoding.GZIP ? gzipDeflaters : deflateDeflaters;
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(response, encoding, minResponseSize,
+                mimeTypes, bufferPool, deflaters);
+        try {
+            filterChain.doFilter(request, wrapper);
+            wrapper.finish();
+        } finally {
+            wrapper.release();
+        }
+    }
+
+    Encoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) return null;
+        Encoding best = null;
+        int bestRank = Integer.MAX_VALUE;
+        double bestQuality = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            double quality = 1;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException ex) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (quality <= 0) continue;
+            List<Encoding> candidates = "*".equals(coding) ? preferred : listOf(Encoding.fromToken(coding));
+            for (Encoding candidate : candidates) {
+                int rank = preferred.indexOf(candidate);
+                if (rank < 0) continue;
+                if (quality > bestQuality || (quality == bestQuality && rank < bestRank)) {
+                    best = candidate;
+                    bestRank = rank;
+                    bestQuality = quality;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static List<Encoding> listOf(Encoding encoding) {
+        return encoding == null ? List.of() : List.of(encoding);
+    }
+
+    private static BoundedPool<Deflater> deflaterPool(int size, int level, boolean nowrap) {
+        return new BoundedPool<>(size, () -> new Deflater(level, nowrap), Deflater::reset, Deflater::end);
+    }
+}
@@ -0,0 +1,60 @@
+package dorotech.filter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets stored as a single theoretical-arrival-time per client (GCRA), so a decision
+ * is one map lookup and one CAS. Buckets that have fully refilled are swept when a new client
+ * arrives and the map already holds {@code maxClients}.
+ */
+class TokenBucketLimiter {
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final int maxClients;
+
+    TokenBucketLimiter(double tokensPerSecond, int burst, int maxClients) {
+        if (tokensPerSecond <= 0) throw new IllegalArgumentException("tokensPerSecond must be positive");
+        if (burst <= 0) throw new IllegalArgumentException("burst must be positive");
+        this.nanosPerToken = Math.max(1, Math.round(1_000_000_000d / tokensPerSecond));
+        this.burstNanos = nanosPerToken * burst;
+        this.maxClients = maxClients;
+    }
+
+    /**
+     * Takes {@code cost} tokens from the client's bucket. Returns 0 when admitted, otherwise the number of
+     * nanoseconds until enough tokens will be available.
+     */
+    long tryAcquire(String client, int cost, long nowNanos) {
+        AtomicLong bucket = buckets.get(client);
+        if (bucket == null) {
+            if (buckets.size() >= maxClients) sweep(nowNanos);
+            bucket = buckets.computeIfAbsent(client, key -> new AtomicLong(nowNanos));
+        }
+        long increment = nanosPerToken * cost;
+        while (true) {
+            long tat = bucket.get();
+            long start = Math.max(tat, nowNanos);
+            long next = start + increment;
+            long excess = next - nowNanos - burstNanos;
+            if (excess > 0) return excess;
+            if (bucket.compareAndSet(tat, next)) return 0;
+        }
+    }
+
+    int clients() {
+        return buckets.size();
+    }
+
+    private void sweep(long nowNanos) {
+        if (!sweeping.compareAndSet(false, true)) return;
+        try {
+            buckets.values().removeIf(bucket -> bucket.get() - nowNanos <= 0);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
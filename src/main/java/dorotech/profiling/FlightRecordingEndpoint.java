@@ -0,0 +1,164 @@
+package dorotech.profiling;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.autoconfigure.web.server.ConditionalOnManagementPort;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/jfr}: starts a Flight Recorder recording bounded in duration and size, with the product
+ * events always enabled, and serves the {@code .jfr} file once it has stopped. Only one recording runs at a
+ * time and only the last {@code products.profiling.retained-recordings} files are kept.
+ * Summarize a download with {@code scripts/jfr-summary.sh}.
+ * <p>
+ * Recordings include the environment variables and system properties, database credentials among them,
+ * so the endpoint only exists when it is exposed explicitly and actuator listens on its own
+ * {@code management.server.port}, which is not the public one:
+ * {@code --management.server.port=8081 --management.endpoints.web.exposure.include=health,metrics,jfr}.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+@ConditionalOnAvailableEndpoint(endpoint = FlightRecordingEndpoint.class)
+@ConditionalOnManagementPort(ManagementPortType.DIFFERENT)
+public class FlightRecordingEndpoint implements DisposableBean {
+    private static final int STATUS_ACCEPTED = 202;
+
+    public record RecordingStatus(long id, String state, String duration, long maxSizeBytes) {
+    }
+
+    private final Duration maxDuration;
+    private final DataSize maxSize;
+    private final int retainedRecordings;
+    private final Map<Long, Recording> recordings = new LinkedHashMap<>();
+    private final Map<Long, Path> files = new HashMap<>();
+
+    public FlightRecordingEndpoint(@Value("${products.profiling.max-duration:5m}") Duration maxDuration,
+                                   @Value("${products.profiling.max-size:100MB}") DataSize maxSize,
+                                   @Value("${products.profiling.retained-recordings:3}") int retainedRecordings) {
+        this.maxDuration = maxDuration;
+        this.maxSize = maxSize;
+        this.retainedRecordings = retainedRecordings;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<RecordingStatus> start(@Nullable Duration duration, @Nullable String settings) {
+        Duration length = duration != null ? duration : Duration.ofMinutes(1);
+        if (length.isNegative() || length.isZero() || length.compareTo(maxDuration) > 0) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        if (recordings.values().stream().anyMatch(recording -> recording.getState() == RecordingState.RUNNING)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+        String configurationName = settings != null ? settings : "default";
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(configurationName);
+        } catch (IOException | ParseException ex) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        Recording recording = new Recording(configuration);
+        recording.setName("dorotech-products");
+        recording.enable(ProductOperationEvent.NAME).withThreshold(Duration.ZERO);
+        recording.enable(ProductErrorEvent.NAME);
+        recording.setToDisk(true);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.setDuration(length);
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        evictOldRecordings();
+        return new WebEndpointResponse<>(status(recording), STATUS_ACCEPTED);
+    }
+
+    @ReadOperation
+    public synchronized List<RecordingStatus> recordings() {
+        List<RecordingStatus> statuses = new ArrayList<>(recordings.size());
+        recordings.values().forEach(recording -> statuses.add(status(recording)));
+        return statuses;
+    }
+
+    /**
+     * Returns the recording file, or 202 while it is still running.
+     */
+    @ReadOperation
+    public synchronized WebEndpointResponse<Resource> recording(@Selector long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        if (recording.getState() != RecordingState.STOPPED && recording.getState() != RecordingState.CLOSED) {
+            return new WebEndpointResponse<>(STATUS_ACCEPTED);
+        }
+        if (recording.getState() == RecordingState.CLOSED && !files.containsKey(id)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        // a recording stopped by its duration reports STOPPED before a destination file would be complete,
+        // so the file is dumped here on first download instead
+        Path file = files.computeIfAbsent(id, key -> dump(recording));
+        return new WebEndpointResponse<>(new FileSystemResource(file));
+    }
+
+    @Override
+    public synchronized void destroy() {
+        recordings.values().forEach(this::discard);
+        recordings.clear();
+    }
+
+    private void evictOldRecordings() {
+        Iterator<Recording> iterator = recordings.values().iterator();
+        while (recordings.size() > retainedRecordings && iterator.hasNext()) {
+            discard(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private static Path dump(Recording recording) {
+        try {
+            Path file = Files.createTempFile("dorotech-", ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void discard(Recording recording) {
+        Path file = files.remove(recording.getId());
+        recording.close();
+        try {
+            if (file != null) Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            // a leftover temp file is not worth failing the request or the shutdown for
+        }
+    }
+
+    private static RecordingStatus status(Recording recording) {
+        return new RecordingStatus(recording.getId(), recording.getState().name(),
+                String.valueOf(recording.getDuration()), recording.getMaxSize());
+    }
+}
@@ -0,0 +1,97 @@
+package dorotech.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Prints latency percentiles per product operation, the slowest individual operations and the error
+ * responses found in a {@code .jfr} file: {@code JfrSummary <file.jfr> [top]}.
+ */
+public final class JfrSummary {
+    private static final int DEFAULT_TOP = 20;
+
+    record Operation(String name, long productId, int rows, Duration duration, Duration dbTime,
+                     Duration serializationTime, String thread) {
+    }
+
+    private JfrSummary() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: JfrSummary <file.jfr> [top]");
+            System.exit(2);
+        }
+        summarize(Path.of(args[0]), args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TOP, System.out);
+    }
+
+    public static void summarize(Path file, int top, PrintStream out) throws IOException {
+        Map<String, List<Operation>> byName = new TreeMap<>();
+        Map<String, Integer> errors = new TreeMap<>();
+        PriorityQueue<Operation> slowest = new PriorityQueue<>(Comparator.comparing(Operation::duration));
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                String type = event.getEventType().getName();
+                if (ProductOperationEvent.NAME.equals(type)) {
+                    Operation operation = new Operation(event.getString("operation"), event.getLong("productId"),
+                            event.getInt("rows"), event.getDuration(), event.getDuration("dbTime"),
+                            event.getDuration("serializationTime"),
+                            event.getThread() != null ? event.getThread().getJavaName() : "?");
+                    byName.computeIfAbsent(operation.name(), name -> new ArrayList<>()).add(operation);
+                    slowest.add(operation);
+                    if (slowest.size() > top) slowest.poll();
+                } else if (ProductErrorEvent.NAME.equals(type)) {
+                    errors.merge(event.getInt("status") + " " + event.getString("exception"), 1, Integer::sum);
+                }
+            }
+        }
+
+        out.printf("%-24s %8s %10s %10s %10s %10s %10s%n", "operation", "count", "p50 ms", "p99 ms", "max ms",
+                "db ms avg", "ser ms avg");
+        byName.forEach((name, operations) -> {
+            operations.sort(Comparator.comparing(Operation::duration));
+            out.printf("%-24s %8d %10.3f %10.3f %10.3f %10.3f %10.3f%n", name, operations.size(),
+                    millis(percentile(operations, 50)), millis(percentile(operations, 99)),
+                    millis(operations.get(operations.size() - 1).duration()),
+                    operations.stream().mapToLong(o -> o.dbTime().toNanos()).average().orElse(0) / 1e6,
+                    operations.stream().mapToLong(o -> o.serializationTime().toNanos()).average().orElse(0) / 1e6);
+        });
+
+        List<Operation> ranked = new ArrayList<>(slowest);
+        ranked.sort(Comparator.comparing(Operation::duration).reversed());
+        out.printf("%nslowest %d operations%n", ranked.size());
+        out.printf("%-24s %20s %6s %10s %10s %10s  %s%n", "operation", "product id", "rows", "total ms", "db ms",
+                "ser ms", "thread");
+        for (Operation operation : ranked) {
+            out.printf("%-24s %20d %6d %10.3f %10.3f %10.3f  %s%n", operation.name(), operation.productId(),
+                    operation.rows(), millis(operation.duration()), millis(operation.dbTime()),
+                    millis(operation.serializationTime()), operation.thread());
+        }
+
+        if (!errors.isEmpty()) {
+            out.printf("%nerror responses%n");
+            errors.forEach((error, count) -> out.printf("%8d  %s%n", count, error));
+        }
+    }
+
+    private static Duration percentile(List<Operation> sorted, double p) {
+        int rank = (int) Math.ceil(p / 100 * sorted.size());
+        return sorted.get(Math.max(rank, 1) - 1).duration();
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1e6;
+    }
+}
@@ -0,0 +1,40 @@
+package dorotech.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for each response built by {@code GlobalExceptionHandler}.
+ */
+@Name(ProductErrorEvent.NAME)
+@Label("Product Error Response")
+@Category({"Dorotech", "Products"})
+@StackTrace(false)
+public class ProductErrorEvent extends Event {
+    public static final String NAME = "dorotech.ProductError";
+
+    @Label("Exception")
+    String exception;
+
+    @Label("Message")
+    String message;
+
+    @Label("Status")
+    int status;
+
+    @Label("Path")
+    String path;
+
+    public static void record(Exception ex, int status, String path) {
+        ProductErrorEvent event = new ProductErrorEvent();
+        if (!event.shouldCommit()) return;
+        event.exception = ex.getClass().getName();
+        event.message = ex.getMessage();
+        event.status = status;
+        event.path = path;
+        event.commit();
+    }
+}
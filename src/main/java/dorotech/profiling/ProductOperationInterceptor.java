@@ -0,0 +1,22 @@
+package dorotech.profiling;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Commits the {@link ProductOperationEvent} a handler left on the request. {@code afterCompletion} runs
+ * after a {@code @ResponseBody} has been written, so the gap since the service returned is serialization.
+ */
+@Component
+public class ProductOperationInterceptor implements HandlerInterceptor {
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ProductOperationEvent.PENDING_ATTRIBUTE) instanceof ProductOperationEvent event) {
+            request.removeAttribute(ProductOperationEvent.PENDING_ATTRIBUTE);
+            event.completeResponse();
+        }
+    }
+}
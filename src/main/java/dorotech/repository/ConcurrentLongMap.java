@@ -0,0 +1,220 @@
+package dorotech.repository;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Map from primitive {@code long} keys to values without boxing. Keys are spread over power-of-two
+ * segments, each an open-addressing table with linear probing and backward-shift deletion guarded by a
+ * {@link StampedLock}; lookups try an optimistic read first and only take the read lock on conflict.
+ */
+class ConcurrentLongMap<V> {
+    private static final int SEGMENTS = 32;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final Segment<V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    ConcurrentLongMap() {
+        segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment<>();
+    }
+
+    V get(long key) {
+        long h = mix(key);
+        return segmentFor(h).get(key, h);
+    }
+
+    V put(long key, V value) {
+        if (value == null) throw new NullPointerException("value");
+        long h = mix(key);
+        return segmentFor(h).put(key, h, value);
+    }
+
+    V remove(long key) {
+        long h = mix(key);
+        return segmentFor(h).remove(key, h);
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) size += segment.size();
+        return size;
+    }
+
+    void clear() {
+        for (Segment<V> segment : segments) segment.clear();
+    }
+
+    /**
+     * Visits a weakly consistent view of the values: each segment is copied under its read lock.
+     */
+    void forEachValue(Consumer<? super V> action) {
+        for (Segment<V> segment : segments) {
+            for (Object value : segment.values()) action.accept(cast(value));
+        }
+    }
+
+    private Segment<V> segmentFor(long h) {
+        return segments[(int) (h >>> 59) & (SEGMENTS - 1)];
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V cast(Object value) {
+        return (V) value;
+    }
+
+    private static final class Segment<V> {
+        private final StampedLock lock = new StampedLock();
+        // keys and values are swapped together on resize so an optimistic reader never pairs mismatched arrays
+        private Table table = new Table(16);
+        private int size;
+
+        V get(long key, long h) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                V value = find(table, key, h);
+                if (lock.validate(stamp)) return value;
+            }
+            stamp = lock.readLock();
+            try {
+                return find(table, key, h);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private static <V> V find(Table table, long key, long h) {
+            long[] keys = table.keys;
+            Object[] values = table.values;
+            int mask = keys.length - 1;
+            for (int i = (int) h & mask; ; i = (i + 1) & mask) {
+                Object value = values[i];
+                if (value == null) return null;
+                if (keys[i] == key) return cast(value);
+            }
+        }
+
+        V put(long key, long h, V value) {
+            long stamp = lock.writeLock();
+            try {
+                if (size + 1 > table.keys.length * LOAD_FACTOR) resize();
+                long[] keys = table.keys;
+                Object[] values = table.values;
+                int mask = keys.length - 1;
+                for (int i = (int) h & mask; ; i = (i + 1) & mask) {
+                    Object existing = values[i];
+                    if (existing == null) {
+                        keys[i] = key;
+                        values[i] = value;
+                        size++;
+                        return null;
+                    }
+                    if (keys[i] == key) {
+                        values[i] = value;
+                        return cast(existing);
+                    }
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        V remove(long key, long h) {
+            long stamp = lock.writeLock();
+            try {
+                long[] keys = table.keys;
+                Object[] values = table.values;
+                int mask = keys.length - 1;
+                int i = (int) h & mask;
+                while (true) {
+                    Object existing = values[i];
+                    if (existing == null) return null;
+                    if (keys[i] == key) break;
+                    i = (i + 1) & mask;
+                }
+                Object removed = values[i];
+                // backward-shift the rest of the probe run into the gap so no tombstones are needed
+                int gap = i;
+                for (int j = (gap + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+                    int home = (int) mix(keys[j]) & mask;
+                    if (((j - home) & mask) >= ((j - gap) & mask)) {
+                        keys[gap] = keys[j];
+                        values[gap] = values[j];
+                        gap = j;
+                    }
+                }
+                values[gap] = null;
+                size--;
+                return cast(removed);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        Object[] values() {
+            long stamp = lock.readLock();
+            try {
+                Object[] copy = new Object[size];
+                int n = 0;
+                for (Object value : table.values) {
+                    if (value != null) copy[n++] = value;
+                }
+                return copy;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                table = new Table(16);
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void resize() {
+            long[] oldKeys = table.keys;
+            Object[] oldValues = table.values;
+            Table next = new Table(oldKeys.length * 2);
+            long[] newKeys = next.keys;
+            Object[] newValues = next.values;
+            int mask = newKeys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] == null) continue;
+                int j = (int) mix(oldKeys[i]) & mask;
+                while (newValues[j] != null) j = (j + 1) & mask;
+                newKeys[j] = oldKeys[i];
+                newValues[j] = oldValues[i];
+            }
+            table = next;
+        }
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final Object[] values;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package dorotech.repository;
+
+import dorotech.domain.Product;
+import dorotech.dto.ProductFields;
+import dorotech.dto.ProductRequest;
+import dorotech.dto.ProductResponse;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Storage engine that keeps every product in memory, selected with {@code products.storage.engine=memory}
+ * (the {@code memory} profile). Rows live in a {@link ConcurrentLongMap} keyed by id with a sorted,
+ * case-insensitive name index beside it, mirroring the unique name column in MySQL. Reads are lock-free;
+ * writes are serialised so the map, the name index and the optional write-ahead log at
+ * {@code products.storage.memory.wal-path} always agree. The log is replayed and compacted on startup.
+ */
+@Repository
+@Primary
+@ConditionalOnProperty(name = "products.storage.engine", havingValue = "memory")
+public class InMemoryProductStore implements ProductRepository, ProductBatchRepository, ProductExportRepository,
+        ProductProjectionRepository, DisposableBean {
+
+    record Row(long id, String name, String description, long priceCents, long amount) {
+        Product toProduct() {
+            return new Product(id, name, description, priceCents, amount);
+        }
+
+        ProductResponse project(ProductFields fields) {
+            return ProductProjections.project(id, name, description, priceCents, amount, fields);
+        }
+    }
+
+    private static final Comparator<Row> BY_ID = Comparator.comparingLong(Row::id);
+
+    private final ConcurrentLongMap<Row> rows = new ConcurrentLongMap<>();
+    private final ConcurrentSkipListMap<String, Long> idsByName = new ConcurrentSkipListMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final SnowflakeIdGenerator idGenerator;
+    private final ProductWriteAheadLog log;
+
+    public InMemoryProductStore(SnowflakeIdGenerator idGenerator,
+                                @Value("${products.storage.memory.wal-path:}") String walPath,
+                                @Value("${products.storage.memory.wal-initial-size:64MB}") DataSize walInitialSize,
+                                @Value("${products.storage.memory.wal-sync:false}") boolean walSync) {
+        this.idGenerator = idGenerator;
+        if (walPath == null || walPath.isBlank()) {
+            this.log = null;
+        } else {
+            this.log = new ProductWriteAheadLog(Path.of(walPath), walInitialSize.toBytes(), walSync);
+            log.replay(this::apply, rows::remove, rows::clear);
+            rows.forEachValue(row -> idsByName.put(key(row.name()), row.id()));
+            log.compact(sortedRows(0));
+        }
+    }
+
+    @Override
+    public <S extends Product> S save(S product) {
+        requireColumns(product);
+        writeLock.lock();
+        try {
+            Long owner = idsByName.get(key(product.getName()));
+            if (owner != null && !owner.equals(product.getId())) {
+                throw new DataIntegrityViolationException("Duplicate product name: " + product.getName());
+            }
+            if (product.getId() == null) product.assignId(idGenerator.nextId());
+            write(new Row(product.getId(), product.getName(), product.getDescription(),
+                    product.getPriceCents(), product.getAmount()));
+            return product;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public <S extends Product> List<S> saveAll(Iterable<S> products) {
+        List<S> saved = new ArrayList<>();
+        products.forEach(product -> saved.add(save(product)));
+        return saved;
+    }
+
+    @Override
+    public Optional<Product> findById(Long id) {
+        return Optional.ofNullable(rows.get(id)).map(Row::toProduct);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return rows.get(id) != null;
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return sortedRows(0).stream().map(Row::toProduct).toList();
+    }
+
+    @Override
+    public List<Product> findAllById(Iterable<Long> ids) {
+        List<Row> found = new ArrayList<>();
+        for (Long id : ids) {
+            Row row = rows.get(id);
+            if (row != null) found.add(row);
+        }
+        found.sort(BY_ID);
+        return found.stream().distinct().map(Row::toProduct).toList();
+    }
+
+    @Override
+    public List<ProductResponse> findAll(ProductFields fields) {
+        return sortedRows(0).stream().map(row -> row.project(fields)).toList();
+    }
+
+    @Override
+    public List<ProductResponse> findAllById(Collection<Long> ids, ProductFields fields) {
+        List<Row> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Row row = rows.get(id);
+            if (row != null) found.add(row);
+        }
+        found.sort(BY_ID);
+        return found.stream().distinct().map(row -> row.project(fields)).toList();
+    }
+
+    @Override
+    public long count() {
+        return rows.size();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        writeLock.lock();
+        try {
+            Row removed = rows.remove(id);
+            if (removed == null) return;
+            idsByName.remove(key(removed.name()));
+            if (log != null) log.appendDelete(id);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void delete(Product product) {
+        deleteById(product.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Product> products) {
+        products.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        writeLock.lock();
+        try {
+            rows.clear();
+            idsByName.clear();
+            if (log != null) log.appendClear();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean existsByName(String name) {
+        return idsByName.containsKey(key(name));
+    }
+
+    @Override
+    public List<Product> findAllByNameIn(Collection<String> names) {
+        List<Row> found = new ArrayList<>(names.size());
+        for (String name : names) {
+            Long id = idsByName.get(key(name));
+            Row row = id != null ? rows.get(id) : null;
+            if (row != null) found.add(row);
+        }
+        found.sort(BY_ID);
+        return found.stream().distinct().map(Row::toProduct).toList();
+    }
+
+    @Override
+    public void upsertAll(List<ProductRequest> products) {
+        upsertByName(products);
+    }
+
+    /**
+     * Same contract as the MySQL upsert: an existing name keeps its id and spelling and only takes the new
+     * description, price and amount.
+     */
+    @Override
+    public boolean[] upsertByName(List<ProductRequest> products) {
+        boolean[] inserted = new boolean[products.size()];
+        writeLock.lock();
+        try {
+            for (int i = 0; i < products.size(); i++) {
+                ProductRequest product = products.get(i);
+                Long id = idsByName.get(key(product.name()));
+                Row existing = id != null ? rows.get(id) : null;
+                inserted[i] = existing == null;
+                write(existing == null
+                        ? new Row(idGenerator.nextId(), product.name(), product.description(), product.priceCents(), product.amount())
+                        : new Row(existing.id(), existing.name(), product.description(), product.priceCents(), product.amount()));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        return inserted;
+    }
+
+    @Override
+    public long streamAfter(long afterId, ProductRowHandler handler) {
+        long count = 0;
+        for (Row row : sortedRows(afterId)) {
+            try {
+                handler.accept(row.id(), row.name(), row.description(), row.priceCents(), row.amount());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (log != null) log.close();
+    }
+
+    private void write(Row row) {
+        Row previous = rows.put(row.id(), row);
+        if (previous != null && !key(previous.name()).equals(key(row.name()))) {
+            idsByName.remove(key(previous.name()));
+        }
+        idsByName.put(key(row.name()), row.id());
+        if (log != null) log.appendPut(row);
+    }
+
+    private void apply(Row row) {
+        rows.put(row.id(), row);
+    }
+
+    private List<Row> sortedRows(long afterId) {
+        List<Row> sorted = new ArrayList<>(rows.size());
+        rows.forEachValue(row -> {
+            if (row.id() > afterId) sorted.add(row);
+        });
+        sorted.sort(BY_ID);
+        return sorted;
+    }
+
+    private static void requireColumns(Product product) {
+        if (product.getName() == null || product.getDescription() == null
+                || product.getPriceCents() == null || product.getAmount() == null) {
+            throw new DataIntegrityViolationException("Product columns are not nullable");
+        }
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,115 @@
+package dorotech.repository;
+
+import dorotech.dto.LowStockAlertResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+
+@Repository
+@ConditionalOnProperty(name = "products.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@ConditionalOnBooleanProperty(name = "products.sharding.enabled", havingValue = false, matchIfMissing = true)
+public class JdbcLowStockRepository implements LowStockRepository {
+    // raising and resolving check the product row in the same statement, so a decision made on a stale amount
+    // cannot open or close an alert for a product whose stock has moved on since
+    private static final String RAISE_SQL = """
+            INSERT INTO low_stock_alerts (product_id, open_product_id, amount, threshold, raised_at)
+            SELECT id, id, amount, low_stock_threshold, ? FROM products WHERE id = ? AND amount < low_stock_threshold""";
+    private static final String RESOLVE_SQL = """
+            UPDATE low_stock_alerts
+            SET open_product_id = NULL, resolved_at = ?, resolved_amount = (SELECT amount FROM products WHERE id = ?)
+            WHERE open_product_id = ?
+              AND NOT EXISTS (SELECT 1 FROM products WHERE id = ? AND amount < low_stock_threshold)""";
+    private static final String AMOUNTS_BELOW_SQL = """
+            SELECT id, amount FROM products WHERE amount < ? AND (amount, id) > (?, ?) ORDER BY amount, id LIMIT ?""";
+    private static final String ALERT_COLUMNS =
+            "id, product_id, amount, threshold, raised_at, resolved_amount, resolved_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RowMapper<LowStockAlertResponse> alertMapper = (rs, rowNum) -> new LowStockAlertResponse(
+            rs.getLong(1),
+            rs.getLong(2),
+            rs.getLong(3),
+            rs.getLong(4),
+            toDateTime(rs.getTimestamp(5)),
+            rs.getObject(6, Long.class),
+            toDateTime(rs.getTimestamp(7))
+    );
+
+    public JdbcLowStockRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public OptionalLong updateThreshold(long productId, Long threshold) {
+        if (jdbcTemplate.update("UPDATE products SET low_stock_threshold = ? WHERE id = ?", threshold, productId) == 0) {
+            return OptionalLong.empty();
+        }
+        List<Long> amount = jdbcTemplate.queryForList("SELECT amount FROM products WHERE id = ?", Long.class, productId);
+        return amount.isEmpty() ? OptionalLong.empty() : OptionalLong.of(amount.get(0));
+    }
+
+    @Override
+    public void findThresholds(ThresholdHandler handler) {
+        jdbcTemplate.query("SELECT id, low_stock_threshold FROM products WHERE low_stock_threshold IS NOT NULL",
+                (RowCallbackHandler) rs -> handler.accept(rs.getLong(1), rs.getLong(2)));
+    }
+
+    @Override
+    public List<StockLevel> findAmountsBelow(long maxAmount, long afterAmount, long afterId, int limit) {
+        return jdbcTemplate.query(AMOUNTS_BELOW_SQL, (rs, rowNum) -> new StockLevel(rs.getLong(1), rs.getLong(2)),
+                maxAmount, afterAmount, afterId, limit);
+    }
+
+    @Override
+    public Set<Long> findOpenAlertProductIds() {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT open_product_id FROM low_stock_alerts WHERE open_product_id IS NOT NULL", Long.class));
+    }
+
+    @Override
+    public boolean raise(long productId) {
+        try {
+            return jdbcTemplate.update(RAISE_SQL, Timestamp.from(Instant.now()), productId) > 0;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean resolve(long productId) {
+        return jdbcTemplate.update(RESOLVE_SQL, Timestamp.from(Instant.now()), productId, productId, productId) > 0;
+    }
+
+    @Override
+    public List<LowStockAlertResponse> findAlerts(Boolean open, Long productId, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(ALERT_COLUMNS).append(" FROM low_stock_alerts WHERE id > ?");
+        List<Object> args = new ArrayList<>(3);
+        args.add(afterId);
+        if (open != null) sql.append(open ? " AND open_product_id IS NOT NULL" : " AND open_product_id IS NULL");
+        if (productId != null) {
+            sql.append(" AND product_id = ?");
+            args.add(productId);
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), alertMapper, args.toArray());
+    }
+
+    private static OffsetDateTime toDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant().atZone(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+}
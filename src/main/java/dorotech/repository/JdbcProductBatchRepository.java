@@ -0,0 +1,106 @@
+package dorotech.repository;
+
+import dorotech.domain.Money;
+import dorotech.dto.ProductRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@Repository
+@ConditionalOnProperty(name = "products.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@ConditionalOnBooleanProperty(name = "products.sharding.enabled", havingValue = false, matchIfMissing = true)
+public class JdbcProductBatchRepository implements ProductBatchRepository {
+    private static final String UPSERT_SQL = """
+            INSERT INTO products (id, name, description, price, amount) VALUES (?, ?, ?, ?, ?) AS incoming
+            ON DUPLICATE KEY UPDATE description = incoming.description, price = incoming.price, amount = incoming.amount,
+                version = products.version + 1
+            """;
+    private static final String UPSERT_UPDATE_CLAUSE =
+            " AS incoming ON DUPLICATE KEY UPDATE description = incoming.description, price = incoming.price, amount = incoming.amount,"
+            + " version = products.version + 1";
+    private static final int UPSERT_CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SnowflakeIdGenerator idGenerator;
+
+    public JdbcProductBatchRepository(JdbcTemplate jdbcTemplate, SnowflakeIdGenerator idGenerator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    @Transactional
+    public void upsertAll(List<ProductRequest> products) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, products, products.size(), (ps, product) -> {
+            ps.setLong(1, idGenerator.nextId());
+            ps.setString(2, product.name());
+            ps.setString(3, product.description());
+            ps.setBigDecimal(4, Money.toDecimal(product.priceCents()));
+            ps.setLong(5, product.amount());
+        });
+    }
+
+    /**
+     * Upserts by the unique name with one multi-row statement per chunk and returns, per input row,
+     * whether it was inserted. Existing names are looked up first in the same transaction because
+     * per-row affected counts are not reliable under Connector/J's found-rows mode.
+     */
+    @Override
+    @Transactional
+    public boolean[] upsertByName(List<ProductRequest> products) {
+        boolean[] inserted = new boolean[products.size()];
+        Set<String> seen = new HashSet<>(products.size() * 2);
+        for (int from = 0; from < products.size(); from += UPSERT_CHUNK_SIZE) {
+            List<ProductRequest> chunk = products.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, products.size()));
+            Set<Integer> existing = findExistingIndexes(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                boolean firstInRequest = seen.add(chunk.get(i).name().toLowerCase(Locale.ROOT));
+                inserted[from + i] = firstInRequest && !existing.contains(i);
+            }
+            jdbcTemplate.update(multiRowUpsertSql(chunk.size()), ps -> {
+                int index = 1;
+                for (ProductRequest product : chunk) {
+                    ps.setLong(index++, idGenerator.nextId());
+                    ps.setString(index++, product.name());
+                    ps.setString(index++, product.description());
+                    ps.setBigDecimal(index++, Money.toDecimal(product.priceCents()));
+                    ps.setLong(index++, product.amount());
+                }
+            });
+        }
+        return inserted;
+    }
+
+    private Set<Integer> findExistingIndexes(List<ProductRequest> chunk) {
+        StringBuilder sql = new StringBuilder(64 + chunk.size() * 12)
+                .append("SELECT v.idx FROM (VALUES ");
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) sql.append(',');
+            sql.append("ROW(?, ?)");
+        }
+        sql.append(") AS v (idx, name) JOIN products p ON p.name = v.name");
+        Object[] args = new Object[chunk.size() * 2];
+        for (int i = 0; i < chunk.size(); i++) {
+            args[i * 2] = i;
+            args[i * 2 + 1] = chunk.get(i).name();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(sql.toString(), Integer.class, args));
+    }
+
+    private static String multiRowUpsertSql(int rows) {
+        StringBuilder sql = new StringBuilder(64 + rows * 16 + UPSERT_UPDATE_CLAUSE.length())
+                .append("INSERT INTO products (id, name, description, price, amount) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(',');
+            sql.append("(?, ?, ?, ?, ?)");
+        }
+        return sql.append(UPSERT_UPDATE_CLAUSE).toString();
+    }
+}
@@ -0,0 +1,52 @@
+package dorotech.repository;
+
+import dorotech.domain.Money;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+@Repository
+@ConditionalOnProperty(name = "products.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@ConditionalOnBooleanProperty(name = "products.sharding.enabled", havingValue = false, matchIfMissing = true)
+public class JdbcProductExportRepository implements ProductExportRepository {
+    private static final String STREAM_SQL =
+            "SELECT id, name, description, price, amount FROM products WHERE id > ? ORDER BY id";
+    // Connector/J only streams rows one by one for forward-only, read-only statements with this fetch size
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcProductExportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long streamAfter(long afterId, ProductRowHandler handler) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(STREAM_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(STREAMING_FETCH_SIZE);
+                ps.setLong(1, afterId);
+                long rows = 0;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        handler.accept(rs.getLong(1), rs.getString(2), rs.getString(3), Money.fromDecimal(rs.getBigDecimal(4)), rs.getLong(5));
+                        rows++;
+                    }
+                } catch (IOException ex) {
+                    // the client went away: cancel instead of letting close() drain the remaining rows
+                    ps.cancel();
+                    throw new UncheckedIOException(ex);
+                }
+                return rows;
+            }
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package dorotech.repository;
+
+import dorotech.dto.ProductFields;
+import dorotech.dto.ProductResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads only the requested columns, so a list without {@code description} never pulls the TEXT column
+ * off disk or over the wire.
+ */
+@Repository
+@ConditionalOnProperty(name = "products.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@ConditionalOnBooleanProperty(name = "products.sharding.enabled", havingValue = false, matchIfMissing = true)
+public class JdbcProductProjectionRepository implements ProductProjectionRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JdbcProductProjectionRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<ProductResponse> findAll(ProductFields fields) {
+        return jdbcTemplate.query("SELECT " + ProductProjections.columns(fields) + " FROM products ORDER BY id",
+                ProductProjections.rowMapper(fields));
+    }
+
+    @Override
+    public List<ProductResponse> findAllById(Collection<Long> ids, ProductFields fields) {
+        if (ids.isEmpty()) return List.of();
+        return jdbcTemplate.query(
+                "SELECT " + ProductProjections.columns(fields) + " FROM products WHERE id IN (:ids) ORDER BY id",
+                new MapSqlParameterSource("ids", ids), ProductProjections.rowMapper(fields));
+    }
+}
@@ -0,0 +1,29 @@
+package dorotech.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+@ConditionalOnProperty(name = "products.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@ConditionalOnBooleanProperty(name = "products.sharding.enabled", havingValue = false, matchIfMissing = true)
+public class JdbcProductVersionRepository implements ProductVersionRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JdbcProductVersionRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void findVersionsById(Collection<Long> ids, VersionHandler handler) {
+        if (ids.isEmpty()) return;
+        jdbcTemplate.query("SELECT id, version FROM products WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids),
+                (RowCallbackHandler) rs -> handler.accept(rs.getLong(1), rs.getLong(2)));
+    }
+}
@@ -0,0 +1,132 @@
+package dorotech.repository;
+
+import dorotech.domain.Money;
+import dorotech.domain.RepricingJob;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Repository
+@ConditionalOnProperty(name = "products.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@ConditionalOnBooleanProperty(name = "products.sharding.enabled", havingValue = false, matchIfMissing = true)
+public class JdbcRepricingJobRepository implements RepricingJobRepository {
+    private static final String COLUMNS = """
+            id, status, min_price, max_price, operation, operand, max_id, last_id, total_rows, scanned_rows, updated_rows,
+            error, created_at, updated_at, finished_at""";
+    private static final String INSERT_SQL = "INSERT INTO repricing_jobs (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String NEXT_CHUNK_SQL = "SELECT id FROM products WHERE id > ? AND id <= ? ORDER BY id LIMIT 1 OFFSET ?";
+    // taking the job row lock first serializes chunks with cancellation and with any other instance resuming the job
+    private static final String ADVANCE_SQL = """
+            UPDATE repricing_jobs SET last_id = ?, scanned_rows = scanned_rows + ?, updated_at = ?
+            WHERE id = ? AND status = 'RUNNING' AND last_id = ?""";
+    private static final String REPRICE_SQL = """
+            UPDATE products SET price = LEAST(GREATEST(%s, 0.01), 999999.99), version = version + 1
+            WHERE id > ? AND id <= ? AND price >= ? AND price <= ?""";
+    private static final Map<RepricingJob.Operation, String> REPRICE_SQL_BY_OPERATION = new EnumMap<>(Map.of(
+            RepricingJob.Operation.PERCENT, REPRICE_SQL.formatted("ROUND(price * (100 + CAST(? AS DECIMAL(12,4))) / 100, 2)"),
+            RepricingJob.Operation.ADD, REPRICE_SQL.formatted("price + CAST(? AS DECIMAL(12,4))"),
+            RepricingJob.Operation.SET, REPRICE_SQL.formatted("CAST(? AS DECIMAL(12,4))")
+    ));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RowMapper<RepricingJob> rowMapper = (rs, rowNum) -> new RepricingJob(
+            UUID.fromString(rs.getString(1)),
+            RepricingJob.Status.valueOf(rs.getString(2)),
+            Money.fromDecimal(rs.getBigDecimal(3)),
+            Money.fromDecimal(rs.getBigDecimal(4)),
+            RepricingJob.Operation.valueOf(rs.getString(5)),
+            rs.getBigDecimal(6).stripTrailingZeros(),
+            rs.getLong(7),
+            rs.getLong(8),
+            rs.getLong(9),
+            rs.getLong(10),
+            rs.getLong(11),
+            rs.getString(12),
+            toDateTime(rs.getTimestamp(13)),
+            toDateTime(rs.getTimestamp(14)),
+            toDateTime(rs.getTimestamp(15))
+    );
+
+    public JdbcRepricingJobRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public RepricingJob create(long minPriceCents, long maxPriceCents, RepricingJob.Operation operation, BigDecimal operand) {
+        long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM products", Long.class);
+        long totalRows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE id <= ?", Long.class, maxId);
+        Timestamp now = Timestamp.from(Instant.now());
+        RepricingJob job = new RepricingJob(UUID.randomUUID(), RepricingJob.Status.RUNNING, minPriceCents, maxPriceCents,
+                operation, operand, maxId, 0, totalRows, 0, 0, null, toDateTime(now), toDateTime(now), null);
+        jdbcTemplate.update(INSERT_SQL, job.id().toString(), job.status().name(), Money.toDecimal(minPriceCents),
+                Money.toDecimal(maxPriceCents), operation.name(), operand, maxId, 0L, totalRows, 0L, 0L, null, now, now, null);
+        return job;
+    }
+
+    @Override
+    public Optional<RepricingJob> findById(UUID id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM repricing_jobs WHERE id = ?", rowMapper, id.toString())
+                .stream().findFirst();
+    }
+
+    @Override
+    public List<RepricingJob> findRecent(int limit) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM repricing_jobs ORDER BY created_at DESC LIMIT ?", rowMapper, limit);
+    }
+
+    @Override
+    public List<RepricingJob> findRunning() {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM repricing_jobs WHERE status = 'RUNNING' ORDER BY created_at",
+                rowMapper);
+    }
+
+    @Override
+    public Chunk nextChunk(long afterId, long maxId, int size) {
+        List<Long> end = jdbcTemplate.queryForList(NEXT_CHUNK_SQL, Long.class, afterId, maxId, size - 1);
+        if (!end.isEmpty()) return new Chunk(end.get(0), size);
+        long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE id > ? AND id <= ?", Long.class,
+                afterId, maxId);
+        return new Chunk(maxId, rows);
+    }
+
+    @Override
+    @Transactional
+    public OptionalLong applyChunk(RepricingJob job, long toId, long scannedRows) {
+        String id = job.id().toString();
+        Timestamp now = Timestamp.from(Instant.now());
+        if (jdbcTemplate.update(ADVANCE_SQL, toId, scannedRows, now, id, job.lastId()) == 0) return OptionalLong.empty();
+        int updated = jdbcTemplate.update(REPRICE_SQL_BY_OPERATION.get(job.operation()), job.operand(), job.lastId(), toId,
+                Money.toDecimal(job.minPriceCents()), Money.toDecimal(job.maxPriceCents()));
+        if (updated > 0) {
+            jdbcTemplate.update("UPDATE repricing_jobs SET updated_rows = updated_rows + ? WHERE id = ?", updated, id);
+        }
+        return OptionalLong.of(updated);
+    }
+
+    @Override
+    public boolean finish(UUID id, RepricingJob.Status status, String error) {
+        Timestamp now = Timestamp.from(Instant.now());
+        return jdbcTemplate.update("""
+                UPDATE repricing_jobs SET status = ?, error = ?, updated_at = ?, finished_at = ?
+                WHERE id = ? AND status = 'RUNNING'""", status.name(), error, now, now, id.toString()) > 0;
+    }
+
+    private static OffsetDateTime toDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant().atZone(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+}
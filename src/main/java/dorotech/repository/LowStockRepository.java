@@ -0,0 +1,52 @@
+package dorotech.repository;
+
+import dorotech.dto.LowStockAlertResponse;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+
+public interface LowStockRepository {
+
+    /**
+     * Sets the product's threshold, or clears it when {@code threshold} is {@code null}, and returns the
+     * product's amount. Empty when the product does not exist.
+     */
+    OptionalLong updateThreshold(long productId, Long threshold);
+
+    void findThresholds(ThresholdHandler handler);
+
+    /**
+     * Returns up to {@code limit} products with {@code amount < maxAmount} that come after
+     * {@code (afterAmount, afterId)} in {@code (amount, id)} order, read from the index on amount alone.
+     */
+    List<StockLevel> findAmountsBelow(long maxAmount, long afterAmount, long afterId, int limit);
+
+    Set<Long> findOpenAlertProductIds();
+
+    /**
+     * Opens an alert with the product's current amount and threshold if it is below the threshold and has no
+     * open alert yet. Returns whether one was opened.
+     */
+    boolean raise(long productId);
+
+    /**
+     * Resolves the product's open alert unless it is still below its threshold; alerts of deleted products
+     * are resolved too. Returns whether one was resolved.
+     */
+    boolean resolve(long productId);
+
+    /**
+     * Returns alerts with ids after {@code afterId} in id order; {@code open} selects open or resolved alerts,
+     * {@code null} both, and {@code productId} narrows them to one product when set.
+     */
+    List<LowStockAlertResponse> findAlerts(Boolean open, Long productId, long afterId, int limit);
+
+    @FunctionalInterface
+    interface ThresholdHandler {
+        void accept(long productId, long threshold);
+    }
+
+    record StockLevel(long productId, long amount) {
+    }
+}
@@ -0,0 +1,16 @@
+package dorotech.repository;
+
+import dorotech.dto.ProductRequest;
+
+import java.util.List;
+
+public interface ProductBatchRepository {
+
+    void upsertAll(List<ProductRequest> products);
+
+    /**
+     * Inserts or updates each product by its unique name and returns, per input row, whether it was
+     * inserted. A name repeated within the request counts as inserted only the first time.
+     */
+    boolean[] upsertByName(List<ProductRequest> products);
+}
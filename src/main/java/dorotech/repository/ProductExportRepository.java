@@ -0,0 +1,10 @@
+package dorotech.repository;
+
+public interface ProductExportRepository {
+
+    /**
+     * Streams every product with an id greater than {@code afterId} to the handler in id order and returns
+     * the number of rows handed over.
+     */
+    long streamAfter(long afterId, ProductRowHandler handler);
+}
@@ -0,0 +1,17 @@
+package dorotech.repository;
+
+import dorotech.dto.ProductFields;
+import dorotech.dto.ProductResponse;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductProjectionRepository {
+
+    /**
+     * Returns every product in id order with only the selected fields populated; the id is always read.
+     */
+    List<ProductResponse> findAll(ProductFields fields);
+
+    List<ProductResponse> findAllById(Collection<Long> ids, ProductFields fields);
+}
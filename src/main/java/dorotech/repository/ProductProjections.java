@@ -0,0 +1,51 @@
+package dorotech.repository;
+
+import dorotech.domain.Money;
+import dorotech.dto.ProductFields;
+import dorotech.dto.ProductFields.Field;
+import dorotech.dto.ProductResponse;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * SELECT lists and row mappers for {@link ProductFields}. The id column is always selected so results can be
+ * ordered and matched against the requested ids.
+ */
+final class ProductProjections {
+    private static final String[] COLUMNS = {"id", "name", "description", "price", "amount"};
+
+    private ProductProjections() {
+    }
+
+    static String columns(ProductFields fields) {
+        StringBuilder columns = new StringBuilder(COLUMNS[0]);
+        for (Field field : Field.values()) {
+            if (field != Field.ID && fields.contains(field)) columns.append(", ").append(COLUMNS[field.ordinal()]);
+        }
+        return columns.toString();
+    }
+
+    static RowMapper<ProductResponse> rowMapper(ProductFields fields) {
+        boolean name = fields.contains(Field.NAME);
+        boolean description = fields.contains(Field.DESCRIPTION);
+        boolean price = fields.contains(Field.PRICE);
+        boolean amount = fields.contains(Field.AMOUNT);
+        return (rs, rowNum) -> {
+            int column = 2;
+            return new ProductResponse(
+                    rs.getLong(1),
+                    name ? rs.getString(column++) : null,
+                    description ? rs.getString(column++) : null,
+                    price ? Money.fromDecimal(rs.getBigDecimal(column++)) : null,
+                    amount ? rs.getLong(column) : null);
+        };
+    }
+
+    static ProductResponse project(long id, String name, String description, long priceCents, long amount,
+                                   ProductFields fields) {
+        return new ProductResponse(id,
+                fields.contains(Field.NAME) ? name : null,
+                fields.contains(Field.DESCRIPTION) ? description : null,
+                fields.contains(Field.PRICE) ? priceCents : null,
+                fields.contains(Field.AMOUNT) ? amount : null);
+    }
+}
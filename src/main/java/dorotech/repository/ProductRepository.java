@@ -1,10 +1,15 @@
 package dorotech.repository;
 
 import dorotech.domain.Product;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.ListCrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends ListCrudRepository<Product, Long> {
     boolean existsByName(String name);
+
+    List<Product> findAllByNameIn(Collection<String> names);
 }
@@ -0,0 +1,8 @@
+package dorotech.repository;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface ProductRowHandler {
+    void accept(long id, String name, String description, long priceCents, long amount) throws IOException;
+}
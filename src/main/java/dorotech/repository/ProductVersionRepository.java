@@ -0,0 +1,17 @@
+package dorotech.repository;
+
+import java.util.Collection;
+
+public interface ProductVersionRepository {
+
+    /**
+     * Hands the current row version of every given product that still exists to the handler, in no
+     * particular order. Ids that are not found are skipped.
+     */
+    void findVersionsById(Collection<Long> ids, VersionHandler handler);
+
+    @FunctionalInterface
+    interface VersionHandler {
+        void accept(long id, long version);
+    }
+}
@@ -0,0 +1,193 @@
+package dorotech.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of product mutations in a memory-mapped file. Each record is framed as
+ * {@code [int length][int crc32c][byte type][payload]} and followed by a zero length that marks the end
+ * of the log; replay stops at the first record whose length or checksum does not add up, which drops a
+ * write torn by a crash. The mapping doubles when it fills up. Not thread-safe: the owning store
+ * serialises writes.
+ */
+class ProductWriteAheadLog implements Closeable {
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte CLEAR = 3;
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+
+    private final Path path;
+    private final boolean sync;
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer scratch = ByteBuffer.allocate(1024);
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+
+    ProductWriteAheadLog(Path path, long initialSize, boolean sync) {
+        this.path = path;
+        this.sync = sync;
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            open(path, Math.max(initialSize, 4096));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open product log " + path, ex);
+        }
+    }
+
+    /**
+     * Applies every intact record to the callbacks in write order and positions the log after the last one.
+     */
+    void replay(Consumer<InMemoryProductStore.Row> onPut, Consumer<Long> onDelete, Runnable onClear) {
+        ByteBuffer log = mapped.duplicate().position(0);
+        int end = 0;
+        while (log.remaining() >= HEADER_BYTES) {
+            int length = log.getInt();
+            int checksum = log.getInt();
+            if (length <= 0 || length > log.remaining()) break;
+            ByteBuffer record = log.slice(log.position(), length);
+            crc.reset();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != checksum) break;
+            switch (record.get()) {
+                case PUT -> onPut.accept(readRow(record));
+                case DELETE -> onDelete.accept(record.getLong());
+                case CLEAR -> onClear.run();
+                default -> throw new IllegalStateException("Unknown record type in product log " + path);
+            }
+            log.position(log.position() + length);
+            end = log.position();
+        }
+        mapped.position(end);
+    }
+
+    void appendPut(InMemoryProductStore.Row row) {
+        byte[] name = row.name().getBytes(StandardCharsets.UTF_8);
+        byte[] description = row.description().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = record(PUT, Long.BYTES * 3 + Integer.BYTES * 2 + name.length + description.length);
+        record.putLong(row.id())
+                .putInt(name.length).put(name)
+                .putInt(description.length).put(description)
+                .putLong(row.priceCents())
+                .putLong(row.amount());
+        append(record);
+    }
+
+    void appendDelete(long id) {
+        append(record(DELETE, Long.BYTES).putLong(id));
+    }
+
+    void appendClear() {
+        append(record(CLEAR, 0));
+    }
+
+    /**
+     * Rewrites the log as one PUT per live row into a sibling file and atomically swaps it in, so the log
+     * only grows with the writes since the last start.
+     */
+    void compact(Collection<InMemoryProductStore.Row> rows) {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        long size = mapped.capacity();
+        try {
+            close();
+            Files.deleteIfExists(compacted);
+            open(compacted, size);
+            for (InMemoryProductStore.Row row : rows) appendPut(row);
+            mapped.force();
+            close();
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            open(path, size);
+            ByteBuffer log = mapped.duplicate();
+            int end = 0;
+            // skip over the records just written to find the append position again
+            while (log.remaining() >= HEADER_BYTES) {
+                int length = log.getInt(end);
+                if (length <= 0) break;
+                end += HEADER_BYTES + length;
+            }
+            mapped.position(end);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not compact product log " + path, ex);
+        }
+    }
+
+    long size() {
+        return mapped.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null) return;
+        mapped.force();
+        channel.close();
+        channel = null;
+    }
+
+    private ByteBuffer record(byte type, int payloadBytes) {
+        int length = 1 + payloadBytes;
+        if (scratch.capacity() < length) scratch = ByteBuffer.allocate(Integer.highestOneBit(length) << 1);
+        return scratch.clear().put(type);
+    }
+
+    private void append(ByteBuffer record) {
+        record.flip();
+        int length = record.remaining();
+        crc.reset();
+        crc.update(record.duplicate());
+        ensureCapacity(HEADER_BYTES + length + Integer.BYTES);
+        int start = mapped.position();
+        try {
+            mapped.putInt(length).putInt((int) crc.getValue()).put(record);
+        } catch (BufferOverflowException ex) {
+            throw new IllegalStateException("Product log record does not fit the mapping", ex);
+        }
+        // terminate the log so a replay never reads leftovers of an earlier, longer tail
+        mapped.putInt(mapped.position(), 0);
+        if (sync) mapped.force(start, mapped.position() - start);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (mapped.remaining() >= bytes) return;
+        long size = mapped.capacity();
+        while (size - mapped.position() < bytes) size *= 2;
+        if (size > Integer.MAX_VALUE) throw new IllegalStateException("Product log " + path + " exceeds 2GB");
+        int position = mapped.position();
+        try {
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not grow product log " + path, ex);
+        }
+        mapped.position(position);
+    }
+
+    private void open(Path file, long size) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+    }
+
+    private static InMemoryProductStore.Row readRow(ByteBuffer record) {
+        long id = record.getLong();
+        String name = readString(record);
+        String description = readString(record);
+        return new InMemoryProductStore.Row(id, name, description, record.getLong(), record.getLong());
+    }
+
+    private static String readString(ByteBuffer record) {
+        byte[] bytes = new byte[record.getInt()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
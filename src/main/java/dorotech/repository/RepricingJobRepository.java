@@ -0,0 +1,45 @@
+package dorotech.repository;
+
+import dorotech.domain.RepricingJob;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+public interface RepricingJobRepository {
+
+    /**
+     * Stores a new running job over the products that exist now: its id range ends at the current highest
+     * product id and its total is their count.
+     */
+    RepricingJob create(long minPriceCents, long maxPriceCents, RepricingJob.Operation operation, BigDecimal operand);
+
+    Optional<RepricingJob> findById(UUID id);
+
+    List<RepricingJob> findRecent(int limit);
+
+    List<RepricingJob> findRunning();
+
+    /**
+     * Returns the end of the next chunk of at most {@code size} products after {@code afterId}: the id of the
+     * {@code size}-th product, or {@code maxId} with the number of products left when fewer remain.
+     */
+    Chunk nextChunk(long afterId, long maxId, int size);
+
+    /**
+     * Reprices the job's products in {@code (job.lastId(), toId]} and advances the job to {@code toId} in one
+     * transaction. Returns the number of products updated, or empty without touching anything when the job
+     * is no longer running at {@code job.lastId()} because it was cancelled or another instance moved it on.
+     */
+    OptionalLong applyChunk(RepricingJob job, long toId, long scannedRows);
+
+    /**
+     * Moves a running job to a final status. Returns {@code false} when it had already finished.
+     */
+    boolean finish(UUID id, RepricingJob.Status status, String error);
+
+    record Chunk(long toId, long rows) {
+    }
+}
@@ -0,0 +1,37 @@
+package dorotech.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maps a product id to one of N shards by a mixed hash of the id, so time-ordered ids still spread
+ * evenly instead of piling onto one shard.
+ */
+public class ShardRouter {
+    private final int shards;
+
+    public ShardRouter(int shards) {
+        if (shards <= 0) throw new IllegalArgumentException("shard count must be positive");
+        this.shards = shards;
+    }
+
+    public int shardCount() {
+        return shards;
+    }
+
+    public int shardOf(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) Math.floorMod(h, (long) shards);
+    }
+
+    public List<List<Long>> partition(Collection<Long> ids) {
+        List<List<Long>> byShard = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) byShard.add(new ArrayList<>());
+        for (Long id : ids) {
+            byShard.get(shardOf(id)).add(id);
+        }
+        return byShard;
+    }
+}
@@ -0,0 +1,498 @@
+package dorotech.repository;
+
+import dorotech.domain.Money;
+import dorotech.domain.Product;
+import dorotech.dto.ProductFields;
+import dorotech.dto.ProductRequest;
+import dorotech.dto.ProductResponse;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Product storage over N product databases. Single-id operations go to the shard chosen by
+ * {@link ShardRouter}; list reads are scattered to every shard in parallel and merged in id order, and exports
+ * merge one paged cursor per shard. New products get an application-generated id, which also decides their
+ * shard.
+ * <p>
+ * Each shard's unique name column only sees its own rows, so names are also claimed in the
+ * {@code product_names} directory on the first shard (migrated from {@code db/sharding}) before an insert or
+ * rename touches the product row, and given back if that write fails. The two databases are not written
+ * atomically: a crash between the claim and the row write, or before a rename or delete gives an old name back,
+ * leaves a claim that no product row carries. Such a claim is ignored by name lookups and taken over by the
+ * next product claiming the name once it is older than {@code staleClaimAge}, which only has to outlast a
+ * single row write, so claims of writes still in flight are never taken.
+ * <p>
+ * Updates of a product read with its version check that version like JPA's {@code @Version} does. Batch
+ * upserts run row by row, each row on its own, as there is no transaction spanning the shards.
+ */
+public class ShardedProductRepository implements ProductRepository, ProductProjectionRepository, ProductBatchRepository,
+        ProductExportRepository, ProductVersionRepository, DisposableBean {
+    private static final String COLUMNS = "id, name, description, price, amount, version";
+    private static final RowMapper<Product> ROW_MAPPER = (rs, rowNum) -> {
+        Product product = new Product(rs.getLong(1), rs.getString(2), rs.getString(3),
+                Money.fromDecimal(rs.getBigDecimal(4)), rs.getLong(5));
+        product.assignVersion(rs.getLong(6));
+        return product;
+    };
+    private static final int EXPORT_PAGE_SIZE = 1000;
+
+    private final List<DataSource> dataSources;
+    private final List<NamedParameterJdbcTemplate> shards;
+    private final NamedParameterJdbcTemplate nameDirectory;
+    private final ShardRouter router;
+    private final SnowflakeIdGenerator idGenerator;
+    private final Duration staleClaimAge;
+    private final ExecutorService scatterExecutor;
+
+    public ShardedProductRepository(List<DataSource> dataSources, SnowflakeIdGenerator idGenerator, Duration staleClaimAge) {
+        this.dataSources = List.copyOf(dataSources);
+        this.shards = dataSources.stream().map(NamedParameterJdbcTemplate::new).toList();
+        this.nameDirectory = shards.get(0);
+        this.router = new ShardRouter(dataSources.size());
+        this.idGenerator = idGenerator;
+        this.staleClaimAge = staleClaimAge;
+        this.scatterExecutor = Executors.newFixedThreadPool(dataSources.size(), runnable -> {
+            Thread thread = new Thread(runnable, "product-shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ShardRouter router() {
+        return router;
+    }
+
+    @Override
+    public <S extends Product> S save(S product) {
+        if (product.getId() == null) {
+            long id = idGenerator.nextId();
+            if (claimName(product.getName(), id) != id) {
+                throw new DataIntegrityViolationException("Duplicate product name: " + product.getName());
+            }
+            insert(id, product.getName(), parameters(product).addValue("id", id));
+            product.assignId(id);
+            product.assignVersion(0L);
+        } else {
+            update(product);
+        }
+        return product;
+    }
+
+    @Override
+    public <S extends Product> List<S> saveAll(Iterable<S> products) {
+        List<S> saved = new ArrayList<>();
+        products.forEach(product -> saved.add(save(product)));
+        return saved;
+    }
+
+    @Override
+    public Optional<Product> findById(Long id) {
+        return shardFor(id).query("SELECT " + COLUMNS + " FROM products WHERE id = :id",
+                new MapSqlParameterSource("id", id), ROW_MAPPER).stream().findFirst();
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return Boolean.TRUE.equals(shardFor(id).queryForObject("SELECT EXISTS (SELECT 1 FROM products WHERE id = :id)",
+                new MapSqlParameterSource("id", id), Boolean.class));
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return sortedById(scatter(shard -> shard.query("SELECT " + COLUMNS + " FROM products", ROW_MAPPER)));
+    }
+
+    @Override
+    public List<Product> findAllById(Iterable<Long> ids) {
+        List<Long> idList = new ArrayList<>();
+        ids.forEach(idList::add);
+        return sortedById(scatterByShard(idList, (shard, shardIds) -> shard.query(
+                "SELECT " + COLUMNS + " FROM products WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", shardIds), ROW_MAPPER)));
+    }
+
+    @Override
+    public List<ProductResponse> findAll(ProductFields fields) {
+        String sql = "SELECT " + ProductProjections.columns(fields) + " FROM products";
+        RowMapper<ProductResponse> rowMapper = ProductProjections.rowMapper(fields);
+        return sortedResponses(scatter(shard -> shard.getJdbcTemplate().query(sql, rowMapper)));
+    }
+
+    @Override
+    public List<ProductResponse> findAllById(Collection<Long> ids, ProductFields fields) {
+        String sql = "SELECT " + ProductProjections.columns(fields) + " FROM products WHERE id IN (:ids)";
+        RowMapper<ProductResponse> rowMapper = ProductProjections.rowMapper(fields);
+        return sortedResponses(scatterByShard(ids, (shard, shardIds) -> shard.query(sql,
+                new MapSqlParameterSource("ids", shardIds), rowMapper)));
+    }
+
+    @Override
+    public void findVersionsById(Collection<Long> ids, VersionHandler handler) {
+        if (ids.isEmpty()) return;
+        List<long[]> versions = scatterByShard(ids, (shard, shardIds) -> shard.query(
+                "SELECT id, version FROM products WHERE id IN (:ids)", new MapSqlParameterSource("ids", shardIds),
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)}));
+        for (long[] version : versions) {
+            handler.accept(version[0], version[1]);
+        }
+    }
+
+    @Override
+    public long streamAfter(long afterId, ProductRowHandler handler) {
+        PriorityQueue<ShardCursor> cursors = new PriorityQueue<>(shards.size(),
+                Comparator.comparingLong(cursor -> cursor.current().getId()));
+        for (NamedParameterJdbcTemplate shard : shards) {
+            ShardCursor cursor = new ShardCursor(shard, afterId);
+            if (cursor.advance()) cursors.add(cursor);
+        }
+        long rows = 0;
+        while (!cursors.isEmpty()) {
+            ShardCursor cursor = cursors.poll();
+            Product product = cursor.current();
+            try {
+                handler.accept(product.getId(), product.getName(), product.getDescription(), product.getPriceCents(),
+                        product.getAmount());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            rows++;
+            if (cursor.advance()) cursors.add(cursor);
+        }
+        return rows;
+    }
+
+    @Override
+    public long count() {
+        return scatter(shard -> List.of(shard.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM products", Long.class)))
+                .stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        shardFor(id).update("DELETE FROM products WHERE id = :id", new MapSqlParameterSource("id", id));
+        nameDirectory.update("DELETE FROM product_names WHERE product_id = :id", new MapSqlParameterSource("id", id));
+    }
+
+    @Override
+    public void delete(Product product) {
+        deleteById(product.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Product> products) {
+        products.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        scatter(shard -> List.of(shard.getJdbcTemplate().update("DELETE FROM products")));
+        nameDirectory.getJdbcTemplate().update("DELETE FROM product_names");
+    }
+
+    @Override
+    public boolean existsByName(String name) {
+        Claim claim = findClaim(name);
+        return claim != null && holdsName(claim.productId(), name);
+    }
+
+    @Override
+    public List<Product> findAllByNameIn(Collection<String> names) {
+        if (names.isEmpty()) return List.of();
+        List<Long> ids = nameDirectory.queryForList("SELECT product_id FROM product_names WHERE name IN (:names)",
+                new MapSqlParameterSource("names", names), Long.class);
+        if (ids.isEmpty()) return List.of();
+        Set<String> wanted = new HashSet<>(names.size() * 2);
+        names.forEach(name -> wanted.add(name.toLowerCase(Locale.ROOT)));
+        // claims left behind by a crash point at rows that no longer carry the name
+        List<Product> products = findAllById(new HashSet<>(ids));
+        products.removeIf(product -> !wanted.contains(product.getName().toLowerCase(Locale.ROOT)));
+        return products;
+    }
+
+    @Override
+    public void upsertAll(List<ProductRequest> products) {
+        products.forEach(this::upsert);
+    }
+
+    @Override
+    public boolean[] upsertByName(List<ProductRequest> products) {
+        boolean[] inserted = new boolean[products.size()];
+        Set<String> seen = new HashSet<>(products.size() * 2);
+        for (int i = 0; i < products.size(); i++) {
+            boolean firstInRequest = seen.add(products.get(i).name().toLowerCase(Locale.ROOT));
+            inserted[i] = upsert(products.get(i)) && firstInRequest;
+        }
+        return inserted;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        scatterExecutor.shutdownNow();
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable closeable) closeable.close();
+        }
+    }
+
+    private boolean upsert(ProductRequest product) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("name", product.name())
+                .addValue("description", product.description())
+                .addValue("price", Money.toDecimal(product.priceCents()))
+                .addValue("amount", product.amount());
+        long id = idGenerator.nextId();
+        long holder = claimName(product.name(), id);
+        if (holder == id) {
+            insert(id, product.name(), parameters.addValue("id", id));
+            return true;
+        }
+        int updated = shardFor(holder).update(
+                "UPDATE products SET description = :description, price = :price, amount = :amount, version = version + 1 WHERE id = :id",
+                parameters.addValue("id", holder));
+        // the holder's row is being inserted or deleted right now
+        if (updated == 0) throw new ObjectOptimisticLockingFailureException(Product.class, holder);
+        return false;
+    }
+
+    private void insert(long id, String name, MapSqlParameterSource parameters) {
+        try {
+            shardFor(id).update(
+                    "INSERT INTO products (id, name, description, price, amount) VALUES (:id, :name, :description, :price, :amount)",
+                    parameters);
+        } catch (RuntimeException ex) {
+            undo(ex, () -> releaseName(name, id));
+            throw ex;
+        }
+    }
+
+    private void update(Product product) {
+        long id = product.getId();
+        NamedParameterJdbcTemplate shard = shardFor(id);
+        String current = currentName(id);
+        if (current == null) throw new ObjectOptimisticLockingFailureException(Product.class, id);
+        String name = product.getName();
+        boolean renamed = !current.equals(name);
+        // a change of case only rewrites the product's own claim, which may be the same key under the collation
+        boolean recased = renamed && current.equalsIgnoreCase(name);
+        if (recased) {
+            recaseName(id, current, name);
+        } else if (renamed && claimName(name, id) != id) {
+            throw new DataIntegrityViolationException("Duplicate product name: " + name);
+        }
+        Runnable undoRename = recased ? () -> recaseName(id, name, current) : () -> releaseName(name, id);
+
+        MapSqlParameterSource parameters = parameters(product);
+        String sql = "UPDATE products SET name = :name, description = :description, price = :price, amount = :amount, version = version + 1 WHERE id = :id";
+        if (product.getVersion() != null) {
+            sql += " AND version = :version";
+            parameters.addValue("version", product.getVersion());
+        }
+        int updated;
+        try {
+            updated = shard.update(sql, parameters);
+        } catch (RuntimeException ex) {
+            if (renamed) undo(ex, undoRename);
+            throw ex;
+        }
+        if (updated == 0) {
+            ObjectOptimisticLockingFailureException conflict = new ObjectOptimisticLockingFailureException(Product.class, id);
+            if (renamed) undo(conflict, undoRename);
+            throw conflict;
+        }
+        if (renamed && !recased) releaseName(current, id);
+        if (product.getVersion() != null) product.assignVersion(product.getVersion() + 1);
+    }
+
+    /**
+     * Claims {@code name} for product {@code id} and returns the id of the product holding it afterwards:
+     * {@code id} when the claim succeeded, the current holder otherwise. A stale claim is taken over.
+     */
+    private long claimName(String name, long id) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                nameDirectory.update("INSERT INTO product_names (name, product_id, claimed_at) VALUES (:name, :id, :claimedAt)",
+                        new MapSqlParameterSource("name", name).addValue("id", id)
+                                .addValue("claimedAt", Timestamp.from(Instant.now())));
+                return id;
+            } catch (DuplicateKeyException ex) {
+                Claim holder = findClaim(name);
+                if (holder != null && (attempt > 0 || !releaseIfStale(holder))) return holder.productId();
+                if (attempt > 0) throw new DataIntegrityViolationException("Duplicate product name: " + name, ex);
+            }
+        }
+    }
+
+    private boolean releaseIfStale(Claim claim) {
+        if (claim.claimedAt().isAfter(Instant.now().minus(staleClaimAge))) return false;
+        if (holdsName(claim.productId(), claim.name())) return false;
+        nameDirectory.update("DELETE FROM product_names WHERE name = :name AND product_id = :id AND claimed_at = :claimedAt",
+                new MapSqlParameterSource("name", claim.name()).addValue("id", claim.productId())
+                        .addValue("claimedAt", Timestamp.from(claim.claimedAt())));
+        return true;
+    }
+
+    private void recaseName(long id, String from, String to) {
+        try {
+            nameDirectory.update("UPDATE product_names SET name = :to WHERE name = :from AND product_id = :id",
+                    new MapSqlParameterSource("to", to).addValue("from", from).addValue("id", id));
+        } catch (DuplicateKeyException ex) {
+            throw new DataIntegrityViolationException("Duplicate product name: " + to, ex);
+        }
+    }
+
+    private void releaseName(String name, long id) {
+        nameDirectory.update("DELETE FROM product_names WHERE name = :name AND product_id = :id",
+                new MapSqlParameterSource("name", name).addValue("id", id));
+    }
+
+    private Claim findClaim(String name) {
+        return nameDirectory.query("SELECT name, product_id, claimed_at FROM product_names WHERE name = :name",
+                new MapSqlParameterSource("name", name),
+                (rs, rowNum) -> new Claim(rs.getString(1), rs.getLong(2), rs.getTimestamp(3).toInstant()))
+                .stream().findFirst().orElse(null);
+    }
+
+    private boolean holdsName(long id, String name) {
+        String current = currentName(id);
+        return current != null && current.equalsIgnoreCase(name);
+    }
+
+    private String currentName(long id) {
+        return shardFor(id).query("SELECT name FROM products WHERE id = :id", new MapSqlParameterSource("id", id),
+                (rs, rowNum) -> rs.getString(1)).stream().findFirst().orElse(null);
+    }
+
+    private static void undo(RuntimeException failure, Runnable compensation) {
+        try {
+            compensation.run();
+        } catch (RuntimeException ex) {
+            // the claim is left behind and taken over once stale
+            failure.addSuppressed(ex);
+        }
+    }
+
+    private NamedParameterJdbcTemplate shardFor(long id) {
+        return shards.get(router.shardOf(id));
+    }
+
+    private <T> List<T> scatter(Function<NamedParameterJdbcTemplate, List<T>> query) {
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(shards.size());
+        for (NamedParameterJdbcTemplate shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), scatterExecutor));
+        }
+        return join(futures);
+    }
+
+    private <T> List<T> scatterByShard(Collection<Long> ids, BiFunction<NamedParameterJdbcTemplate, List<Long>, List<T>> query) {
+        List<List<Long>> byShard = router.partition(ids);
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            List<Long> shardIds = byShard.get(i);
+            if (shardIds.isEmpty()) continue;
+            NamedParameterJdbcTemplate shard = shards.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard, shardIds), scatterExecutor));
+        }
+        return join(futures);
+    }
+
+    private static <T> List<T> join(List<CompletableFuture<List<T>>> futures) {
+        List<T> merged = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<T>> future : futures) {
+                merged.addAll(future.join());
+            }
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw ex;
+        }
+        return merged;
+    }
+
+    private static List<Product> sortedById(List<Product> products) {
+        products.sort(Comparator.comparing(Product::getId));
+        return products;
+    }
+
+    private static List<ProductResponse> sortedResponses(List<ProductResponse> products) {
+        products.sort(Comparator.comparing(ProductResponse::id));
+        return products;
+    }
+
+    private static MapSqlParameterSource parameters(Product product) {
+        return new MapSqlParameterSource()
+                .addValue("id", product.getId())
+                .addValue("name", product.getName())
+                .addValue("description", product.getDescription())
+                .addValue("price", Money.toDecimal(product.getPriceCents()))
+                .addValue("amount", product.getAmount());
+    }
+
+    private record Claim(String name, long productId, Instant claimedAt) {
+    }
+
+    /**
+     * Walks one shard's rows after a given id in pages, so an export holds no connection between pages.
+     */
+    private static final class ShardCursor {
+        private final NamedParameterJdbcTemplate shard;
+        private List<Product> page = List.of();
+        private int next;
+        private long afterId;
+        private boolean lastPage;
+        private Product current;
+
+        ShardCursor(NamedParameterJdbcTemplate shard, long afterId) {
+            this.shard = shard;
+            this.afterId = afterId;
+        }
+
+        Product current() {
+            return current;
+        }
+
+        boolean advance() {
+            if (next == page.size()) {
+                if (lastPage) return false;
+                page = shard.query("SELECT " + COLUMNS + " FROM products WHERE id > :afterId ORDER BY id LIMIT :limit",
+                        new MapSqlParameterSource("afterId", afterId).addValue("limit", EXPORT_PAGE_SIZE), ROW_MAPPER);
+                next = 0;
+                lastPage = page.size() < EXPORT_PAGE_SIZE;
+                if (page.isEmpty()) return false;
+            }
+            current = page.get(next++);
+            afterId = current.getId();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package dorotech.repository;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered 64-bit ids: 41 bits of milliseconds since {@link #EPOCH_MILLIS}, followed by
+ * {@code workerBits} of worker id and the remaining {@code 22 - workerBits} bits of per-millisecond
+ * sequence. The last timestamp and sequence are packed into one atomic long, so concurrent callers never
+ * block. When the sequence is exhausted, or the clock steps back by no more than the skew tolerance, the
+ * generator keeps counting on its own timestamp; a larger backwards step fails instead of risking ids
+ * that sort before already issued ones.
+ */
+public class SnowflakeIdGenerator {
+    public static final long EPOCH_MILLIS = 1_735_689_600_000L; // 2025-01-01T00:00:00Z
+    public static final int DEFAULT_WORKER_BITS = 10;
+    static final int NODE_AND_SEQUENCE_BITS = 22;
+
+    private final int sequenceBits;
+    private final long sequenceMask;
+    private final long shiftedWorkerId;
+    private final long skewToleranceMillis;
+    private final LongSupplier clock;
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(long workerId) {
+        this(workerId, DEFAULT_WORKER_BITS, 10_000, System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator(long workerId, int workerBits, long skewToleranceMillis) {
+        this(workerId, workerBits, skewToleranceMillis, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(long workerId, int workerBits, long skewToleranceMillis, LongSupplier clock) {
+        if (workerBits < 0 || workerBits > NODE_AND_SEQUENCE_BITS - 4) {
+            throw new IllegalArgumentException("worker bits must be between 0 and " + (NODE_AND_SEQUENCE_BITS - 4));
+        }
+        long maxWorkerId = (1L << workerBits) - 1;
+        if (workerId < 0 || workerId > maxWorkerId) {
+            throw new IllegalArgumentException("worker id must be between 0 and " + maxWorkerId);
+        }
+        if (skewToleranceMillis < 0) throw new IllegalArgumentException("clock skew tolerance must not be negative");
+        this.sequenceBits = NODE_AND_SEQUENCE_BITS - workerBits;
+        this.sequenceMask = (1L << sequenceBits) - 1;
+        this.shiftedWorkerId = workerId << sequenceBits;
+        this.skewToleranceMillis = skewToleranceMillis;
+        this.clock = clock;
+    }
+
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long lastMillis = current >>> sequenceBits;
+            long wallMillis = clock.getAsLong() - EPOCH_MILLIS;
+            if (lastMillis - wallMillis > skewToleranceMillis) {
+                throw new IllegalStateException("Clock moved backwards by " + (lastMillis - wallMillis)
+                        + "ms, more than the tolerated " + skewToleranceMillis + "ms");
+            }
+            long next;
+            if (wallMillis > lastMillis) {
+                next = wallMillis << sequenceBits;
+            } else if ((current & sequenceMask) < sequenceMask) {
+                next = current + 1;
+            } else {
+                // sequence exhausted for this millisecond: borrow the next one
+                next = (lastMillis + 1) << sequenceBits;
+            }
+            if (state.compareAndSet(current, next)) {
+                return ((next >>> sequenceBits) << NODE_AND_SEQUENCE_BITS) | shiftedWorkerId | (next & sequenceMask);
+            }
+        }
+    }
+
+    public long workerIdOf(long id) {
+        return (id & ((1L << NODE_AND_SEQUENCE_BITS) - 1)) >>> sequenceBits;
+    }
+
+    public static long timestampOf(long id) {
+        return (id >>> NODE_AND_SEQUENCE_BITS) + EPOCH_MILLIS;
+    }
+}
@@ -0,0 +1,36 @@
+package dorotech.repository;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Hibernate side of {@link SnowflakeId}. Hibernate instantiates generators itself, so the configured
+ * {@link SnowflakeIdGenerator} is installed here at startup. Inserting before that fails rather than
+ * falling back to some worker id another instance may be using too.
+ */
+public class SnowflakeIdentifierGenerator implements BeforeExecutionGenerator {
+    private static volatile SnowflakeIdGenerator generator;
+
+    public static void install(SnowflakeIdGenerator configured) {
+        generator = configured;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        if (currentValue != null) return currentValue;
+        SnowflakeIdGenerator current = generator;
+        if (current == null) {
+            throw new IllegalStateException("No SnowflakeIdGenerator installed; import IdGeneratorConfig into this context");
+        }
+        return current.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
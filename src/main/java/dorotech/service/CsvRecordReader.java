@@ -0,0 +1,87 @@
+package dorotech.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader: quoted fields may contain commas, doubled quotes and line breaks.
+ * Records are read one at a time so the input is never buffered as a whole.
+ */
+public class CsvRecordReader {
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder(64);
+    private long line = 1;
+    private long recordLine;
+    private int lookahead = -2;
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    public List<String> next() throws IOException {
+        int ch = read();
+        while (ch == '\r' || ch == '\n') {
+            ch = read();
+        }
+        if (ch == -1) return null;
+        recordLine = line;
+        List<String> record = new ArrayList<>(4);
+        boolean quoted = false;
+        field.setLength(0);
+        while (true) {
+            if (quoted) {
+                if (ch == -1) throw new IOException("Unterminated quoted field starting at line " + recordLine);
+                if (ch == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        ch = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) ch);
+                }
+            } else if (ch == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (ch == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n' || ch == '\r' || ch == -1) {
+                if (ch == '\r') {
+                    int next = read();
+                    if (next != '\n') unread(next);
+                }
+                record.add(field.toString());
+                return record;
+            } else {
+                field.append((char) ch);
+            }
+            ch = read();
+        }
+    }
+
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        int ch;
+        if (lookahead != -2) {
+            ch = lookahead;
+            lookahead = -2;
+        } else {
+            ch = reader.read();
+        }
+        if (ch == '\n') line++;
+        return ch;
+    }
+
+    private void unread(int ch) {
+        if (ch == '\n') line--;
+        lookahead = ch;
+    }
+}
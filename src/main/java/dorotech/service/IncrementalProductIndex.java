@@ -0,0 +1,143 @@
+package dorotech.service;
+
+import dorotech.bulkhead.WorkloadClass;
+import dorotech.domain.ProductChangedEvent;
+import dorotech.repository.ProductExportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory structure over the products table that is built from one streaming scan and then kept current
+ * from {@link ProductChangedEvent}s, reloading from scratch on a {@code BULK} change.
+ * <p>
+ * {@code BULK} reloads run on this index's own background thread, outside the publishing request's deadline
+ * and connection budget; a failed reload is logged and leaves the previous structure in place. Bulk changes
+ * that arrive while a reload is still queued share it.
+ * <p>
+ * A reload builds the new structure without holding {@link #lock}, so readers keep using the old one.
+ * Events that arrive meanwhile are queued and applied on top of the new structure once it is installed; if
+ * the scan fails they are applied to the old one instead.
+ *
+ * @param <L> what {@link #load} builds and {@link #install} swaps in
+ */
+public abstract class IncrementalProductIndex<L> implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(IncrementalProductIndex.class);
+
+    /** Guards the subclass's structure: readers take the read lock, installs and applied events the write lock. */
+    protected final StampedLock lock = new StampedLock();
+
+    private final ProductExportRepository productExportRepository;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final List<ProductChangedEvent> missedDuringReload = new ArrayList<>();
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+    private final ExecutorService reloader;
+    private boolean reloading;
+
+    protected IncrementalProductIndex(ProductExportRepository productExportRepository) {
+        this.productExportRepository = productExportRepository;
+        this.reloader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(WorkloadClass.BULK.wrap(runnable), "product-index-reload-" + getClass().getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Builds a new structure from a full scan; called without {@link #lock} held. */
+    protected abstract L load(ProductExportRepository productExportRepository);
+
+    /** Replaces the current structure with a loaded one; called with the write lock held. */
+    protected abstract void install(L loaded);
+
+    /** Applies a single-product change; called with the write lock held. */
+    protected abstract void apply(ProductChangedEvent event);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        reloadLock.lock();
+        try {
+            long stamp = lock.writeLock();
+            reloading = true;
+            lock.unlockWrite(stamp);
+
+            L loaded;
+            try {
+                loaded = load(productExportRepository);
+            } catch (RuntimeException ex) {
+                finishReload(null);
+                throw ex;
+            }
+            finishReload(loaded);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.BULK) {
+            if (reloadQueued.compareAndSet(false, true)) {
+                try {
+                    reloader.execute(this::reloadAfterBulkChange);
+                } catch (RejectedExecutionException ex) {
+                    // shutting down
+                    reloadQueued.set(false);
+                }
+            }
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (reloading) {
+                missedDuringReload.add(event);
+            } else {
+                apply(event);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void reloadAfterBulkChange() {
+        // cleared before the scan starts, so a bulk change the scan may not see queues another reload
+        reloadQueued.set(false);
+        long start = System.nanoTime();
+        try {
+            reload();
+            log.debug("Reloaded {} after a bulk change in {} ms", getClass().getSimpleName(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException ex) {
+            log.warn("Could not reload {} after a bulk change, keeping the previous data: {}",
+                    getClass().getSimpleName(), ex.getMessage());
+        }
+    }
+
+    private void finishReload(L loaded) {
+        long stamp = lock.writeLock();
+        try {
+            if (loaded != null) install(loaded);
+            reloading = false;
+            missedDuringReload.forEach(this::apply);
+            missedDuringReload.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        reloader.shutdownNow();
+    }
+}
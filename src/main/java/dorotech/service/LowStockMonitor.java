@@ -0,0 +1,189 @@
+package dorotech.service;
+
+import dorotech.bulkhead.WorkloadClass;
+import dorotech.domain.Product;
+import dorotech.dto.LowStockAlertResponse;
+import dorotech.dto.LowStockThresholdResponse;
+import dorotech.exceptions.exception.EntityNotFoundException;
+import dorotech.exceptions.exception.InvalidFilterException;
+import dorotech.repository.LowStockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raises an alert when a product's amount falls below its {@code low_stock_threshold} and resolves it once
+ * the amount is back up. The thresholds are kept on the heap, so {@link ProductService} write paths compare
+ * the amount before and after a write against them and only touch the database on an actual crossing.
+ * <p>
+ * Changes that bypass those paths, such as imports or other instances' writes, are caught by a
+ * reconciliation every {@code products.low-stock.reconcile-interval}: it reloads the thresholds and walks
+ * the index on amount in batches, up to the highest threshold, so it never reads the whole table.
+ */
+@Component
+@ConditionalOnProperty(name = "products.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@ConditionalOnBooleanProperty(name = "products.sharding.enabled", havingValue = false, matchIfMissing = true)
+public class LowStockMonitor implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(LowStockMonitor.class);
+
+    private final LowStockRepository lowStockRepository;
+    private final Duration reconcileInterval;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Long, Long> thresholds = new ConcurrentHashMap<>();
+
+    public LowStockMonitor(LowStockRepository lowStockRepository,
+                           @Value("${products.low-stock.reconcile-interval:1m}") Duration reconcileInterval,
+                           @Value("${products.low-stock.reconcile-batch-size:1000}") int batchSize) {
+        if (reconcileInterval.isNegative() || reconcileInterval.isZero()) {
+            throw new IllegalArgumentException("products.low-stock.reconcile-interval must be positive");
+        }
+        this.lowStockRepository = lowStockRepository;
+        this.reconcileInterval = reconcileInterval;
+        this.batchSize = batchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(WorkloadClass.BULK.wrap(runnable), "product-low-stock");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, 0, reconcileInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public LowStockThresholdResponse updateThreshold(long productId, Long threshold) {
+        long amount = lowStockRepository.updateThreshold(productId, threshold)
+                .orElseThrow(() -> new EntityNotFoundException("Product Not Found"));
+        if (threshold != null) {
+            thresholds.put(productId, threshold);
+        } else {
+            thresholds.remove(productId);
+        }
+        boolean low = threshold != null && amount < threshold;
+        if (low) {
+            lowStockRepository.raise(productId);
+        } else {
+            lowStockRepository.resolve(productId);
+        }
+        return new LowStockThresholdResponse(productId, amount, threshold, low);
+    }
+
+    public List<LowStockAlertResponse> findAlerts(String status, Long productId, Long after, int limit) {
+        Boolean open = switch (status) {
+            case "open" -> true;
+            case "resolved" -> false;
+            case "all" -> null;
+            default -> throw new InvalidFilterException("Unknown alert status '" + status + "', expected open, resolved or all");
+        };
+        return lowStockRepository.findAlerts(open, productId, after != null ? after : 0, limit);
+    }
+
+    /**
+     * Called after a write changed one product's amount from {@code before} to {@code after}.
+     */
+    public void amountChanged(long productId, long before, long after) {
+        Long threshold = thresholds.get(productId);
+        if (threshold == null) return;
+        boolean wasLow = before < threshold;
+        boolean low = after < threshold;
+        if (low != wasLow) evaluate(productId, low);
+    }
+
+    /**
+     * Called after a batch write whose previous amounts are unknown.
+     */
+    public void amountsChanged(Collection<Product> products) {
+        for (Product product : products) {
+            Long threshold = thresholds.get(product.getId());
+            if (threshold != null) evaluate(product.getId(), product.getAmount() < threshold);
+        }
+    }
+
+    public void productDeleted(long productId) {
+        if (thresholds.remove(productId) != null) evaluate(productId, false);
+    }
+
+    private void evaluate(long productId, boolean low) {
+        try {
+            if (low) {
+                lowStockRepository.raise(productId);
+            } else {
+                lowStockRepository.resolve(productId);
+            }
+        } catch (DataAccessException ex) {
+            // the write itself succeeded; the next reconciliation settles the alert
+            log.debug("Could not evaluate low stock of product {}: {}", productId, ex.getMessage());
+        }
+    }
+
+    void reconcile() {
+        long start = System.nanoTime();
+        Map<Long, Long> loaded = new HashMap<>();
+        lowStockRepository.findThresholds(loaded::put);
+        thresholds.keySet().retainAll(loaded.keySet());
+        thresholds.putAll(loaded);
+
+        long maxThreshold = loaded.values().stream().mapToLong(Long::longValue).max().orElse(0);
+        Set<Long> low = new HashSet<>();
+        long afterAmount = Long.MIN_VALUE;
+        long afterId = Long.MIN_VALUE;
+        List<LowStockRepository.StockLevel> batch;
+        do {
+            batch = lowStockRepository.findAmountsBelow(maxThreshold, afterAmount, afterId, batchSize);
+            for (LowStockRepository.StockLevel level : batch) {
+                Long threshold = loaded.get(level.productId());
+                if (threshold != null && level.amount() < threshold) low.add(level.productId());
+            }
+            if (!batch.isEmpty()) {
+                afterAmount = batch.get(batch.size() - 1).amount();
+                afterId = batch.get(batch.size() - 1).productId();
+            }
+        } while (batch.size() == batchSize);
+
+        Set<Long> open = lowStockRepository.findOpenAlertProductIds();
+        int raised = 0;
+        int resolved = 0;
+        for (Long productId : low) {
+            if (!open.contains(productId) && lowStockRepository.raise(productId)) raised++;
+        }
+        for (Long productId : open) {
+            if (!low.contains(productId) && lowStockRepository.resolve(productId)) resolved++;
+        }
+        log.debug("Reconciled low stock of {} watched products in {} ms: {} low, {} raised, {} resolved", loaded.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), low.size(), raised, resolved);
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (DataAccessException ex) {
+            log.warn("Could not reconcile low stock alerts, retrying in {}: {}", reconcileInterval, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,178 @@
+package dorotech.service;
+
+import dorotech.bulkhead.WorkloadClass;
+import dorotech.deadline.Deadline;
+import dorotech.domain.Product;
+import dorotech.exceptions.exception.DeadlineExceededException;
+import dorotech.repository.ProductRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Merges concurrent single-id lookups that arrive within a short window into one
+ * {@code findAllById} query. A lookup that finds no other lookup pending or in flight runs at once on the
+ * caller's thread, so only callers that actually overlap wait for the window. Merged queries run on a
+ * small pool under the latest {@link Deadline} of the callers they serve, each capped at
+ * {@code products.batch-loader.query-timeout}, so a query nobody waits for any more is cancelled. A window of
+ * zero disables batching.
+ */
+@Component
+public class ProductBatchLoader implements DisposableBean {
+    private final ProductRepository productRepository;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Duration queryTimeout;
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+    private Map<Long, CompletableFuture<Optional<Product>>> pending = new HashMap<>();
+    private Deadline pendingDeadline;
+    private boolean flushScheduled;
+    private int inFlight;
+
+    public ProductBatchLoader(ProductRepository productRepository,
+                              @Value("${products.batch-loader.window:2ms}") Duration window,
+                              @Value("${products.batch-loader.max-batch-size:100}") int maxBatchSize,
+                              @Value("${products.batch-loader.flush-threads:4}") int flushThreads,
+                              @Value("${products.batch-loader.query-timeout:2s}") Duration queryTimeout) {
+        if (queryTimeout.isNegative() || queryTimeout.isZero()) {
+            throw new IllegalArgumentException("products.batch-loader.query-timeout must be positive");
+        }
+        this.productRepository = productRepository;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.queryTimeout = queryTimeout;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(flushThreads, runnable -> {
+            Thread thread = new Thread(WorkloadClass.POINT_READ.wrap(runnable),
+                    "product-batch-loader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Optional<Product> load(Long id) {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            try {
+                return loadAsync(id).join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) throw cause;
+                throw ex;
+            }
+        }
+        Deadline.check();
+        try {
+            // the merged query serves other callers too, so only this caller stops waiting at its deadline
+            return loadAsync(id).get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            throw new DeadlineExceededException("Request deadline exceeded");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw new CompletionException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for product " + id, ex);
+        }
+    }
+
+    public CompletableFuture<Optional<Product>> loadAsync(Long id) {
+        if (windowNanos <= 0) {
+            return CompletableFuture.completedFuture(productRepository.findById(id));
+        }
+        CompletableFuture<Optional<Product>> future = null;
+        Map<Long, CompletableFuture<Optional<Product>>> fullBatch = null;
+        Deadline fullBatchDeadline = null;
+        boolean schedule = false;
+        Deadline callerDeadline = Deadline.after(Duration.ofNanos(Deadline.remainingNanos(queryTimeout.toNanos())));
+        synchronized (lock) {
+            // with nothing to merge with, waiting out the window would only add latency
+            if (pending.isEmpty() && inFlight == 0) {
+                inFlight++;
+            } else {
+                future = pending.computeIfAbsent(id, key -> new CompletableFuture<>());
+                pendingDeadline = callerDeadline.later(pendingDeadline);
+                if (pending.size() >= maxBatchSize) {
+                    fullBatch = pending;
+                    fullBatchDeadline = pendingDeadline;
+                    pending = new HashMap<>();
+                    pendingDeadline = null;
+                    inFlight++;
+                } else if (!flushScheduled) {
+                    flushScheduled = true;
+                    schedule = true;
+                }
+            }
+        }
+        if (future == null) {
+            try {
+                return CompletableFuture.completedFuture(productRepository.findById(id));
+            } finally {
+                queryDone();
+            }
+        }
+        if (fullBatch != null) {
+            dispatch(fullBatch, fullBatchDeadline);
+        } else if (schedule) {
+            scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+        }
+        return future;
+    }
+
+    private void flush() {
+        Map<Long, CompletableFuture<Optional<Product>>> batch;
+        Deadline deadline;
+        synchronized (lock) {
+            batch = pending;
+            deadline = pendingDeadline;
+            pending = new HashMap<>();
+            pendingDeadline = null;
+            flushScheduled = false;
+            if (batch.isEmpty()) return;
+            inFlight++;
+        }
+        dispatch(batch, deadline);
+    }
+
+    /** Runs a batch that was counted in {@code inFlight} when it was taken from {@code pending}. */
+    private void dispatch(Map<Long, CompletableFuture<Optional<Product>>> batch, Deadline deadline) {
+        Deadline previous = deadline.bind();
+        try {
+            Map<Long, Product> found = new HashMap<>(batch.size() * 2);
+            for (Product product : productRepository.findAllById(batch.keySet())) {
+                found.put(product.getId(), product);
+            }
+            batch.forEach((id, future) -> future.complete(Optional.ofNullable(found.get(id))));
+        } catch (RuntimeException ex) {
+            batch.values().forEach(future -> future.completeExceptionally(ex));
+        } finally {
+            Deadline.restore(previous);
+            queryDone();
+        }
+    }
+
+    private void queryDone() {
+        synchronized (lock) {
+            inFlight--;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
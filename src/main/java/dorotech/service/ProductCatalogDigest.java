@@ -0,0 +1,277 @@
+package dorotech.service;
+
+import dorotech.domain.ProductChangedEvent;
+import dorotech.dto.ProductDigestResponse;
+import dorotech.dto.ProductResponse;
+import dorotech.exceptions.exception.EntityNotFoundException;
+import dorotech.repository.ProductExportRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Merkle tree over id ranges of the catalog, so a mirror can find the ranges it disagrees on by walking down
+ * from the root instead of downloading everything. The tree has a fixed power-of-two number of leaves; a
+ * node's hash is the wrapping sum of the row hashes below it, so a write only touches one leaf and its
+ * ancestors.
+ * <p>
+ * A layout spreads the rows over the first half of the leaves at id quantiles and keeps the rest empty. New
+ * ids are the highest yet, so they land in the last used leaf, whose range is open-ended: once it holds a
+ * quantile's worth of rows the next empty leaf is opened at the new id, which narrows the open range of the
+ * previous one without moving any row. Only when the empty leaves run out, or an inner leaf grows
+ * {@code products.digest.rebalance-factor} times past its share, are the boundaries recomputed in memory
+ * and {@code layoutVersion} changes, so appends rebuild the layout about once per doubling of the catalog.
+ * <p>
+ * A row hash is the first 8 bytes (big-endian) of the SHA-256 of the UTF-8 text
+ * {@code id \n name \n description \n priceCents \n amount}.
+ */
+@Component
+@ConditionalOnProperty(name = "products.digest.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductCatalogDigest extends IncrementalProductIndex<ProductCatalogDigest.Loaded> {
+    private static final int MIN_REBALANCE_ROWS = 16;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final int leafCount;
+    private final int height;
+    private final int maxLevels;
+    private final double rebalanceFactor;
+    private final RowHasher eventHasher = new RowHasher();
+
+    private long[] ids = new long[0];
+    private long[] rowHashes = new long[0];
+    private int size;
+    private final long[] lowerBounds;
+    private final long[] nodeHashes;
+    private final long[] nodeCounts;
+    private int lastLeaf;
+    private long leafRows;
+    private long layoutVersion;
+
+    public ProductCatalogDigest(ProductExportRepository productExportRepository,
+                                @Value("${products.digest.leaves:4096}") int leafCount,
+                                @Value("${products.digest.max-levels:6}") int maxLevels,
+                                @Value("${products.digest.rebalance-factor:2.0}") double rebalanceFactor) {
+        super(productExportRepository);
+        if (leafCount < 2 || Integer.bitCount(leafCount) != 1) {
+            throw new IllegalArgumentException("products.digest.leaves must be a power of two, was " + leafCount);
+        }
+        if (rebalanceFactor <= 1) {
+            throw new IllegalArgumentException("products.digest.rebalance-factor must be above 1, was " + rebalanceFactor);
+        }
+        this.leafCount = leafCount;
+        this.height = Integer.numberOfTrailingZeros(leafCount);
+        this.maxLevels = maxLevels;
+        this.rebalanceFactor = rebalanceFactor;
+        this.lowerBounds = new long[leafCount];
+        this.nodeHashes = new long[leafCount * 2];
+        this.nodeCounts = new long[leafCount * 2];
+        rebuildLayout();
+    }
+
+    @Override
+    protected Loaded load(ProductExportRepository productExportRepository) {
+        RowHasher hasher = new RowHasher();
+        long[][] loaded = {new long[1024], new long[1024]};
+        int[] count = {0};
+        productExportRepository.streamAfter(0, (id, name, description, priceCents, amount) -> {
+            if (count[0] == loaded[0].length) {
+                loaded[0] = Arrays.copyOf(loaded[0], count[0] << 1);
+                loaded[1] = Arrays.copyOf(loaded[1], count[0] << 1);
+            }
+            loaded[0][count[0]] = id;
+            loaded[1][count[0]] = hasher.hash(id, name, description, priceCents, amount);
+            count[0]++;
+        });
+        return new Loaded(loaded[0], loaded[1], count[0]);
+    }
+
+    @Override
+    protected void install(Loaded loaded) {
+        ids = loaded.ids();
+        rowHashes = loaded.rowHashes();
+        size = loaded.size();
+        rebuildLayout();
+    }
+
+    /**
+     * Returns {@code node} and its descendants down to {@code levels} levels below it (capped by
+     * {@code products.digest.max-levels} and the leaves), breadth first. The cost does not depend on the
+     * catalog size.
+     */
+    public ProductDigestResponse digest(int node, int levels) {
+        if (node < 1 || node >= leafCount * 2) throw new EntityNotFoundException("Digest node not found");
+        int level = levelOf(node);
+        int depth = Math.max(0, Math.min(levels, Math.min(maxLevels, height - level)));
+        List<ProductDigestResponse.Node> nodes = new ArrayList<>((2 << depth) - 1);
+        long stamp = lock.readLock();
+        try {
+            for (int d = 0; d <= depth; d++) {
+                int first = node << d;
+                for (int index = first; index < first + (1 << d); index++) nodes.add(describe(index));
+            }
+            return new ProductDigestResponse(layoutVersion, leafCount, nodes);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private ProductDigestResponse.Node describe(int index) {
+        int level = levelOf(index);
+        int first = (index << (height - level)) - leafCount;
+        int last = ((index + 1) << (height - level)) - 1 - leafCount;
+        long next = last + 1 < leafCount ? lowerBounds[last + 1] : Long.MAX_VALUE;
+        long toId = next == Long.MAX_VALUE ? Long.MAX_VALUE : next - 1;
+        return new ProductDigestResponse.Node(index, level, lowerBounds[first], toId, nodeCounts[index],
+                HEX.toHexDigits(nodeHashes[index]));
+    }
+
+    @Override
+    protected void apply(ProductChangedEvent event) {
+        int index = Arrays.binarySearch(ids, 0, size, event.id());
+        switch (event.type()) {
+            case CREATED, UPDATED -> {
+                long hash = eventHasher.hash(event.product());
+                int leaf = leafOf(event.id());
+                if (index >= 0) {
+                    addToLeaf(leaf, hash - rowHashes[index], 0);
+                    rowHashes[index] = hash;
+                } else {
+                    insertAt(-index - 1, event.id(), hash);
+                    addToLeaf(leaf, hash, 1);
+                    long rows = nodeCounts[leafCount + leaf];
+                    if (leaf == lastLeaf && -index - 1 == size - 1) {
+                        if (rows > leafRows) openLeaf(event.id(), hash);
+                    } else if (rows > rebalanceFactor * leafRows) {
+                        rebuildLayout();
+                    }
+                }
+            }
+            case DELETED -> {
+                if (index >= 0) {
+                    addToLeaf(leafOf(event.id()), -rowHashes[index], -1);
+                    removeAt(index);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void rebuildLayout() {
+        int used = leafCount / 2;
+        lowerBounds[0] = 0;
+        for (int leaf = 1; leaf < leafCount; leaf++) {
+            lowerBounds[leaf] = size == 0 || leaf >= used ? Long.MAX_VALUE : ids[(int) ((long) leaf * size / used)];
+        }
+        lastLeaf = size == 0 ? 0 : used - 1;
+        leafRows = Math.max(MIN_REBALANCE_ROWS, (size + used - 1) / used);
+        Arrays.fill(nodeHashes, 0);
+        Arrays.fill(nodeCounts, 0);
+        int leaf = 0;
+        for (int i = 0; i < size; i++) {
+            while (leaf + 1 < leafCount && ids[i] >= lowerBounds[leaf + 1]) leaf++;
+            nodeHashes[leafCount + leaf] += rowHashes[i];
+            nodeCounts[leafCount + leaf]++;
+        }
+        for (int node = leafCount - 1; node >= 1; node--) {
+            nodeHashes[node] = nodeHashes[2 * node] + nodeHashes[2 * node + 1];
+            nodeCounts[node] = nodeCounts[2 * node] + nodeCounts[2 * node + 1];
+        }
+        layoutVersion++;
+    }
+
+    /**
+     * Moves the row just appended to the full last leaf into the next empty one, which starts at its id.
+     */
+    private void openLeaf(long id, long hash) {
+        if (lastLeaf + 1 == leafCount) {
+            rebuildLayout();
+            return;
+        }
+        addToLeaf(lastLeaf, -hash, -1);
+        lastLeaf++;
+        lowerBounds[lastLeaf] = id;
+        addToLeaf(lastLeaf, hash, 1);
+    }
+
+    private int leafOf(long id) {
+        int low = 0;
+        int high = leafCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (lowerBounds[mid] <= id) low = mid; else high = mid - 1;
+        }
+        return low;
+    }
+
+    private void addToLeaf(int leaf, long hashDelta, int countDelta) {
+        for (int node = leafCount + leaf; node >= 1; node >>>= 1) {
+            nodeHashes[node] += hashDelta;
+            nodeCounts[node] += countDelta;
+        }
+    }
+
+    private void insertAt(int index, long id, long hash) {
+        if (size == ids.length) {
+            int capacity = Math.max(16, size + (size >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            rowHashes = Arrays.copyOf(rowHashes, capacity);
+        }
+        int tail = size - index;
+        if (tail > 0) {
+            System.arraycopy(ids, index, ids, index + 1, tail);
+            System.arraycopy(rowHashes, index, rowHashes, index + 1, tail);
+        }
+        ids[index] = id;
+        rowHashes[index] = hash;
+        size++;
+    }
+
+    private void removeAt(int index) {
+        int tail = size - index - 1;
+        if (tail > 0) {
+            System.arraycopy(ids, index + 1, ids, index, tail);
+            System.arraycopy(rowHashes, index + 1, rowHashes, index, tail);
+        }
+        size--;
+    }
+
+    private static int levelOf(int node) {
+        return 31 - Integer.numberOfLeadingZeros(node);
+    }
+
+    record Loaded(long[] ids, long[] rowHashes, int size) {
+    }
+
+    static final class RowHasher {
+        private final MessageDigest sha256;
+
+        RowHasher() {
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        long hash(ProductResponse product) {
+            return hash(product.id(), product.name(), product.description(), product.priceCents(), product.amount());
+        }
+
+        long hash(long id, String name, String description, long priceCents, long amount) {
+            String canonical = id + "\n" + name + "\n" + description + "\n" + priceCents + "\n" + amount;
+            byte[] digest = sha256.digest(canonical.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < Long.BYTES; i++) hash = (hash << 8) | (digest[i] & 0xFF);
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package dorotech.service;
+
+import dorotech.domain.ProductChangedEvent;
+import dorotech.dto.ProductStatsResponse;
+import dorotech.repository.ProductExportRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Column-per-field copy of the products table (ids kept sorted, prices in cents) used for analytics aggregations.
+ */
+@Component
+@ConditionalOnProperty(name = "products.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductColumnarSnapshot extends IncrementalProductIndex<ProductColumnarSnapshot.Loaded> {
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final double[] PERCENTILES = {50, 90, 95, 99};
+
+
+    private long[] ids = new long[0];
+    private long[] prices = new long[0];
+    private long[] amounts = new long[0];
+    private int size;
+    private long modCount;
+
+    private long[] sortedPrices;
+    private long sortedPricesModCount = -1;
+
+    public ProductColumnarSnapshot(ProductExportRepository productExportRepository) {
+        super(productExportRepository);
+    }
+
+    @Override
+    protected Loaded load(ProductExportRepository productExportRepository) {
+        Columns columns = new Columns();
+        productExportRepository.streamAfter(0, (id, name, description, priceCents, amount) ->
+                columns.append(id, priceCents, amount));
+        return new Loaded(columns);
+    }
+
+    @Override
+    protected void install(Loaded loaded) {
+        Columns columns = loaded.columns();
+        ids = columns.ids;
+        prices = columns.prices;
+        amounts = columns.amounts;
+        size = columns.size;
+        modCount++;
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public ProductStatsResponse stats(long[] stockBucketBounds) {
+        long stamp = lock.readLock();
+        try {
+            int n = size;
+            long[] priceColumn = prices;
+            long[] amountColumn = amounts;
+            int chunks = n < PARALLEL_THRESHOLD ? 1 : ForkJoinPool.getCommonPoolParallelism() * 4;
+            ChunkStats total = IntStream.range(0, chunks)
+                    .parallel()
+                    .mapToObj(c -> ChunkStats.of(priceColumn, amountColumn,
+                            (int) ((long) c * n / chunks), (int) ((long) (c + 1) * n / chunks), stockBucketBounds))
+                    .reduce(ChunkStats::merge)
+                    .orElseGet(() -> new ChunkStats(0, 0, 0, new long[stockBucketBounds.length]));
+
+            List<ProductStatsResponse.StockBucket> histogram = new ArrayList<>(stockBucketBounds.length);
+            for (int b = 0; b < stockBucketBounds.length; b++) {
+                Long upper = b + 1 < stockBucketBounds.length ? stockBucketBounds[b + 1] : null;
+                histogram.add(new ProductStatsResponse.StockBucket(stockBucketBounds[b], upper, total.buckets[b]));
+            }
+            return new ProductStatsResponse(n, total.totalStock, total.outOfStock, total.inventoryValueCents,
+                    pricePercentiles(), histogram);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Map<String, Long> pricePercentiles() {
+        long[] sorted;
+        synchronized (this) {
+            if (sortedPricesModCount != modCount) {
+                sortedPrices = Arrays.copyOf(prices, size);
+                Arrays.parallelSort(sortedPrices);
+                sortedPricesModCount = modCount;
+            }
+            sorted = sortedPrices;
+        }
+        Map<String, Long> percentiles = new LinkedHashMap<>();
+        for (double p : PERCENTILES) {
+            if (sorted.length == 0) {
+                percentiles.put("p" + (int) p, null);
+                continue;
+            }
+            int rank = (int) Math.ceil(p / 100 * sorted.length);
+            percentiles.put("p" + (int) p, sorted[Math.max(rank, 1) - 1]);
+        }
+        return percentiles;
+    }
+
+    @Override
+    protected void apply(ProductChangedEvent event) {
+        int index = Arrays.binarySearch(ids, 0, size, event.id());
+        switch (event.type()) {
+            case CREATED, UPDATED -> {
+                long price = event.product().priceCents();
+                long amount = event.product().amount();
+                if (index >= 0) {
+                    prices[index] = price;
+                    amounts[index] = amount;
+                } else {
+                    insertAt(-index - 1, event.id(), price, amount);
+                }
+            }
+            case DELETED -> {
+                if (index >= 0) removeAt(index);
+            }
+            default -> {
+                return;
+            }
+        }
+        modCount++;
+    }
+
+    private void insertAt(int index, long id, long price, long amount) {
+        if (size == ids.length) {
+            int capacity = Math.max(16, size + (size >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+        int tail = size - index;
+        if (tail > 0) {
+            System.arraycopy(ids, index, ids, index + 1, tail);
+            System.arraycopy(prices, index, prices, index + 1, tail);
+            System.arraycopy(amounts, index, amounts, index + 1, tail);
+        }
+        ids[index] = id;
+        prices[index] = price;
+        amounts[index] = amount;
+        size++;
+    }
+
+    private void removeAt(int index) {
+        int tail = size - index - 1;
+        if (tail > 0) {
+            System.arraycopy(ids, index + 1, ids, index, tail);
+            System.arraycopy(prices, index + 1, prices, index, tail);
+            System.arraycopy(amounts, index + 1, amounts, index, tail);
+        }
+        size--;
+    }
+
+    private record ChunkStats(long inventoryValueCents, long totalStock, long outOfStock, long[] buckets) {
+
+        static ChunkStats of(long[] prices, long[] amounts, int from, int to, long[] bounds) {
+            long value = 0;
+            long stock = 0;
+            long empty = 0;
+            for (int i = from; i < to; i++) {
+                long amount = amounts[i];
+                value += prices[i] * amount;
+                stock += amount;
+                empty += amount <= 0 ? 1 : 0;
+            }
+            long[] buckets = new long[bounds.length];
+            for (int i = from; i < to; i++) {
+                int bucket = Arrays.binarySearch(bounds, amounts[i]);
+                if (bucket < 0) bucket = -bucket - 2;
+                if (bucket >= 0) buckets[bucket]++;
+            }
+            return new ChunkStats(value, stock, empty, buckets);
+        }
+
+        ChunkStats merge(ChunkStats other) {
+            long[] merged = buckets.clone();
+            for (int b = 0; b < merged.length; b++) merged[b] += other.buckets[b];
+            return new ChunkStats(inventoryValueCents + other.inventoryValueCents, totalStock + other.totalStock,
+                    outOfStock + other.outOfStock, merged);
+        }
+    }
+
+    record Loaded(Columns columns) {
+    }
+
+    private static class Columns {
+        long[] ids = new long[1024];
+        long[] prices = new long[1024];
+        long[] amounts = new long[1024];
+        int size;
+
+        void append(long id, long price, long amount) {
+            if (size == ids.length) {
+                int capacity = size << 1;
+                ids = Arrays.copyOf(ids, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+            }
+            ids[size] = id;
+            prices[size] = price;
+            amounts[size] = amount;
+            size++;
+        }
+    }
+}
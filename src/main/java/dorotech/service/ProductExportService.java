@@ -0,0 +1,99 @@
+package dorotech.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dorotech.domain.Money;
+import dorotech.dto.json.ProductResponseSerializer;
+import dorotech.repository.ProductExportRepository;
+import dorotech.repository.ProductRowHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+@Service
+public class ProductExportService {
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    private final ProductExportRepository productExportRepository;
+    private final JsonFactory jsonFactory;
+
+    public ProductExportService(ProductExportRepository productExportRepository, ObjectMapper objectMapper) {
+        this.productExportRepository = productExportRepository;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public long export(OutputStream out, Format format, long afterId) throws IOException {
+        return format == Format.CSV ? exportCsv(out, afterId) : exportNdjson(out, afterId);
+    }
+
+    private long exportNdjson(OutputStream out, long afterId) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            ProductRowHandler handler = (id, name, description, priceCents, amount) ->
+                    ProductResponseSerializer.writeProduct(generator, id, name, description, priceCents, amount);
+            long rows = productExportRepository.streamAfter(afterId, handler);
+            if (rows > 0) generator.writeRaw('\n');
+            return rows;
+        }
+    }
+
+    private long exportCsv(OutputStream out, long afterId) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024)) {
+            writer.write("id,name,description,price,amount\n");
+            char[] priceBuffer = new char[22];
+            return productExportRepository.streamAfter(afterId, (id, name, description, priceCents, amount) -> {
+                writer.write(Long.toString(id));
+                writer.write(',');
+                writeCsvField(writer, name);
+                writer.write(',');
+                writeCsvField(writer, description);
+                writer.write(',');
+                int priceStart = Money.format(priceCents, priceBuffer);
+                writer.write(priceBuffer, priceStart, priceBuffer.length - priceStart);
+                writer.write(',');
+                writer.write(Long.toString(amount));
+                writer.write('\n');
+            });
+        }
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') writer.write('"');
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
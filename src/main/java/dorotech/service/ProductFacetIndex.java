@@ -0,0 +1,282 @@
+package dorotech.service;
+
+import dorotech.domain.Money;
+import dorotech.domain.ProductChangedEvent;
+import dorotech.dto.ProductFacetResponse;
+import dorotech.exceptions.exception.InvalidFilterException;
+import dorotech.repository.ProductExportRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bitmap index for faceted filtering. Products get ordinals in id order and every facet value keeps a
+ * {@link RoaringBitmap} of the ordinals that have it: stock ({@code in} for a positive amount, {@code out}
+ * otherwise) and price bucket, with bucket bounds from {@code products.facets.price-buckets}. A filter is an
+ * OR of the selected values within a facet and an AND across facets, and a page of ids is a walk over the
+ * result from the cursor's ordinal, so neither touches the database.
+ * <p>
+ * A deleted product leaves a hole in the ordinals until holes outnumber live rows; an id that arrives out of
+ * order renumbers the rows after it.
+ */
+@Component
+@ConditionalOnProperty(name = "products.facets.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductFacetIndex extends IncrementalProductIndex<ProductFacetIndex.Loaded> {
+    private static final String[] STOCK_VALUES = {"in", "out"};
+    private static final int DELETED = -1;
+    private static final int MIN_COMPACT_HOLES = 1024;
+
+    private final long[] bucketFloors;
+    private final String[] bucketValues;
+
+    private long[] ids = new long[0];
+    private int[] facets = new int[0];
+    private int size;
+    private int holes;
+    private RoaringBitmap[] stockBitmaps;
+    private RoaringBitmap[] priceBitmaps;
+
+    public ProductFacetIndex(ProductExportRepository productExportRepository,
+                             @Value("${products.facets.price-buckets:10,50,100,500}") List<BigDecimal> priceBuckets) {
+        super(productExportRepository);
+        long[] bounds = priceBuckets.stream().mapToLong(Money::fromDecimal).filter(cents -> cents > 0)
+                .sorted().distinct().toArray();
+        this.bucketFloors = new long[bounds.length + 1];
+        System.arraycopy(bounds, 0, bucketFloors, 1, bounds.length);
+        this.bucketValues = new String[bucketFloors.length];
+        for (int b = 0; b < bucketFloors.length; b++) {
+            bucketValues[b] = b + 1 < bucketFloors.length
+                    ? label(bucketFloors[b]) + "-" + label(bucketFloors[b + 1])
+                    : label(bucketFloors[b]) + "+";
+        }
+        this.stockBitmaps = emptyBitmaps(STOCK_VALUES.length);
+        this.priceBitmaps = emptyBitmaps(bucketFloors.length);
+    }
+
+    @Override
+    protected Loaded load(ProductExportRepository productExportRepository) {
+        Rows rows = new Rows();
+        productExportRepository.streamAfter(0, (id, name, description, priceCents, amount) ->
+                rows.append(id, facetOf(priceCents, amount)));
+        RoaringBitmap[] stock = emptyBitmaps(STOCK_VALUES.length);
+        RoaringBitmap[] price = emptyBitmaps(bucketFloors.length);
+        index(rows.facets, rows.size, stock, price);
+        return new Loaded(rows, stock, price);
+    }
+
+    @Override
+    protected void install(Loaded loaded) {
+        ids = loaded.rows().ids;
+        facets = loaded.rows().facets;
+        size = loaded.rows().size;
+        holes = 0;
+        stockBitmaps = loaded.stock();
+        priceBitmaps = loaded.price();
+    }
+
+    /**
+     * Counts and pages the products whose stock and price bucket are among the given values; an empty list
+     * leaves that facet unfiltered. Returns up to {@code limit} ids greater than {@code after}.
+     *
+     * @throws InvalidFilterException if a value is not one this index reports
+     */
+    public ProductFacetResponse query(List<String> stock, List<String> price, Long after, int limit) {
+        int[] stockSelection = select(stock, STOCK_VALUES, "stock");
+        int[] priceSelection = select(price, bucketValues, "price");
+        long stamp = lock.readLock();
+        try {
+            RoaringBitmap stockFilter = union(stockBitmaps, stockSelection);
+            RoaringBitmap priceFilter = union(priceBitmaps, priceSelection);
+            RoaringBitmap matching = stockFilter == null ? priceFilter
+                    : priceFilter == null ? stockFilter : stockFilter.and(priceFilter);
+            if (matching == null) matching = RoaringBitmap.or(Arrays.asList(stockBitmaps));
+
+            // a facet's counts ignore its own selection, so the client sees what switching values would give
+            List<ProductFacetResponse.FacetCount> stockCounts = new ArrayList<>(STOCK_VALUES.length);
+            for (int s = 0; s < STOCK_VALUES.length; s++) {
+                RoaringBitmap bitmap = stockBitmaps[s];
+                stockCounts.add(new ProductFacetResponse.FacetCount(STOCK_VALUES[s],
+                        priceFilter == null ? bitmap.cardinality() : bitmap.andCardinality(priceFilter)));
+            }
+            List<ProductFacetResponse.PriceBucketCount> priceCounts = new ArrayList<>(bucketFloors.length);
+            for (int b = 0; b < bucketFloors.length; b++) {
+                RoaringBitmap bitmap = priceBitmaps[b];
+                priceCounts.add(new ProductFacetResponse.PriceBucketCount(bucketValues[b], bucketFloors[b],
+                        b + 1 < bucketFloors.length ? bucketFloors[b + 1] : null,
+                        stockFilter == null ? bitmap.cardinality() : bitmap.andCardinality(stockFilter)));
+            }
+
+            List<Long> page = new ArrayList<>(Math.min(limit, 1024));
+            boolean[] more = new boolean[1];
+            if (limit > 0) {
+                int from = after == null ? 0 : upperBound(after);
+                long[] rowIds = ids;
+                matching.forEachFrom(from, ordinal -> {
+                    if (page.size() == limit) {
+                        more[0] = true;
+                        return false;
+                    }
+                    page.add(rowIds[ordinal]);
+                    return true;
+                });
+            }
+            return new ProductFacetResponse(matching.cardinality(), stockCounts, priceCounts, page,
+                    more[0] ? page.get(page.size() - 1) : null);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    protected void apply(ProductChangedEvent event) {
+        int index = Arrays.binarySearch(ids, 0, size, event.id());
+        switch (event.type()) {
+            case CREATED, UPDATED -> {
+                int facet = facetOf(event.product().priceCents(), event.product().amount());
+                if (index >= 0) {
+                    if (facets[index] == DELETED) holes--;
+                    unindex(index);
+                    facets[index] = facet;
+                    stockBitmaps[facet & 1].add(index);
+                    priceBitmaps[facet >>> 1].add(index);
+                } else if (-index - 1 == size) {
+                    append(event.id(), facet);
+                    stockBitmaps[facet & 1].add(size - 1);
+                    priceBitmaps[facet >>> 1].add(size - 1);
+                } else {
+                    insertAt(-index - 1, event.id(), facet);
+                    reindex();
+                }
+            }
+            case DELETED -> {
+                if (index >= 0 && facets[index] != DELETED) {
+                    unindex(index);
+                    facets[index] = DELETED;
+                    holes++;
+                    if (holes >= MIN_COMPACT_HOLES && holes > size - holes) compact();
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private int facetOf(long priceCents, long amount) {
+        int bucket = Arrays.binarySearch(bucketFloors, priceCents);
+        if (bucket < 0) bucket = Math.max(-bucket - 2, 0);
+        return bucket << 1 | (amount > 0 ? 0 : 1);
+    }
+
+    private void unindex(int ordinal) {
+        int facet = facets[ordinal];
+        if (facet == DELETED) return;
+        stockBitmaps[facet & 1].remove(ordinal);
+        priceBitmaps[facet >>> 1].remove(ordinal);
+    }
+
+    private void reindex() {
+        stockBitmaps = emptyBitmaps(STOCK_VALUES.length);
+        priceBitmaps = emptyBitmaps(bucketFloors.length);
+        index(facets, size, stockBitmaps, priceBitmaps);
+    }
+
+    private static void index(int[] facets, int size, RoaringBitmap[] stock, RoaringBitmap[] price) {
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int facet = facets[ordinal];
+            if (facet == DELETED) continue;
+            stock[facet & 1].add(ordinal);
+            price[facet >>> 1].add(ordinal);
+        }
+    }
+
+    private void compact() {
+        int live = 0;
+        for (int i = 0; i < size; i++) {
+            if (facets[i] == DELETED) continue;
+            ids[live] = ids[i];
+            facets[live] = facets[i];
+            live++;
+        }
+        size = live;
+        holes = 0;
+        reindex();
+    }
+
+    private void append(long id, int facet) {
+        insertAt(size, id, facet);
+    }
+
+    private void insertAt(int index, long id, int facet) {
+        if (size == ids.length) {
+            int capacity = Math.max(16, size + (size >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            facets = Arrays.copyOf(facets, capacity);
+        }
+        int tail = size - index;
+        if (tail > 0) {
+            System.arraycopy(ids, index, ids, index + 1, tail);
+            System.arraycopy(facets, index, facets, index + 1, tail);
+        }
+        ids[index] = id;
+        facets[index] = facet;
+        size++;
+    }
+
+    private int upperBound(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private static int[] select(List<String> requested, String[] values, String facet) {
+        if (requested == null || requested.isEmpty()) return null;
+        return requested.stream().mapToInt(value -> {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i].equalsIgnoreCase(value.trim())) return i;
+            }
+            throw new InvalidFilterException("Unknown " + facet + " value '" + value + "', expected one of "
+                    + String.join(", ", values));
+        }).distinct().toArray();
+    }
+
+    private static RoaringBitmap union(RoaringBitmap[] bitmaps, int[] selection) {
+        if (selection == null) return null;
+        if (selection.length == 1) return bitmaps[selection[0]];
+        List<RoaringBitmap> selected = new ArrayList<>(selection.length);
+        for (int value : selection) selected.add(bitmaps[value]);
+        return RoaringBitmap.or(selected);
+    }
+
+    private static RoaringBitmap[] emptyBitmaps(int count) {
+        RoaringBitmap[] bitmaps = new RoaringBitmap[count];
+        for (int i = 0; i < count; i++) bitmaps[i] = new RoaringBitmap();
+        return bitmaps;
+    }
+
+    private static String label(long cents) {
+        return Money.toDecimal(cents).stripTrailingZeros().toPlainString();
+    }
+
+    record Loaded(Rows rows, RoaringBitmap[] stock, RoaringBitmap[] price) {
+    }
+
+    private static class Rows {
+        long[] ids = new long[1024];
+        int[] facets = new int[1024];
+        int size;
+
+        void append(long id, int facet) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+                facets = Arrays.copyOf(facets, size << 1);
+            }
+            ids[size] = id;
+            facets[size] = facet;
+            size++;
+        }
+    }
+}
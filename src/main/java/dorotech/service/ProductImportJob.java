@@ -0,0 +1,76 @@
+package dorotech.service;
+
+import dorotech.dto.ImportJobResponse;
+import dorotech.dto.ImportLineError;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ProductImportJob {
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final UUID id = UUID.randomUUID();
+    private final OffsetDateTime startedAt = OffsetDateTime.now();
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong linesRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<ImportLineError> errors = new ArrayList<>();
+    private volatile Status status = Status.RUNNING;
+    private volatile OffsetDateTime finishedAt;
+    private volatile long finishedNanos;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    void lineRead() {
+        linesRead.incrementAndGet();
+    }
+
+    void imported(int count) {
+        imported.addAndGet(count);
+    }
+
+    void failed(long line, String message) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new ImportLineError(line, message));
+        }
+    }
+
+    void finish(Status status) {
+        this.finishedNanos = System.nanoTime();
+        this.finishedAt = OffsetDateTime.now();
+        this.status = status;
+    }
+
+    public ImportJobResponse toResponse() {
+        long end = finishedAt != null ? finishedNanos : System.nanoTime();
+        double seconds = Math.max(end - startNanos, 1) / 1_000_000_000d;
+        List<ImportLineError> errorSnapshot;
+        synchronized (errors) {
+            errorSnapshot = List.copyOf(errors);
+        }
+        return new ImportJobResponse(
+                id,
+                status.name(),
+                linesRead.get(),
+                imported.get(),
+                failed.get(),
+                imported.get() / seconds,
+                startedAt,
+                finishedAt,
+                errorSnapshot
+        );
+    }
+}
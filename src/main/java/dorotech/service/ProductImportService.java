@@ -0,0 +1,276 @@
+package dorotech.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import dorotech.bulkhead.WorkloadClass;
+import dorotech.deadline.Deadline;
+import dorotech.domain.Money;
+import dorotech.domain.ProductChangedEvent;
+import dorotech.dto.ImportJobResponse;
+import dorotech.dto.ProductRequest;
+import dorotech.exceptions.exception.EntityNotFoundException;
+import dorotech.repository.ProductBatchRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductImportService implements DisposableBean {
+    public enum Format { CSV, NDJSON }
+
+    private static final int MAX_RETAINED_JOBS = 100;
+    private static final List<String> CSV_COLUMNS = List.of("name", "description", "price", "amount");
+
+    private final ProductBatchRepository productBatchRepository;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader ndjsonReader;
+    private final int batchSize;
+    private final ThreadPoolExecutor writers;
+    private final Map<UUID, ProductImportJob> jobs = new ConcurrentHashMap<>();
+    private final Deque<UUID> jobOrder = new ConcurrentLinkedDeque<>();
+
+    public ProductImportService(ProductBatchRepository productBatchRepository,
+                                Validator validator,
+                                ApplicationEventPublisher eventPublisher,
+                                ObjectMapper objectMapper,
+                                @Value("${products.import.batch-size:1000}") int batchSize,
+                                @Value("${products.import.workers:4}") int workers,
+                                @Value("${products.import.queue-capacity:8}") int queueCapacity) {
+        this.productBatchRepository = productBatchRepository;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.ndjsonReader = objectMapper.readerFor(ProductRequest.class);
+        this.batchSize = batchSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(WorkloadClass.BULK.wrap(runnable), "product-import-" + threadCount.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public ImportJobResponse importProducts(InputStream body, Format format) {
+        ProductImportJob job = register();
+        List<Future<?>> writes = new ArrayList<>();
+        ProductImportJob.Status status = ProductImportJob.Status.COMPLETED;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024)) {
+            RecordBatch batch = new RecordBatch(batchSize);
+            RecordConsumer consumer = (line, request) -> {
+                Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    job.failed(line, violations.stream()
+                            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining(", ")));
+                    return;
+                }
+                if (batch.add(line, request)) {
+                    RecordBatch full = batch.drain();
+                    writes.add(writers.submit(Deadline.propagate(() -> write(job, full))));
+                }
+            };
+            boolean parsed = format == Format.CSV ? readCsv(reader, job, consumer) : readNdjson(reader, job, consumer);
+            if (!parsed) status = ProductImportJob.Status.FAILED;
+            if (batch.size() > 0) {
+                RecordBatch rest = batch.drain();
+                writes.add(writers.submit(Deadline.propagate(() -> write(job, rest))));
+            }
+        } catch (IOException ex) {
+            job.failed(0, "Could not read import body: " + ex.getMessage());
+            status = ProductImportJob.Status.FAILED;
+        }
+        for (Future<?> write : writes) {
+            try {
+                write.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                status = ProductImportJob.Status.FAILED;
+            } catch (ExecutionException ex) {
+                job.failed(0, ex.getCause().getMessage());
+                status = ProductImportJob.Status.FAILED;
+            }
+        }
+        job.finish(status);
+        ImportJobResponse response = job.toResponse();
+        if (response.imported() > 0) eventPublisher.publishEvent(ProductChangedEvent.bulk());
+        return response;
+    }
+
+    public List<ImportJobResponse> findAllJobs() {
+        return jobOrder.stream()
+                .map(jobs::get)
+                .filter(job -> job != null)
+                .map(ProductImportJob::toResponse)
+                .toList();
+    }
+
+    public ImportJobResponse findJob(UUID id) {
+        ProductImportJob job = jobs.get(id);
+        if (job == null) throw new EntityNotFoundException("Import Job Not Found");
+        return job.toResponse();
+    }
+
+    private ProductImportJob register() {
+        ProductImportJob job = new ProductImportJob();
+        jobs.put(job.getId(), job);
+        jobOrder.addLast(job.getId());
+        while (jobOrder.size() > MAX_RETAINED_JOBS) {
+            UUID oldest = jobOrder.peekFirst();
+            ProductImportJob candidate = oldest != null ? jobs.get(oldest) : null;
+            if (candidate != null && candidate.getStatus() == ProductImportJob.Status.RUNNING) break;
+            jobOrder.remove(oldest);
+            if (oldest != null) jobs.remove(oldest);
+        }
+        return job;
+    }
+
+    private boolean readCsv(BufferedReader reader, ProductImportJob job, RecordConsumer consumer) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) return true;
+        int[] columns = new int[CSV_COLUMNS.size()];
+        List<String> normalizedHeader = header.stream().map(h -> h.trim().toLowerCase(Locale.ROOT)).toList();
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = normalizedHeader.indexOf(CSV_COLUMNS.get(i));
+            if (columns[i] < 0) {
+                job.failed(1, "CSV header must contain the columns " + String.join(", ", CSV_COLUMNS));
+                return false;
+            }
+        }
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            job.lineRead();
+            long line = csv.getRecordLine();
+            ProductRequest request;
+            try {
+                request = new ProductRequest(
+                        column(record, columns[0]),
+                        column(record, columns[1]),
+                        parseOrNull(column(record, columns[2]), Money::parseCents),
+                        parseOrNull(column(record, columns[3]), Long::valueOf)
+                );
+            } catch (NumberFormatException | ArithmeticException ex) {
+                job.failed(line, "Invalid number: " + ex.getMessage());
+                continue;
+            }
+            consumer.accept(line, request);
+        }
+        return true;
+    }
+
+    private boolean readNdjson(BufferedReader reader, ProductImportJob job, RecordConsumer consumer) throws IOException {
+        String text;
+        long line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) continue;
+            job.lineRead();
+            ProductRequest request;
+            try {
+                request = ndjsonReader.readValue(text);
+            } catch (JsonProcessingException ex) {
+                job.failed(line, ex.getOriginalMessage());
+                continue;
+            }
+            consumer.accept(line, request);
+        }
+        return true;
+    }
+
+    private void write(ProductImportJob job, RecordBatch batch) {
+        try {
+            productBatchRepository.upsertAll(batch.products);
+            job.imported(batch.size());
+        } catch (DataAccessException ex) {
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    productBatchRepository.upsertAll(List.of(batch.products.get(i)));
+                    job.imported(1);
+                } catch (DataAccessException rowEx) {
+                    job.failed(batch.lines[i], rowEx.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private static String column(List<String> record, int index) {
+        return index < record.size() ? record.get(index) : null;
+    }
+
+    private static <T> T parseOrNull(String value, Function<String, T> parser) {
+        return value == null || value.isBlank() ? null : parser.apply(value.trim());
+    }
+
+    @Override
+    public void destroy() {
+        writers.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface RecordConsumer {
+        void accept(long line, ProductRequest request);
+    }
+
+    private static class RecordBatch {
+        private final int capacity;
+        private long[] lines;
+        private List<ProductRequest> products;
+
+        RecordBatch(int capacity) {
+            this.capacity = capacity;
+            this.lines = new long[capacity];
+            this.products = new ArrayList<>(capacity);
+        }
+
+        private RecordBatch(long[] lines, List<ProductRequest> products) {
+            this.capacity = products.size();
+            this.lines = lines;
+            this.products = products;
+        }
+
+        boolean add(long line, ProductRequest request) {
+            lines[products.size()] = line;
+            products.add(request);
+            return products.size() >= capacity;
+        }
+
+        int size() {
+            return products.size();
+        }
+
+        RecordBatch drain() {
+            RecordBatch drained = new RecordBatch(lines, products);
+            lines = new long[capacity];
+            products = new ArrayList<>(capacity);
+            return drained;
+        }
+    }
+}
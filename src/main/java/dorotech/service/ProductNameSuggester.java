@@ -0,0 +1,134 @@
+package dorotech.service;
+
+import dorotech.domain.ProductChangedEvent;
+import dorotech.dto.ProductSuggestion;
+import dorotech.repository.ProductExportRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Name autocomplete over a {@link ProductNameTrie}, answering each keystroke from memory instead of a
+ * {@code LIKE 'abc%'} query. An id-sorted column of entries finds the old name when a product is renamed or
+ * deleted. Matching is case-insensitive, like the unique index on {@code products.name}.
+ */
+@Component
+@ConditionalOnProperty(name = "products.suggest.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductNameSuggester extends IncrementalProductIndex<ProductNameSuggester.Loaded> {
+    private final int topK;
+
+    private ProductNameTrie trie;
+    private long[] ids = new long[0];
+    private ProductNameTrie.Entry[] entries = new ProductNameTrie.Entry[0];
+    private int size;
+
+    public ProductNameSuggester(ProductExportRepository productExportRepository,
+                                @Value("${products.suggest.top-k:10}") int topK) {
+        super(productExportRepository);
+        if (topK < 1) throw new IllegalArgumentException("products.suggest.top-k must be positive, was " + topK);
+        this.topK = topK;
+        this.trie = new ProductNameTrie(topK);
+    }
+
+    @Override
+    protected Loaded load(ProductExportRepository productExportRepository) {
+        ProductNameTrie loadedTrie = new ProductNameTrie(topK);
+        List<ProductNameTrie.Entry> loaded = new ArrayList<>();
+        productExportRepository.streamAfter(0, (id, name, description, priceCents, amount) -> {
+            ProductNameTrie.Entry entry = new ProductNameTrie.Entry(id, name, amount);
+            loaded.add(entry);
+            loadedTrie.put(key(name), entry, false);
+        });
+        loadedTrie.rebuildTop();
+        return new Loaded(loadedTrie, loaded);
+    }
+
+    @Override
+    protected void install(Loaded loaded) {
+        trie = loaded.trie();
+        entries = loaded.entries().toArray(new ProductNameTrie.Entry[0]);
+        ids = loaded.entries().stream().mapToLong(ProductNameTrie.Entry::id).toArray();
+        size = entries.length;
+    }
+
+    /**
+     * Returns up to {@code limit} (at most {@code products.suggest.top-k}) products whose name starts with
+     * {@code prefix}, most stock first.
+     */
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        int capped = Math.max(0, Math.min(limit, topK));
+        String key = key(prefix);
+        long stamp = lock.readLock();
+        try {
+            return trie.suggest(key, capped).stream()
+                    .map(entry -> new ProductSuggestion(entry.id(), entry.name(), entry.amount()))
+                    .toList();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    protected void apply(ProductChangedEvent event) {
+        int index = Arrays.binarySearch(ids, 0, size, event.id());
+        switch (event.type()) {
+            case CREATED, UPDATED -> {
+                ProductNameTrie.Entry entry = new ProductNameTrie.Entry(event.id(), event.product().name(),
+                        event.product().amount());
+                if (index >= 0) {
+                    String previousKey = key(entries[index].name());
+                    if (!previousKey.equals(key(entry.name()))) trie.remove(previousKey);
+                    entries[index] = entry;
+                } else {
+                    insertAt(-index - 1, entry);
+                }
+                trie.put(key(entry.name()), entry, true);
+            }
+            case DELETED -> {
+                if (index >= 0) {
+                    trie.remove(key(entries[index].name()));
+                    removeAt(index);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void insertAt(int index, ProductNameTrie.Entry entry) {
+        if (size == ids.length) {
+            int capacity = Math.max(16, size + (size >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            entries = Arrays.copyOf(entries, capacity);
+        }
+        int tail = size - index;
+        if (tail > 0) {
+            System.arraycopy(ids, index, ids, index + 1, tail);
+            System.arraycopy(entries, index, entries, index + 1, tail);
+        }
+        ids[index] = entry.id();
+        entries[index] = entry;
+        size++;
+    }
+
+    private void removeAt(int index) {
+        int tail = size - index - 1;
+        if (tail > 0) {
+            System.arraycopy(ids, index + 1, ids, index, tail);
+            System.arraycopy(entries, index + 1, entries, index, tail);
+        }
+        entries[--size] = null;
+    }
+
+    record Loaded(ProductNameTrie trie, List<ProductNameTrie.Entry> entries) {
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,217 @@
+package dorotech.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compressed radix trie over lower-cased product names. Every node whose subtree holds more than {@code k}
+ * products caches its top {@code k} by stock, so a prefix query is a walk down at most {@code prefix.length()}
+ * edges plus a copy; smaller subtrees are simply scanned. Single-writer: callers serialise mutations
+ * against each other and against queries.
+ */
+final class ProductNameTrie {
+    static final Comparator<Entry> BY_STOCK = Comparator.comparingLong(Entry::amount).reversed()
+            .thenComparing(Entry::name)
+            .thenComparingLong(Entry::id);
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    record Entry(long id, String name, long amount) {
+    }
+
+    private static final class Node {
+        String label;
+        Node[] children = NO_CHILDREN;
+        Entry entry;
+        int count;
+        Entry[] top;
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private final int k;
+    private final Node root = new Node("");
+
+    ProductNameTrie(int k) {
+        this.k = k;
+    }
+
+    int size() {
+        return root.count;
+    }
+
+    /**
+     * Adds or replaces the product stored under {@code key}. With {@code maintainTop} off the cached top
+     * lists go stale until {@link #rebuildTop()}, which is how a bulk load avoids per-insert work.
+     */
+    void put(String key, Entry entry, boolean maintainTop) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            int index = childIndex(node, key.charAt(i));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(i));
+                node.children = insert(node.children, -index - 1, leaf);
+                node = leaf;
+                path.add(node);
+                i = key.length();
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                split.count = child.count;
+                child.label = child.label.substring(common);
+                split.children = new Node[]{child};
+                node.children[index] = split;
+                child = split;
+            }
+            node = child;
+            path.add(node);
+            i += common;
+        }
+        boolean added = node.entry == null;
+        node.entry = entry;
+        if (added) {
+            for (Node onPath : path) onPath.count++;
+        }
+        if (maintainTop) {
+            for (int j = path.size() - 1; j >= 0; j--) recomputeTop(path.get(j));
+        }
+    }
+
+    void remove(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            int index = childIndex(node, key.charAt(i));
+            if (index < 0) return;
+            Node child = node.children[index];
+            if (!key.startsWith(child.label, i)) return;
+            i += child.label.length();
+            node = child;
+            path.add(node);
+        }
+        if (node.entry == null) return;
+        node.entry = null;
+        for (Node onPath : path) onPath.count--;
+        for (int j = path.size() - 1; j >= 1; j--) {
+            Node current = path.get(j);
+            Node parent = path.get(j - 1);
+            if (current.entry != null) continue;
+            if (current.children.length == 0) {
+                parent.children = removeChild(parent.children, current);
+            } else if (current.children.length == 1) {
+                Node only = current.children[0];
+                only.label = current.label + only.label;
+                parent.children[childIndex(parent, only.label.charAt(0))] = only;
+            }
+        }
+        for (int j = path.size() - 1; j >= 0; j--) recomputeTop(path.get(j));
+    }
+
+    /**
+     * Recomputes every cached top list bottom-up in O(nodes * k).
+     */
+    void rebuildTop() {
+        rebuildTop(root);
+    }
+
+    List<Entry> suggest(String prefix, int limit) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int index = childIndex(node, prefix.charAt(i));
+            if (index < 0) return List.of();
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, prefix, i);
+            if (common < child.label.length() && i + common < prefix.length()) return List.of();
+            node = child;
+            i += common;
+        }
+        List<Entry> ranked;
+        if (node.top != null) {
+            ranked = Arrays.asList(node.top);
+        } else {
+            ranked = new ArrayList<>(node.count);
+            collect(node, ranked);
+            ranked.sort(BY_STOCK);
+        }
+        return List.copyOf(ranked.subList(0, Math.min(limit, ranked.size())));
+    }
+
+    private void rebuildTop(Node node) {
+        for (Node child : node.children) rebuildTop(child);
+        recomputeTop(node);
+    }
+
+    private void recomputeTop(Node node) {
+        if (node.count <= k) {
+            node.top = null;
+            return;
+        }
+        List<Entry> candidates = new ArrayList<>((node.children.length + 1) * k);
+        if (node.entry != null) candidates.add(node.entry);
+        for (Node child : node.children) {
+            if (child.top != null) {
+                candidates.addAll(Arrays.asList(child.top));
+            } else {
+                collect(child, candidates);
+            }
+        }
+        candidates.sort(BY_STOCK);
+        node.top = candidates.subList(0, k).toArray(new Entry[0]);
+    }
+
+    private static void collect(Node node, List<Entry> into) {
+        if (node.entry != null) into.add(node.entry);
+        for (Node child : node.children) collect(child, into);
+    }
+
+    private static int childIndex(Node node, char c) {
+        Node[] children = node.children;
+        int low = 0;
+        int high = children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char first = children[mid].label.charAt(0);
+            if (first < c) low = mid + 1;
+            else if (first > c) high = mid - 1;
+            else return mid;
+        }
+        return -low - 1;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) i++;
+        return i;
+    }
+
+    private static Node[] insert(Node[] children, int index, Node child) {
+        Node[] grown = new Node[children.length + 1];
+        System.arraycopy(children, 0, grown, 0, index);
+        grown[index] = child;
+        System.arraycopy(children, index, grown, index + 1, children.length - index);
+        return grown;
+    }
+
+    private static Node[] removeChild(Node[] children, Node child) {
+        int index = Arrays.asList(children).indexOf(child);
+        if (index < 0) return children;
+        if (children.length == 1) return NO_CHILDREN;
+        Node[] shrunk = new Node[children.length - 1];
+        System.arraycopy(children, 0, shrunk, 0, index);
+        System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+        return shrunk;
+    }
+}
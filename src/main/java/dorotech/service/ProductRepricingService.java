@@ -0,0 +1,175 @@
+package dorotech.service;
+
+import dorotech.bulkhead.WorkloadClass;
+import dorotech.domain.Money;
+import dorotech.domain.ProductChangedEvent;
+import dorotech.domain.RepricingJob;
+import dorotech.dto.RepricingJobRequest;
+import dorotech.dto.RepricingJobResponse;
+import dorotech.exceptions.exception.EntityNotFoundException;
+import dorotech.repository.RepricingJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs repricing jobs in the background as a series of short set-based UPDATEs over consecutive id ranges,
+ * each committed together with the job's progress. Chunks are resized towards {@code chunk-time} so no
+ * transaction holds its row locks for long, and the job sleeps between chunks to stay under
+ * {@code max-rows-per-second} so replicas can keep up with the binlog. Jobs still running when the
+ * application stops are picked up again on the next start.
+ */
+@Service
+@ConditionalOnProperty(name = "products.storage.engine", havingValue = "jdbc", matchIfMissing = true)
+@ConditionalOnBooleanProperty(name = "products.sharding.enabled", havingValue = false, matchIfMissing = true)
+public class ProductRepricingService implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ProductRepricingService.class);
+    private static final int MAX_LISTED_JOBS = 100;
+    private static final int MIN_CHUNK_SIZE = 10;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final RepricingJobRepository repricingJobRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxChunkSize;
+    private final long chunkTimeNanos;
+    private final int maxRowsPerSecond;
+    private final ThreadPoolExecutor runners;
+    private final Set<UUID> active = ConcurrentHashMap.newKeySet();
+
+    public ProductRepricingService(RepricingJobRepository repricingJobRepository,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${products.repricing.chunk-size:1000}") int maxChunkSize,
+                                   @Value("${products.repricing.chunk-time:200ms}") Duration chunkTime,
+                                   @Value("${products.repricing.max-rows-per-second:10000}") int maxRowsPerSecond,
+                                   @Value("${products.repricing.workers:1}") int workers) {
+        this.repricingJobRepository = repricingJobRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxChunkSize = Math.max(maxChunkSize, MIN_CHUNK_SIZE);
+        this.chunkTimeNanos = chunkTime.toNanos();
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.runners = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> new Thread(WorkloadClass.BULK.wrap(runnable), "product-repricing-" + threadCount.incrementAndGet()));
+    }
+
+    public RepricingJobResponse startJob(RepricingJobRequest request) {
+        RepricingJob job = repricingJobRepository.create(
+                request.minPriceCents() != null ? request.minPriceCents() : 0,
+                request.maxPriceCents() != null ? request.maxPriceCents() : Money.MAX_CENTS,
+                request.operation(),
+                request.value().stripTrailingZeros());
+        submit(job);
+        return RepricingJobResponse.of(job);
+    }
+
+    public List<RepricingJobResponse> findAllJobs() {
+        return repricingJobRepository.findRecent(MAX_LISTED_JOBS).stream().map(RepricingJobResponse::of).toList();
+    }
+
+    public RepricingJobResponse findJob(UUID id) {
+        return RepricingJobResponse.of(repricingJobRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Repricing Job Not Found")));
+    }
+
+    /**
+     * Cancels a running job; chunks already applied stay applied. Cancelling a finished job changes nothing.
+     */
+    public RepricingJobResponse cancelJob(UUID id) {
+        repricingJobRepository.finish(id, RepricingJob.Status.CANCELLED, null);
+        return findJob(id);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeRunningJobs() {
+        for (RepricingJob job : repricingJobRepository.findRunning()) {
+            log.info("Resuming repricing job {} after product id {}", job.id(), job.lastId());
+            submit(job);
+        }
+    }
+
+    private void submit(RepricingJob job) {
+        if (active.add(job.id())) runners.execute(() -> run(job));
+    }
+
+    void run(RepricingJob job) {
+        int chunkSize = maxChunkSize;
+        long updated = 0;
+        try {
+            while (job.lastId() < job.maxId()) {
+                if (Thread.currentThread().isInterrupted()) throw new InterruptedException();
+                RepricingJobRepository.Chunk chunk = repricingJobRepository.nextChunk(job.lastId(), job.maxId(), chunkSize);
+                long start = System.nanoTime();
+                OptionalLong applied = applyChunk(job, chunk);
+                long elapsed = System.nanoTime() - start;
+                // cancelled, or another instance is running the job
+                if (applied.isEmpty()) return;
+                updated += applied.getAsLong();
+                job = job.advancedTo(chunk.toId(), chunk.rows(), applied.getAsLong());
+                chunkSize = resize(chunkSize, elapsed);
+                throttle(applied.getAsLong(), elapsed);
+            }
+            repricingJobRepository.finish(job.id(), RepricingJob.Status.COMPLETED, null);
+        } catch (InterruptedException ex) {
+            // shutting down: the job stays running and resumes on the next start
+            Thread.currentThread().interrupt();
+        } catch (DataAccessException ex) {
+            String message = String.valueOf(ex.getMostSpecificCause().getMessage());
+            log.warn("Repricing job {} failed after product id {}: {}", job.id(), job.lastId(), message);
+            repricingJobRepository.finish(job.id(), RepricingJob.Status.FAILED,
+                    message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        } finally {
+            active.remove(job.id());
+            if (updated > 0) eventPublisher.publishEvent(ProductChangedEvent.bulk());
+        }
+    }
+
+    private OptionalLong applyChunk(RepricingJob job, RepricingJobRepository.Chunk chunk) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return repricingJobRepository.applyChunk(job, chunk.toId(), chunk.rows());
+            } catch (TransientDataAccessException ex) {
+                // deadlocks and lock wait timeouts roll the whole chunk back, so it is safe to run again
+                if (attempt == MAX_ATTEMPTS) throw ex;
+                Thread.sleep(100L * attempt);
+            }
+        }
+    }
+
+    private int resize(int chunkSize, long elapsedNanos) {
+        double factor = Math.clamp((double) chunkTimeNanos / Math.max(elapsedNanos, 1), 0.5, 2.0);
+        return Math.clamp((long) (chunkSize * factor), MIN_CHUNK_SIZE, maxChunkSize);
+    }
+
+    private void throttle(long updatedRows, long elapsedNanos) throws InterruptedException {
+        if (maxRowsPerSecond <= 0) return;
+        long pauseNanos = updatedRows * 1_000_000_000L / maxRowsPerSecond - elapsedNanos;
+        if (pauseNanos > 0) TimeUnit.NANOSECONDS.sleep(pauseNanos);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        runners.shutdownNow();
+        runners.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
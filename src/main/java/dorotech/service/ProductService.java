@@ -1,64 +1,223 @@
 package dorotech.service;
 
 import dorotech.domain.Product;
+import dorotech.domain.ProductChangedEvent;
+import dorotech.dto.ProductBatchResponse;
+import dorotech.dto.ProductBatchView;
+import dorotech.dto.ProductFields;
 import dorotech.dto.ProductRequest;
 import dorotech.dto.ProductResponse;
 import dorotech.dto.ProductUpdateDTO;
+import dorotech.dto.ProductUpsertResponse;
+import dorotech.dto.ProductView;
 import dorotech.exceptions.exception.EntityExistsException;
 import dorotech.exceptions.exception.EntityNotFoundException;
+import dorotech.profiling.ProductOperationEvent;
+import dorotech.repository.ProductBatchRepository;
+import dorotech.repository.ProductProjectionRepository;
 import dorotech.repository.ProductRepository;
+import dorotech.warmstart.ProductWarmStartCache;
 import jakarta.validation.Valid;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ProductService {
+    private static final int ID_CHUNK_SIZE = 500;
+
     private final ProductRepository productRepository;
+    private final ProductBatchLoader productBatchLoader;
+    private final ProductBatchRepository productBatchRepository;
+    private final ProductProjectionRepository productProjectionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductWarmStartCache warmStartCache;
+    private final LowStockMonitor lowStockMonitor;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          ProductBatchLoader productBatchLoader,
+                          ProductBatchRepository productBatchRepository,
+                          ProductProjectionRepository productProjectionRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          @Nullable ProductWarmStartCache warmStartCache,
+                          @Nullable LowStockMonitor lowStockMonitor) {
         this.productRepository = productRepository;
+        this.productBatchLoader = productBatchLoader;
+        this.productBatchRepository = productBatchRepository;
+        this.productProjectionRepository = productProjectionRepository;
+        this.eventPublisher = eventPublisher;
+        this.warmStartCache = warmStartCache;
+        this.lowStockMonitor = lowStockMonitor;
     }
 
     public ProductResponse create(ProductRequest dto) {
+        ProductOperationEvent operation = ProductOperationEvent.start("create");
         try {
             Product product = dto.toEntity();
-            productRepository.save(product);
-            return new ProductResponse(product);
+            operation.db(() -> productRepository.save(product));
+            ProductResponse response = new ProductResponse(product);
+            eventPublisher.publishEvent(ProductChangedEvent.created(response));
+            operation.finish(product.getId(), 1);
+            return response;
         } catch (DataIntegrityViolationException ex) {
             throw  new EntityExistsException("There is already a product with that name");
         }
     }
 
     public ProductResponse findById(Long id) {
-        Product product = productRepository.findById(id).orElseThrow(
+        ProductOperationEvent operation = ProductOperationEvent.start("findById");
+        ProductResponse cached = warmStartCache != null ? warmStartCache.find(id) : null;
+        if (cached != null) {
+            operation.finish(id, 1);
+            return cached;
+        }
+        long stamp = warmStartCache != null ? warmStartCache.stamp() : 0;
+        Product product = operation.db(() -> productBatchLoader.load(id)).orElseThrow(
                 () -> new EntityNotFoundException("Product Not Found")
         );
+        if (warmStartCache != null) warmStartCache.admit(product, stamp);
+        operation.finish(id, 1);
         return new ProductResponse(product);
     }
 
+    public ProductView findById(Long id, ProductFields fields) {
+        if (fields.isAll()) return new ProductView(findById(id), fields);
+        if (warmStartCache != null) {
+            ProductResponse cached = warmStartCache.find(id);
+            if (cached != null) return new ProductView(cached, fields);
+        }
+        ProductOperationEvent operation = ProductOperationEvent.start("findByIdProjected");
+        List<ProductResponse> found = operation.db(() -> productProjectionRepository.findAllById(List.of(id), fields));
+        if (found.isEmpty()) throw new EntityNotFoundException("Product Not Found");
+        operation.finish(id, 1);
+        return new ProductView(found.get(0), fields);
+    }
+
+    public ProductBatchResponse findAllByIds(List<Long> ids) {
+        ProductOperationEvent operation = ProductOperationEvent.start("findAllByIds");
+        List<Long> uniqueIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Product> found = new HashMap<>(uniqueIds.size() * 2);
+        for (int from = 0; from < uniqueIds.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = uniqueIds.subList(from, Math.min(from + ID_CHUNK_SIZE, uniqueIds.size()));
+            operation.db(() -> productRepository.findAllById(chunk)).forEach(product -> found.put(product.getId(), product));
+        }
+        List<ProductResponse> products = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : uniqueIds) {
+            Product product = found.get(id);
+            if (product != null) {
+                products.add(new ProductResponse(product));
+            } else {
+                missingIds.add(id);
+            }
+        }
+        operation.finish(null, products.size());
+        return new ProductBatchResponse(products, missingIds);
+    }
+
+    public ProductBatchView findAllByIds(List<Long> ids, ProductFields fields) {
+        ProductOperationEvent operation = ProductOperationEvent.start("findAllByIdsProjected");
+        List<Long> uniqueIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, ProductResponse> found = new HashMap<>(uniqueIds.size() * 2);
+        for (int from = 0; from < uniqueIds.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = uniqueIds.subList(from, Math.min(from + ID_CHUNK_SIZE, uniqueIds.size()));
+            operation.db(() -> productProjectionRepository.findAllById(chunk, fields))
+                    .forEach(product -> found.put(product.id(), product));
+        }
+        List<ProductView> products = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : uniqueIds) {
+            ProductResponse product = found.get(id);
+            if (product != null) {
+                products.add(new ProductView(product, fields));
+            } else {
+                missingIds.add(id);
+            }
+        }
+        operation.finish(null, products.size());
+        return new ProductBatchView(products, missingIds);
+    }
 
     public List<ProductResponse> findAll() {
-        List<Product> productList = productRepository.findAll();
+        ProductOperationEvent operation = ProductOperationEvent.start("findAll");
+        List<Product> productList = operation.db(productRepository::findAll);
+        operation.finish(null, productList.size());
         return productList.stream().map(ProductResponse::new).toList();
     }
 
+    public List<ProductView> findAll(ProductFields fields) {
+        ProductOperationEvent operation = ProductOperationEvent.start("findAllProjected");
+        List<ProductResponse> products = operation.db(() -> productProjectionRepository.findAll(fields));
+        operation.finish(null, products.size());
+        return products.stream()
+                .map(product -> new ProductView(product, fields))
+                .toList();
+    }
+
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) throw new EntityNotFoundException("Product Not Found");
-        productRepository.deleteById(id);
+        ProductOperationEvent operation = ProductOperationEvent.start("delete");
+        if (!operation.db(() -> productRepository.existsById(id))) throw new EntityNotFoundException("Product Not Found");
+        operation.dbRun(() -> productRepository.deleteById(id));
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+        if (lowStockMonitor != null) lowStockMonitor.productDeleted(id);
+        operation.finish(id, 1);
     }
 
     public ProductResponse updateProduct(@Valid ProductUpdateDTO dto, Long id) {
-        var product = productRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Product Not Found"));
+        ProductOperationEvent operation = ProductOperationEvent.start("update");
+        var product = operation.db(() -> productRepository.findById(id))
+                .orElseThrow(() -> new EntityNotFoundException("Product Not Found"));
+        long amountBefore = product.getAmount();
         try {
             product.update(dto);
-            productRepository.save(product);
-            return new ProductResponse(product);
+            operation.db(() -> productRepository.save(product));
+            ProductResponse response = new ProductResponse(product);
+            eventPublisher.publishEvent(ProductChangedEvent.updated(response));
+            if (lowStockMonitor != null) lowStockMonitor.amountChanged(id, amountBefore, product.getAmount());
+            operation.finish(id, 1);
+            return response;
         } catch (DataIntegrityViolationException ex) {
             throw  new EntityExistsException("There is already a product with that name");
         }
     }
 
+    public List<ProductUpsertResponse> upsertByName(List<ProductRequest> dtos) {
+        ProductOperationEvent operation = ProductOperationEvent.start("upsertByName");
+        boolean[] inserted = operation.db(() -> productBatchRepository.upsertByName(dtos));
+        Map<String, Product> byName = new HashMap<>(dtos.size() * 2);
+        List<String> names = dtos.stream().map(ProductRequest::name).distinct().toList();
+        for (int from = 0; from < names.size(); from += ID_CHUNK_SIZE) {
+            List<String> chunk = names.subList(from, Math.min(from + ID_CHUNK_SIZE, names.size()));
+            operation.db(() -> productRepository.findAllByNameIn(chunk))
+                    .forEach(product -> byName.put(product.getName().toLowerCase(Locale.ROOT), product));
+        }
+        List<ProductUpsertResponse> results = new ArrayList<>(dtos.size());
+        Set<String> insertedNames = new HashSet<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            String name = dtos.get(i).name().toLowerCase(Locale.ROOT);
+            Product product = byName.get(name);
+            if (inserted[i]) insertedNames.add(name);
+            results.add(new ProductUpsertResponse(product != null ? product.getId() : null, dtos.get(i).name(),
+                    inserted[i] ? ProductUpsertResponse.Result.INSERTED : ProductUpsertResponse.Result.UPDATED));
+        }
+        for (Map.Entry<String, Product> entry : byName.entrySet()) {
+            ProductResponse response = new ProductResponse(entry.getValue());
+            eventPublisher.publishEvent(insertedNames.contains(entry.getKey())
+                    ? ProductChangedEvent.created(response) : ProductChangedEvent.updated(response));
+        }
+        if (lowStockMonitor != null) lowStockMonitor.amountsChanged(byName.values());
+        operation.finish(null, dtos.size());
+        return results;
+    }
+
 }
@@ -0,0 +1,419 @@
+package dorotech.warmstart;
+
+import dorotech.bulkhead.WorkloadClass;
+import dorotech.domain.Product;
+import dorotech.domain.ProductChangedEvent;
+import dorotech.dto.ProductResponse;
+import dorotech.repository.ProductVersionRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Product cache that survives restarts, so a freshly deployed node does not send every first lookup to
+ * MySQL. Products read by id are kept on the heap and written every {@code products.warm-start.interval},
+ * and on shutdown, to a {@link WarmStartFile} at {@code products.warm-start.path}. On startup the previous
+ * file is memory-mapped and its rows are checked against the database with {@code SELECT id, version} in
+ * id-ordered chunks; a row is served as soon as its chunk confirms the version, so lookups hit the file
+ * while the rest is still being checked. Local {@link ProductChangedEvent}s drop the affected rows and a
+ * bulk change sends the whole file through the check again.
+ * <p>
+ * Writes made by other nodes raise no local event, so every {@code products.warm-start.revalidate-interval}
+ * the heap entries and the confirmed rows are checked against the database again and the ones whose version
+ * moved on are evicted. What this node serves is therefore at most about one interval behind other nodes.
+ * <p>
+ * Snapshots are written by a background thread that shares no lock with readers: it collects the cached
+ * ids, then copies one row at a time, skipping rows dropped in the meantime.
+ */
+@Component
+@ConditionalOnProperty(name = "products.warm-start.enabled", havingValue = "true")
+public class ProductWarmStartCache implements MeterBinder, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ProductWarmStartCache.class);
+    private static final int VALIDATION_CHUNK_SIZE = 1000;
+
+    private final ProductVersionRepository productVersionRepository;
+    private final Path path;
+    private final Duration interval;
+    private final Duration revalidateInterval;
+    private final int maxEntries;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong admissions = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private volatile MappedRows mapped;
+    private long writtenAtChanges = -1;
+
+    public ProductWarmStartCache(ProductVersionRepository productVersionRepository,
+                                 @Value("${products.warm-start.path:warm-start/products.snapshot}") String path,
+                                 @Value("${products.warm-start.interval:5m}") Duration interval,
+                                 @Value("${products.warm-start.revalidate-interval:30s}") Duration revalidateInterval,
+                                 @Value("${products.warm-start.max-entries:1000000}") int maxEntries) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("products.warm-start.interval must be positive");
+        }
+        if (revalidateInterval.isNegative() || revalidateInterval.isZero()) {
+            throw new IllegalArgumentException("products.warm-start.revalidate-interval must be positive");
+        }
+        if (maxEntries <= 0) throw new IllegalArgumentException("products.warm-start.max-entries must be positive");
+        this.productVersionRepository = productVersionRepository;
+        this.path = Path.of(path);
+        this.interval = interval;
+        this.revalidateInterval = revalidateInterval;
+        this.maxEntries = maxEntries;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(WorkloadClass.BULK.wrap(runnable), "product-warm-start");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.mapped = map(this.path);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.execute(this::validate);
+        scheduler.scheduleWithFixedDelay(() -> {
+            validate();
+            writeQuietly();
+        }, interval.toNanos(), interval.toNanos(), TimeUnit.NANOSECONDS);
+        scheduler.scheduleWithFixedDelay(this::revalidateQuietly, revalidateInterval.toNanos(),
+                revalidateInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the cached product, or {@code null} when it has to be read from the database.
+     */
+    public ProductResponse find(long id) {
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            hits.increment();
+            return entry.product();
+        }
+        MappedRows rows = mapped;
+        if (rows != null) {
+            int index = rows.file.indexOf(id);
+            if (index >= 0 && rows.servable(index)) {
+                hits.increment();
+                return rows.file.read(index);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Returns the stamp to hand to {@link #admit} for a product about to be read from the database.
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Caches a product read from the database, unless a local write has invalidated anything since
+     * {@code stamp} was taken: the read may have raced with it and returned the old row.
+     */
+    public void admit(Product product, long stamp) {
+        if (product.getVersion() == null || invalidations.get() != stamp || entries.size() >= maxEntries) return;
+        Entry entry = new Entry(new ProductResponse(product), product.getVersion());
+        entries.put(product.getId(), entry);
+        if (invalidations.get() != stamp) {
+            entries.remove(product.getId(), entry);
+            return;
+        }
+        admissions.incrementAndGet();
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidations.incrementAndGet();
+        MappedRows rows = mapped;
+        if (event.type() == ProductChangedEvent.Type.BULK) {
+            entries.clear();
+            if (rows != null) {
+                mapped = new MappedRows(rows.file);
+                try {
+                    scheduler.execute(this::validate);
+                } catch (RejectedExecutionException ex) {
+                    // shutting down: the file is left as it is
+                }
+            }
+            return;
+        }
+        entries.remove(event.id());
+        if (rows != null) {
+            int index = rows.file.indexOf(event.id());
+            if (index >= 0) rows.drop(index);
+        }
+    }
+
+    /**
+     * Confirms the mapped rows against the database, resuming after the last chunk that was checked.
+     */
+    void validate() {
+        MappedRows rows = mapped;
+        if (rows == null || rows.checkedThrough == rows.file.size()) return;
+        WarmStartFile file = rows.file;
+        long start = System.nanoTime();
+        try {
+            while (rows.checkedThrough < file.size() && mapped == rows && !scheduler.isShutdown()) {
+                int from = rows.checkedThrough;
+                int to = Math.min(from + VALIDATION_CHUNK_SIZE, file.size());
+                List<Long> ids = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) ids.add(file.id(i));
+                productVersionRepository.findVersionsById(ids, (id, version) -> {
+                    int index = file.indexOf(id, from, to);
+                    if (index >= 0 && file.version(index) == version) rows.confirm(index);
+                });
+                rows.checkedThrough = to;
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not check warm-start snapshot {} against the database, retrying in {}: {}",
+                    path, interval, ex.getMessage());
+            return;
+        }
+        if (rows.checkedThrough == file.size()) {
+            log.info("Checked {} warm-start products in {} ms, {} still current", file.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), rows.confirmed.get());
+        }
+    }
+
+    /**
+     * Checks the heap entries and the confirmed rows against the database and evicts the ones that were
+     * changed or deleted since they were read or confirmed, e.g. by another node.
+     */
+    void revalidate() {
+        long start = System.nanoTime();
+        int evicted = 0;
+        List<Long> cached = new ArrayList<>(entries.keySet());
+        for (int from = 0; from < cached.size(); from += VALIDATION_CHUNK_SIZE) {
+            List<Long> ids = cached.subList(from, Math.min(from + VALIDATION_CHUNK_SIZE, cached.size()));
+            Map<Long, Long> versions = new HashMap<>(ids.size() * 2);
+            productVersionRepository.findVersionsById(ids, versions::put);
+            for (Long id : ids) {
+                Entry entry = entries.get(id);
+                Long version = versions.get(id);
+                if (entry != null && (version == null || version != entry.version()) && entries.remove(id, entry)) {
+                    evicted++;
+                }
+            }
+        }
+
+        MappedRows rows = mapped;
+        if (rows != null) {
+            WarmStartFile file = rows.file;
+            int checked = rows.checkedThrough;
+            for (int from = 0; from < checked && mapped == rows; from += VALIDATION_CHUNK_SIZE) {
+                int chunkFrom = from;
+                int to = Math.min(from + VALIDATION_CHUNK_SIZE, checked);
+                List<Long> ids = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    if (rows.servable(i)) ids.add(file.id(i));
+                }
+                if (ids.isEmpty()) continue;
+                boolean[] current = new boolean[to - from];
+                productVersionRepository.findVersionsById(ids, (id, version) -> {
+                    int index = file.indexOf(id, chunkFrom, to);
+                    if (index >= 0 && file.version(index) == version) current[index - chunkFrom] = true;
+                });
+                for (int i = from; i < to; i++) {
+                    if (!current[i - from] && rows.servable(i)) {
+                        rows.drop(i);
+                        evicted++;
+                    }
+                }
+            }
+        }
+        log.debug("Revalidated warm-start cache in {} ms, {} evicted", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                evicted);
+    }
+
+    private void revalidateQuietly() {
+        try {
+            revalidate();
+        } catch (RuntimeException ex) {
+            log.warn("Could not revalidate the warm-start cache, retrying in {}: {}", revalidateInterval, ex.getMessage());
+        }
+    }
+
+    /**
+     * Writes the cached products to the snapshot file, unless nothing changed since the last write or the
+     * mapped file has not been checked yet; writing then would lose the rows still waiting for the check.
+     */
+    void writeSnapshot() throws IOException {
+        writeLock.lock();
+        try {
+            long changes = invalidations.get() + admissions.get();
+            MappedRows rows = mapped;
+            if (changes == writtenAtChanges || (rows != null && rows.checkedThrough < rows.file.size())) return;
+            long[] ids = snapshotIds(rows);
+            try (WarmStartFile.Writer writer = WarmStartFile.create(path, ids.length)) {
+                for (long id : ids) {
+                    Entry entry = entries.get(id);
+                    ProductResponse product;
+                    long version;
+                    int index;
+                    if (entry != null) {
+                        product = entry.product();
+                        version = entry.version();
+                    } else if (rows != null && (index = rows.file.indexOf(id)) >= 0 && rows.servable(index)) {
+                        product = rows.file.read(index);
+                        version = rows.file.version(index);
+                    } else {
+                        continue;
+                    }
+                    if (!writer.append(id, version, product.name(), product.description(), product.priceCents(),
+                            product.amount())) {
+                        break;
+                    }
+                }
+                writer.commit();
+                log.debug("Wrote {} products to warm-start snapshot {}", writer.size(), path);
+            }
+            writtenAtChanges = changes;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void writeQuietly() {
+        try {
+            writeSnapshot();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not write warm-start snapshot {}: {}", path, ex.getMessage());
+        }
+    }
+
+    /**
+     * Sorted, distinct ids of the products to write, heap entries first when over {@code max-entries}
+     * since they were read during this run.
+     */
+    private long[] snapshotIds(MappedRows rows) {
+        int capacity = (int) Math.min(maxEntries, entries.mappingCount() + (rows == null ? 0 : rows.file.size()));
+        long[] ids = new long[capacity];
+        int count = 0;
+        for (Long id : entries.keySet()) {
+            if (count == capacity) break;
+            ids[count++] = id;
+        }
+        if (rows != null) {
+            for (int i = 0; i < rows.file.size() && count < capacity; i++) {
+                if (rows.servable(i)) ids[count++] = rows.file.id(i);
+            }
+        }
+        Arrays.sort(ids, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || ids[distinct - 1] != ids[i]) ids[distinct++] = ids[i];
+        }
+        return Arrays.copyOf(ids, distinct);
+    }
+
+    private static MappedRows map(Path path) {
+        try {
+            WarmStartFile file = WarmStartFile.open(path);
+            if (file == null) return null;
+            log.info("Mapped warm-start snapshot {} with {} products written at {}", path, file.size(),
+                    Instant.ofEpochMilli(file.createdAtMillis()));
+            return new MappedRows(file);
+        } catch (IOException ex) {
+            log.warn("Ignoring warm-start snapshot {}: {}", path, ex.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("products.warm-start.entries", entries, ConcurrentHashMap::size)
+                .tag("source", "memory").description("Products read since startup and kept for the next snapshot").register(registry);
+        Gauge.builder("products.warm-start.entries", this, cache -> cache.mapped == null ? 0 : cache.mapped.confirmed.get())
+                .tag("source", "file").description("Snapshot rows confirmed current against the database").register(registry);
+        FunctionCounter.builder("products.warm-start.lookups", hits, LongAdder::sum)
+                .tag("result", "hit").description("Lookups by id answered without the database").register(registry);
+        FunctionCounter.builder("products.warm-start.lookups", misses, LongAdder::sum)
+                .tag("result", "miss").description("Lookups by id that went to the database").register(registry);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        scheduler.shutdown();
+        if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) scheduler.shutdownNow();
+        writeQuietly();
+    }
+
+    private record Entry(ProductResponse product, long version) {
+    }
+
+    /**
+     * A mapped file with two bits per row: confirmed by the version check, and dropped by a local write
+     * since. Dropped is never cleared, so a check that read the old version cannot bring a row back.
+     */
+    private static final class MappedRows {
+        final WarmStartFile file;
+        final AtomicLongArray confirmedBits;
+        final AtomicLongArray droppedBits;
+        final AtomicInteger confirmed = new AtomicInteger();
+        volatile int checkedThrough;
+
+        MappedRows(WarmStartFile file) {
+            this.file = file;
+            this.confirmedBits = new AtomicLongArray((file.size() + 63) >>> 6);
+            this.droppedBits = new AtomicLongArray((file.size() + 63) >>> 6);
+        }
+
+        boolean servable(int row) {
+            return isSet(confirmedBits, row) && !isSet(droppedBits, row);
+        }
+
+        void confirm(int row) {
+            if (!isSet(droppedBits, row) && !set(confirmedBits, row)) confirmed.incrementAndGet();
+        }
+
+        void drop(int row) {
+            if (!set(droppedBits, row) && isSet(confirmedBits, row)) confirmed.decrementAndGet();
+        }
+
+        private static boolean isSet(AtomicLongArray bits, int row) {
+            return (bits.get(row >>> 6) & (1L << row)) != 0;
+        }
+
+        /**
+         * Sets the bit and returns whether it was already set.
+         */
+        private static boolean set(AtomicLongArray bits, int row) {
+            long mask = 1L << row;
+            return (bits.getAndAccumulate(row >>> 6, mask, (word, m) -> word | m) & mask) != 0;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package dorotech.warmstart;
+
+import dorotech.dto.ProductResponse;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Read-only, memory-mapped view of a warm-start snapshot. The file is a 48-byte header, then {@code slots}
+ * fixed 48-byte rows sorted by id ({@code [long id][long version][long priceCents][long amount]
+ * [int textPosition][int nameBytes][int descriptionBytes][int unused]}), then the UTF-8 names and
+ * descriptions the rows point into. Opening only checks the header, so it costs the same at any size;
+ * pages are faulted in by the lookups that touch them. Files are written next to the target and renamed
+ * over it, so a reader never sees a half-written snapshot.
+ */
+final class WarmStartFile {
+    static final int HEADER_BYTES = 48;
+    static final int ROW_BYTES = 48;
+    private static final int MAGIC = 0x50575331;
+    private static final int FORMAT = 1;
+    private static final int CHECKSUMMED_HEADER_BYTES = 40;
+
+    private final MappedByteBuffer buffer;
+    private final int size;
+    private final long createdAtMillis;
+
+    private WarmStartFile(MappedByteBuffer buffer, int size, long createdAtMillis) {
+        this.buffer = buffer;
+        this.size = size;
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    /**
+     * Maps the snapshot at {@code path}, or returns {@code null} when there is none.
+     *
+     * @throws IOException if the file cannot be read or its header does not describe it
+     */
+    static WarmStartFile open(Path path) throws IOException {
+        if (!Files.exists(path)) return null;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("Warm-start snapshot " + path + " has an invalid length of " + length + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(0, CHECKSUMMED_HEADER_BYTES));
+            int rows = buffer.getInt(8);
+            int slots = buffer.getInt(12);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT
+                    || buffer.getInt(CHECKSUMMED_HEADER_BYTES) != (int) crc.getValue()
+                    || rows < 0 || rows > slots
+                    || buffer.getLong(24) != HEADER_BYTES + (long) slots * ROW_BYTES
+                    || buffer.getLong(32) != length) {
+                throw new IOException("Warm-start snapshot " + path + " has a corrupt header");
+            }
+            return new WarmStartFile(buffer, rows, buffer.getLong(16));
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long createdAtMillis() {
+        return createdAtMillis;
+    }
+
+    long id(int row) {
+        return buffer.getLong(HEADER_BYTES + row * ROW_BYTES);
+    }
+
+    long version(int row) {
+        return buffer.getLong(HEADER_BYTES + row * ROW_BYTES + 8);
+    }
+
+    /**
+     * Returns the row holding {@code id} within {@code [from, to)}, or a negative value when there is none.
+     */
+    int indexOf(long id, int from, int to) {
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = id(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    int indexOf(long id) {
+        return indexOf(id, 0, size);
+    }
+
+    ProductResponse read(int row) {
+        int offset = HEADER_BYTES + row * ROW_BYTES;
+        int textPosition = buffer.getInt(offset + 32);
+        int nameBytes = buffer.getInt(offset + 36);
+        int descriptionBytes = buffer.getInt(offset + 40);
+        return new ProductResponse(buffer.getLong(offset), text(textPosition, nameBytes),
+                text(textPosition + nameBytes, descriptionBytes), buffer.getLong(offset + 16), buffer.getLong(offset + 24));
+    }
+
+    private String text(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Starts a snapshot of at most {@code slots} rows in a sibling of {@code target}; nothing replaces
+     * the target until {@link Writer#commit()}.
+     */
+    static Writer create(Path target, int slots) throws IOException {
+        return new Writer(target, slots);
+    }
+
+    static final class Writer implements Closeable {
+        private static final int BUFFER_BYTES = 64 * 1024;
+
+        private final Path target;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final int slots;
+        private final long textStart;
+        private final ByteBuffer rows = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private final ByteBuffer texts = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private long rowsPosition = HEADER_BYTES;
+        private long textPosition;
+        private long flushedTextPosition;
+        private int size;
+        private long lastId = Long.MIN_VALUE;
+        private boolean committed;
+
+        private Writer(Path target, int slots) throws IOException {
+            Path parent = target.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            this.target = target;
+            this.temporary = target.resolveSibling(target.getFileName() + ".tmp");
+            this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            this.slots = slots;
+            this.textStart = HEADER_BYTES + (long) slots * ROW_BYTES;
+            this.textPosition = textStart;
+            this.flushedTextPosition = textStart;
+        }
+
+        /**
+         * Appends a row; ids must be ascending. Returns {@code false}, writing nothing, once the snapshot
+         * has no slot left or would outgrow a single mapping.
+         */
+        boolean append(long id, long version, String name, String description, long priceCents, long amount)
+                throws IOException {
+            if (id <= lastId) throw new IllegalArgumentException("Warm-start rows must be appended in id order");
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            byte[] descriptionBytes = description.getBytes(StandardCharsets.UTF_8);
+            if (size == slots || textPosition + nameBytes.length + descriptionBytes.length > Integer.MAX_VALUE) {
+                return false;
+            }
+            if (rows.remaining() < ROW_BYTES) flushRows();
+            rows.putLong(id).putLong(version).putLong(priceCents).putLong(amount)
+                    .putInt((int) textPosition).putInt(nameBytes.length).putInt(descriptionBytes.length).putInt(0);
+            putText(nameBytes);
+            putText(descriptionBytes);
+            lastId = id;
+            size++;
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Writes the header, forces the file to disk and renames it over the target.
+         */
+        void commit() throws IOException {
+            flushRows();
+            flushTexts();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC).putInt(FORMAT).putInt(size).putInt(slots)
+                    .putLong(System.currentTimeMillis()).putLong(textStart).putLong(textPosition);
+            CRC32C crc = new CRC32C();
+            crc.update(header.array(), 0, CHECKSUMMED_HEADER_BYTES);
+            header.putInt((int) crc.getValue()).clear();
+            writeFully(header, 0);
+            channel.truncate(textPosition);
+            channel.force(true);
+            channel.close();
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+            if (!committed) Files.deleteIfExists(temporary);
+        }
+
+        private void putText(byte[] bytes) throws IOException {
+            int written = 0;
+            while (written < bytes.length) {
+                if (!texts.hasRemaining()) flushTexts();
+                int chunk = Math.min(texts.remaining(), bytes.length - written);
+                texts.put(bytes, written, chunk);
+                written += chunk;
+            }
+            textPosition += bytes.length;
+        }
+
+        private void flushRows() throws IOException {
+            rows.flip();
+            rowsPosition += writeFully(rows, rowsPosition);
+            rows.clear();
+        }
+
+        private void flushTexts() throws IOException {
+            texts.flip();
+            flushedTextPosition += writeFully(texts, flushedTextPosition);
+            texts.clear();
+        }
+
+        private int writeFully(ByteBuffer source, long position) throws IOException {
+            int length = source.remaining();
+            int written = 0;
+            while (written < length) written += channel.write(source, position + written);
+            return length;
+        }
+    }
+}
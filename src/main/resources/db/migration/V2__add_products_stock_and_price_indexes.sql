@@ -0,0 +1,15 @@
+-- Online index build: ALGORITHM=INPLACE, LOCK=NONE keeps reads and writes flowing while the indexes
+-- are built and makes MySQL fail the statement instead of silently falling back to a blocking copy.
+-- The short lock_wait_timeout bounds how long the ALTER may queue for the metadata lock, so a
+-- long-running transaction cannot make it stall every query queued behind it; rerun the migration
+-- once that transaction has finished.
+SET SESSION lock_wait_timeout = 5;
+
+ALTER TABLE products
+    ADD INDEX idx_products_amount (amount),
+    ADD INDEX idx_products_price (price),
+    ALGORITHM = INPLACE,
+    LOCK = NONE;
+
+-- the session variable would otherwise stay on the pooled connection Flyway hands back to the application
+SET SESSION lock_wait_timeout = DEFAULT;
@@ -0,0 +1,4 @@
+-- Row version bumped on every update, so a cached copy of a product can be checked against the table by
+-- comparing versions instead of whole rows. MySQL 8 adds a trailing column with a default as an INSTANT
+-- metadata change, without rebuilding the table.
+ALTER TABLE products ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
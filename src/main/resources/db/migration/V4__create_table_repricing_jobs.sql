@@ -0,0 +1,20 @@
+-- Mass repricing jobs. last_id is the id up to which the job has been applied; it is advanced in the same
+-- transaction as each chunk's UPDATE of products, so a job resumed after a restart continues exactly after
+-- the last committed chunk and never applies a price change to a row twice.
+CREATE TABLE repricing_jobs (
+    id CHAR(36) PRIMARY KEY,
+    status VARCHAR(16) NOT NULL,
+    min_price DECIMAL(8,2) NOT NULL,
+    max_price DECIMAL(8,2) NOT NULL,
+    operation VARCHAR(16) NOT NULL,
+    operand DECIMAL(12,4) NOT NULL,
+    max_id BIGINT NOT NULL,
+    last_id BIGINT NOT NULL,
+    total_rows BIGINT NOT NULL,
+    scanned_rows BIGINT NOT NULL,
+    updated_rows BIGINT NOT NULL,
+    error VARCHAR(500),
+    created_at TIMESTAMP(3) NOT NULL,
+    updated_at TIMESTAMP(3) NOT NULL,
+    finished_at TIMESTAMP(3)
+);
@@ -0,0 +1,16 @@
+-- Per-product low-stock threshold; NULL means the product is not watched. Adding a nullable trailing column
+-- is an INSTANT metadata change in MySQL 8.
+ALTER TABLE products ADD COLUMN low_stock_threshold BIGINT;
+
+-- One row per time a product went below its threshold. open_product_id holds the product id while the alert
+-- is open and NULL once it is resolved, so the unique key allows at most one open alert per product.
+CREATE TABLE low_stock_alerts (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    open_product_id BIGINT UNIQUE,
+    amount BIGINT NOT NULL,
+    threshold BIGINT NOT NULL,
+    raised_at TIMESTAMP(3) NOT NULL,
+    resolved_amount BIGINT,
+    resolved_at TIMESTAMP(3)
+);
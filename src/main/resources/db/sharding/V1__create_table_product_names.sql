@@ -0,0 +1,15 @@
+-- Name directory of a sharded catalog, kept on the first shard only. Product rows are spread by id, so the
+-- unique name column of each shard cannot see the others; every insert and rename claims its name here first.
+-- A product holds one row per name it owns and, for the length of a rename, one for the old and one for the new
+-- name. claimed_at lets a claim left behind by a crash between the claim and the product write be recognised
+-- and taken over once it is older than products.sharding.stale-claim-age.
+-- Rows already in this database, e.g. a former single primary turned into the first shard, are registered.
+CREATE TABLE product_names (
+    name VARCHAR(100) NOT NULL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    claimed_at TIMESTAMP(3) NOT NULL
+);
+
+CREATE INDEX idx_product_names_product_id ON product_names (product_id);
+
+INSERT INTO product_names (name, product_id, claimed_at) SELECT name, id, CURRENT_TIMESTAMP(3) FROM products;
@@ -0,0 +1,54 @@
+package dorotech;
+
+import dorotech.repository.InMemoryProductStore;
+import dorotech.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Boots the whole application on the in-memory storage engine, without Docker or a database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("memory")
+class InMemoryEngineApplicationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @DisplayName("Create Then Get Should Round Trip Through The In Memory Engine")
+    @Test
+    void createThenGet_ShouldRoundTripThroughTheInMemoryEngine() throws Exception {
+        // Arrange
+        String request = """
+                {"name": "Notebook", "description": "Lenovo", "price": 4000.50, "amount": 20}
+                """;
+
+        // Act
+        String location = mockMvc.perform(post("/products").contentType(MediaType.APPLICATION_JSON).content(request))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("Location");
+
+        // Assert
+        assertInstanceOf(InMemoryProductStore.class, productRepository);
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Notebook"))
+                .andExpect(jsonPath("$.price").value(4000.50));
+    }
+}
@@ -0,0 +1,120 @@
+package dorotech;
+
+import dorotech.repository.ProductBatchRepository;
+import dorotech.repository.ProductExportRepository;
+import dorotech.repository.ProductRepository;
+import dorotech.repository.ProductVersionRepository;
+import dorotech.repository.ShardedProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Boots the whole application with {@code products.sharding.enabled} over two H2 shards, without Docker. The
+ * bundled migrations are MySQL-only, so the shard schemas are created up front and Flyway is skipped.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ShardedApplicationTests {
+    private static final String H2_OPTIONS = ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @DynamicPropertySource
+    static void shards(DynamicPropertyRegistry registry) throws SQLException {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            String url = "jdbc:h2:mem:sharded-" + i + "-" + UUID.randomUUID() + H2_OPTIONS;
+            try (Connection connection = new DriverManagerDataSource(url, "sa", "").getConnection()) {
+                ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__create_table_products.sql"));
+                ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V3__add_products_version.sql"));
+                if (i == 0) {
+                    ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/sharding/V1__create_table_product_names.sql"));
+                }
+            }
+            urls.add(url);
+        }
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:sharded-primary-" + UUID.randomUUID() + H2_OPTIONS);
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.flyway.enabled", () -> false);
+        registry.add("products.flyway.on-startup", () -> "skip");
+        registry.add("products.ids.worker-id", () -> 0);
+        registry.add("products.sharding.enabled", () -> true);
+        registry.add("products.sharding.urls", () -> String.join(",", urls));
+    }
+
+    @DisplayName("Product Writes, Upserts And Exports Should Go Through The Shards")
+    @Test
+    void productEndpoints_ShouldGoThroughTheShards() throws Exception {
+        // Arrange
+        String request = """
+                {"name": "Notebook", "description": "Lenovo", "price": 4000.50, "amount": 20}
+                """;
+
+        // Act
+        String location = mockMvc.perform(post("/products").contentType(MediaType.APPLICATION_JSON).content(request))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("Location");
+        mockMvc.perform(put(location).contentType(MediaType.APPLICATION_JSON).content("""
+                        {"name": "Notebook Pro"}
+                        """))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/products/by-name").contentType(MediaType.APPLICATION_JSON).content("""
+                        [{"name": "Notebook Pro", "description": "Lenovo", "price": 4500.00, "amount": 5},
+                         {"name": "Mouse", "description": "Logitech", "price": 150.00, "amount": 40}]
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].result").value("UPDATED"))
+                .andExpect(jsonPath("$[1].result").value("INSERTED"));
+        String export = mockMvc.perform(get("/products/export"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        ShardedProductRepository sharded = context.getBean(ShardedProductRepository.class);
+        assertSame(sharded, context.getBean(ProductRepository.class));
+        assertSame(sharded, context.getBean(ProductBatchRepository.class));
+        assertSame(sharded, context.getBean(ProductExportRepository.class));
+        assertSame(sharded, context.getBean(ProductVersionRepository.class));
+        assertFalse(context.containsBean("lowStockMonitor"));
+        assertFalse(context.containsBean("productRepricingService"));
+        mockMvc.perform(post("/products").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"name": "Notebook Pro", "description": "Dell", "price": 10.00, "amount": 1}
+                        """))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Notebook Pro"))
+                .andExpect(jsonPath("$.price").value(4500.00));
+        assertEquals(2, export.lines().count());
+    }
+}
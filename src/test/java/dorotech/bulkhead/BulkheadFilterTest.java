@@ -0,0 +1,95 @@
+package dorotech.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadFilterTest {
+
+    @DisplayName("Classify Should Map Endpoints To Workload Classes")
+    @Test
+    void classify_ShouldMapEndpointsToWorkloadClasses() {
+        // Arrange
+        // Act
+        // Assert
+        assertEquals(WorkloadClass.LIST, WorkloadClass.of("GET", "/products", false));
+        assertEquals(WorkloadClass.LIST, WorkloadClass.of("GET", "/products", true));
+        assertEquals(WorkloadClass.POINT_READ, WorkloadClass.of("GET", "/products/42", false));
+        assertEquals(WorkloadClass.LIST, WorkloadClass.of("GET", "/products/suggest", false));
+        assertEquals(WorkloadClass.BULK, WorkloadClass.of("GET", "/products/export", false));
+        assertEquals(WorkloadClass.LIST, WorkloadClass.of("GET", "/products/low-stock-alerts", false));
+        assertEquals(WorkloadClass.POINT_READ, WorkloadClass.of("GET", "/products/42/low-stock-threshold", false));
+        assertEquals(WorkloadClass.LIST, WorkloadClass.of("GET", "/products/repricing", false));
+        assertEquals(WorkloadClass.LIST, WorkloadClass.of("GET", "/products/repricing/0b5c2f9e-8d1a-4c6e-9f3b-2a7d1e4c8b90", false));
+        assertEquals(WorkloadClass.LIST, WorkloadClass.of("GET", "/products/import", false));
+        assertEquals(WorkloadClass.LIST, WorkloadClass.of("GET", "/products/import/5e0c8a41-2b7d-4f3a-9c6e-1d8b3f2a7c05", false));
+        assertEquals(WorkloadClass.WRITE, WorkloadClass.of("POST", "/products", false));
+        assertEquals(WorkloadClass.WRITE, WorkloadClass.of("PUT", "/products/by-name/Iphone", false));
+        assertEquals(WorkloadClass.BULK, WorkloadClass.of("PUT", "/products/by-name", false));
+        assertEquals(WorkloadClass.BULK, WorkloadClass.of("POST", "/products/import", false));
+        assertEquals(WorkloadClass.BULK, WorkloadClass.of("POST", "/products/repricing", false));
+        assertEquals(WorkloadClass.WRITE, WorkloadClass.of("DELETE", "/products/42", false));
+    }
+
+    @DisplayName("Filter Should Bind The Workload Class While The Request Runs")
+    @Test
+    void filter_ShouldBindWorkloadClassDuringRequest() throws Exception {
+        // Arrange
+        BulkheadFilter filter = filter(1, 0);
+        AtomicReference<WorkloadClass> seen = new AtomicReference<>();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                seen.set(WorkloadClass.current());
+            }
+        });
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/products/42"), new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertEquals(WorkloadClass.POINT_READ, seen.get());
+        assertNull(WorkloadClass.current());
+        assertEquals(0, filter.bulkhead(WorkloadClass.POINT_READ).active());
+    }
+
+    @DisplayName("Filter Should Shed A Saturated Class Without Affecting Others")
+    @Test
+    void filter_ShouldShedSaturatedClassOnly() throws Exception {
+        // Arrange
+        BulkheadFilter filter = filter(1, 0);
+        Bulkhead bulk = filter.bulkhead(WorkloadClass.BULK);
+        assertTrue(bulk.tryEnter(0));
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain rejectedChain = new MockFilterChain();
+        MockFilterChain pointRead = new MockFilterChain();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/products/export"), rejected, rejectedChain);
+        filter.doFilter(new MockHttpServletRequest("GET", "/products/42"), new MockHttpServletResponse(), pointRead);
+
+        // Assert
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertNull(rejectedChain.getRequest());
+        assertTrue(rejected.getContentAsString().contains("Too many bulk requests in progress"));
+        assertNotNull(pointRead.getRequest());
+        assertEquals(1, bulk.rejected());
+    }
+
+    private static BulkheadFilter filter(int concurrent, int queueSize) {
+        return new BulkheadFilter(new ObjectMapper().findAndRegisterModules(), Duration.ofMillis(10),
+                concurrent, queueSize, concurrent, queueSize, concurrent, queueSize, concurrent, queueSize);
+    }
+}
@@ -0,0 +1,112 @@
+package dorotech.bulkhead;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionBudgetTest {
+
+    private static final int UNLIMITED = Integer.MAX_VALUE;
+
+    @DisplayName("Reserved Connections Should Stay Available While Bulk Holds The Shared Pool")
+    @Test
+    void acquire_ShouldKeepReservedConnectionsWhileBulkHoldsSharedPool() throws Exception {
+        // Arrange
+        ConnectionBudget budget = new ConnectionBudget(new int[]{2, 0, 0, 0}, new int[]{UNLIMITED, UNLIMITED, UNLIMITED, UNLIMITED},
+                new int[]{3, 1, 2, 0}, () -> 6);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(budget.acquire(WorkloadClass.BULK, 0));
+        }
+
+        // Act
+        boolean bulkOverShare = budget.acquire(WorkloadClass.BULK, 0);
+        boolean firstPointRead = budget.acquire(WorkloadClass.POINT_READ, 0);
+        boolean secondPointRead = budget.acquire(WorkloadClass.POINT_READ, 0);
+        boolean thirdPointRead = budget.acquire(WorkloadClass.POINT_READ, 0);
+
+        // Assert
+        assertFalse(bulkOverShare);
+        assertTrue(firstPointRead);
+        assertTrue(secondPointRead);
+        assertFalse(thirdPointRead);
+        assertEquals(4, budget.inUse(WorkloadClass.BULK));
+        assertEquals(1, budget.timeouts(WorkloadClass.BULK));
+    }
+
+    @DisplayName("Max Connections Should Cap A Class Even When The Shared Pool Is Free")
+    @Test
+    void acquire_ShouldRespectMaxConnections() throws Exception {
+        // Arrange
+        ConnectionBudget budget = new ConnectionBudget(new int[]{0, 0, 0, 0}, new int[]{UNLIMITED, UNLIMITED, UNLIMITED, 2},
+                new int[]{3, 1, 2, 0}, () -> 8);
+
+        // Act
+        boolean first = budget.acquire(WorkloadClass.BULK, 0);
+        boolean second = budget.acquire(WorkloadClass.BULK, 0);
+        boolean third = budget.acquire(WorkloadClass.BULK, 0);
+        budget.release(WorkloadClass.BULK);
+        boolean afterRelease = budget.acquire(WorkloadClass.BULK, 0);
+
+        // Assert
+        assertTrue(first && second && afterRelease);
+        assertFalse(third);
+    }
+
+    @DisplayName("Released Shared Connection Should Go To The Highest Priority Waiter")
+    @Test
+    void release_ShouldServeHighestPriorityWaiterFirst() throws Exception {
+        // Arrange
+        ConnectionBudget budget = new ConnectionBudget(new int[]{0, 0, 0, 0}, new int[]{UNLIMITED, UNLIMITED, UNLIMITED, UNLIMITED},
+                new int[]{3, 1, 2, 0}, () -> 1);
+        assertTrue(budget.acquire(WorkloadClass.LIST, 0));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<Boolean> bulk = CompletableFuture.supplyAsync(() -> acquire(budget, WorkloadClass.BULK, 300), executor);
+            awaitWaiting(budget, WorkloadClass.BULK);
+            CompletableFuture<Boolean> pointRead = CompletableFuture.supplyAsync(() -> acquire(budget, WorkloadClass.POINT_READ, 5_000), executor);
+            awaitWaiting(budget, WorkloadClass.POINT_READ);
+
+            // Act
+            budget.release(WorkloadClass.LIST);
+
+            // Assert
+            assertTrue(pointRead.get(5, TimeUnit.SECONDS));
+            assertFalse(bulk.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @DisplayName("Constructor Should Reject Reservations Larger Than The Pool")
+    @Test
+    void constructor_ShouldRejectReservationsLargerThanPool() {
+        // Arrange
+        // Act
+        // Assert
+        assertThrows(IllegalArgumentException.class, () -> new ConnectionBudget(new int[]{2, 1, 1, 1},
+                new int[]{UNLIMITED, UNLIMITED, UNLIMITED, UNLIMITED}, new int[]{3, 1, 2, 0}, () -> 4));
+    }
+
+    private static boolean acquire(ConnectionBudget budget, WorkloadClass workload, long timeoutMillis) {
+        try {
+            return budget.acquire(workload, TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void awaitWaiting(ConnectionBudget budget, WorkloadClass workload) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (budget.waiting(workload) == 0) {
+            if (System.nanoTime() > deadline) fail(workload + " never started waiting");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package dorotech.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HikariPoolConfigurerTest {
+
+    @DisplayName("Derive Pool Size Should Cap Core Formula By Expected Concurrency")
+    @Test
+    void derivePoolSize_ShouldCapCoreFormulaByExpectedConcurrency() {
+        // Arrange
+        // Act
+        // Assert
+        assertEquals(9, HikariPoolConfigurer.derivePoolSize(4, 1, 32));
+        assertEquals(8, HikariPoolConfigurer.derivePoolSize(16, 1, 8));
+        assertEquals(2, HikariPoolConfigurer.derivePoolSize(1, 0, 1));
+    }
+
+    @DisplayName("Post Process Should Apply Fixed Size Pool Settings")
+    @Test
+    void postProcess_ShouldApplyFixedSizePoolSettings() {
+        // Arrange
+        HikariPoolConfigurer configurer = configurer(12, false, 0, 0);
+        HikariDataSource dataSource = new HikariDataSource();
+
+        // Act
+        configurer.postProcessBeforeInitialization(dataSource, "dataSource");
+
+        // Assert
+        assertEquals(12, dataSource.getMaximumPoolSize());
+        assertEquals(12, dataSource.getMinimumIdle());
+        assertEquals(5_000, dataSource.getConnectionTimeout());
+        assertEquals(20_000, dataSource.getLeakDetectionThreshold());
+    }
+
+    @DisplayName("Post Process Should Lower Minimum Idle When Adaptive")
+    @Test
+    void postProcess_ShouldLowerMinimumIdleWhenAdaptive() {
+        // Arrange
+        HikariPoolConfigurer configurer = configurer(12, true, 0, 0);
+        HikariDataSource dataSource = new HikariDataSource();
+
+        // Act
+        configurer.postProcessBeforeInitialization(dataSource, "dataSource");
+
+        // Assert
+        assertEquals(12, dataSource.getMaximumPoolSize());
+        assertEquals(6, dataSource.getMinimumIdle());
+    }
+
+    @DisplayName("Constructor Should Reject Inconsistent Adaptive Bounds")
+    @Test
+    void constructor_ShouldRejectInconsistentAdaptiveBounds() {
+        // Arrange
+        // Act
+        // Assert
+        assertThrows(IllegalArgumentException.class, () -> configurer(12, true, 16, 0));
+        assertThrows(IllegalArgumentException.class, () -> configurer(12, true, 0, 10));
+    }
+
+    @DisplayName("Next Size Should Grow Under Contention And Shrink When Idle")
+    @Test
+    void nextSize_ShouldGrowUnderContentionAndShrinkWhenIdle() {
+        // Arrange
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("test-pool");
+        dataSource.setMaximumPoolSize(10);
+        dataSource.setMinimumIdle(4);
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(dataSource, new SimpleMeterRegistry(), 12,
+                Duration.ofSeconds(10), Duration.ofMillis(5), Duration.ofNanos(500_000), 2);
+
+        // Act
+        // Assert
+        assertEquals(12, sizer.nextSize(10, 8_000_000, 3, 0));
+        assertEquals(12, sizer.nextSize(12, 8_000_000, 3, 0));
+        assertEquals(10, sizer.nextSize(10, 8_000_000, 0, 0));
+        assertEquals(8, sizer.nextSize(10, 100_000, 0, 5));
+        assertEquals(4, sizer.nextSize(5, 100_000, 0, 5));
+        assertEquals(10, sizer.nextSize(10, 1_000_000, 0, 5));
+        sizer.destroy();
+    }
+
+    private static HikariPoolConfigurer configurer(int maximumSize, boolean adaptive, int adaptiveMin, int adaptiveMax) {
+        return new HikariPoolConfigurer(maximumSize, 32, 1, Duration.ofSeconds(5), Duration.ofSeconds(20),
+                Duration.ofMinutes(30), adaptive, adaptiveMin, adaptiveMax);
+    }
+}
@@ -0,0 +1,51 @@
+package dorotech.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyBeansPostProcessorTest {
+
+    @DisplayName("Post Process Should Mark Matching Beans And Their Factory Methods Lazy")
+    @Test
+    void postProcess_ShouldMarkMatchingBeansAndTheirFactoryMethodsLazy() {
+        // Arrange
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("openAPIConfig", new RootBeanDefinition(OpenAPIConfig.class));
+        RootBeanDefinition openApi = new RootBeanDefinition();
+        openApi.setFactoryBeanName("openAPIConfig");
+        openApi.setFactoryMethodName("customOpenAPI");
+        beanFactory.registerBeanDefinition("customOpenAPI", openApi);
+        beanFactory.registerBeanDefinition("webConfig", new RootBeanDefinition(WebConfig.class));
+        LazyBeansPostProcessor processor = new LazyBeansPostProcessor();
+        processor.setEnvironment(new MockEnvironment().withProperty("products.startup.lazy-beans", "dorotech.config.OpenAPIConfig"));
+
+        // Act
+        processor.postProcessBeanFactory(beanFactory);
+
+        // Assert
+        assertTrue(beanFactory.getBeanDefinition("openAPIConfig").isLazyInit());
+        assertTrue(beanFactory.getBeanDefinition("customOpenAPI").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("webConfig").isLazyInit());
+    }
+
+    @DisplayName("Post Process Should Leave Beans Eager When Nothing Is Configured")
+    @Test
+    void postProcess_ShouldLeaveBeansEagerWhenNothingIsConfigured() {
+        // Arrange
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("openAPIConfig", new RootBeanDefinition(OpenAPIConfig.class));
+        LazyBeansPostProcessor processor = new LazyBeansPostProcessor();
+        processor.setEnvironment(new MockEnvironment().withProperty("products.startup.lazy-beans", ""));
+
+        // Act
+        processor.postProcessBeanFactory(beanFactory);
+
+        // Assert
+        assertFalse(beanFactory.getBeanDefinition("openAPIConfig").isLazyInit());
+    }
+}
@@ -1,10 +1,16 @@
 package dorotech.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import dorotech.domain.Product;
+import dorotech.dto.ProductBatchResponse;
+import dorotech.dto.ProductFields;
 import dorotech.dto.ProductRequest;
 import dorotech.dto.ProductResponse;
 import dorotech.dto.ProductUpdateDTO;
+import dorotech.dto.ProductUpsertDTO;
+import dorotech.dto.ProductUpsertResponse;
+import dorotech.dto.ProductView;
 import dorotech.exceptions.exception.EntityNotFoundException;
 import dorotech.mocks.ProductMock;
 import dorotech.service.ProductService;
@@ -14,22 +20,26 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.json.JsonCompareMode;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest
+@WebMvcTest(ProductController.class)
 public class ProductControllerTest {
 
     @Autowired
@@ -52,7 +62,7 @@ public class ProductControllerTest {
         productRequest = new ProductRequest(
                 product.getName(),
                 product.getDescription(),
-                product.getPrice(),
+                product.getPriceCents(),
                 product.getAmount()
         );
         productResponse = new ProductResponse(product);
@@ -70,7 +80,7 @@ public class ProductControllerTest {
                             1L,
                             request.name(),
                             request.description(),
-                            request.price(),
+                            request.priceCents(),
                             request.amount()
                             );
                 });
@@ -97,7 +107,7 @@ public class ProductControllerTest {
                 2L,
                 "Iphone 15",
                 "Iphone de 256gb",
-                15000D,
+                1_500_000L,
                 10L
         ));
         // given
@@ -112,6 +122,68 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$.size()", CoreMatchers.is(productResponseList.size())));
     }
 
+    @DisplayName("list All Products with Fields should Write Only Selected Fields")
+    @Test
+    void listAllProducts_withFields_shouldWriteOnlySelectedFields() throws Exception {
+        // given
+        ProductFields fields = ProductFields.valueOf("id,price,amount");
+        given(service.findAll(fields))
+                .willReturn(List.of(new ProductView(new ProductResponse(1L, null, null, 1_000L, 10L), fields)));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/products").param("fields", "id,price,amount"));
+
+        //then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(content().json("[{\"id\":1,\"price\":10.00,\"amount\":10}]", JsonCompareMode.STRICT));
+    }
+
+    @DisplayName("list All Products with Unknown Field should Return Bad Request")
+    @Test
+    void listAllProducts_withUnknownField_shouldReturnBadRequest() throws Exception {
+        // when
+        ResultActions response = mockMvc.perform(get("/products").param("fields", "id,weight"));
+
+        //then
+        response.andExpect(status().isBadRequest());
+        verifyNoInteractions(service);
+    }
+
+    @DisplayName("find Product By Id with Fields should Omit Description")
+    @Test
+    void findProductById_withFields_shouldOmitDescription() throws Exception {
+        // given
+        ProductFields fields = ProductFields.valueOf("name,price");
+        given(service.findById(1L, fields))
+                .willReturn(new ProductView(new ProductResponse(1L, "Product", null, 1_000L, null), fields));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/products/{id}", 1L).param("fields", "name,price"));
+
+        //then
+        response.andExpect(status().isOk())
+                .andExpect(content().json("{\"name\":\"Product\",\"price\":10.00}", JsonCompareMode.STRICT));
+    }
+
+    @DisplayName("find Products By Ids should Return Found Products And Missing Ids")
+    @Test
+    void findProductsByIds_whenCalled_shouldReturnFoundProductsAndMissingIds() throws Exception {
+        // given
+        given(service.findAllByIds(List.of(1L, 99L)))
+                .willReturn(new ProductBatchResponse(List.of(productResponse), List.of(99L)));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/products").param("ids", "1,99"));
+
+        //then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.products.size()", CoreMatchers.is(1)))
+                .andExpect(jsonPath("$.products[0].name", CoreMatchers.is(productRequest.name())))
+                .andExpect(jsonPath("$.missingIds[0]", CoreMatchers.is(99)));
+    }
+
     @DisplayName("find Product By Id when Id Exists should Return Product Response")
     @Test
     void findProductById_whenIdExists_shouldReturnProductResponse() throws Exception {
@@ -146,6 +218,59 @@ public class ProductControllerTest {
                 .andDo(print());
     }
 
+    @DisplayName("find Product By Id when Id Not Exists should Return Error Response Body")
+    @Test
+    void findProductById_whenIdNotExists_shouldReturnErrorResponseBody() throws Exception {
+        // given
+        given(service.findById(anyLong())).willThrow(new EntityNotFoundException("Product Not Found"));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/products/{id}", 1L));
+
+        //then
+        response.andExpect(status().isNotFound())
+                .andDo(print())
+                .andExpect(jsonPath("$.status", CoreMatchers.is(404)))
+                .andExpect(jsonPath("$.error", CoreMatchers.is("Not Found")))
+                .andExpect(jsonPath("$.message", CoreMatchers.is("Product Not Found")))
+                .andExpect(jsonPath("$.path", CoreMatchers.is("/products/1")))
+                .andExpect(jsonPath("$.timestamp", CoreMatchers.notNullValue()));
+    }
+
+    @DisplayName("find Product By Id when Query Times Out should Return Gateway Timeout")
+    @Test
+    void findProductById_whenQueryTimesOut_shouldReturnGatewayTimeout() throws Exception {
+        // given
+        given(service.findById(anyLong())).willThrow(new QueryTimeoutException("Statement cancelled at the request deadline"));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/products/{id}", 1L).header("X-Request-Timeout", "100"));
+
+        //then
+        response.andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.status", CoreMatchers.is(504)))
+                .andExpect(jsonPath("$.error", CoreMatchers.is("Gateway Timeout")))
+                .andExpect(jsonPath("$.path", CoreMatchers.is("/products/1")));
+    }
+
+    @DisplayName("find Product By Id when Smile Is Accepted should Return Smile Body")
+    @Test
+    void findProductById_whenSmileIsAccepted_shouldReturnSmileBody() throws Exception {
+        // given
+        given(service.findById(anyLong())).willReturn(productResponse);
+
+        // when
+        ResultActions response = mockMvc.perform(get("/products/{id}", 1L)
+                .accept("application/x-jackson-smile"));
+
+        //then
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+        ProductResponse decoded = new SmileMapper().readValue(body, ProductResponse.class);
+        assertEquals(productResponse, decoded);
+    }
+
     @DisplayName("update Product By Id when Id Exists should Return Updated Product Response")
     @Test
     void updateProductById_whenIdExists_shouldReturnUpdatedProductResponse() throws Exception       {
@@ -154,7 +279,7 @@ public class ProductControllerTest {
         ProductUpdateDTO productUpdateDTO = new ProductUpdateDTO(
                 "Notebook",
                 "Notebook 256gb",
-                5000D,
+                500_000L,
                 20L
         );
         given(service.updateProduct(any(ProductUpdateDTO.class), anyLong())).willAnswer(
@@ -184,7 +309,7 @@ public class ProductControllerTest {
         ProductUpdateDTO productUpdateDTO = new ProductUpdateDTO(
                 "Notebook",
                 "Notebook 256gb",
-                5000D,
+                500_000L,
                 20L
         );
         given(service.updateProduct(any(ProductUpdateDTO.class), anyLong())).willThrow(EntityNotFoundException.class);
@@ -199,6 +324,42 @@ public class ProductControllerTest {
     }
 
 
+    @DisplayName("upsert Product By Name when Name Is New should Return Created")
+    @Test
+    void upsertProductByName_whenNameIsNew_shouldReturnCreated() throws Exception {
+        // given
+        ProductUpsertDTO upsertDTO = new ProductUpsertDTO("Notebook 256gb", 500_000L, 20L);
+        given(service.upsertByName(List.of(upsertDTO.toRequest("Notebook"))))
+                .willReturn(List.of(new ProductUpsertResponse(1L, "Notebook", ProductUpsertResponse.Result.INSERTED)));
+
+        // when
+        ResultActions response = mockMvc.perform(put("/products/by-name/{name}", "Notebook")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(upsertDTO)));
+
+        //then
+        response.andExpect(status().isCreated())
+                .andDo(print())
+                .andExpect(jsonPath("$.result", CoreMatchers.is("INSERTED")));
+    }
+
+    @DisplayName("upsert Products By Name when Element Is Invalid should Return Bad Request")
+    @Test
+    void upsertProductsByName_whenElementIsInvalid_shouldReturnBadRequest() throws Exception {
+        // given
+        List<ProductRequest> requests = List.of(productRequest, new ProductRequest("", "Lenovo", -100L, 20L));
+
+        // when
+        ResultActions response = mockMvc.perform(put("/products/by-name")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(requests)));
+
+        //then
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+        verify(service, never()).upsertByName(any());
+    }
+
     @DisplayName("delete Product By Id when Id Exists should Return No Content")
     @Test
     void deleteProductById_whenIdExists_shouldReturnNoContent() throws Exception {
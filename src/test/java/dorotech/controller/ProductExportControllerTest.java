@@ -0,0 +1,23 @@
+package dorotech.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductExportControllerTest {
+
+    @DisplayName("Accepts Gzip Should Honour Quality Values And Wildcards")
+    @Test
+    void acceptsGzip_ShouldHonourQualityValuesAndWildcards() {
+        // Act & Assert
+        assertTrue(ProductExportController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ProductExportController.acceptsGzip("GZIP;Q=0.5"));
+        assertTrue(ProductExportController.acceptsGzip("br, *;q=0.1"));
+        assertFalse(ProductExportController.acceptsGzip("gzip;q=0"));
+        assertFalse(ProductExportController.acceptsGzip("gzip;q=0.0, deflate"));
+        assertFalse(ProductExportController.acceptsGzip("*, gzip;q=0"));
+        assertFalse(ProductExportController.acceptsGzip("br, identity"));
+        assertFalse(ProductExportController.acceptsGzip(null));
+    }
+}
@@ -0,0 +1,98 @@
+package dorotech.deadline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineDataSourceTest {
+    // a full scan over ten billion generated rows stands in for a database that has slowed to a crawl
+    private static final String SLOW_QUERY = "SELECT SUM(X) FROM SYSTEM_RANGE(1, 10000000000)";
+
+    private ScheduledExecutorService canceller;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        canceller = Executors.newSingleThreadScheduledExecutor();
+        DriverManagerDataSource h2 = new DriverManagerDataSource("jdbc:h2:mem:deadline;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(new DeadlineDataSource(h2, canceller));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS writes (id BIGINT)");
+        jdbcTemplate.execute("DELETE FROM writes");
+    }
+
+    @AfterEach
+    void tearDown() {
+        canceller.shutdownNow();
+    }
+
+    @DisplayName("Slow Query Should Be Cancelled When The Deadline Passes")
+    @Test
+    void query_ShouldBeCancelledAtDeadline() {
+        // Arrange
+        Deadline previous = Deadline.after(Duration.ofMillis(200)).bind();
+        long start = System.nanoTime();
+
+        // Act
+        QueryTimeoutException ex;
+        try {
+            ex = assertThrows(QueryTimeoutException.class, () -> jdbcTemplate.queryForObject(SLOW_QUERY, Long.class));
+        } finally {
+            Deadline.restore(previous);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertTrue(ex.getMessage().contains("cancelled at the request deadline"), ex.getMessage());
+        assertTrue(elapsedMillis < 5_000, "cancellation took " + elapsedMillis + "ms");
+    }
+
+    @DisplayName("Statement Should Be Refused Once The Deadline Has Passed")
+    @Test
+    void update_ShouldBeRefusedAfterDeadline() throws Exception {
+        // Arrange
+        Deadline deadline = Deadline.after(Duration.ofMillis(1));
+        Thread.sleep(5);
+        Deadline previous = deadline.bind();
+
+        // Act
+        QueryTimeoutException ex;
+        try {
+            ex = assertThrows(QueryTimeoutException.class, () -> jdbcTemplate.update("INSERT INTO writes (id) VALUES (1)"));
+        } finally {
+            Deadline.restore(previous);
+        }
+
+        // Assert
+        assertTrue(ex.getMessage().contains("before the statement started"), ex.getMessage());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM writes", Long.class));
+    }
+
+    @DisplayName("Statements Within The Deadline Should Run Normally")
+    @Test
+    void update_ShouldRunWithinDeadline() {
+        // Arrange
+        Deadline previous = Deadline.after(Duration.ofSeconds(5)).bind();
+
+        // Act
+        try {
+            jdbcTemplate.update("INSERT INTO writes (id) VALUES (1)");
+            jdbcTemplate.update("INSERT INTO writes (id) VALUES (2)");
+        } finally {
+            Deadline.restore(previous);
+        }
+
+        // Assert
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM writes", Long.class));
+    }
+}
@@ -0,0 +1,77 @@
+package dorotech.deadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineFilterTest {
+    private final DeadlineFilter filter = new DeadlineFilter(new ObjectMapper().findAndRegisterModules(), "X-Request-Timeout",
+            Duration.ofSeconds(2), Duration.ofSeconds(10), Duration.ofSeconds(5), Duration.ofMinutes(10));
+
+    @DisplayName("Header Should Shorten But Never Extend The Endpoint Default")
+    @Test
+    void filter_ShouldApplyShorterOfHeaderAndDefault() throws Exception {
+        // Arrange
+        // Act
+        long shortened = remainingMillis(request("GET", "/products/42", "500"));
+        long capped = remainingMillis(request("GET", "/products/42", "60s"));
+        long listDefault = remainingMillis(request("GET", "/products", null));
+
+        // Assert
+        assertTrue(shortened > 0 && shortened <= 500, "shortened to " + shortened);
+        assertTrue(capped > 1_000 && capped <= 2_000, "capped at " + capped);
+        assertTrue(listDefault > 9_000 && listDefault <= 10_000, "list default " + listDefault);
+        assertNull(Deadline.current());
+    }
+
+    @DisplayName("Filter Should Refuse Requests Without Time Left Or With A Malformed Header")
+    @Test
+    void filter_ShouldRefuseExpiredOrMalformedDeadlines() throws Exception {
+        // Arrange
+        MockHttpServletResponse expired = new MockHttpServletResponse();
+        MockHttpServletResponse malformed = new MockHttpServletResponse();
+        MockFilterChain expiredChain = new MockFilterChain();
+        MockFilterChain malformedChain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request("POST", "/products", "0"), expired, expiredChain);
+        filter.doFilter(request("POST", "/products", "soon"), malformed, malformedChain);
+
+        // Assert
+        assertEquals(504, expired.getStatus());
+        assertTrue(expired.getContentAsString().contains("Request deadline exceeded"));
+        assertNull(expiredChain.getRequest());
+        assertEquals(400, malformed.getStatus());
+        assertNull(malformedChain.getRequest());
+    }
+
+    private long remainingMillis(MockHttpServletRequest request) throws Exception {
+        AtomicLong remaining = new AtomicLong(-1);
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                remaining.set(TimeUnit.NANOSECONDS.toMillis(Deadline.current().remainingNanos()));
+            }
+        });
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return remaining.get();
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String timeout) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (timeout != null) request.addHeader("X-Request-Timeout", timeout);
+        return request;
+    }
+}
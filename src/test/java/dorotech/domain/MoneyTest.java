@@ -0,0 +1,66 @@
+package dorotech.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import dorotech.dto.ProductRequest;
+import dorotech.dto.ProductResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @DisplayName("ParseCents Should Read Plain Decimals Exactly")
+    @Test
+    void parseCents_ShouldReadPlainDecimalsExactly() {
+        assertEquals(1_500_000L, Money.parseCents("15000"));
+        assertEquals(1_500_050L, Money.parseCents("15000.5"));
+        assertEquals(1_999L, Money.parseCents("19.99"));
+        assertEquals(30L, Money.parseCents("0.30"));
+        assertEquals(-25L, Money.parseCents("-.25"));
+        assertEquals(1_050L, Money.parseCents("10.500"));
+        assertEquals(150_000L, Money.parseCents("1.5E3"));
+    }
+
+    @DisplayName("ParseCents Should Reject Fractions Of A Cent")
+    @Test
+    void parseCents_ShouldRejectFractionsOfACent() {
+        assertThrows(ArithmeticException.class, () -> Money.parseCents("0.105"));
+        assertThrows(NumberFormatException.class, () -> Money.parseCents("abc"));
+    }
+
+    @DisplayName("Format Should Always Write Two Decimal Places")
+    @Test
+    void format_ShouldAlwaysWriteTwoDecimalPlaces() {
+        assertEquals("0.00", Money.format(0));
+        assertEquals("0.07", Money.format(7));
+        assertEquals("19.99", Money.format(1_999));
+        assertEquals("-15000.50", Money.format(-1_500_050));
+        assertEquals(new BigDecimal("19.99"), Money.toDecimal(1_999));
+        assertEquals(1_999L, Money.fromDecimal(new BigDecimal("19.990")));
+    }
+
+    @DisplayName("Json Should Round Trip Price Without Floating Point")
+    @Test
+    void json_ShouldRoundTripPriceWithoutFloatingPoint() throws Exception {
+        ProductRequest request = mapper.readValue(
+                "{\"name\":\"Iphone\",\"description\":\"256gb\",\"price\":0.1,\"amount\":1}", ProductRequest.class);
+        assertEquals(10L, request.priceCents());
+
+        String json = mapper.writeValueAsString(new ProductResponse(1L, "Iphone", "256gb", 1_999L, 1L));
+        assertEquals("{\"id\":1,\"name\":\"Iphone\",\"description\":\"256gb\",\"price\":19.99,\"amount\":1}", json);
+        assertEquals(1_999L, mapper.readValue(json, ProductResponse.class).priceCents());
+    }
+
+    @DisplayName("Json Should Reject Price With More Than Two Decimals")
+    @Test
+    void json_ShouldRejectPriceWithMoreThanTwoDecimals() {
+        assertThrows(InvalidFormatException.class, () -> mapper.readValue(
+                "{\"name\":\"Iphone\",\"description\":\"256gb\",\"price\":0.001,\"amount\":1}", ProductRequest.class));
+    }
+}
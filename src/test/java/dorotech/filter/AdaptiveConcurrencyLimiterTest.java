@@ -0,0 +1,61 @@
+package dorotech.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final long WINDOW = 100_000_000L;
+    private static final long MILLI = 1_000_000L;
+
+    @DisplayName("Try Acquire Should Reject Above Limit")
+    @Test
+    void tryAcquire_ShouldRejectAboveLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1.5, 0.2, WINDOW, 1, 0);
+
+        // Act
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertEquals(2, limiter.inFlight());
+    }
+
+    @DisplayName("Release Should Shrink Limit When Latency Rises")
+    @Test
+    void release_ShouldShrinkLimitWhenLatencyRises() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40, 4, 100, 1.5, 0.5, WINDOW, 1, 0);
+        long now = 0;
+        for (int window = 0; window < 5; window++) {
+            now = runWindow(limiter, now, 40, 10 * MILLI);
+        }
+        int steadyLimit = limiter.limit();
+
+        // Act
+        for (int window = 0; window < 10; window++) {
+            now = runWindow(limiter, now, steadyLimit, 100 * MILLI);
+        }
+
+        // Assert
+        assertTrue(steadyLimit >= 40, "steady latency should not shrink the limit: " + steadyLimit);
+        assertTrue(limiter.limit() < steadyLimit / 2, "limit should drop under rising latency: " + limiter.limit());
+        assertTrue(limiter.limit() >= 4);
+    }
+
+    private static long runWindow(AdaptiveConcurrencyLimiter limiter, long now, int requests, long rtt) {
+        int admitted = 0;
+        while (admitted < requests && limiter.tryAcquire()) admitted++;
+        now += WINDOW;
+        for (int i = 0; i < admitted; i++) {
+            limiter.release(rtt, now);
+        }
+        return now;
+    }
+}
@@ -0,0 +1,152 @@
+package dorotech.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    @DisplayName("Classify Should Map Endpoints To Cost Classes")
+    @Test
+    void classify_ShouldMapEndpointsToCostClasses() {
+        // Arrange
+        // Act
+        // Assert
+        assertEquals(RateLimitFilter.Cost.LIST, RateLimitFilter.classify("GET", "/products", false));
+        assertEquals(RateLimitFilter.Cost.BATCH, RateLimitFilter.classify("GET", "/products", true));
+        assertEquals(RateLimitFilter.Cost.GET, RateLimitFilter.classify("GET", "/products/42", false));
+        assertEquals(RateLimitFilter.Cost.BATCH, RateLimitFilter.classify("GET", "/products/export", false));
+        assertEquals(RateLimitFilter.Cost.LIST, RateLimitFilter.classify("GET", "/products/low-stock-alerts", false));
+        assertEquals(RateLimitFilter.Cost.LIST, RateLimitFilter.classify("GET", "/products/suggest", false));
+        assertEquals(RateLimitFilter.Cost.LIST, RateLimitFilter.classify("GET", "/products/repricing", false));
+        assertEquals(RateLimitFilter.Cost.LIST, RateLimitFilter.classify("GET", "/products/import", false));
+        assertEquals(RateLimitFilter.Cost.WRITE, RateLimitFilter.classify("POST", "/products", false));
+        assertEquals(RateLimitFilter.Cost.WRITE, RateLimitFilter.classify("PUT", "/products/by-name/Iphone", false));
+        assertEquals(RateLimitFilter.Cost.BATCH, RateLimitFilter.classify("PUT", "/products/by-name", false));
+        assertEquals(RateLimitFilter.Cost.BATCH, RateLimitFilter.classify("POST", "/products/import", false));
+        assertEquals(RateLimitFilter.Cost.WRITE, RateLimitFilter.classify("DELETE", "/products/42", false));
+    }
+
+    @DisplayName("Filter Should Reject With Too Many Requests Once Bucket Is Empty")
+    @Test
+    void filter_ShouldRejectWithTooManyRequestsOnceBucketIsEmpty() throws Exception {
+        // Arrange
+        RateLimitFilter filter = filter(1, 10);
+        filter.doFilter(request("GET", "/products", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(request("GET", "/products", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request("GET", "/products", "10.0.0.1"), response, chain);
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertEquals("5", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+        assertTrue(response.getContentAsString().contains("Rate limit exceeded"));
+    }
+
+    @DisplayName("Filter Should Admit Other Clients And Other Paths")
+    @Test
+    void filter_ShouldAdmitOtherClientsAndOtherPaths() throws Exception {
+        // Arrange
+        RateLimitFilter filter = filter(1, 10);
+        filter.doFilter(request("GET", "/products", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(request("GET", "/products", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+        MockFilterChain otherClient = new MockFilterChain();
+        MockFilterChain otherPath = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request("GET", "/products", "10.0.0.2"), new MockHttpServletResponse(), otherClient);
+        filter.doFilter(request("GET", "/swagger-ui.html", "10.0.0.1"), new MockHttpServletResponse(), otherPath);
+
+        // Assert
+        assertNotNull(otherClient.getRequest());
+        assertNotNull(otherPath.getRequest());
+    }
+
+    @DisplayName("A Slow Bulk Request Should Not Shrink The Concurrency Limit For Point Reads")
+    @Test
+    void filter_ShouldNotShedPointReadsAfterSlowBulkRequest() throws Exception {
+        // Arrange
+        // every completion closes a window; a 50 ms sample after a microsecond one would halve the limit of 10
+        RateLimitFilter filter = new RateLimitFilter(new ObjectMapper().findAndRegisterModules(), 1000, 1000, 1000, "",
+                5, 1, 2, 10, true, 10, 1, 10, 1.5, 1.0, Duration.ofNanos(1), 1);
+        filter.doFilter(request("GET", "/products/1", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+        CountDownLatch started = new CountDownLatch(8);
+        CountDownLatch held = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(9);
+        List<Future<Integer>> heldReads = new ArrayList<>();
+        Future<Integer> export = clients.submit(() -> status(filter, "/products/export", (req, res) -> sleep(50)));
+        for (int i = 0; i < 8; i++) {
+            heldReads.add(clients.submit(() -> status(filter, "/products/2", (req, res) -> {
+                started.countDown();
+                held.await();
+            })));
+        }
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // Act
+        int exportStatus = export.get(10, TimeUnit.SECONDS);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/products/3", "10.0.0.1"), response, new MockFilterChain());
+        held.countDown();
+
+        // Assert
+        assertEquals(200, exportStatus);
+        assertEquals(200, response.getStatus());
+        for (Future<Integer> read : heldReads) {
+            assertEquals(200, read.get(10, TimeUnit.SECONDS));
+        }
+        clients.shutdown();
+    }
+
+    private static int status(RateLimitFilter filter, String path, Chain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", path, "10.0.0.1"), response, (req, res) -> {
+            try {
+                chain.doFilter(req, res);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return response.getStatus();
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+
+    @FunctionalInterface
+    private interface Chain {
+        void doFilter(ServletRequest request, ServletResponse response) throws InterruptedException;
+    }
+
+    private static RateLimitFilter filter(double tokensPerSecond, int burst) {
+        return new RateLimitFilter(new ObjectMapper().findAndRegisterModules(), tokensPerSecond, burst, 1000, "",
+                5, 1, 2, 10, true, 50, 8, 400, 1.5, 0.2, Duration.ofSeconds(1), 20);
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
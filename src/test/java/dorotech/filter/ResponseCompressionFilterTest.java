@@ -0,0 +1,175 @@
+package dorotech.filter;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCompressionFilterTest {
+    private static final String LARGE_BODY = "{\"id\":1,\"name\":\"Iphone 15\",\"price\":15000.00}\n".repeat(200);
+
+    private ResponseCompressionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ResponseCompressionFilter(DataSize.ofKilobytes(2), List.of("gzip", "deflate"), 6, 6,
+                List.of("application/json", "application/x-ndjson"), DataSize.ofKilobytes(8), 4);
+    }
+
+    @DisplayName("Negotiate Should Honour Quality Values And Server Preference")
+    @Test
+    void negotiate_ShouldHonourQualityValuesAndServerPreference() {
+        // Arrange
+        // Act
+        // Assert
+        assertEquals(ResponseCompressionFilter.Encoding.GZIP, filter.negotiate("gzip, deflate, br"));
+        assertEquals(ResponseCompressionFilter.Encoding.GZIP, filter.negotiate("deflate, gzip"));
+        assertEquals(ResponseCompressionFilter.Encoding.DEFLATE, filter.negotiate("gzip;q=0.5, deflate;q=0.8"));
+        assertEquals(ResponseCompressionFilter.Encoding.DEFLATE, filter.negotiate("gzip;q=0, deflate"));
+        assertEquals(ResponseCompressionFilter.Encoding.GZIP, filter.negotiate("*"));
+        assertNull(filter.negotiate("br, identity"));
+        assertNull(filter.negotiate("gzip;q=0"));
+        assertNull(filter.negotiate(null));
+    }
+
+    @DisplayName("Filter Should Gzip Large Json Responses")
+    @Test
+    void filter_ShouldGzipLargeJsonResponses() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request("gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, chain("application/json", LARGE_BODY));
+
+        // Assert
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertTrue(response.getContentAsByteArray().length < LARGE_BODY.length() / 4);
+        assertEquals(LARGE_BODY, read(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+    }
+
+    @DisplayName("Filter Should Deflate When Client Prefers It")
+    @Test
+    void filter_ShouldDeflateWhenClientPrefersIt() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request("gzip;q=0.1, deflate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, chain("application/x-ndjson", LARGE_BODY));
+
+        // Assert
+        assertEquals("deflate", response.getHeader("Content-Encoding"));
+        assertEquals(LARGE_BODY, read(new InflaterInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+    }
+
+    @DisplayName("Filter Should Not Compress Responses Below Threshold")
+    @Test
+    void filter_ShouldNotCompressResponsesBelowThreshold() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request("gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String body = "{\"id\":1}";
+
+        // Act
+        filter.doFilter(request, response, chain("application/json", body));
+
+        // Assert
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(body.length(), response.getContentLength());
+        assertEquals(body, response.getContentAsString());
+    }
+
+    @DisplayName("Filter Should Not Compress Unlisted Content Types")
+    @Test
+    void filter_ShouldNotCompressUnlistedContentTypes() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request("gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, chain("image/png", LARGE_BODY));
+
+        // Assert
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(LARGE_BODY, response.getContentAsString());
+    }
+
+    @DisplayName("Filter Should Leave Already Encoded Responses Untouched")
+    @Test
+    void filter_ShouldLeaveAlreadyEncodedResponsesUntouched() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request("deflate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType("application/x-ndjson");
+                resp.setHeader("Content-Encoding", "gzip");
+                resp.getOutputStream().write(LARGE_BODY.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals(LARGE_BODY, response.getContentAsString());
+    }
+
+    @DisplayName("Filter Should Pass Through When Client Sends No Accept Encoding")
+    @Test
+    void filter_ShouldPassThroughWhenClientSendsNoAcceptEncoding() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request(null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, chain("application/json", LARGE_BODY));
+
+        // Assert
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(LARGE_BODY, response.getContentAsString());
+    }
+
+    private static MockHttpServletRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products");
+        if (acceptEncoding != null) request.addHeader("Accept-Encoding", acceptEncoding);
+        return request;
+    }
+
+    private static MockFilterChain chain(String contentType, String body) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType(contentType);
+                resp.setCharacterEncoding("UTF-8");
+                resp.getWriter().write(body);
+            }
+        });
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package dorotech.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @DisplayName("Try Acquire Should Admit Burst Then Reject With Wait Time")
+    @Test
+    void tryAcquire_ShouldAdmitBurstThenRejectWithWaitTime() {
+        // Arrange
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 20, 100);
+
+        // Act
+        long first = limiter.tryAcquire("client", 15, 0);
+        long second = limiter.tryAcquire("client", 5, 0);
+        long third = limiter.tryAcquire("client", 2, 0);
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(0, second);
+        assertEquals(SECOND / 5, third);
+    }
+
+    @DisplayName("Try Acquire Should Refill Over Time")
+    @Test
+    void tryAcquire_ShouldRefillOverTime() {
+        // Arrange
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 20, 100);
+        limiter.tryAcquire("client", 20, 0);
+
+        // Act
+        long tooEarly = limiter.tryAcquire("client", 5, SECOND / 10);
+        long afterRefill = limiter.tryAcquire("client", 5, SECOND / 2);
+
+        // Assert
+        assertTrue(tooEarly > 0);
+        assertEquals(0, afterRefill);
+    }
+
+    @DisplayName("Try Acquire Should Keep Clients Independent")
+    @Test
+    void tryAcquire_ShouldKeepClientsIndependent() {
+        // Arrange
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 20, 100);
+        limiter.tryAcquire("noisy", 20, 0);
+
+        // Act
+        long noisy = limiter.tryAcquire("noisy", 1, 0);
+        long quiet = limiter.tryAcquire("quiet", 1, 0);
+
+        // Assert
+        assertTrue(noisy > 0);
+        assertEquals(0, quiet);
+    }
+
+    @DisplayName("Try Acquire Should Sweep Refilled Buckets Past Max Clients")
+    @Test
+    void tryAcquire_ShouldSweepRefilledBucketsPastMaxClients() {
+        // Arrange
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 20, 2);
+        limiter.tryAcquire("a", 1, 0);
+        limiter.tryAcquire("b", 1, 0);
+
+        // Act
+        limiter.tryAcquire("c", 1, 10 * SECOND);
+
+        // Assert
+        assertEquals(1, limiter.clients());
+    }
+}
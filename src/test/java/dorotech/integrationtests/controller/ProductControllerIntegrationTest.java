@@ -50,7 +50,7 @@ public class ProductControllerIntegrationTest extends AbstractIntegrationTest {
         productRequest = new ProductRequest(
                 "Notebook",
                 "Notebook da Apple com 256bg",
-                20000D,
+                2_000_000L,
                 200L
         );
         productResponse = new ProductResponse(null, null, null, null, null);
@@ -79,12 +79,12 @@ public class ProductControllerIntegrationTest extends AbstractIntegrationTest {
         assertNotNull(productResponse.name());
         assertNotNull(productResponse.description());
         assertNotNull(productResponse.amount());
-        assertNotNull(productResponse.price());
+        assertNotNull(productResponse.priceCents());
 
         assertTrue(productResponse.id() > 0);
         assertEquals(productRequest.name(), productResponse.name());
         assertEquals(productRequest.description(), productResponse.description());
-        assertEquals(productRequest.price(), productResponse.price());
+        assertEquals(productRequest.priceCents(), productResponse.priceCents());
     }
 
     @Order(2)
@@ -115,12 +115,12 @@ public class ProductControllerIntegrationTest extends AbstractIntegrationTest {
         assertNotNull(productResponse.name());
         assertNotNull(productResponse.description());
         assertNotNull(productResponse.amount());
-        assertNotNull(productResponse.price());
+        assertNotNull(productResponse.priceCents());
 
         assertTrue(productResponse.id() > 0);
         assertEquals(dto.name(), productResponse.name());
         assertEquals(dto.description(), productResponse.description());
-        assertEquals(productRequest.price(), productResponse.price());
+        assertEquals(productRequest.priceCents(), productResponse.priceCents());
     }
 
     @Order(3)
@@ -145,12 +145,12 @@ public class ProductControllerIntegrationTest extends AbstractIntegrationTest {
         assertNotNull(foundProduct.name());
         assertNotNull(foundProduct.description());
         assertNotNull(foundProduct.amount());
-        assertNotNull(foundProduct.price());
+        assertNotNull(foundProduct.priceCents());
 
         assertTrue(foundProduct.id() > 0);
         assertEquals(productResponse.name(), foundProduct.name());
         assertEquals(productResponse.description(), foundProduct.description());
-        assertEquals(productResponse.price(), foundProduct.price());
+        assertEquals(productResponse.priceCents(), foundProduct.priceCents());
     }
 
     @Order(4)
@@ -161,7 +161,7 @@ public class ProductControllerIntegrationTest extends AbstractIntegrationTest {
         ProductRequest AnotherProduct = new ProductRequest(
                 "Iphone 16",
                 "Iphone 16 com 256bg",
-                17000D,
+                1_700_000L,
                 200L
         );
         given().spec(specification)
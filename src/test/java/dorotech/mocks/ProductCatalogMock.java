@@ -0,0 +1,38 @@
+package dorotech.mocks;
+
+import dorotech.dto.ProductResponse;
+import dorotech.repository.ProductExportRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ProductCatalogMock {
+
+    /** Products 1..size keyed and iterated by id. */
+    public static Map<Long, ProductResponse> catalog(int size) {
+        Map<Long, ProductResponse> catalog = new TreeMap<>();
+        for (long id = 1; id <= size; id++) {
+            catalog.put(id, new ProductResponse(id, "Product " + id, "Description " + id, id * 100, id % 10));
+        }
+        return catalog;
+    }
+
+    /** Streams whatever the id-ordered {@code catalog} holds at the time of each call. */
+    public static ProductExportRepository exportRepository(Map<Long, ProductResponse> catalog) {
+        return (afterId, handler) -> {
+            long count = 0;
+            try {
+                for (ProductResponse product : catalog.values()) {
+                    if (product.id() <= afterId) continue;
+                    handler.accept(product.id(), product.name(), product.description(), product.priceCents(), product.amount());
+                    count++;
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return count;
+        };
+    }
+}
@@ -12,7 +12,7 @@ public class ProductMock {
                 1L,
                 "Product",
                 "Description Product",
-                10D,
+                1000L,
                 10L
         );
     }
@@ -24,7 +24,7 @@ public class ProductMock {
                     i,
                     "Product" + i,
                     "Description Product" + i,
-                    (double) i,
+                    i * 100,
                     i
             );
             productList.add(product);
@@ -0,0 +1,82 @@
+package dorotech.profiling;
+
+import dorotech.exceptions.exception.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingEndpointTest {
+    private final FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint(Duration.ofSeconds(30), DataSize.ofMegabytes(10), 2);
+
+    @AfterEach
+    void tearDown() {
+        endpoint.destroy();
+    }
+
+    @DisplayName("Recording Should Capture Product Events And Summarize Them")
+    @Test
+    void recording_ShouldCaptureProductEventsAndSummarizeThem() throws Exception {
+        // Arrange
+        WebEndpointResponse<FlightRecordingEndpoint.RecordingStatus> started = endpoint.start(Duration.ofSeconds(1), null);
+        long id = started.getBody().id();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            ProductOperationEvent operation = ProductOperationEvent.start("create");
+            operation.db(() -> sleep(2));
+            operation.finish((long) i, 1);
+        }
+        ProductErrorEvent.record(new EntityNotFoundException("Product Not Found"), 404, "/products/1");
+        WebEndpointResponse<Resource> download = endpoint.recording(id);
+        for (int attempt = 0; attempt < 100 && download.getStatus() != WebEndpointResponse.STATUS_OK; attempt++) {
+            Thread.sleep(100);
+            download = endpoint.recording(id);
+        }
+        ByteArrayOutputStream summary = new ByteArrayOutputStream();
+        JfrSummary.summarize(download.getBody().getFile().toPath(), 3, new PrintStream(summary, true, StandardCharsets.UTF_8));
+        String text = summary.toString(StandardCharsets.UTF_8);
+
+        // Assert
+        assertEquals(202, started.getStatus());
+        assertEquals(WebEndpointResponse.STATUS_OK, download.getStatus());
+        assertTrue(text.lines().anyMatch(line -> line.startsWith("create") && line.contains(" 5 ")), text);
+        assertTrue(text.contains("slowest 3 operations"), text);
+        assertTrue(text.contains("404 " + EntityNotFoundException.class.getName()), text);
+    }
+
+    @DisplayName("Start Should Reject Unbounded Or Concurrent Recordings")
+    @Test
+    void start_ShouldRejectUnboundedOrConcurrentRecordings() {
+        // Act
+        WebEndpointResponse<?> tooLong = endpoint.start(Duration.ofHours(1), null);
+        WebEndpointResponse<?> unknownSettings = endpoint.start(Duration.ofSeconds(5), "does-not-exist");
+        WebEndpointResponse<?> first = endpoint.start(Duration.ofSeconds(5), "profile");
+        WebEndpointResponse<?> second = endpoint.start(Duration.ofSeconds(5), null);
+
+        // Assert
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, tooLong.getStatus());
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, unknownSettings.getStatus());
+        assertEquals(202, first.getStatus());
+        assertEquals(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS, second.getStatus());
+        assertEquals(202, endpoint.recording(((FlightRecordingEndpoint.RecordingStatus) first.getBody()).id()).getStatus());
+    }
+
+    private static Object sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
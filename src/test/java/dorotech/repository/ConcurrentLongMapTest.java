@@ -0,0 +1,75 @@
+package dorotech.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentLongMapTest {
+
+    @DisplayName("Random Operations Should Match A HashMap")
+    @Test
+    void randomOperations_ShouldMatchAHashMap() {
+        // Arrange
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+
+        // Act
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextLong(5_000);
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+                case 1 -> assertEquals(expected.remove(key), map.remove(key));
+                default -> assertEquals(expected.get(key), map.get(key));
+            }
+        }
+
+        // Assert
+        assertEquals(expected.size(), map.size());
+        List<String> values = new ArrayList<>();
+        map.forEachValue(values::add);
+        assertEquals(expected.size(), values.size());
+        assertTrue(values.containsAll(expected.values()));
+    }
+
+    @DisplayName("Readers Should Never See A Missing Key While Writers Grow The Map")
+    @Test
+    void readers_ShouldNeverSeeAMissingKeyWhileWritersGrowTheMap() throws InterruptedException {
+        // Arrange
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        for (long key = 0; key < 1_000; key++) map.put(key, key);
+        List<Throwable> failures = new ArrayList<>();
+        Thread writer = new Thread(() -> {
+            for (long key = 1_000; key < 200_000; key++) map.put(key, key);
+        });
+
+        // Act
+        writer.start();
+        Thread reader = new Thread(() -> {
+            for (int round = 0; round < 200; round++) {
+                for (long key = 0; key < 1_000; key++) {
+                    if (!Long.valueOf(key).equals(map.get(key))) {
+                        synchronized (failures) {
+                            failures.add(new AssertionError("missing " + key));
+                        }
+                        return;
+                    }
+                }
+            }
+        });
+        reader.start();
+        writer.join();
+        reader.join();
+
+        // Assert
+        assertTrue(failures.isEmpty(), failures.toString());
+        assertEquals(200_000, map.size());
+    }
+}
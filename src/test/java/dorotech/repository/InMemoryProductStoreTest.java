@@ -0,0 +1,169 @@
+package dorotech.repository;
+
+import dorotech.domain.Product;
+import dorotech.dto.ProductFields;
+import dorotech.dto.ProductResponse;
+import dorotech.dto.ProductRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryProductStoreTest implements ProductRepositoryContract {
+
+    @TempDir
+    Path directory;
+
+    private InMemoryProductStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = open("");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.destroy();
+    }
+
+    @Override
+    public ProductRepository repository() {
+        return store;
+    }
+
+    @DisplayName("Save Should Reject Name Differing Only In Case")
+    @Test
+    void save_ShouldRejectNameDifferingOnlyInCase() {
+        // Arrange
+        store.save(new Product("Notebook", "Lenovo", 400_050L, 20L));
+
+        // Act
+        // Assert
+        assertThrows(DataIntegrityViolationException.class,
+                () -> store.save(new Product("NOTEBOOK", "Dell", 500_000L, 5L)));
+        assertTrue(store.existsByName("notebook"));
+        assertEquals(1, store.count());
+    }
+
+    @DisplayName("Upsert By Name Should Keep Id And Report First Insert Only")
+    @Test
+    void upsertByName_ShouldKeepIdAndReportFirstInsertOnly() {
+        // Arrange
+        Product existing = store.save(new Product("Notebook", "Lenovo", 400_050L, 20L));
+        List<ProductRequest> requests = List.of(
+                new ProductRequest("notebook", "Dell", 500_000L, 5L),
+                new ProductRequest("Mouse", "Logitech", 10_000L, 50L),
+                new ProductRequest("Mouse", "Razer", 20_000L, 10L));
+
+        // Act
+        boolean[] inserted = store.upsertByName(requests);
+
+        // Assert
+        assertArrayEquals(new boolean[]{false, true, false}, inserted);
+        Product notebook = store.findById(existing.getId()).orElseThrow();
+        assertEquals("Notebook", notebook.getName());
+        assertEquals("Dell", notebook.getDescription());
+        assertEquals("Razer", store.findAllByNameIn(List.of("Mouse")).get(0).getDescription());
+        assertEquals(2, store.count());
+    }
+
+    @DisplayName("Stream After Should Hand Over Rows Past The Cursor In Id Order")
+    @Test
+    void streamAfter_ShouldHandOverRowsPastTheCursorInIdOrder() {
+        // Arrange
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) ids.add(store.save(new Product("Product " + i, "D", 100L, 1L)).getId());
+        List<Long> streamed = new ArrayList<>();
+
+        // Act
+        long count = store.streamAfter(ids.get(1), (id, name, description, priceCents, amount) -> streamed.add(id));
+
+        // Assert
+        assertEquals(3, count);
+        assertEquals(ids.subList(2, 5), streamed);
+    }
+
+    @DisplayName("Projected Reads Should Leave Unselected Fields Empty")
+    @Test
+    void projectedReads_ShouldLeaveUnselectedFieldsEmpty() {
+        // Arrange
+        Product product = store.save(new Product("Notebook", "Lenovo", 400_050L, 20L));
+
+        // Act
+        List<ProductResponse> found = store.findAll(ProductFields.valueOf("name"));
+
+        // Assert
+        assertEquals(List.of(new ProductResponse(product.getId(), "Notebook", null, null, null)), found);
+    }
+
+    @DisplayName("Reopen Should Replay The Write Ahead Log")
+    @Test
+    void reopen_ShouldReplayTheWriteAheadLog() throws IOException {
+        // Arrange
+        String wal = directory.resolve("products.wal").toString();
+        InMemoryProductStore durable = open(wal);
+        Product kept = durable.save(new Product("Notebook", "Lenovo", 400_050L, 20L));
+        Product deleted = durable.save(new Product("Mouse", "Logitech", 10_000L, 50L));
+        durable.save(new Product(kept.getId(), "Notebook", "Dell", 500_000L, 5L));
+        durable.deleteById(deleted.getId());
+        for (int i = 0; i < 2_000; i++) durable.save(new Product("Bulk " + i, "x".repeat(100), 1L, 1L));
+        durable.destroy();
+
+        // Act
+        InMemoryProductStore reopened = open(wal);
+
+        // Assert
+        assertEquals(2_001, reopened.count());
+        assertEquals("Dell", reopened.findById(kept.getId()).orElseThrow().getDescription());
+        assertFalse(reopened.existsById(deleted.getId()));
+        assertTrue(reopened.existsByName("bulk 1999"));
+        reopened.destroy();
+    }
+
+    @DisplayName("Reopen Should Drop A Torn Last Record")
+    @Test
+    void reopen_ShouldDropATornLastRecord() throws IOException {
+        // Arrange
+        Path wal = directory.resolve("products.wal");
+        InMemoryProductStore durable = open(wal.toString());
+        durable.save(new Product("Notebook", "Lenovo", 400_050L, 20L));
+        durable.destroy();
+        long end;
+        try (ProductWriteAheadLog log = new ProductWriteAheadLog(wal, 4096, false)) {
+            log.replay(row -> { }, id -> { }, () -> { });
+            end = log.size();
+        }
+        InMemoryProductStore second = open(wal.toString());
+        second.save(new Product("Mouse", "Logitech", 10_000L, 50L));
+        second.destroy();
+        try (RandomAccessFile file = new RandomAccessFile(wal.toFile(), "rw")) {
+            // flip a payload byte of the second record so its checksum no longer matches
+            file.seek(end + 12);
+            file.write(file.read() ^ 0xFF);
+        }
+
+        // Act
+        InMemoryProductStore reopened = open(wal.toString());
+
+        // Assert
+        assertEquals(1, reopened.count());
+        assertTrue(reopened.existsByName("Notebook"));
+        assertFalse(reopened.existsByName("Mouse"));
+        reopened.destroy();
+    }
+
+    private static InMemoryProductStore open(String wal) {
+        return new InMemoryProductStore(new SnowflakeIdGenerator(1), wal, DataSize.ofKilobytes(4), false);
+    }
+}
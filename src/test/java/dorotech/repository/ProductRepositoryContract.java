@@ -0,0 +1,140 @@
+package dorotech.repository;
+
+import dorotech.domain.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every {@link ProductRepository} storage engine has to share. Implementations hand over an
+ * empty repository before each test.
+ */
+interface ProductRepositoryContract {
+
+    ProductRepository repository();
+
+    @DisplayName("test Given Product Object When Save Then Return Saved Product")
+    @Test
+    default void testGivenProductObject_WhenSave_ThenReturnSavedProduct() {
+        // Given  / Arrange
+        Product product = new Product("Iphone 15",
+                "Iphone da última geração",
+                1_500_000L,
+                10L);
+        // When / Act
+
+        Product savedProduct = repository().save(product);
+
+        // Then / Assert
+        assertNotNull(savedProduct);
+        assertTrue(savedProduct.getId() > 0);
+        assertEquals(product.getName(), savedProduct.getName());
+        assertEquals(product.getPriceCents(), savedProduct.getPriceCents());
+        assertEquals(product.getAmount(), savedProduct.getAmount());
+        assertEquals(product.getDescription(), savedProduct.getDescription());
+    }
+
+    @DisplayName("test Given Product List When Find All Then Return Product List")
+    @Test
+    default void testGivenProductList_WhenFindAll_ThenReturnProductList() {
+        // Given  / Arrange
+        Product product0 = new Product("Iphone 15",
+                "Iphone da última geração",
+                1_500_000L,
+                10L);
+        Product product1 = new Product("Notebook",
+                "Notebook Lenovo Ideapad 3 256gb e 8gb de memória RAM",
+                400_000L,
+                20L);
+        repository().save(product0);
+        repository().save(product1);
+        // When / Act
+
+        List<Product> productList = repository().findAll();
+
+        // Then / Assert
+        assertNotNull(productList);
+        assertEquals(2, productList.size());
+
+    }
+
+    @DisplayName("test Given Product Object When Find By Id Then Return Product Object")
+    @Test
+    default void testGivenProductObject_WhenFindById_ThenReturnProductObject() {
+        // Given  / Arrange
+        Product product = new Product("Iphone 15",
+                "Iphone da última geração",
+                1_500_000L,
+                10L);
+        Product savedProduct = repository().save(product);
+
+        // When / Act
+        Product foundProduct = repository().findById(savedProduct.getId()).orElseThrow();
+
+        // Then / Assert
+        assertEquals(savedProduct.getId(), foundProduct.getId());
+        assertEquals("Iphone 15", foundProduct.getName());
+        assertEquals(1_500_000L, foundProduct.getPriceCents());
+    }
+
+    @DisplayName("Find All By Id Should Return Existing Products In Id Order")
+    @Test
+    default void findAllById_ShouldReturnExistingProductsInIdOrder() {
+        // Arrange
+        List<Long> ids = saveProducts(10);
+
+        // Act
+        List<Product> found = repository().findAllById(List.of(ids.get(7), ids.get(2), -1L));
+
+        // Assert
+        assertEquals(List.of(ids.get(2), ids.get(7)), found.stream().map(Product::getId).toList());
+        assertEquals(10, repository().count());
+    }
+
+    @DisplayName("Name Lookups Should Find Stored Names Only")
+    @Test
+    default void nameLookups_ShouldFindStoredNamesOnly() {
+        // Arrange
+        saveProducts(3);
+
+        // Act
+        List<Product> found = repository().findAllByNameIn(List.of("Product 0", "Product 2", "Missing"));
+
+        // Assert
+        assertTrue(repository().existsByName("Product 1"));
+        assertFalse(repository().existsByName("Missing"));
+        assertEquals(List.of("Product 0", "Product 2"), found.stream().map(Product::getName).toList());
+    }
+
+    @DisplayName("Update And Delete Should Be Visible To Later Reads")
+    @Test
+    default void updateAndDelete_ShouldBeVisibleToLaterReads() {
+        // Arrange
+        List<Long> ids = saveProducts(5);
+        Product product = repository().findById(ids.get(2)).orElseThrow();
+        Product changed = new Product(product.getId(), product.getName(), "changed", product.getPriceCents(), 99L);
+
+        // Act
+        repository().save(changed);
+        repository().deleteById(ids.get(4));
+
+        // Assert
+        Product found = repository().findById(ids.get(2)).orElseThrow();
+        assertEquals("changed", found.getDescription());
+        assertEquals(99L, found.getAmount());
+        assertFalse(repository().existsById(ids.get(4)));
+        assertEquals(4, repository().count());
+    }
+
+    private List<Long> saveProducts(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(repository().save(new Product("Product " + i, "Description " + i, 1_000L + i, (long) i)).getId());
+        }
+        return ids;
+    }
+}
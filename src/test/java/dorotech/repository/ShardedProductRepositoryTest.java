@@ -0,0 +1,329 @@
+package dorotech.repository;
+
+import dorotech.domain.Product;
+import dorotech.dto.ProductFields;
+import dorotech.dto.ProductRequest;
+import dorotech.dto.ProductResponse;
+import dorotech.dto.ProductUpdateDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedProductRepositoryTest implements ProductRepositoryContract {
+    private static final int SHARDS = 3;
+
+    private List<DataSource> dataSources;
+    private ShardedProductRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSources = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            DataSource dataSource = new DriverManagerDataSource(
+                    "jdbc:h2:mem:shard-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+            try (Connection connection = dataSource.getConnection()) {
+                ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__create_table_products.sql"));
+                ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V3__add_products_version.sql"));
+                if (i == 0) {
+                    ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/sharding/V1__create_table_product_names.sql"));
+                }
+            }
+            dataSources.add(dataSource);
+        }
+        repository = new ShardedProductRepository(dataSources, new SnowflakeIdGenerator(1), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (DataSource dataSource : dataSources) {
+            new JdbcTemplate(dataSource).execute("SHUTDOWN");
+        }
+        repository.destroy();
+    }
+
+    @Override
+    public ProductRepository repository() {
+        return repository;
+    }
+
+    @DisplayName("Save Should Assign Id And Store Row On Routed Shard")
+    @Test
+    void save_ShouldAssignIdAndStoreRowOnRoutedShard() {
+        // Arrange
+        Product product = new Product("Iphone 15", "Apple", 1_500_000L, 10L);
+
+        // Act
+        repository.save(product);
+
+        // Assert
+        assertNotNull(product.getId());
+        int shard = repository.router().shardOf(product.getId());
+        for (int i = 0; i < SHARDS; i++) {
+            assertEquals(i == shard ? 1 : 0, rowCount(i));
+        }
+        Product found = repository.findById(product.getId()).orElseThrow();
+        assertEquals("Iphone 15", found.getName());
+        assertEquals(1_500_000L, found.getPriceCents());
+    }
+
+    @DisplayName("Find All Should Scatter Gather Across Shards In Id Order")
+    @Test
+    void findAll_ShouldScatterGatherAcrossShardsInIdOrder() {
+        // Arrange
+        List<Long> ids = saveProducts(30);
+
+        // Act
+        List<Product> all = repository.findAll();
+        List<Product> some = repository.findAllById(List.of(ids.get(3), ids.get(17), ids.get(29), -1L));
+
+        // Assert
+        assertEquals(ids, all.stream().map(Product::getId).toList());
+        assertEquals(List.of(ids.get(3), ids.get(17), ids.get(29)), some.stream().map(Product::getId).toList());
+        assertEquals(30, repository.count());
+        for (int i = 0; i < SHARDS; i++) {
+            assertTrue(rowCount(i) > 0, "shard " + i + " should hold some rows");
+        }
+    }
+
+    @DisplayName("Save Should Reject Name Already Stored On Another Shard")
+    @Test
+    void save_ShouldRejectNameAlreadyStoredOnAnotherShard() {
+        // Arrange
+        repository.save(new Product("Notebook", "Lenovo", 400_050L, 20L));
+
+        // Act
+        // Assert
+        assertTrue(repository.existsByName("Notebook"));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> repository.save(new Product("Notebook", "Dell", 500_000L, 5L)));
+        assertEquals(1, repository.count());
+    }
+
+    @DisplayName("Rename Should Reject Name Held On Another Shard And Release The Old One")
+    @Test
+    void rename_ShouldRejectNameHeldOnAnotherShardAndReleaseTheOldOne() {
+        // Arrange
+        List<Long> ids = saveProducts(12);
+        Long other = ids.stream().filter(id -> repository.router().shardOf(id) != repository.router().shardOf(ids.get(0)))
+                .findFirst().orElseThrow();
+        String taken = repository.findById(other).orElseThrow().getName();
+
+        // Act
+        assertThrows(DataIntegrityViolationException.class,
+                () -> repository.save(new Product(ids.get(0), taken, "Description", 1_000L, 1L)));
+        repository.save(new Product(ids.get(0), "Renamed", "Description", 1_000L, 1L));
+        repository.deleteById(other);
+
+        // Assert
+        assertEquals("Renamed", repository.findById(ids.get(0)).orElseThrow().getName());
+        assertFalse(repository.existsByName("Product 0"));
+        assertFalse(repository.existsByName(taken));
+        repository.save(new Product("Product 0", "Description", 1_000L, 1L));
+        repository.save(new Product(taken, "Description", 1_000L, 1L));
+        assertEquals(13, repository.count());
+    }
+
+    @DisplayName("Save Should Reject A Stale Version And Give Back The Name It Claimed")
+    @Test
+    void save_ShouldRejectStaleVersionAndGiveBackClaimedName() {
+        // Arrange
+        Long id = saveProducts(1).get(0);
+        Product first = repository.findById(id).orElseThrow();
+        Product second = repository.findById(id).orElseThrow();
+        first.update(new ProductUpdateDTO("First", null, null, null));
+        second.update(new ProductUpdateDTO("Second", null, null, null));
+
+        // Act
+        repository.save(first);
+
+        // Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> repository.save(second));
+        assertEquals("First", repository.findById(id).orElseThrow().getName());
+        assertEquals(1L, repository.findById(id).orElseThrow().getVersion());
+        assertFalse(repository.existsByName("Second"));
+        assertEquals(List.of("First"), claimedNames());
+    }
+
+    @DisplayName("Save Should Give Back The Claim When The Row Insert Fails")
+    @Test
+    void save_ShouldGiveBackClaimWhenRowInsertFails() {
+        // Act
+        // the description column is NOT NULL, so only the row write fails
+        assertThrows(DataIntegrityViolationException.class,
+                () -> repository.save(new Product("Monitor", null, 1_000L, 1L)));
+
+        // Assert
+        assertTrue(claimedNames().isEmpty());
+        repository.save(new Product("Monitor", "Description", 1_000L, 1L));
+        assertTrue(repository.existsByName("Monitor"));
+    }
+
+    @DisplayName("A Claim Left Behind By A Crash Should Be Taken Over Once Stale")
+    @Test
+    void save_ShouldTakeOverStaleClaimWithoutRow() throws Exception {
+        // Arrange
+        new JdbcTemplate(dataSources.get(0)).update(
+                "INSERT INTO product_names (name, product_id, claimed_at) VALUES ('Ghost', 42, CURRENT_TIMESTAMP(3))");
+        ShardedProductRepository takingOver = new ShardedProductRepository(dataSources, new SnowflakeIdGenerator(2), Duration.ZERO);
+
+        // Act
+        // still fresh for the default age: the row write may be in flight
+        assertThrows(DataIntegrityViolationException.class,
+                () -> repository.save(new Product("Ghost", "Description", 1_000L, 1L)));
+        Product saved = takingOver.save(new Product("Ghost", "Description", 1_000L, 1L));
+        takingOver.destroy();
+
+        // Assert
+        assertTrue(repository.existsByName("Ghost"));
+        assertEquals(List.of(saved.getId()), repository.findAllByNameIn(List.of("Ghost")).stream().map(Product::getId).toList());
+        assertEquals(List.of("Ghost"), claimedNames());
+    }
+
+    @DisplayName("Upsert By Name Should Insert New Names And Update Existing Ones Across Shards")
+    @Test
+    void upsertByName_ShouldInsertNewAndUpdateExistingNames() {
+        // Arrange
+        List<Long> ids = saveProducts(3);
+        List<ProductRequest> requests = List.of(
+                new ProductRequest("Product 1", "Updated", 2_000L, 7L),
+                new ProductRequest("Speaker", "New", 3_000L, 4L),
+                new ProductRequest("Speaker", "New again", 3_500L, 5L));
+
+        // Act
+        boolean[] inserted = repository.upsertByName(requests);
+
+        // Assert
+        assertArrayEquals(new boolean[]{false, true, false}, inserted);
+        assertEquals(4, repository.count());
+        Product updated = repository.findById(ids.get(1)).orElseThrow();
+        assertEquals("Updated", updated.getDescription());
+        assertEquals(1L, updated.getVersion());
+        assertEquals(3_500L, repository.findAllByNameIn(List.of("Speaker")).get(0).getPriceCents());
+    }
+
+    @DisplayName("Stream After Should Merge Every Shard In Id Order")
+    @Test
+    void streamAfter_ShouldMergeEveryShardInIdOrder() {
+        // Arrange
+        List<Long> ids = saveProducts(30);
+        repository.save(repository.findById(ids.get(5)).orElseThrow());
+        List<Long> streamed = new ArrayList<>();
+        Map<Long, Long> versions = new HashMap<>();
+
+        // Act
+        long rows = repository.streamAfter(ids.get(9), (id, name, description, priceCents, amount) -> streamed.add(id));
+        repository.findVersionsById(List.of(ids.get(5), ids.get(6), -1L), versions::put);
+
+        // Assert
+        assertEquals(20, rows);
+        assertEquals(ids.subList(10, 30), streamed);
+        assertEquals(Map.of(ids.get(5), 1L, ids.get(6), 0L), versions);
+    }
+
+    @DisplayName("Concurrent Inserts Of One Name Should Store It Once")
+    @Test
+    void concurrentInserts_ShouldStoreNameOnce() throws Exception {
+        // Arrange
+        int writers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < writers; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    repository.save(new Product("Keyboard", "Description", 1_000L, 1L));
+                    return true;
+                } catch (DataIntegrityViolationException ex) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int stored = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(10, TimeUnit.SECONDS)) stored++;
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(1, stored);
+        assertEquals(1, repository.count());
+    }
+
+    @DisplayName("Update And Delete Should Route By Id")
+    @Test
+    void updateAndDelete_ShouldRouteById() {
+        // Arrange
+        List<Long> ids = saveProducts(5);
+        Product product = repository.findById(ids.get(2)).orElseThrow();
+        Product changed = new Product(product.getId(), product.getName(), "changed", product.getPriceCents(), 99L);
+
+        // Act
+        repository.save(changed);
+        repository.deleteById(ids.get(4));
+
+        // Assert
+        assertEquals("changed", repository.findById(ids.get(2)).orElseThrow().getDescription());
+        assertFalse(repository.existsById(ids.get(4)));
+        assertEquals(2, repository.findAllByNameIn(List.of("Product 0", "Product 1", "Product 4")).size());
+    }
+
+    @DisplayName("Projected Reads Should Select Only Requested Columns")
+    @Test
+    void projectedReads_ShouldSelectOnlyRequestedColumns() {
+        // Arrange
+        List<Long> ids = saveProducts(6);
+        ProductFields fields = ProductFields.valueOf("price,amount");
+
+        // Act
+        List<ProductResponse> all = repository.findAll(fields);
+        List<ProductResponse> some = repository.findAllById(List.of(ids.get(5), ids.get(1)), fields);
+
+        // Assert
+        assertEquals(ids, all.stream().map(ProductResponse::id).toList());
+        assertEquals(new ProductResponse(ids.get(1), null, null, 1_001L, 1L), some.get(0));
+        assertEquals(List.of(ids.get(1), ids.get(5)), some.stream().map(ProductResponse::id).toList());
+    }
+
+    private List<Long> saveProducts(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(repository.save(new Product("Product " + i, "Description " + i, 1_000L + i, (long) i)).getId());
+        }
+        return ids;
+    }
+
+    private List<String> claimedNames() {
+        return new JdbcTemplate(dataSources.get(0)).queryForList("SELECT name FROM product_names ORDER BY name", String.class);
+    }
+
+    private int rowCount(int shard) {
+        return new JdbcTemplate(dataSources.get(shard)).queryForObject("SELECT COUNT(*) FROM products", Integer.class);
+    }
+}
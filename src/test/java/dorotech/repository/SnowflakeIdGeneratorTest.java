@@ -0,0 +1,80 @@
+package dorotech.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+    private static final long NOW = SnowflakeIdGenerator.EPOCH_MILLIS + 5_000;
+
+    @DisplayName("Next Id Should Be Unique And Increasing Within One Millisecond")
+    @Test
+    void nextId_ShouldBeUniqueAndIncreasingWithinOneMillisecond() {
+        // Arrange
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, 10, 1_000, () -> NOW);
+        Set<Long> ids = new HashSet<>();
+        long previous = -1;
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+
+            // Assert
+            assertTrue(id > previous);
+            assertTrue(ids.add(id));
+            assertEquals(3, generator.workerIdOf(id));
+            previous = id;
+        }
+    }
+
+    @DisplayName("Next Id Should Encode Timestamp And Honour Configured Worker Bits")
+    @Test
+    void nextId_ShouldEncodeTimestampAndHonourConfiguredWorkerBits() {
+        // Arrange
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(5, 4, 1_000, () -> NOW);
+
+        // Act
+        long id = generator.nextId();
+
+        // Assert
+        assertEquals(NOW, SnowflakeIdGenerator.timestampOf(id));
+        assertEquals(5, generator.workerIdOf(id));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(16, 4, 1_000));
+    }
+
+    @DisplayName("Next Id Should Keep Increasing When Clock Steps Back Within Tolerance")
+    @Test
+    void nextId_ShouldKeepIncreasingWhenClockStepsBackWithinTolerance() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, 10, 1_000, clock::get);
+        long before = generator.nextId();
+
+        // Act
+        clock.addAndGet(-500);
+        long after = generator.nextId();
+
+        // Assert
+        assertTrue(after > before);
+    }
+
+    @DisplayName("Next Id Should Fail When Clock Steps Back Beyond Tolerance")
+    @Test
+    void nextId_ShouldFailWhenClockStepsBackBeyondTolerance() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, 10, 1_000, clock::get);
+        generator.nextId();
+
+        // Act
+        clock.addAndGet(-2_000);
+
+        // Assert
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+}
@@ -0,0 +1,124 @@
+package dorotech.service;
+
+import dorotech.dto.LowStockAlertResponse;
+import dorotech.dto.LowStockThresholdResponse;
+import dorotech.exceptions.exception.EntityNotFoundException;
+import dorotech.exceptions.exception.InvalidFilterException;
+import dorotech.repository.JdbcLowStockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LowStockMonitorTest {
+    private JdbcTemplate jdbcTemplate;
+    private LowStockMonitor monitor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:low-stock-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__create_table_products.sql"));
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V3__add_products_version.sql"));
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V5__add_products_low_stock_threshold.sql"));
+        }
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // ids 1..50 with id units in stock
+        for (int id = 1; id <= 50; id++) {
+            jdbcTemplate.update("INSERT INTO products (name, description, price, amount) VALUES (?, 'Description', 10, ?)",
+                    "Product" + id, id);
+        }
+        monitor = new LowStockMonitor(new JdbcLowStockRepository(jdbcTemplate), Duration.ofMinutes(1), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+        monitor.destroy();
+    }
+
+    @DisplayName("Crossings Reported By Writes Should Raise And Resolve Alerts")
+    @Test
+    void amountChanged_ShouldRaiseAndResolveOnCrossings() {
+        // Arrange
+        LowStockThresholdResponse threshold = monitor.updateThreshold(10L, 8L);
+
+        // Act
+        setAmount(10, 5);
+        monitor.amountChanged(10L, 10, 5);
+        setAmount(10, 4);
+        monitor.amountChanged(10L, 5, 4);
+        List<LowStockAlertResponse> raised = monitor.findAlerts("open", null, null, 100);
+        setAmount(10, 20);
+        monitor.amountChanged(10L, 4, 20);
+
+        // Assert
+        assertFalse(threshold.low());
+        assertEquals(1, raised.size());
+        assertEquals(10L, raised.get(0).productId());
+        assertEquals(5L, raised.get(0).amount());
+        assertEquals(8L, raised.get(0).threshold());
+        assertTrue(monitor.findAlerts("open", null, null, 100).isEmpty());
+        List<LowStockAlertResponse> resolved = monitor.findAlerts("resolved", 10L, null, 100);
+        assertEquals(20L, resolved.get(0).resolvedAmount());
+        assertNotNull(resolved.get(0).resolvedAt());
+    }
+
+    @DisplayName("Setting A Threshold Above The Amount Should Raise At Once And Clearing It Should Resolve")
+    @Test
+    void updateThreshold_ShouldEvaluateTheCurrentAmount() {
+        // Act
+        LowStockThresholdResponse set = monitor.updateThreshold(3L, 5L);
+        List<LowStockAlertResponse> open = monitor.findAlerts("open", null, null, 100);
+        LowStockThresholdResponse cleared = monitor.updateThreshold(3L, null);
+
+        // Assert
+        assertTrue(set.low());
+        assertEquals(List.of(3L), open.stream().map(LowStockAlertResponse::productId).toList());
+        assertFalse(cleared.low());
+        assertTrue(monitor.findAlerts("open", null, null, 100).isEmpty());
+        assertEquals(1, monitor.findAlerts("all", null, null, 100).size());
+        assertThrows(EntityNotFoundException.class, () -> monitor.updateThreshold(999L, 5L));
+        assertThrows(InvalidFilterException.class, () -> monitor.findAlerts("closed", null, null, 100));
+    }
+
+    @DisplayName("Reconcile Should Catch Changes Made Behind The Write Paths")
+    @Test
+    void reconcile_ShouldRaiseAndResolveMissedCrossings() {
+        // Arrange
+        monitor.updateThreshold(40L, 30L);
+        monitor.updateThreshold(2L, 5L);
+        jdbcTemplate.update("UPDATE products SET low_stock_threshold = 12 WHERE id IN (11, 12, 13, 14, 15, 16)");
+        setAmount(40, 7);
+        jdbcTemplate.update("DELETE FROM products WHERE id = 2");
+
+        // Act
+        monitor.reconcile();
+
+        // Assert
+        assertEquals(List.of(11L, 40L), monitor.findAlerts("open", null, null, 100).stream()
+                .map(LowStockAlertResponse::productId).sorted().toList());
+        List<LowStockAlertResponse> resolved = monitor.findAlerts("resolved", null, null, 100);
+        assertEquals(List.of(2L), resolved.stream().map(LowStockAlertResponse::productId).toList());
+        assertNull(resolved.get(0).resolvedAmount());
+        List<LowStockAlertResponse> page = monitor.findAlerts("all", null, resolved.get(0).id(), 1);
+        assertEquals(1, page.size());
+        assertTrue(page.get(0).id() > resolved.get(0).id());
+    }
+
+    private void setAmount(long id, long amount) {
+        jdbcTemplate.update("UPDATE products SET amount = ? WHERE id = ?", amount, id);
+    }
+}
@@ -0,0 +1,157 @@
+package dorotech.service;
+
+import dorotech.deadline.Deadline;
+import dorotech.domain.Product;
+import dorotech.mocks.ProductMock;
+import dorotech.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBatchLoaderTest {
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductBatchLoader loader;
+
+    @AfterEach
+    void tearDown() {
+        if (loader != null) loader.destroy();
+    }
+
+    @DisplayName("LoadAsync Without Other Lookups Should Query At Once")
+    @Test
+    void loadAsync_WithoutOtherLookups_ShouldQueryAtOnce() {
+        // Arrange
+        loader = new ProductBatchLoader(productRepository, Duration.ofMinutes(1), 100, 2, Duration.ofSeconds(2));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(ProductMock.mockProduct()));
+
+        // Act
+        CompletableFuture<Optional<Product>> result = loader.loadAsync(1L);
+
+        // Assert
+        assertTrue(result.isDone());
+        assertTrue(result.join().isPresent());
+        verify(productRepository, never()).findAllById(anyIterable());
+    }
+
+    @DisplayName("LoadAsync Within Window Should Merge Overlapping Lookups Into One Query")
+    @Test
+    void loadAsync_WithinWindow_ShouldMergeOverlappingLookupsIntoOneQuery() throws Exception {
+        // Arrange
+        loader = new ProductBatchLoader(productRepository, Duration.ofMillis(50), 100, 2, Duration.ofSeconds(2));
+        List<Product> products = ProductMock.mockProductList(2);
+        when(productRepository.findAllById(anyIterable())).thenReturn(products);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Optional<Product>> slow = lookupInFlight(9L, release);
+
+        // Act
+        CompletableFuture<Optional<Product>> first = loader.loadAsync(0L);
+        CompletableFuture<Optional<Product>> second = loader.loadAsync(1L);
+        CompletableFuture<Optional<Product>> missing = loader.loadAsync(5L);
+
+        // Assert
+        assertEquals("Product0", first.join().orElseThrow().getName());
+        assertEquals("Product1", second.join().orElseThrow().getName());
+        assertTrue(missing.join().isEmpty());
+        verify(productRepository, times(1)).findAllById(anyIterable());
+        release.countDown();
+        assertTrue(slow.join().isEmpty());
+        verify(productRepository, times(1)).findById(anyLong());
+    }
+
+    @DisplayName("LoadAsync When Batch Is Full Should Dispatch Immediately")
+    @Test
+    void loadAsync_WhenBatchIsFull_ShouldDispatchImmediately() throws Exception {
+        // Arrange
+        loader = new ProductBatchLoader(productRepository, Duration.ofMinutes(1), 2, 2, Duration.ofSeconds(2));
+        when(productRepository.findAllById(anyIterable())).thenReturn(ProductMock.mockProductList(2));
+        CountDownLatch release = new CountDownLatch(1);
+        lookupInFlight(9L, release);
+
+        // Act
+        loader.loadAsync(0L);
+        CompletableFuture<Optional<Product>> second = loader.loadAsync(1L);
+
+        // Assert
+        assertTrue(second.isDone());
+        assertEquals("Product1", second.join().orElseThrow().getName());
+        release.countDown();
+    }
+
+    @DisplayName("Merged Query Should Run Under The Latest Deadline Of Its Callers")
+    @Test
+    void loadAsync_MergedQuery_ShouldRunUnderLatestCallerDeadline() throws Exception {
+        // Arrange
+        loader = new ProductBatchLoader(productRepository, Duration.ofMillis(20), 100, 2, Duration.ofSeconds(2));
+        long[] remainingNanos = {-1};
+        when(productRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            remainingNanos[0] = Deadline.current().remainingNanos();
+            return ProductMock.mockProductList(2);
+        });
+        CountDownLatch release = new CountDownLatch(1);
+        lookupInFlight(9L, release);
+
+        // Act
+        CompletableFuture<Optional<Product>> first = loadWithin(0L, Duration.ofMillis(300));
+        CompletableFuture<Optional<Product>> second = loadWithin(1L, Duration.ofMillis(800));
+        first.join();
+        second.join();
+        release.countDown();
+
+        // Assert
+        assertTrue(remainingNanos[0] > Duration.ofMillis(300).toNanos(), "the earlier caller's deadline was used");
+        assertTrue(remainingNanos[0] <= Duration.ofMillis(800).toNanos());
+    }
+
+    @DisplayName("Load With Zero Window Should Call FindById Directly")
+    @Test
+    void load_WithZeroWindow_ShouldCallFindByIdDirectly() {
+        // Arrange
+        loader = new ProductBatchLoader(productRepository, Duration.ZERO, 100, 2, Duration.ofSeconds(2));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(ProductMock.mockProduct()));
+
+        // Act
+        Optional<Product> result = loader.load(1L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        verify(productRepository, never()).findAllById(anyIterable());
+    }
+
+    private CompletableFuture<Optional<Product>> loadWithin(long id, Duration timeout) {
+        Deadline previous = Deadline.after(timeout).bind();
+        try {
+            return loader.loadAsync(id);
+        } finally {
+            Deadline.restore(previous);
+        }
+    }
+
+    /** Starts a direct lookup that stays in flight until {@code release} opens, so later lookups overlap it. */
+    private CompletableFuture<Optional<Product>> lookupInFlight(long id, CountDownLatch release) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        when(productRepository.findById(id)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return Optional.empty();
+        });
+        CompletableFuture<Optional<Product>> lookup = CompletableFuture.supplyAsync(() -> loader.loadAsync(id).join());
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return lookup;
+    }
+}
@@ -0,0 +1,142 @@
+package dorotech.service;
+
+import dorotech.domain.ProductChangedEvent;
+import dorotech.dto.ProductDigestResponse;
+import dorotech.dto.ProductResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static dorotech.mocks.ProductCatalogMock.catalog;
+import static dorotech.mocks.ProductCatalogMock.exportRepository;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCatalogDigestTest {
+    private static final int LEAVES = 16;
+
+    @DisplayName("Incremental Updates Should Match A Fresh Reload")
+    @Test
+    void incrementalUpdates_ShouldMatchAFreshReload() {
+        // Arrange
+        Map<Long, ProductResponse> catalog = catalog(200);
+        ProductCatalogDigest digest = digestOf(catalog);
+
+        // Act
+        ProductResponse changed = new ProductResponse(50L, "Product 50", "changed", 999L, 1L);
+        ProductResponse created = new ProductResponse(1_000L, "Product 1000", "new", 10L, 10L);
+        digest.onProductChanged(ProductChangedEvent.updated(changed));
+        digest.onProductChanged(ProductChangedEvent.created(created));
+        digest.onProductChanged(ProductChangedEvent.deleted(7L));
+        catalog.put(50L, changed);
+        catalog.put(1_000L, created);
+        catalog.remove(7L);
+
+        // Assert
+        ProductDigestResponse.Node root = digest.digest(1, 0).nodes().get(0);
+        ProductDigestResponse.Node expected = digestOf(catalog).digest(1, 0).nodes().get(0);
+        assertEquals(expected.hash(), root.hash());
+        assertEquals(200, root.count());
+    }
+
+    @DisplayName("Walking Down Differing Hashes Should Reach The Changed Range")
+    @Test
+    void walkingDownDifferingHashes_ShouldReachTheChangedRange() {
+        // Arrange
+        Map<Long, ProductResponse> catalog = catalog(1_000);
+        ProductCatalogDigest mirror = digestOf(catalog);
+        ProductCatalogDigest server = digestOf(catalog);
+        server.onProductChanged(ProductChangedEvent.updated(new ProductResponse(321L, "Product 321", "changed", 1L, 1L)));
+
+        // Act
+        int node = 1;
+        int requests = 0;
+        while (true) {
+            ProductDigestResponse serverLevel = server.digest(node, 1);
+            ProductDigestResponse mirrorLevel = mirror.digest(node, 1);
+            requests++;
+            if (serverLevel.nodes().size() == 1) break;
+            node = !serverLevel.nodes().get(1).hash().equals(mirrorLevel.nodes().get(1).hash())
+                    ? serverLevel.nodes().get(1).index()
+                    : serverLevel.nodes().get(2).index();
+        }
+        ProductDigestResponse.Node leaf = server.digest(node, 0).nodes().get(0);
+
+        // Assert
+        assertEquals(5, requests);
+        assertTrue(leaf.fromId() <= 321 && 321 <= leaf.toId());
+        assertNotEquals(mirror.digest(node, 0).nodes().get(0).hash(), leaf.hash());
+        assertEquals(1_000 / (LEAVES / 2), leaf.count(), 1);
+    }
+
+    @DisplayName("Appends Should Open Empty Leaves Without Changing The Layout")
+    @Test
+    void appends_ShouldOpenEmptyLeavesWithoutChangingTheLayout() {
+        // Arrange
+        Map<Long, ProductResponse> catalog = catalog(160);
+        ProductCatalogDigest digest = digestOf(catalog);
+        long layout = digest.digest(1, 0).layoutVersion();
+
+        // Act
+        for (long id = 161; id <= 300; id++) {
+            ProductResponse created = new ProductResponse(id, "Product " + id, "D", id, 1L);
+            digest.onProductChanged(ProductChangedEvent.created(created));
+            catalog.put(id, created);
+        }
+
+        // Assert
+        ProductDigestResponse root = digest.digest(1, 0);
+        List<ProductDigestResponse.Node> leaves = leaves(digest);
+        assertEquals(layout, root.layoutVersion());
+        assertEquals(digestOf(catalog).digest(1, 0).nodes().get(0).hash(), root.nodes().get(0).hash());
+        assertTrue(leaves.stream().allMatch(node -> node.count() <= 160 / (LEAVES / 2)));
+        assertEquals(LEAVES - 1, leaves.stream().filter(node -> node.count() > 0).count());
+        assertEquals(Long.MAX_VALUE, leaves.get(LEAVES - 2).toId());
+        assertTrue(leaves.get(LEAVES - 2).fromId() <= 300 && leaves.get(LEAVES - 3).toId() < 300);
+    }
+
+    @DisplayName("Appends Should Rebalance Leaves Once The Empty Ones Run Out")
+    @Test
+    void appends_ShouldRebalanceLeavesOnceOneGrowsTooLarge() {
+        // Arrange
+        ProductCatalogDigest digest = digestOf(catalog(160));
+        long layout = digest.digest(1, 0).layoutVersion();
+
+        // Act
+        for (long id = 161; id <= 400; id++) {
+            digest.onProductChanged(ProductChangedEvent.created(new ProductResponse(id, "Product " + id, "D", id, 1L)));
+        }
+
+        // Assert
+        ProductDigestResponse root = digest.digest(1, 0);
+        assertTrue(root.layoutVersion() > layout);
+        assertEquals(400, root.nodes().get(0).count());
+        assertTrue(leaves(digest).stream().allMatch(node -> node.count() <= 2 * 400 / LEAVES));
+    }
+
+    @DisplayName("Digest Should Cap Levels To Configured Maximum")
+    @Test
+    void digest_ShouldCapLevelsToConfiguredMaximum() {
+        // Arrange
+        ProductCatalogDigest digest = digestOf(catalog(10));
+
+        // Act
+        ProductDigestResponse response = digest.digest(1, 10);
+
+        // Assert
+        assertEquals(1 + 2 + 4 + 8, response.nodes().size());
+        assertEquals(Long.MAX_VALUE, response.nodes().get(0).toId());
+    }
+
+    private static List<ProductDigestResponse.Node> leaves(ProductCatalogDigest digest) {
+        return IntStream.range(LEAVES, 2 * LEAVES).mapToObj(leaf -> digest.digest(leaf, 0).nodes().get(0)).toList();
+    }
+
+    private static ProductCatalogDigest digestOf(Map<Long, ProductResponse> catalog) {
+        ProductCatalogDigest digest = new ProductCatalogDigest(exportRepository(catalog), LEAVES, 3, 2.0);
+        digest.reload();
+        return digest;
+    }
+}
@@ -0,0 +1,119 @@
+package dorotech.service;
+
+import dorotech.domain.ProductChangedEvent;
+import dorotech.dto.ProductResponse;
+import dorotech.dto.ProductStatsResponse;
+import dorotech.repository.ProductExportRepository;
+import dorotech.repository.ProductRowHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductColumnarSnapshotTest {
+    @Mock
+    private ProductExportRepository productExportRepository;
+
+    private ProductColumnarSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new ProductColumnarSnapshot(productExportRepository);
+        when(productExportRepository.streamAfter(eq(0L), any(ProductRowHandler.class))).thenAnswer(invocation -> {
+            ProductRowHandler handler = invocation.getArgument(1);
+            for (long id = 1; id <= 100; id++) {
+                handler.accept(id, "Product" + id, "Description", id * 100, id % 10);
+            }
+            return 100L;
+        });
+        snapshot.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        snapshot.destroy();
+    }
+
+    @DisplayName("Stats Should Aggregate Loaded Columns")
+    @Test
+    void stats_ShouldAggregateLoadedColumns() {
+        // Act
+        ProductStatsResponse stats = snapshot.stats(new long[]{0, 1, 5});
+
+        // Assert
+        long expectedStock = 0;
+        for (long id = 1; id <= 100; id++) expectedStock += id % 10;
+        assertEquals(100, stats.count());
+        assertEquals(expectedStock, stats.totalStock());
+        assertEquals(baselineInventoryValueCents(), stats.inventoryValueCents());
+        assertEquals(10, stats.outOfStock());
+        assertEquals(10, stats.stockHistogram().get(0).count());
+        assertEquals(40, stats.stockHistogram().get(1).count());
+        assertEquals(50, stats.stockHistogram().get(2).count());
+        assertNull(stats.stockHistogram().get(2).to());
+        assertEquals(5000L, stats.pricePercentiles().get("p50"));
+        assertEquals(9900L, stats.pricePercentiles().get("p99"));
+    }
+
+    @DisplayName("OnProductChanged Should Apply Incremental Writes")
+    @Test
+    void onProductChanged_ShouldApplyIncrementalWrites() {
+        // Act
+        snapshot.onProductChanged(ProductChangedEvent.created(new ProductResponse(500L, "New", "D", 100_000L, 3L)));
+        snapshot.onProductChanged(ProductChangedEvent.updated(new ProductResponse(1L, "Product1", "D", 100L, 0L)));
+        snapshot.onProductChanged(ProductChangedEvent.deleted(2L));
+        snapshot.onProductChanged(ProductChangedEvent.deleted(9999L));
+
+        // Assert
+        ProductStatsResponse stats = snapshot.stats(new long[]{0});
+        assertEquals(100, stats.count());
+        assertEquals(10_000L, stats.pricePercentiles().get("p99"));
+        assertEquals(baselineInventoryValueCents() - 100 - 400 + 300_000, stats.inventoryValueCents());
+        assertEquals(11, stats.outOfStock());
+    }
+
+    @DisplayName("A Bulk Change Should Reload In The Background And Keep The Data When The Scan Fails")
+    @Test
+    void onProductChanged_WhenBulk_ShouldReloadInTheBackground() throws InterruptedException {
+        // Arrange
+        when(productExportRepository.streamAfter(eq(0L), any(ProductRowHandler.class)))
+                .thenThrow(new QueryTimeoutException("Statement cancelled"))
+                .thenAnswer(invocation -> {
+                    ProductRowHandler handler = invocation.getArgument(1);
+                    for (long id = 1; id <= 150; id++) handler.accept(id, "Product" + id, "Description", 100, 1);
+                    return 150L;
+                });
+
+        // Act
+        assertDoesNotThrow(() -> snapshot.onProductChanged(ProductChangedEvent.bulk()));
+        verify(productExportRepository, timeout(5_000).times(2)).streamAfter(eq(0L), any(ProductRowHandler.class));
+        int afterFailedScan = snapshot.size();
+        snapshot.onProductChanged(ProductChangedEvent.bulk());
+
+        // Assert
+        assertEquals(100, afterFailedScan);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (snapshot.size() != 150 && System.nanoTime() < deadline) Thread.sleep(10);
+        assertEquals(150, snapshot.size());
+    }
+
+    private static long baselineInventoryValueCents() {
+        long value = 0;
+        for (long id = 1; id <= 100; id++) value += id * 100 * (id % 10);
+        return value;
+    }
+}
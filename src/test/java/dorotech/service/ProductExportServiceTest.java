@@ -0,0 +1,72 @@
+package dorotech.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dorotech.repository.ProductExportRepository;
+import dorotech.repository.ProductRowHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductExportServiceTest {
+    @Mock
+    private ProductExportRepository productExportRepository;
+
+    private ProductExportService productExportService;
+
+    @BeforeEach
+    void setUp() {
+        productExportService = new ProductExportService(productExportRepository, new ObjectMapper());
+        when(productExportRepository.streamAfter(eq(10L), any(ProductRowHandler.class))).thenAnswer(invocation -> {
+            ProductRowHandler handler = invocation.getArgument(1);
+            handler.accept(11L, "Iphone 15", "Iphone, \"pro\"", 1_500_000L, 10L);
+            handler.accept(12L, "Notebook", "Lenovo", 400_050L, 20L);
+            return 2L;
+        });
+    }
+
+    @DisplayName("Export Ndjson Should Write One Object Per Line")
+    @Test
+    void exportNdjson_ShouldWriteOneObjectPerLine() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = productExportService.export(out, ProductExportService.Format.NDJSON, 10L);
+
+        // Assert
+        assertEquals(2, rows);
+        assertEquals("""
+                {"id":11,"name":"Iphone 15","description":"Iphone, \\"pro\\"","price":15000.00,"amount":10}
+                {"id":12,"name":"Notebook","description":"Lenovo","price":4000.50,"amount":20}
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @DisplayName("Export Csv Should Quote Fields With Separators")
+    @Test
+    void exportCsv_ShouldQuoteFieldsWithSeparators() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        productExportService.export(out, ProductExportService.Format.CSV, 10L);
+
+        // Assert
+        assertEquals("""
+                id,name,description,price,amount
+                11,Iphone 15,"Iphone, ""pro\"\"",15000.00,10
+                12,Notebook,Lenovo,4000.50,20
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,109 @@
+package dorotech.service;
+
+import dorotech.domain.ProductChangedEvent;
+import dorotech.dto.ProductFacetResponse;
+import dorotech.dto.ProductResponse;
+import dorotech.exceptions.exception.InvalidFilterException;
+import dorotech.repository.ProductExportRepository;
+import dorotech.repository.ProductRowHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductFacetIndexTest {
+    @Mock
+    private ProductExportRepository productExportRepository;
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex(productExportRepository, List.of(new BigDecimal("10"), new BigDecimal("50")));
+        // ids 1..100 priced id dollars, every fourth product out of stock
+        when(productExportRepository.streamAfter(eq(0L), any(ProductRowHandler.class))).thenAnswer(invocation -> {
+            ProductRowHandler handler = invocation.getArgument(1);
+            for (long id = 1; id <= 100; id++) {
+                handler.accept(id, "Product" + id, "Description", id * 100, id % 4 == 0 ? 0 : 5);
+            }
+            return 100L;
+        });
+        index.reload();
+    }
+
+    @DisplayName("Facets Should Count Each Value Under The Other Facets' Filters")
+    @Test
+    void query_ShouldCombineFiltersAndCountFacets() {
+        // Act
+        ProductFacetResponse all = index.query(List.of(), List.of(), null, 0);
+        ProductFacetResponse filtered = index.query(List.of("out"), List.of("10-50", "50+"), null, 100);
+
+        // Assert
+        assertEquals(100, all.total());
+        assertEquals(List.of(new ProductFacetResponse.FacetCount("in", 75), new ProductFacetResponse.FacetCount("out", 25)),
+                all.stock());
+        assertEquals(List.of(9L, 40L, 51L), all.price().stream().map(ProductFacetResponse.PriceBucketCount::count).toList());
+        assertEquals("0-10", all.price().get(0).value());
+        assertNull(all.price().get(2).to());
+        assertTrue(all.ids().isEmpty());
+
+        assertEquals(23, filtered.total());
+        assertEquals(LongStream.rangeClosed(12, 100).filter(id -> id % 4 == 0).boxed().toList(), filtered.ids());
+        assertEquals(List.of(new ProductFacetResponse.FacetCount("in", 68), new ProductFacetResponse.FacetCount("out", 23)),
+                filtered.stock());
+        assertEquals(List.of(2L, 10L, 13L), filtered.price().stream().map(ProductFacetResponse.PriceBucketCount::count).toList());
+        assertNull(filtered.nextAfter());
+    }
+
+    @DisplayName("Id Pages Should Follow The Cursor")
+    @Test
+    void query_ShouldPageIdsAfterCursor() {
+        // Act
+        ProductFacetResponse first = index.query(List.of("in"), null, null, 30);
+        ProductFacetResponse second = index.query(List.of("in"), null, first.nextAfter(), 30);
+
+        // Assert
+        assertEquals(30, first.ids().size());
+        assertEquals(39L, first.nextAfter());
+        assertEquals(41L, second.ids().get(0));
+        assertTrue(second.ids().stream().noneMatch(id -> id % 4 == 0));
+    }
+
+    @DisplayName("Writes Should Move Products Between Facet Values")
+    @Test
+    void onProductChanged_ShouldKeepBitmapsCurrent() {
+        // Act
+        index.onProductChanged(ProductChangedEvent.updated(new ProductResponse(4L, "Product4", "Description", 7_000L, 3L)));
+        index.onProductChanged(ProductChangedEvent.deleted(8L));
+        index.onProductChanged(ProductChangedEvent.created(new ProductResponse(500L, "New", "Description", 500L, 0L)));
+        index.onProductChanged(ProductChangedEvent.created(new ProductResponse(50L, "Replacement", "Description", 100L, 0L)));
+        index.onProductChanged(ProductChangedEvent.created(new ProductResponse(0L, "Early", "Description", 100L, 0L)));
+        ProductFacetResponse out = index.query(List.of("out"), List.of("0-10"), null, 100);
+
+        // Assert
+        assertEquals(List.of(0L, 50L, 500L), out.ids());
+        assertEquals(101, index.query(null, null, null, 0).total());
+        assertFalse(index.query(List.of("in"), List.of("50+"), null, 100).ids().contains(8L));
+        assertTrue(index.query(List.of("in"), List.of("50+"), null, 100).ids().contains(4L));
+    }
+
+    @DisplayName("Unknown Facet Values Should Be Rejected")
+    @Test
+    void query_ShouldRejectUnknownValues() {
+        // Act & Assert
+        assertThrows(InvalidFilterException.class, () -> index.query(List.of("maybe"), null, null, 10));
+        assertThrows(InvalidFilterException.class, () -> index.query(null, List.of("5-10"), null, 10));
+    }
+}
@@ -0,0 +1,147 @@
+package dorotech.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dorotech.dto.ImportJobResponse;
+import dorotech.dto.ProductRequest;
+import dorotech.repository.ProductBatchRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+    @Mock
+    private ProductBatchRepository productBatchRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ProductImportService productImportService;
+
+    @BeforeEach
+    void setUp() {
+        productImportService = new ProductImportService(
+                productBatchRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                eventPublisher,
+                new ObjectMapper(),
+                2, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productImportService.destroy();
+    }
+
+    @DisplayName("Import Csv Should Parse Quoted Fields And Write In Batches")
+    @Test
+    void importCsv_ShouldParseQuotedFieldsAndWriteInBatches() {
+        // Arrange
+        String csv = """
+                name,description,price,amount
+                Iphone 15,"Iphone, 256gb \"\"pro\"\"",15000,10
+                Notebook,"Notebook
+                Lenovo",4000.5,20
+                Mouse,Wireless mouse,50,30
+                """;
+
+        // Act
+        ImportJobResponse result = productImportService.importProducts(stream(csv), ProductImportService.Format.CSV);
+
+        // Assert
+        assertEquals("COMPLETED", result.status());
+        assertEquals(3, result.linesRead());
+        assertEquals(3, result.imported());
+        assertEquals(0, result.failed());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ProductRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(productBatchRepository, times(2)).upsertAll(captor.capture());
+        ProductRequest first = captor.getAllValues().stream()
+                .flatMap(List::stream)
+                .filter(p -> p.name().equals("Iphone 15"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("Iphone, 256gb \"pro\"", first.description());
+    }
+
+    @DisplayName("Import Ndjson Should Report Invalid Lines")
+    @Test
+    void importNdjson_ShouldReportInvalidLines() {
+        // Arrange
+        String ndjson = """
+                {"name":"Iphone 15","description":"Iphone 256gb","price":15000,"amount":10}
+                {"name":"","description":"No name","price":10,"amount":1}
+                not json
+                {"name":"Notebook","description":"Lenovo","price":-1,"amount":20}
+                """;
+
+        // Act
+        ImportJobResponse result = productImportService.importProducts(stream(ndjson), ProductImportService.Format.NDJSON);
+
+        // Assert
+        assertEquals(4, result.linesRead());
+        assertEquals(1, result.imported());
+        assertEquals(3, result.failed());
+        assertEquals(List.of(2L, 3L, 4L), result.errors().stream().map(e -> e.line()).sorted().toList());
+    }
+
+    @DisplayName("Import When Batch Fails Should Isolate Failing Rows")
+    @Test
+    void import_WhenBatchFails_ShouldIsolateFailingRows() {
+        // Arrange
+        String csv = """
+                name,description,price,amount
+                Iphone 15,Iphone,15000,10
+                Notebook,Lenovo,4000,20
+                """;
+        doAnswer(invocation -> {
+            List<ProductRequest> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(p -> p.name().equals("Notebook"))) {
+                throw new DataIntegrityViolationException("Data too long");
+            }
+            return null;
+        }).when(productBatchRepository).upsertAll(anyList());
+
+        // Act
+        ImportJobResponse result = productImportService.importProducts(stream(csv), ProductImportService.Format.CSV);
+
+        // Assert
+        assertEquals(1, result.imported());
+        assertEquals(1, result.failed());
+        assertEquals(3L, result.errors().get(0).line());
+    }
+
+    @DisplayName("Import Csv Without Required Columns Should Fail Job")
+    @Test
+    void importCsv_WithoutRequiredColumns_ShouldFailJob() {
+        // Act
+        ImportJobResponse result = productImportService.importProducts(stream("name,price\nA,1\n"),
+                ProductImportService.Format.CSV);
+
+        // Assert
+        assertEquals("FAILED", result.status());
+        assertEquals(result, productImportService.findJob(result.id()));
+        verifyNoInteractions(productBatchRepository);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
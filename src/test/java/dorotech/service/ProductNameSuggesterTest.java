@@ -0,0 +1,123 @@
+package dorotech.service;
+
+import dorotech.domain.ProductChangedEvent;
+import dorotech.dto.ProductResponse;
+import dorotech.dto.ProductSuggestion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static dorotech.mocks.ProductCatalogMock.exportRepository;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductNameSuggesterTest {
+    private static final int TOP_K = 5;
+    private static final Comparator<ProductResponse> BY_STOCK = Comparator.comparing(ProductResponse::amount).reversed()
+            .thenComparing(ProductResponse::name)
+            .thenComparing(ProductResponse::id);
+
+    @DisplayName("Suggest Should Return Most Stocked Names With The Prefix")
+    @Test
+    void suggest_ShouldReturnMostStockedNamesWithThePrefix() {
+        // Arrange
+        Map<Long, ProductResponse> catalog = new TreeMap<>();
+        add(catalog, 1, "Iphone 13", 5);
+        add(catalog, 2, "Iphone 15", 50);
+        add(catalog, 3, "iPad Air", 20);
+        add(catalog, 4, "Notebook", 100);
+        ProductNameSuggester suggester = loaded(catalog);
+
+        // Act
+        List<ProductSuggestion> suggestions = suggester.suggest("IP", 10);
+
+        // Assert
+        assertEquals(List.of("Iphone 15", "iPad Air", "Iphone 13"), suggestions.stream().map(ProductSuggestion::name).toList());
+        assertEquals(List.of(), suggester.suggest("iphone 16", 10));
+        assertEquals(1, suggester.suggest("iphone 1", 1).size());
+    }
+
+    @DisplayName("Events Should Rename Restock And Remove Suggestions")
+    @Test
+    void events_ShouldRenameRestockAndRemoveSuggestions() {
+        // Arrange
+        Map<Long, ProductResponse> catalog = new TreeMap<>();
+        add(catalog, 1, "Mouse", 5);
+        add(catalog, 2, "Monitor", 50);
+        ProductNameSuggester suggester = loaded(catalog);
+
+        // Act
+        suggester.onProductChanged(ProductChangedEvent.updated(new ProductResponse(1L, "Keyboard", "D", 1L, 5L)));
+        suggester.onProductChanged(ProductChangedEvent.updated(new ProductResponse(2L, "Monitor", "D", 1L, 7L)));
+        suggester.onProductChanged(ProductChangedEvent.created(new ProductResponse(3L, "Modem", "D", 1L, 9L)));
+        suggester.onProductChanged(ProductChangedEvent.deleted(3L));
+
+        // Assert
+        assertEquals(List.of(new ProductSuggestion(2L, "Monitor", 7L)), suggester.suggest("mo", 10));
+        assertEquals(List.of(new ProductSuggestion(1L, "Keyboard", 5L)), suggester.suggest("k", 10));
+    }
+
+    @DisplayName("Random Changes Should Match A Brute Force Scan")
+    @Test
+    void randomChanges_ShouldMatchABruteForceScan() {
+        // Arrange
+        SplittableRandom random = new SplittableRandom(7);
+        Map<Long, ProductResponse> catalog = new TreeMap<>();
+        for (long id = 1; id <= 500; id++) add(catalog, id, randomName(random), random.nextLong(100));
+        ProductNameSuggester suggester = loaded(catalog);
+
+        // Act
+        for (int step = 0; step < 3_000; step++) {
+            long id = 1 + random.nextLong(600);
+            if (random.nextInt(4) == 0) {
+                catalog.remove(id);
+                suggester.onProductChanged(ProductChangedEvent.deleted(id));
+                continue;
+            }
+            String name = randomName(random);
+            boolean taken = catalog.values().stream()
+                    .anyMatch(p -> p.id() != id && p.name().equalsIgnoreCase(name));
+            if (taken) continue;
+            ProductResponse product = new ProductResponse(id, name, "D", 1L, random.nextLong(100));
+            boolean exists = catalog.put(id, product) != null;
+            suggester.onProductChanged(exists ? ProductChangedEvent.updated(product) : ProductChangedEvent.created(product));
+        }
+
+        // Assert
+        for (String prefix : List.of("", "a", "b", "ab", "ba", "abc", "ca", "cab", "x")) {
+            List<ProductSuggestion> expected = catalog.values().stream()
+                    .filter(p -> p.name().toLowerCase(Locale.ROOT).startsWith(prefix))
+                    .sorted(BY_STOCK)
+                    .limit(TOP_K)
+                    .map(p -> new ProductSuggestion(p.id(), p.name(), p.amount()))
+                    .toList();
+            assertEquals(expected, suggester.suggest(prefix, TOP_K), "prefix '" + prefix + "'");
+        }
+    }
+
+    private static String randomName(SplittableRandom random) {
+        StringBuilder name = new StringBuilder();
+        int length = 1 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            char c = (char) ('a' + random.nextInt(3));
+            name.append(random.nextInt(5) == 0 ? Character.toUpperCase(c) : c);
+        }
+        return name.toString();
+    }
+
+    private static void add(Map<Long, ProductResponse> catalog, long id, String name, long amount) {
+        catalog.values().removeIf(p -> p.name().equalsIgnoreCase(name));
+        catalog.put(id, new ProductResponse(id, name, "D", 1L, amount));
+    }
+
+    private static ProductNameSuggester loaded(Map<Long, ProductResponse> catalog) {
+        ProductNameSuggester suggester = new ProductNameSuggester(exportRepository(catalog), TOP_K);
+        suggester.reload();
+        return suggester;
+    }
+}
@@ -0,0 +1,146 @@
+package dorotech.service;
+
+import dorotech.domain.RepricingJob;
+import dorotech.dto.RepricingJobRequest;
+import dorotech.repository.JdbcRepricingJobRepository;
+import dorotech.repository.RepricingJobRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ProductRepricingServiceTest {
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private JdbcTemplate jdbcTemplate;
+    private RepricingJobRepository repository;
+    private ProductRepricingService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:repricing-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__create_table_products.sql"));
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V3__add_products_version.sql"));
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V4__create_table_repricing_jobs.sql"));
+        }
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // ids 1..95 priced id dollars
+        for (int id = 1; id <= 95; id++) {
+            jdbcTemplate.update("INSERT INTO products (name, description, price, amount) VALUES (?, 'Description', ?, 1)",
+                    "Product" + id, BigDecimal.valueOf(id));
+        }
+        repository = new JdbcRepricingJobRepository(jdbcTemplate);
+        service = new ProductRepricingService(repository, eventPublisher, 10, Duration.ofMillis(200), 0, 1);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        jdbcTemplate.execute("SHUTDOWN");
+        service.destroy();
+    }
+
+    @DisplayName("Run Should Reprice Matching Products Chunk By Chunk And Complete")
+    @Test
+    void run_ShouldRepriceMatchingProductsAndComplete() {
+        // Arrange
+        RepricingJob job = repository.create(2_000L, 5_000L, RepricingJob.Operation.PERCENT, new BigDecimal("3"));
+
+        // Act
+        service.run(job);
+
+        // Assert
+        RepricingJob finished = repository.findById(job.id()).orElseThrow();
+        assertEquals(RepricingJob.Status.COMPLETED, finished.status());
+        assertEquals(95, finished.scannedRows());
+        assertEquals(31, finished.updatedRows());
+        assertEquals(95, finished.lastId());
+        assertNotNull(finished.finishedAt());
+        assertEquals(new BigDecimal("19.00"), price(19));
+        assertEquals(new BigDecimal("20.60"), price(20));
+        assertEquals(new BigDecimal("51.50"), price(50));
+        assertEquals(new BigDecimal("51.00"), price(51));
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT version FROM products WHERE id = 20", Long.class));
+        verify(eventPublisher).publishEvent(any(Object.class));
+    }
+
+    @DisplayName("A Resumed Job Should Continue After The Last Committed Chunk")
+    @Test
+    void run_ShouldResumeAfterLastCommittedChunkWithoutRepricingTwice() {
+        // Arrange
+        RepricingJob job = repository.create(0L, 99_999_999L, RepricingJob.Operation.ADD, new BigDecimal("1"));
+        RepricingJobRepository.Chunk first = repository.nextChunk(job.lastId(), job.maxId(), 10);
+        repository.applyChunk(job, first.toId(), first.rows());
+
+        // Act
+        service.run(job);
+        service.run(repository.findById(job.id()).orElseThrow());
+
+        // Assert
+        RepricingJob finished = repository.findById(job.id()).orElseThrow();
+        assertEquals(RepricingJob.Status.COMPLETED, finished.status());
+        assertEquals(95, finished.updatedRows());
+        assertEquals(List.of(new BigDecimal("2.00"), new BigDecimal("11.00"), new BigDecimal("12.00"), new BigDecimal("96.00")),
+                List.of(price(1), price(10), price(11), price(95)));
+    }
+
+    @DisplayName("A Cancelled Job Should Stop Before Its Next Chunk")
+    @Test
+    void cancelJob_ShouldStopTheJobBeforeItsNextChunk() {
+        // Arrange
+        RepricingJob job = repository.create(0L, 99_999_999L, RepricingJob.Operation.SET, new BigDecimal("9.99"));
+
+        // Act
+        service.cancelJob(job.id());
+        service.run(job);
+
+        // Assert
+        RepricingJob cancelled = repository.findById(job.id()).orElseThrow();
+        assertEquals(RepricingJob.Status.CANCELLED, cancelled.status());
+        assertEquals(0, cancelled.updatedRows());
+        assertEquals(new BigDecimal("1.00"), price(1));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @DisplayName("Requests Should Reject Inverted Ranges And Out Of Range Values")
+    @Test
+    void request_ShouldRejectInvertedRangesAndOutOfRangeValues() {
+        // Arrange
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        // Act & Assert
+        assertTrue(validator.validate(new RepricingJobRequest(1_000L, 2_000L, RepricingJob.Operation.PERCENT, new BigDecimal("-12.5"))).isEmpty());
+        assertFalse(validator.validate(new RepricingJobRequest(2_000L, 1_000L, RepricingJob.Operation.ADD, BigDecimal.ONE)).isEmpty());
+        assertFalse(validator.validate(new RepricingJobRequest(null, null, RepricingJob.Operation.PERCENT, new BigDecimal("-100"))).isEmpty());
+        assertFalse(validator.validate(new RepricingJobRequest(null, null, RepricingJob.Operation.ADD, new BigDecimal("0.001"))).isEmpty());
+        assertFalse(validator.validate(new RepricingJobRequest(null, null, RepricingJob.Operation.SET, BigDecimal.ZERO)).isEmpty());
+    }
+
+    private BigDecimal price(long id) {
+        return jdbcTemplate.queryForObject("SELECT price FROM products WHERE id = ?", BigDecimal.class, id);
+    }
+}
@@ -1,12 +1,17 @@
 package dorotech.service;
 
 import dorotech.domain.Product;
+import dorotech.domain.ProductChangedEvent;
+import dorotech.dto.ProductBatchResponse;
 import dorotech.dto.ProductRequest;
 import dorotech.dto.ProductResponse;
 import dorotech.dto.ProductUpdateDTO;
+import dorotech.dto.ProductUpsertResponse;
 import dorotech.exceptions.exception.EntityExistsException;
 import dorotech.exceptions.exception.EntityNotFoundException;
 import dorotech.mocks.ProductMock;
+import dorotech.repository.ProductBatchRepository;
+import dorotech.repository.ProductProjectionRepository;
 import dorotech.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,8 +20,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +35,21 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductBatchLoader productBatchLoader;
+
+    @Mock
+    private ProductBatchRepository productBatchRepository;
+
+    @Mock
+    private ProductProjectionRepository productProjectionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private LowStockMonitor lowStockMonitor;
+
     @InjectMocks
     private ProductService productService;
 
@@ -45,12 +67,12 @@ class ProductServiceTest {
         ProductRequest productRequest = new ProductRequest(
                 product.getName(),
                 product.getDescription(),
-                product.getPrice(),
+                product.getPriceCents(),
                 product.getAmount()
         );
         String expectedName = "Product";
         String expectedDescription = "Description Product";
-        Double expectedPrice = 10D;
+        Long expectedPriceCents = 1000L;
         Long expectedAmount = 10L;
         when(productRepository.save(any(Product.class))).thenReturn(product);
 
@@ -61,7 +83,7 @@ class ProductServiceTest {
         assertNotNull(result);
         assertEquals(expectedName, result.name());
         assertEquals(expectedDescription, result.description());
-        assertEquals(expectedPrice, result.price());
+        assertEquals(expectedPriceCents, result.priceCents());
         assertEquals(expectedAmount, result.amount());
         verify(productRepository, times(1)).save(any(Product.class));
     }
@@ -73,7 +95,7 @@ class ProductServiceTest {
         ProductRequest productRequest = new ProductRequest(
                 product.getName(),
                 product.getDescription(),
-                product.getPrice(),
+                product.getPriceCents(),
                 product.getAmount()
         );
         when(productRepository.save(any(Product.class))).thenThrow(DataIntegrityViolationException.class);
@@ -93,9 +115,9 @@ class ProductServiceTest {
         // Arrange
         String expectedName = "Product";
         String expectedDescription = "Description Product";
-        Double expectedPrice = 10D;
+        Long expectedPriceCents = 1000L;
         Long expectedAmount = 10L;
-        when(productRepository.findById(anyLong())).thenReturn(Optional.of(product));
+        when(productBatchLoader.load(anyLong())).thenReturn(Optional.of(product));
 
         // Act
         var result = productService.findById(1L);
@@ -104,7 +126,7 @@ class ProductServiceTest {
         assertNotNull(result);
         assertEquals(expectedName, result.name());
         assertEquals(expectedDescription, result.description());
-        assertEquals(expectedPrice, result.price());
+        assertEquals(expectedPriceCents, result.priceCents());
         assertEquals(expectedAmount, result.amount());
     }
 
@@ -113,7 +135,7 @@ class ProductServiceTest {
     void findById_WhenIdNotExisting_ShouldThrowEntityNotFoundException() {
         // Arrange
         String expectedMessage = "Product Not Found";
-        when(productRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(productBatchLoader.load(anyLong())).thenReturn(Optional.empty());
 
         // Act / Assert
         EntityNotFoundException exception = assertThrowsExactly(EntityNotFoundException.class,
@@ -122,6 +144,38 @@ class ProductServiceTest {
         assertEquals(expectedMessage, exception.getMessage(), () -> "The Expected Message is " + expectedMessage);
     }
 
+    @DisplayName("FindAllByIds Should Keep Request Order And Report Missing Ids")
+    @Test
+    void findAllByIds_ShouldKeepRequestOrderAndReportMissingIds() {
+        // Arrange
+        List<Product> mockProducList = ProductMock.mockProductList(3);
+        when(productRepository.findAllById(anyIterable())).thenReturn(mockProducList);
+
+        // Act
+        ProductBatchResponse result = productService.findAllByIds(List.of(2L, 7L, 0L, 2L, 1L));
+
+        // Assert
+        assertEquals(List.of(2L, 0L, 1L), result.products().stream().map(ProductResponse::id).toList());
+        assertEquals(List.of(7L), result.missingIds());
+        verify(productRepository, times(1)).findAllById(anyIterable());
+    }
+
+    @DisplayName("FindAllByIds Should Chunk Large Id Lists")
+    @Test
+    void findAllByIds_ShouldChunkLargeIdLists() {
+        // Arrange
+        List<Long> ids = new ArrayList<>();
+        for (long i = 0; i < 1200; i++) ids.add(i);
+        when(productRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        // Act
+        ProductBatchResponse result = productService.findAllByIds(ids);
+
+        // Assert
+        assertEquals(1200, result.missingIds().size());
+        verify(productRepository, times(3)).findAllById(anyIterable());
+    }
+
     @DisplayName("FindAll Should Return List Of Product Response")
     @Test
     void findAll_ShouldReturnListOfProductResponse() {
@@ -148,8 +202,8 @@ class ProductServiceTest {
             assertEquals(originalProduct.getDescription(), resultProduct.description(),
                     () -> "The Expected Description is " + originalProduct.getDescription());
 
-            assertEquals(originalProduct.getPrice(), resultProduct.price(),
-                    () -> "The Expected Price is " + originalProduct.getPrice());
+            assertEquals(originalProduct.getPriceCents(), resultProduct.priceCents(),
+                    () -> "The Expected Price is " + originalProduct.getPriceCents());
 
             assertEquals(originalProduct.getAmount(), resultProduct.amount(),
                     () -> "The Expected Amount is " + originalProduct.getAmount());
@@ -166,6 +220,7 @@ class ProductServiceTest {
         productService.deleteProduct(1L);
         // Assert
         verify(productRepository, times(1)).deleteById(anyLong());
+        verify(eventPublisher, times(1)).publishEvent(ProductChangedEvent.deleted(1L));
 
     }
 
@@ -197,7 +252,7 @@ class ProductServiceTest {
                 product.getId(),
                 "Iphone 15",
                 product.getDescription(),
-                product.getPrice(),
+                product.getPriceCents(),
                 20L
         );
 
@@ -212,12 +267,26 @@ class ProductServiceTest {
         assertNotNull(result);
         assertEquals(updatedProduct.getName(), result.name());
         assertEquals(updatedProduct.getDescription(), result.description());
-        assertEquals(updatedProduct.getPrice(), result.price());
+        assertEquals(updatedProduct.getPriceCents(), result.priceCents());
         assertEquals(updatedProduct.getAmount(), result.amount());
 
         verify(productRepository, times(1)).save(any(Product.class));
     }
 
+    @DisplayName("UpdateProduct Should Hand The Amount Before And After To The Low Stock Monitor")
+    @Test
+    void updateProduct_ShouldReportAmountChangeToLowStockMonitor() {
+        // Arrange
+        long amountBefore = product.getAmount();
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        // Act
+        productService.updateProduct(new ProductUpdateDTO(null, null, null, 3L), 1L);
+
+        // Assert
+        verify(lowStockMonitor).amountChanged(1L, amountBefore, 3L);
+    }
+
     @DisplayName("UpdateProduct When Id Not Exits Should Throw EntityNotFoundException")
     @Test
     void updateProduct_When_IdNotExists_ShouldThrowEntityNotFoundException() {
@@ -234,4 +303,34 @@ class ProductServiceTest {
         assertEquals(expectedMessage, exception.getMessage());
         verify(productRepository, never()).save(any(Product.class));
     }
-}
\ No newline at end of file
+
+    @DisplayName("UpsertByName Should Report Inserted And Updated Rows")
+    @Test
+    void upsertByName_ShouldReportInsertedAndUpdatedRows() {
+        // Arrange
+        List<ProductRequest> requests = List.of(
+                new ProductRequest("Iphone 15", "Iphone", 1_500_000L, 10L),
+                new ProductRequest("Notebook", "Lenovo", 400_000L, 20L)
+        );
+        when(productBatchRepository.upsertByName(requests)).thenReturn(new boolean[]{true, false});
+        when(productRepository.findAllByNameIn(List.of("Iphone 15", "Notebook"))).thenReturn(List.of(
+                new Product(7L, "Iphone 15", "Iphone", 1_500_000L, 10L),
+                new Product(3L, "Notebook", "Lenovo", 400_000L, 20L)
+        ));
+
+        // Act
+        List<ProductUpsertResponse> result = productService.upsertByName(requests);
+
+        // Assert
+        assertEquals(List.of(
+                new ProductUpsertResponse(7L, "Iphone 15", ProductUpsertResponse.Result.INSERTED),
+                new ProductUpsertResponse(3L, "Notebook", ProductUpsertResponse.Result.UPDATED)
+        ), result);
+        verify(productRepository, never()).existsByName(anyString());
+        verify(eventPublisher).publishEvent(ProductChangedEvent.created(
+                new ProductResponse(7L, "Iphone 15", "Iphone", 1_500_000L, 10L)));
+        verify(eventPublisher).publishEvent(ProductChangedEvent.updated(
+                new ProductResponse(3L, "Notebook", "Lenovo", 400_000L, 20L)));
+        verify(eventPublisher, times(2)).publishEvent(any(ProductChangedEvent.class));
+    }
+}
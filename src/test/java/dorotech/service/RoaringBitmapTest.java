@@ -0,0 +1,89 @@
+package dorotech.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoaringBitmapTest {
+
+    @DisplayName("Set Operations Should Match BitSet Across Sparse And Dense Containers")
+    @Test
+    void operations_ShouldMatchBitSet() {
+        // Arrange
+        SplittableRandom random = new SplittableRandom(7);
+        RoaringBitmap sparse = new RoaringBitmap();
+        RoaringBitmap dense = new RoaringBitmap();
+        BitSet expectedSparse = new BitSet();
+        BitSet expectedDense = new BitSet();
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(400_000);
+            sparse.add(value);
+            expectedSparse.set(value);
+        }
+        for (int value = 0; value < 300_000; value++) {
+            if (random.nextInt(3) != 0) {
+                dense.add(value);
+                expectedDense.set(value);
+            }
+        }
+
+        // Act
+        for (int i = 0; i < 50_000; i++) {
+            int value = random.nextInt(300_000);
+            dense.remove(value);
+            expectedDense.clear(value);
+        }
+        RoaringBitmap and = sparse.and(dense);
+        RoaringBitmap or = sparse.or(dense);
+
+        // Assert
+        BitSet expectedAnd = (BitSet) expectedSparse.clone();
+        expectedAnd.and(expectedDense);
+        BitSet expectedOr = (BitSet) expectedSparse.clone();
+        expectedOr.or(expectedDense);
+        assertEquals(expectedDense.cardinality(), dense.cardinality());
+        assertEquals(expectedAnd.cardinality(), and.cardinality());
+        assertEquals(expectedAnd.cardinality(), sparse.andCardinality(dense));
+        assertEquals(expectedOr.cardinality(), or.cardinality());
+        assertEquals(values(expectedAnd, 0), values(and, 0));
+        assertEquals(values(expectedOr, 131_000), values(or, 131_000));
+        for (int value = 0; value < 400_000; value += 97) {
+            assertEquals(expectedOr.get(value), or.contains(value), "contains " + value);
+        }
+    }
+
+    @DisplayName("Removing Below The Array Limit Should Keep Every Remaining Value")
+    @Test
+    void remove_ShouldShrinkDenseContainerWithoutLosingValues() {
+        // Arrange
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int value = 0; value < 5_000; value++) bitmap.add(value);
+
+        // Act
+        for (int value = 0; value < 5_000; value += 2) bitmap.remove(value);
+
+        // Assert
+        assertEquals(2_500, bitmap.cardinality());
+        assertTrue(bitmap.contains(4_999));
+        assertFalse(bitmap.contains(4_998));
+        assertEquals(List.of(1, 3, 5), values(bitmap, 0).subList(0, 3));
+    }
+
+    private static List<Integer> values(BitSet bits, int from) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = bits.nextSetBit(from); i >= 0; i = bits.nextSetBit(i + 1)) values.add(i);
+        return values;
+    }
+
+    private static List<Integer> values(RoaringBitmap bitmap, int from) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEachFrom(from, values::add);
+        return values;
+    }
+}
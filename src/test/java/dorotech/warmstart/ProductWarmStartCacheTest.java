@@ -0,0 +1,138 @@
+package dorotech.warmstart;
+
+import dorotech.domain.Product;
+import dorotech.domain.ProductChangedEvent;
+import dorotech.dto.ProductResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductWarmStartCacheTest {
+    @TempDir
+    Path directory;
+
+    private final Map<Long, Long> databaseVersions = new HashMap<>();
+
+    @DisplayName("Restarted Cache Should Serve Snapshot Rows Whose Version Still Matches The Database")
+    @Test
+    void find_ShouldServeConfirmedSnapshotRowsAfterRestart() throws Exception {
+        // Arrange
+        ProductWarmStartCache previousRun = cache();
+        for (long id = 1; id <= 3; id++) previousRun.admit(product(id, 1), previousRun.stamp());
+        previousRun.writeSnapshot();
+        databaseVersions.put(1L, 1L);
+        databaseVersions.put(2L, 2L);
+        ProductWarmStartCache restarted = cache();
+
+        // Act
+        ProductResponse beforeCheck = restarted.find(1);
+        restarted.validate();
+
+        // Assert
+        assertNull(beforeCheck);
+        assertEquals(new ProductResponse(1L, "Product1", "Description Product1", 100L, 1L), restarted.find(1));
+        assertNull(restarted.find(2), "updated since the snapshot");
+        assertNull(restarted.find(3), "deleted since the snapshot");
+    }
+
+    @DisplayName("Local Writes Should Drop Rows And Keep Racing Reads Out Of The Cache")
+    @Test
+    void onProductChanged_ShouldDropRowsAndRejectStaleAdmissions() throws Exception {
+        // Arrange
+        ProductWarmStartCache previousRun = cache();
+        previousRun.admit(product(1, 4), previousRun.stamp());
+        previousRun.writeSnapshot();
+        databaseVersions.put(1L, 4L);
+        ProductWarmStartCache cache = cache();
+        cache.validate();
+        ProductResponse beforeUpdate = cache.find(1);
+
+        // Act
+        cache.onProductChanged(ProductChangedEvent.updated(new ProductResponse(1L, "Renamed", "Description", 100L, 1L)));
+        ProductResponse afterUpdate = cache.find(1);
+        long stamp = cache.stamp();
+        cache.onProductChanged(ProductChangedEvent.deleted(2L));
+        cache.admit(product(1, 5), stamp);
+        ProductResponse afterRacingRead = cache.find(1);
+        cache.admit(product(1, 5), cache.stamp());
+
+        // Assert
+        assertNotNull(beforeUpdate);
+        assertNull(afterUpdate);
+        assertNull(afterRacingRead);
+        assertNotNull(cache.find(1));
+    }
+
+    @DisplayName("Revalidate Should Evict Entries And Rows Changed Or Deleted By Another Node")
+    @Test
+    void revalidate_ShouldEvictEntriesAndRowsChangedElsewhere() throws Exception {
+        // Arrange
+        ProductWarmStartCache previousRun = cache();
+        for (long id = 1; id <= 3; id++) previousRun.admit(product(id, 1), previousRun.stamp());
+        previousRun.writeSnapshot();
+        for (long id = 1; id <= 3; id++) databaseVersions.put(id, 1L);
+        ProductWarmStartCache cache = cache();
+        cache.validate();
+        cache.admit(product(10, 1), cache.stamp());
+        cache.admit(product(11, 1), cache.stamp());
+        databaseVersions.put(10L, 1L);
+        databaseVersions.put(11L, 1L);
+
+        // Act
+        databaseVersions.put(2L, 2L);
+        databaseVersions.remove(3L);
+        databaseVersions.put(11L, 2L);
+        cache.revalidate();
+
+        // Assert
+        assertNotNull(cache.find(1));
+        assertNull(cache.find(2), "repriced on another node");
+        assertNull(cache.find(3), "deleted on another node");
+        assertNotNull(cache.find(10));
+        assertNull(cache.find(11), "updated on another node after it was read here");
+    }
+
+    @DisplayName("Unreadable Snapshot Should Be Ignored And Replaced On The Next Write")
+    @Test
+    void cache_ShouldIgnoreCorruptSnapshot() throws Exception {
+        // Arrange
+        Path snapshot = directory.resolve("products.snapshot");
+        Files.write(snapshot, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20,
+                21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47, 48});
+
+        // Act
+        ProductWarmStartCache cache = cache();
+        cache.validate();
+        cache.admit(product(7, 0), cache.stamp());
+        cache.writeSnapshot();
+        WarmStartFile rewritten = WarmStartFile.open(snapshot);
+
+        // Assert
+        assertNotNull(rewritten);
+        assertEquals(1, rewritten.size());
+        assertEquals(7, rewritten.id(0));
+        assertEquals("Description Product7", rewritten.read(0).description());
+    }
+
+    private ProductWarmStartCache cache() {
+        return new ProductWarmStartCache((ids, handler) -> ids.forEach(id -> {
+            Long version = databaseVersions.get(id);
+            if (version != null) handler.accept(id, version);
+        }), directory.resolve("products.snapshot").toString(), Duration.ofMinutes(5), Duration.ofSeconds(30), 1_000);
+    }
+
+    private static Product product(long id, long version) {
+        Product product = new Product(id, "Product" + id, "Description Product" + id, id * 100, id);
+        ReflectionTestUtils.setField(product, "version", version);
+        return product;
+    }
+}